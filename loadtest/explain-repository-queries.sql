@@ -0,0 +1,91 @@
+-- Query plans for every ConfigurationRepository query at 1M configurations.
+--
+-- Run against a SCRATCH database that Flyway has migrated (it inserts 1M rows):
+--   psql -d configdb_explain -v ON_ERROR_STOP=1 -f loadtest/explain-repository-queries.sql > explain.txt
+-- Attach the output to PRs that touch the schema or these queries. The statements mirror the SQL Hibernate
+-- generates (spring.jpa.show-sql=true prints it); the expected plan node is noted above each one.
+
+\timing on
+
+-- 1000 applications x 10 environments x 100 names, ~1KB of JSON content each
+INSERT INTO configurations (id, name, application, environment, version, content, created_at, updated_at)
+SELECT gen_random_uuid(),
+       'name-' || n,
+       'app-' || a,
+       'env-' || e,
+       1 + (n % 7),
+       '{"key":"' || repeat(md5(a::text || e::text || n::text), 30) || '"}',
+       NOW(), NOW()
+FROM generate_series(1, 1000) a, generate_series(1, 10) e, generate_series(1, 100) n;
+
+VACUUM ANALYZE configurations;
+
+SELECT id AS sample_id, version AS sample_version FROM configurations WHERE application = 'app-500' LIMIT 1 \gset
+
+-- findById / loadAndCache: Index Scan using configurations_pkey
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM configurations WHERE id = :'sample_id';
+
+-- findAllById (batch-get misses): Index Scan using configurations_pkey, id = ANY
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM configurations
+WHERE id IN (SELECT id FROM configurations WHERE application = 'app-7' AND environment = 'env-3' LIMIT 100);
+
+-- findVersionById (If-None-Match on one configuration): Index Scan using configurations_pkey
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, version FROM configurations WHERE id = :'sample_id';
+
+-- findByApplicationAndEnvironment (namespace reads, snapshot builds): Index Scan using uq_configurations_app_env_name
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM configurations WHERE application = 'app-500' AND environment = 'env-5';
+
+-- findVersionsByApplicationAndEnvironment (namespace ETag): Index Only Scan using uq_configurations_app_env_name
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, version FROM configurations WHERE application = 'app-500' AND environment = 'env-5';
+
+-- findByApplicationAndEnvironmentAndName: Index Scan using uq_configurations_app_env_name, at most one row
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM configurations WHERE application = 'app-500' AND environment = 'env-5' AND name = 'name-42';
+
+-- findAllByName: Index Scan using idx_configurations_name (was a Seq Scan before V5)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM configurations WHERE name = 'name-42';
+
+-- Name-filtered version listing (conditional list by name): Index Only Scan using idx_configurations_name
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, version FROM configurations WHERE name = 'name-42';
+
+-- Keyset page inside a namespace (limit=100 with a cursor): Index Scan using uq_configurations_app_env_name,
+-- Incremental Sort on the trailing id
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM configurations
+WHERE application = 'app-500' AND environment = 'env-5' AND (name, id) > ('name-50', '00000000-0000-0000-0000-000000000000')
+ORDER BY application, environment, name, id
+LIMIT 101;
+
+-- updateIfVersion: Update on configurations -> Index Scan using configurations_pkey
+BEGIN;
+EXPLAIN (ANALYZE, BUFFERS)
+UPDATE configurations
+SET content = '{"key":"changed"}', version = :sample_version + 1, updated_at = NOW()
+WHERE id = :'sample_id' AND version = :sample_version;
+ROLLBACK;
+
+-- deleteIfVersion: Delete on configurations -> Index Scan using configurations_pkey
+BEGIN;
+EXPLAIN (ANALYZE, BUFFERS)
+DELETE FROM configurations WHERE id = :'sample_id' AND version = :sample_version;
+ROLLBACK;
+
+-- Unique key: a second row for an existing key is rejected
+BEGIN;
+\set ON_ERROR_STOP off
+INSERT INTO configurations (id, name, application, environment, version, content, created_at, updated_at)
+VALUES (gen_random_uuid(), 'name-42', 'app-500', 'env-5', 1, '{}', NOW(), NOW());
+\set ON_ERROR_STOP on
+ROLLBACK;
+
+-- Footprint after the overhaul
+SELECT indexrelname, pg_size_pretty(pg_relation_size(indexrelid)) AS size
+FROM pg_stat_user_indexes WHERE relname = 'configurations' ORDER BY indexrelname;
+SELECT pg_size_pretty(pg_table_size('configurations')) AS table_with_toast;
@@ -0,0 +1,58 @@
+-- wrk script for the configuration read path: GET by id over a pool of existing ids.
+--
+--   curl -s "http://localhost:8080/api/v1/configurations/?limit=1000" | jq -r '.configurations[].id' > loadtest/ids.txt
+--   wrk -t8 -c2000 -d60s -s loadtest/get-by-id.lua http://localhost:8080
+--
+-- Environment: IDS (file with one id per line, default loadtest/ids.txt),
+-- ACCEPT (default application/json, e.g. application/cbor), ENCODING (e.g. gzip).
+
+local ids = {}
+
+local function load_ids()
+    local file = io.open(os.getenv("IDS") or "loadtest/ids.txt", "r")
+    if not file then
+        error("no id file, see the header of loadtest/get-by-id.lua")
+    end
+    for line in file:lines() do
+        if #line > 0 then
+            ids[#ids + 1] = line
+        end
+    end
+    file:close()
+    if #ids == 0 then
+        error("id file is empty")
+    end
+end
+
+local threads = 0
+
+setup = function(thread)
+    threads = threads + 1
+    thread:set("thread_id", threads)
+end
+
+init = function(args)
+    load_ids()
+    math.randomseed(os.time() + (thread_id or 0))
+    wrk.headers["Accept"] = os.getenv("ACCEPT") or "application/json"
+    local encoding = os.getenv("ENCODING")
+    if encoding then
+        wrk.headers["Accept-Encoding"] = encoding
+    end
+end
+
+request = function()
+    return wrk.format("GET", "/api/v1/configurations/" .. ids[math.random(#ids)])
+end
+
+-- One summary line per run, easy to diff between the default and virtual-threads profiles
+done = function(summary, latency, requests)
+    local errors = summary.errors.connect + summary.errors.read + summary.errors.write
+            + summary.errors.timeout + summary.errors.status
+    io.write(string.format(
+            "RESULT requests=%d rps=%.0f p50=%.2fms p90=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms errors=%d\n",
+            summary.requests, summary.requests / (summary.duration / 1e6),
+            latency:percentile(50) / 1000, latency:percentile(90) / 1000,
+            latency:percentile(99) / 1000, latency:percentile(99.9) / 1000,
+            latency.max / 1000, errors))
+end
@@ -0,0 +1,66 @@
+-- wrk script for a mixed read/write load: GET by id plus PATCH of the content over a pool of existing ids.
+-- Used to compare the servlet (default) and reactive profiles, see "Reactive variant" in the README.
+--
+--   curl -s "http://localhost:8080/api/v1/configurations/?limit=1000" | jq -r '.configurations[].id' > loadtest/ids.txt
+--   wrk -t8 -c2000 -d60s -s loadtest/read-write-mix.lua http://localhost:8080
+--
+-- Environment: IDS (file with one id per line, default loadtest/ids.txt),
+-- WRITE_RATIO (share of PATCH requests, default 0.1). Writes carry no If-Match; a 409 from a lost retry
+-- counts as an error.
+
+local ids = {}
+
+local function load_ids()
+    local file = io.open(os.getenv("IDS") or "loadtest/ids.txt", "r")
+    if not file then
+        error("no id file, see the header of loadtest/read-write-mix.lua")
+    end
+    for line in file:lines() do
+        if #line > 0 then
+            ids[#ids + 1] = line
+        end
+    end
+    file:close()
+    if #ids == 0 then
+        error("id file is empty")
+    end
+end
+
+local threads = 0
+local write_ratio = 0.1
+local writes = 0
+
+setup = function(thread)
+    threads = threads + 1
+    thread:set("thread_id", threads)
+end
+
+init = function(args)
+    load_ids()
+    math.randomseed(os.time() + (thread_id or 0))
+    write_ratio = tonumber(os.getenv("WRITE_RATIO") or "0.1")
+    wrk.headers["Accept"] = "application/json"
+end
+
+request = function()
+    local path = "/api/v1/configurations/" .. ids[math.random(#ids)]
+    if math.random() >= write_ratio then
+        return wrk.format("GET", path)
+    end
+
+    writes = writes + 1
+    local body = string.format('{"content":"{\\"loadtest\\":%d,\\"thread\\":%d}"}', writes, thread_id or 0)
+    return wrk.format("PATCH", path, { ["Content-Type"] = "application/json" }, body)
+end
+
+-- Same summary line as get-by-id.lua
+done = function(summary, latency, requests)
+    local errors = summary.errors.connect + summary.errors.read + summary.errors.write
+            + summary.errors.timeout + summary.errors.status
+    io.write(string.format(
+            "RESULT requests=%d rps=%.0f p50=%.2fms p90=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms errors=%d\n",
+            summary.requests, summary.requests / (summary.duration / 1e6),
+            latency:percentile(50) / 1000, latency:percentile(90) / 1000,
+            latency:percentile(99) / 1000, latency:percentile(99.9) / 1000,
+            latency.max / 1000, errors))
+end
@@ -0,0 +1,67 @@
+package com.company.svc.benchmark;
+
+import com.company.svc.model.Configuration;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic test data shared by the benchmarks.
+ */
+final class BenchmarkFixtures {
+
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789=:\n";
+
+    private BenchmarkFixtures() {
+    }
+
+    // Same setup as the Spring Boot auto-configured mapper: java.time support, ISO dates
+    static ObjectMapper objectMapper() {
+
+        return JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    static Configuration configuration(int index, int contentSize) {
+
+        OffsetDateTime now = OffsetDateTime.parse("2025-01-01T00:00:00Z").plusSeconds(index);
+
+        return Configuration.builder()
+                .id(new UUID(0x0190_0000_0000_7000L + index, 0x8000_0000_0000_0000L + index))
+                .name("feature.flag." + index)
+                .application("payments")
+                .environment("prod")
+                .version(1 + index % 7)
+                .content(content(index, contentSize))
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    static List<Configuration> configurations(int count, int contentSize) {
+
+        List<Configuration> configurations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            configurations.add(configuration(i, contentSize));
+        }
+        return configurations;
+    }
+
+    private static String content(int seed, int size) {
+
+        Random random = new Random(seed);
+        StringBuilder builder = new StringBuilder(size);
+        for (int i = 0; i < size; i++) {
+            builder.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return builder.toString();
+    }
+}
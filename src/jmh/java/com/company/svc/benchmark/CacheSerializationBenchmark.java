@@ -0,0 +1,76 @@
+package com.company.svc.benchmark;
+
+import com.company.svc.model.Configuration;
+import com.company.svc.service.codec.BinaryConfigurationCodec;
+import com.company.svc.service.codec.CompressionAlgorithm;
+import com.company.svc.service.codec.ConfigurationCodec;
+import com.company.svc.service.codec.JsonConfigurationCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trips of the cached entity through each Redis entry codec, for growing content sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheSerializationBenchmark {
+
+    @Param({"json", "binary", "binary-lz4", "binary-zstd"})
+    public String codecName;
+
+    @Param({"64", "4096", "65536"})
+    public int contentSize;
+
+    private ConfigurationCodec codec;
+    private Configuration configuration;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+
+        JsonConfigurationCodec jsonCodec = new JsonConfigurationCodec(BenchmarkFixtures.objectMapper());
+        codec = switch (codecName) {
+            case "json" -> jsonCodec;
+            case "binary" -> new BinaryConfigurationCodec(CompressionAlgorithm.NONE, 0, jsonCodec);
+            case "binary-lz4" -> new BinaryConfigurationCodec(CompressionAlgorithm.LZ4, 1024, jsonCodec);
+            case "binary-zstd" -> new BinaryConfigurationCodec(CompressionAlgorithm.ZSTD, 1024, jsonCodec);
+            default -> throw new IllegalArgumentException(codecName);
+        };
+
+        configuration = BenchmarkFixtures.configuration(42, contentSize);
+        encoded = codec.encode(configuration);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+
+        return codec.encode(configuration);
+    }
+
+    @Benchmark
+    public Configuration decode() {
+
+        return codec.decode(encoded);
+    }
+
+    @Benchmark
+    public Configuration roundTrip() {
+
+        return codec.decode(codec.encode(configuration));
+    }
+}
@@ -0,0 +1,83 @@
+package com.company.svc.benchmark;
+
+import com.company.svc.model.Configuration;
+import com.company.svc.util.ConfigurationMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping and serializing the list endpoint's response, as a single JSON document and as NDJSON lines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ConfigurationListSerializationBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    private ObjectMapper objectMapper;
+    private List<Configuration> configurations;
+
+    @Setup
+    public void setUp() {
+
+        objectMapper = BenchmarkFixtures.objectMapper();
+        configurations = BenchmarkFixtures.configurations(rows, 256);
+    }
+
+    @Benchmark
+    public void collectionResponse(Blackhole blackhole) throws Exception {
+
+        // Write to a sink so the benchmark measures serialization, not buffer growth
+        objectMapper.writeValue(new BlackholeOutputStream(blackhole),
+                ConfigurationMapper.mapToCollectionResponse(configurations));
+    }
+
+    @Benchmark
+    public void ndjson(Blackhole blackhole) throws Exception {
+
+        BlackholeOutputStream out = new BlackholeOutputStream(blackhole);
+        for (Configuration configuration : configurations) {
+            out.write(objectMapper.writeValueAsBytes(ConfigurationMapper.mapToResponse(configuration)));
+            out.write('\n');
+        }
+    }
+
+    private static final class BlackholeOutputStream extends OutputStream {
+
+        private final Blackhole blackhole;
+
+        private BlackholeOutputStream(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(int b) {
+            blackhole.consume(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            blackhole.consume(b);
+        }
+    }
+}
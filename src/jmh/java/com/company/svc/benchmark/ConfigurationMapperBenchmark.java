@@ -0,0 +1,57 @@
+package com.company.svc.benchmark;
+
+import com.company.svc.model.Configuration;
+import com.company.svc.util.ConfigurationMapper;
+import com.company.svc.web.dto.ConfigurationCreateRequest;
+import com.company.svc.web.dto.ConfigurationResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity/DTO mapping done on every read and write.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConfigurationMapperBenchmark {
+
+    private Configuration configuration;
+    private ConfigurationCreateRequest createRequest;
+
+    @Setup
+    public void setUp() {
+
+        configuration = BenchmarkFixtures.configuration(42, 256);
+        createRequest = ConfigurationCreateRequest.builder()
+                .name(configuration.getName())
+                .application(configuration.getApplication())
+                .environment(configuration.getEnvironment())
+                .content(configuration.getContent())
+                .build();
+    }
+
+    @Benchmark
+    public ConfigurationResponse entityToResponse() {
+
+        return ConfigurationMapper.mapToResponse(configuration);
+    }
+
+    @Benchmark
+    public Configuration createRequestToEntity() {
+
+        return ConfigurationMapper.mapToConfiguration(createRequest);
+    }
+}
@@ -0,0 +1,84 @@
+package com.company.svc.benchmark;
+
+import com.company.svc.model.Configuration;
+import com.company.svc.service.CacheMissCoordinator;
+import com.company.svc.service.ConfigurationService;
+import com.company.svc.service.NearCacheService;
+import com.company.svc.service.RecentWrites;
+import com.company.svc.service.RedisCacheService;
+import com.company.svc.service.codec.BinaryConfigurationCodec;
+import com.company.svc.service.codec.CompressionAlgorithm;
+import com.company.svc.service.codec.ConfigurationCodec;
+import com.company.svc.service.codec.JsonConfigurationCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ConfigurationService#getById} when the entry is cached: served by the near cache, or by the
+ * Redis tier (near cache disabled) against an in-memory stand-in. The repository is never reached.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GetByIdCacheHitBenchmark {
+
+    @Param({"true", "false"})
+    public boolean nearCache;
+
+    @Param({"json", "binary"})
+    public String codec;
+
+    @Param({"256", "16384"})
+    public int contentSize;
+
+    private ConfigurationService configurationService;
+    private UUID configurationId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        NearCacheService nearCacheService = new NearCacheService(
+                nearCache, 64L * 1024 * 1024, Duration.ofMinutes(10), new SimpleMeterRegistry());
+        JsonConfigurationCodec jsonCodec = new JsonConfigurationCodec(BenchmarkFixtures.objectMapper());
+        ConfigurationCodec configurationCodec = "json".equals(codec)
+                ? jsonCodec
+                : new BinaryConfigurationCodec(CompressionAlgorithm.LZ4, 1024, jsonCodec);
+        RedisCacheService cacheService = new RedisCacheService(
+                new InMemoryRedisTemplate(), new StringRedisTemplate(), configurationCodec, nearCacheService,
+                Duration.ofMinutes(5), Duration.ofMinutes(10), 0.2, new SimpleMeterRegistry());
+        CacheMissCoordinator cacheMissCoordinator = new CacheMissCoordinator(cacheService, new SimpleMeterRegistry(),
+                false, Duration.ofSeconds(2), Duration.ofMillis(25), 8);
+        configurationService = new ConfigurationService(null, null, cacheService, null, cacheMissCoordinator,
+                ObservationRegistry.NOOP, null, new RecentWrites(false, Duration.ZERO), false);
+
+        Configuration configuration = BenchmarkFixtures.configuration(42, contentSize);
+        cacheService.put(configuration);
+        configurationId = configuration.getId();
+    }
+
+    @Benchmark
+    public Configuration getById() {
+
+        return configurationService.getById(configurationId);
+    }
+}
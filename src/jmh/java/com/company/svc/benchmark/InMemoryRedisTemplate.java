@@ -0,0 +1,42 @@
+package com.company.svc.benchmark;
+
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Redis stand-in for benchmarks: value operations backed by a map, so the cache-hit path
+ * is measured without network noise. Only the operations used on that path are supported.
+ */
+final class InMemoryRedisTemplate extends RedisTemplate<String, byte[]> {
+
+    private final Map<String, byte[]> values = new ConcurrentHashMap<>();
+    private final ValueOperations<String, byte[]> valueOperations = valueOperations(values);
+
+    @Override
+    public ValueOperations<String, byte[]> opsForValue() {
+
+        return valueOperations;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ValueOperations<String, byte[]> valueOperations(Map<String, byte[]> values) {
+
+        return (ValueOperations<String, byte[]>) Proxy.newProxyInstance(
+                ValueOperations.class.getClassLoader(),
+                new Class<?>[]{ValueOperations.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "get" -> values.get((String) args[0]);
+                    case "set" -> {
+                        values.put((String) args[0], (byte[]) args[1]);
+                        yield null;
+                    }
+                    case "multiGet" -> ((Collection<?>) args[0]).stream().map(values::get).toList();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,187 @@
+package com.company.svc.benchmark;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The statements the repository issues most (lookup by id, batched insert), run through a Hikari pool with
+ * pgjdbc defaults ({@code default}) and with the driver and pool settings of {@code application-prod.properties}
+ * ({@code prod}). Each operation runs in a transaction the way the transaction manager drives it.
+ * <p>
+ * Needs a scratch PostgreSQL database: {@code BENCHMARK_JDBC_URL} (default
+ * {@code jdbc:postgresql://localhost:5432/configdb_bench}), {@code BENCHMARK_JDBC_USER}, {@code BENCHMARK_JDBC_PASSWORD}.
+ * The benchmark creates and drops its own table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+public class JdbcSettingsBenchmark {
+
+    private static final String TABLE = "jdbc_settings_benchmark";
+    private static final int ROWS = 10_000;
+    private static final int CONTENT_SIZE = 1024;
+
+    private static final String INSERT = "INSERT INTO " + TABLE
+            + " (id, name, application, environment, content, version, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String FIND_BY_ID = "SELECT id, name, application, environment, content, version, created_at, updated_at FROM "
+            + TABLE + " WHERE id = ?";
+
+    @Param({"default", "prod"})
+    public String settings;
+
+    @Param({"100"})
+    public int batchSize;
+
+    private HikariDataSource dataSource;
+    private UUID[] ids;
+    private String content;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(env("BENCHMARK_JDBC_URL", "jdbc:postgresql://localhost:5432/configdb_bench"));
+        config.setUsername(env("BENCHMARK_JDBC_USER", "postgres"));
+        config.setPassword(env("BENCHMARK_JDBC_PASSWORD", "root"));
+        config.setMaximumPoolSize(8);
+        config.setMinimumIdle(8);
+        if ("prod".equals(settings)) {
+            config.setAutoCommit(false);
+            config.addDataSourceProperty("reWriteBatchedInserts", "true");
+            config.addDataSourceProperty("prepareThreshold", "1");
+            config.addDataSourceProperty("preparedStatementCacheQueries", "512");
+            config.addDataSourceProperty("preparedStatementCacheSizeMiB", "8");
+        }
+        dataSource = new HikariDataSource(config);
+
+        content = BenchmarkFixtures.configuration(0, CONTENT_SIZE).getContent();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            connection.setAutoCommit(true);
+            statement.execute("DROP TABLE IF EXISTS " + TABLE);
+            statement.execute("CREATE TABLE " + TABLE + " (id UUID PRIMARY KEY, name VARCHAR(255) NOT NULL, "
+                    + "application VARCHAR(255) NOT NULL, environment VARCHAR(255) NOT NULL, content TEXT, "
+                    + "version INTEGER NOT NULL, created_at TIMESTAMPTZ NOT NULL, updated_at TIMESTAMPTZ NOT NULL)");
+        }
+
+        ids = new UUID[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            ids[i] = UUID.randomUUID();
+        }
+        for (int from = 0; from < ROWS; from += 1000) {
+            int start = from;
+            inTransaction(connection -> insert(connection, start, 1000, index -> ids[index]));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            connection.setAutoCommit(true);
+            statement.execute("DROP TABLE IF EXISTS " + TABLE);
+        } finally {
+            dataSource.close();
+        }
+    }
+
+    @Benchmark
+    public String findById() throws SQLException {
+
+        UUID id = ids[ThreadLocalRandom.current().nextInt(ROWS)];
+
+        return inTransaction(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(FIND_BY_ID)) {
+                statement.setObject(1, id);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    return resultSet.next() ? resultSet.getString("content") : null;
+                }
+            }
+        });
+    }
+
+    @Benchmark
+    public int insertBatch() throws SQLException {
+
+        return inTransaction(connection -> insert(connection, 0, batchSize, index -> UUID.randomUUID()));
+    }
+
+    private int insert(Connection connection, int start, int count, IdSource idSource) throws SQLException {
+
+        Timestamp now = Timestamp.from(Instant.now());
+        try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+            for (int i = start; i < start + count; i++) {
+                UUID id = idSource.id(i);
+                statement.setObject(1, id);
+                statement.setString(2, "feature.flag." + id);
+                statement.setString(3, "payments");
+                statement.setString(4, "prod");
+                statement.setString(5, content);
+                statement.setInt(6, 1);
+                statement.setTimestamp(7, now);
+                statement.setTimestamp(8, now);
+                statement.addBatch();
+            }
+            return statement.executeBatch().length;
+        }
+    }
+
+    private <T> T inTransaction(SqlWork<T> work) throws SQLException {
+
+        try (Connection connection = dataSource.getConnection()) {
+            // What the transaction manager does; pooled prod connections are already in manual-commit mode
+            if (connection.getAutoCommit()) {
+                connection.setAutoCommit(false);
+            }
+            T result = work.execute(connection);
+            connection.commit();
+            return result;
+        }
+    }
+
+    private static String env(String name, String defaultValue) {
+
+        String value = System.getenv(name);
+        return value != null && !value.isBlank() ? value : defaultValue;
+    }
+
+    @FunctionalInterface
+    private interface SqlWork<T> {
+
+        T execute(Connection connection) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface IdSource {
+
+        UUID id(int index);
+    }
+}
@@ -0,0 +1,389 @@
+package com.company.sdk;
+
+import com.company.svc.event.ConfigurationEvent;
+import com.company.svc.event.EventType;
+import com.company.svc.service.patch.ContentPatch;
+import com.company.svc.web.dto.ConfigurationCollectionResponse;
+import com.company.svc.web.dto.ConfigurationResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local-first view of the configuration service. Reads are served from an in-memory snapshot keyed by id
+ * and by (application, environment, name); stale entries are returned immediately while they are revalidated
+ * in the background, so service outages only stop updates, never reads.
+ * <p>
+ * Tracked namespaces are loaded up front, refreshed periodically with conditional requests and, when
+ * {@code watch} is enabled, updated on change pushes. The snapshot can be persisted to a file so the
+ * last-known-good configuration is available at cold start.
+ */
+public class CachingConfigurationClient implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingConfigurationClient.class);
+
+    private static final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final ConfigurationClient client;
+    private final Options options;
+
+    private final Map<UUID, Entry> byId = new ConcurrentHashMap<>();
+    private final Map<Key, UUID> byKey = new ConcurrentHashMap<>();
+    private final Map<Namespace, ConfigurationCollectionResponse> lastNamespaceResponse = new ConcurrentHashMap<>();
+    private final Set<UUID> revalidating = ConcurrentHashMap.newKeySet();
+    private final List<ConfigurationWatch> watches = new ArrayList<>();
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("configuration-refresh").factory());
+
+    public CachingConfigurationClient(ConfigurationClient client, Options options) {
+
+        this.client = client;
+        this.options = options;
+    }
+
+    /**
+     * Loads the persisted snapshot (if any), fetches the tracked namespaces and starts background refresh.
+     * Never fails because the service is unreachable as long as a snapshot could be loaded.
+     */
+    public CachingConfigurationClient start() {
+
+        loadSnapshot();
+
+        boolean changed = false;
+        for (Namespace namespace : options.getNamespaces()) {
+            changed |= refreshNamespace(namespace);
+            if (options.isWatch()) {
+                watches.add(client.watch(namespace.application(), namespace.environment(),
+                        this::onChange, () -> scheduler.execute(() -> refreshNamespace(namespace))));
+            }
+        }
+        if (changed) {
+            persistSnapshot();
+        }
+
+        long intervalMillis = options.getRefreshInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::refreshAll, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+
+        return this;
+    }
+
+    public Optional<ConfigurationResponse> getConfiguration(UUID configurationId) {
+
+        Entry entry = byId.get(configurationId);
+        if (entry != null) {
+            revalidateIfStale(configurationId, entry);
+            return Optional.of(entry.configuration());
+        }
+
+        return Optional.ofNullable(fetch(configurationId));
+    }
+
+    public Optional<ConfigurationResponse> getConfiguration(String application, String environment, String name) {
+
+        UUID configurationId = byKey.get(new Key(application, environment, name));
+        if (configurationId != null) {
+            return getConfiguration(configurationId);
+        }
+
+        // A tracked namespace is complete, anything missing from it does not exist
+        if (options.getNamespaces().contains(new Namespace(application, environment))) {
+            return Optional.empty();
+        }
+
+        try {
+            ConfigurationCollectionResponse response = client.getConfigurations(name, application, environment);
+            if (response == null || response.getConfigurations() == null || response.getConfigurations().isEmpty()) {
+                return Optional.empty();
+            }
+            ConfigurationResponse configuration = response.getConfigurations().get(0);
+            store(configuration);
+            return Optional.of(configuration);
+        } catch (HttpClientErrorException.NotFound e) {
+            return Optional.empty();
+        } catch (RestClientException e) {
+            logger.warn("Configuration service unavailable while reading [{}/{}/{}]: {}",
+                    application, environment, name, e.toString());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void close() {
+
+        watches.forEach(ConfigurationWatch::close);
+        scheduler.shutdownNow();
+    }
+
+    // Every event goes through the single scheduler thread, so a delete never overtakes an earlier update
+    private void onChange(ConfigurationEvent event) {
+
+        if (event.getEventType() == EventType.DELETED) {
+            scheduler.execute(() -> {
+                remove(event.getId());
+                persistSnapshot();
+            });
+            return;
+        }
+
+        scheduler.execute(() -> {
+            if (!applyDelta(event)) {
+                fetch(event.getId());
+            }
+            persistSnapshot();
+        });
+    }
+
+    /**
+     * Applies a content-delta event to the local copy when that copy is exactly the event's base version.
+     * Anything else (not cached, missed an update, patch does not apply) falls back to a full fetch.
+     */
+    private boolean applyDelta(ConfigurationEvent event) {
+
+        if (event.getContentPatch() == null) {
+            return false;
+        }
+
+        Entry entry = byId.get(event.getId());
+        if (entry == null || !Objects.equals(entry.configuration().getVersion(), event.getBaseVersion())) {
+            return false;
+        }
+
+        try {
+            ContentPatch patch = ContentPatch.parse(event.getContentPatchType(), event.getContentPatch());
+            ConfigurationResponse current = entry.configuration();
+            store(current.toBuilder()
+                    .content(patch.applyTo(current.getContent()))
+                    .version(event.getVersion())
+                    .updated(event.getTimestamp())
+                    .build());
+            return true;
+        } catch (RuntimeException e) {
+            logger.debug("Could not apply content delta for [id={}], fetching instead: {}", event.getId(), e.toString());
+            return false;
+        }
+    }
+
+    private void revalidateIfStale(UUID configurationId, Entry entry) {
+
+        if (System.nanoTime() - entry.fetchedAtNanos() < options.getRefreshAfter().toNanos()) {
+            return;
+        }
+
+        if (revalidating.add(configurationId)) {
+            scheduler.execute(() -> {
+                try {
+                    fetch(configurationId);
+                } finally {
+                    revalidating.remove(configurationId);
+                }
+            });
+        }
+    }
+
+    private ConfigurationResponse fetch(UUID configurationId) {
+
+        try {
+            ConfigurationResponse configuration = client.getConfiguration(configurationId);
+            if (configuration == null || configuration.getId() == null) {
+                remove(configurationId);
+                return null;
+            }
+            store(configuration);
+            return configuration;
+        } catch (HttpClientErrorException.NotFound e) {
+            remove(configurationId);
+            return null;
+        } catch (RestClientException e) {
+            // Keep serving what we have
+            logger.warn("Configuration service unavailable while reading [id={}]: {}", configurationId, e.toString());
+            Entry entry = byId.get(configurationId);
+            return entry != null ? entry.configuration() : null;
+        }
+    }
+
+    private void refreshAll() {
+
+        boolean changed = false;
+        for (Namespace namespace : options.getNamespaces()) {
+            changed |= refreshNamespace(namespace);
+        }
+        if (changed) {
+            persistSnapshot();
+        }
+    }
+
+    private boolean refreshNamespace(Namespace namespace) {
+
+        ConfigurationCollectionResponse response;
+        try {
+            response = client.getNamespaceSnapshot(namespace.application(), namespace.environment());
+        } catch (HttpClientErrorException.NotFound e) {
+            response = ConfigurationCollectionResponse.builder().configurations(List.of()).build();
+        } catch (RestClientException e) {
+            logger.warn("Configuration service unavailable while refreshing [{}/{}], serving last snapshot: {}",
+                    namespace.application(), namespace.environment(), e.toString());
+            return false;
+        }
+
+        // The client hands back the same instance on 304 Not Modified
+        if (response == null || response == lastNamespaceResponse.get(namespace)) {
+            return false;
+        }
+        lastNamespaceResponse.put(namespace, response);
+
+        Set<UUID> current = ConcurrentHashMap.newKeySet();
+        for (ConfigurationResponse configuration : response.getConfigurations()) {
+            store(configuration);
+            current.add(configuration.getId());
+        }
+
+        byId.values().stream()
+                .map(Entry::configuration)
+                .filter(configuration -> namespace.contains(configuration) && !current.contains(configuration.getId()))
+                .map(ConfigurationResponse::getId)
+                .toList()
+                .forEach(this::remove);
+
+        return true;
+    }
+
+    // Versions only move forward: a slow fetch or an older namespace response must not roll back a newer entry.
+    // Synchronized with remove so byId and byKey change together.
+    private synchronized void store(ConfigurationResponse configuration) {
+
+        Entry previous = byId.get(configuration.getId());
+        if (previous != null && previous.configuration().getVersion() != null && configuration.getVersion() != null
+                && previous.configuration().getVersion() >= configuration.getVersion()) {
+            if (previous.configuration().getVersion().equals(configuration.getVersion())) {
+                // Confirmed current, fresh again
+                byId.put(configuration.getId(), new Entry(previous.configuration(), System.nanoTime()));
+            }
+            return;
+        }
+
+        byId.put(configuration.getId(), new Entry(configuration, System.nanoTime()));
+        if (previous != null) {
+            byKey.remove(Key.of(previous.configuration()), configuration.getId());
+        }
+        byKey.put(Key.of(configuration), configuration.getId());
+    }
+
+    private synchronized void remove(UUID configurationId) {
+
+        Entry previous = byId.remove(configurationId);
+        if (previous != null) {
+            byKey.remove(Key.of(previous.configuration()), configurationId);
+        }
+    }
+
+    private void loadSnapshot() {
+
+        Path file = options.getSnapshotFile();
+        if (file == null || !Files.exists(file)) {
+            return;
+        }
+
+        try {
+            List<ConfigurationResponse> snapshot = objectMapper.readValue(file.toFile(), new TypeReference<>() { });
+            // Loaded entries count as stale so they are revalidated on first read
+            long stale = System.nanoTime() - options.getRefreshAfter().toNanos();
+            snapshot.forEach(configuration -> {
+                byId.put(configuration.getId(), new Entry(configuration, stale));
+                byKey.put(Key.of(configuration), configuration.getId());
+            });
+            logger.info("Loaded {} configurations from snapshot {}", snapshot.size(), file);
+        } catch (IOException e) {
+            logger.warn("Could not read configuration snapshot {}, starting empty: {}", file, e.toString());
+        }
+    }
+
+    private void persistSnapshot() {
+
+        Path file = options.getSnapshotFile();
+        if (file == null) {
+            return;
+        }
+
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            objectMapper.writeValue(temp.toFile(), byId.values().stream().map(Entry::configuration).toList());
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Could not persist configuration snapshot {}: {}", file, e.toString());
+        }
+    }
+
+    @Value
+    @Builder
+    public static class Options {
+
+        // Namespaces loaded eagerly and kept complete
+        @Singular
+        Set<Namespace> namespaces;
+
+        @Builder.Default
+        Duration refreshInterval = Duration.ofSeconds(30);
+
+        // Age after which a read triggers background revalidation
+        @Builder.Default
+        Duration refreshAfter = Duration.ofSeconds(30);
+
+        @Builder.Default
+        boolean watch = true;
+
+        // Optional last-known-good snapshot for cold starts
+        Path snapshotFile;
+    }
+
+    public record Namespace(String application, String environment) {
+
+        boolean contains(ConfigurationResponse configuration) {
+
+            return Objects.equals(application, configuration.getApplication())
+                    && Objects.equals(environment, configuration.getEnvironment());
+        }
+    }
+
+    private record Key(String application, String environment, String name) {
+
+        static Key of(ConfigurationResponse configuration) {
+
+            return new Key(configuration.getApplication(), configuration.getEnvironment(), configuration.getName());
+        }
+    }
+
+    private record Entry(ConfigurationResponse configuration, long fetchedAtNanos) {
+    }
+}
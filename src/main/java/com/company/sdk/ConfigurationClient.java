@@ -1,52 +1,148 @@
 package com.company.sdk;
 
+import com.company.svc.event.ConfigurationEvent;
+import com.company.svc.service.patch.ContentPatch;
 import com.company.svc.web.dto.*;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public class ConfigurationClient {
 
+    private static final List<MediaType> BINARY_ACCEPT =
+            List.of(MediaType.APPLICATION_CBOR, MediaType.valueOf("application/json;q=0.5"));
+
+    public static final int DEFAULT_CONDITIONAL_CACHE_SIZE = 1000;
+
     private final String baseUrl;
     private final RestTemplate restTemplate;
+    private final RestTemplate watchRestTemplate;
+    private final List<MediaType> accept;
+
+    // Last ETag and body per GET url, replayed when the service answers 304 Not Modified. Least recently used
+    // urls are dropped past the size limit: ids and query strings are open-ended
+    private final Map<String, CachedResponse> conditionalCache;
 
     public ConfigurationClient(String baseUrl, RestTemplate restTemplate) {
 
+        this(baseUrl, restTemplate, true);
+    }
+
+    /**
+     * With {@code binaryFormat}, responses are requested as CBOR (JSON as fallback): the content string is
+     * not escaped and decodes faster. Only takes effect when the RestTemplate has a converter for CBOR.
+     */
+    public ConfigurationClient(String baseUrl, RestTemplate restTemplate, boolean binaryFormat) {
+
+        this(baseUrl, restTemplate, binaryFormat, DEFAULT_CONDITIONAL_CACHE_SIZE);
+    }
+
+    /**
+     * {@code conditionalCacheSize} bounds how many GET urls keep their last response for revalidation with 304s.
+     */
+    public ConfigurationClient(String baseUrl, RestTemplate restTemplate, boolean binaryFormat, int conditionalCacheSize) {
+
+        this(baseUrl, restTemplate, restTemplate, binaryFormat, conditionalCacheSize);
+    }
+
+    /**
+     * {@code watchRestTemplate} carries the long-lived watch streams. They are idle between heartbeats,
+     * so its read timeout must be well above the service's heartbeat interval, or absent.
+     */
+    public ConfigurationClient(String baseUrl, RestTemplate restTemplate, RestTemplate watchRestTemplate,
+                               boolean binaryFormat, int conditionalCacheSize) {
+
         this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
         this.restTemplate = restTemplate;
+        this.watchRestTemplate = watchRestTemplate;
+        this.accept = binaryFormat && canRead(restTemplate, MediaType.APPLICATION_CBOR)
+                ? BINARY_ACCEPT
+                : List.of(MediaType.APPLICATION_JSON);
+        this.conditionalCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > conditionalCacheSize;
+            }
+        });
     }
 
     public ConfigurationResponse createConfiguration(ConfigurationCreateRequest request) {
 
-        return restTemplate.postForObject(baseUrl, request, ConfigurationResponse.class);
+        return exchange(baseUrl, HttpMethod.POST, request, ConfigurationResponse.class);
     }
 
     public ConfigurationResponse updateConfiguration(UUID configurationId, ConfigurationUpdateRequest request) {
 
-        restTemplate.put(baseUrl  + "/" + configurationId, request);
-        return getConfiguration(configurationId);
+        return updateConfiguration(configurationId, request, null);
+    }
+
+    /**
+     * Replaces the configuration only if it is still at the version tagged by {@code eTag}, as returned by a
+     * previous read or write; a 412 Precondition Failed means someone else changed it in between.
+     */
+    public ConfigurationResponse updateConfiguration(UUID configurationId, ConfigurationUpdateRequest request, String eTag) {
+
+        return write(configurationId, HttpMethod.PUT, request, null, eTag);
     }
 
     public ConfigurationResponse patchConfiguration(UUID configurationId, ConfigurationPatchRequest request) {
 
-        HttpEntity<ConfigurationPatchRequest> entity = new HttpEntity<>(request);
-        ResponseEntity<ConfigurationResponse> response = restTemplate.exchange(
-                baseUrl + "/" + configurationId,
-                HttpMethod.PATCH,
-                entity,
-                ConfigurationResponse.class
-        );
+        return patchConfiguration(configurationId, request, null);
+    }
+
+    public ConfigurationResponse patchConfiguration(UUID configurationId, ConfigurationPatchRequest request, String eTag) {
 
-        return response.getBody();
+        return write(configurationId, HttpMethod.PATCH, request, null, eTag);
+    }
+
+    /**
+     * Changes part of the JSON content without uploading the whole document; {@code patch} is a JSON Patch
+     * or a JSON Merge Patch document depending on {@code format}. {@code eTag} is optional, as for updates.
+     */
+    public ConfigurationResponse patchConfigurationContent(UUID configurationId, ContentPatch.Format format,
+                                                           String patch, String eTag) {
+
+        return write(configurationId, HttpMethod.PATCH, patch, MediaType.valueOf(format.getMediaType()), eTag,
+                baseUrl + "/" + configurationId + "/content");
     }
 
     public ConfigurationResponse getConfiguration(UUID configurationId) {
 
-        return restTemplate.getForObject(baseUrl + "/" + configurationId, ConfigurationResponse.class);
+        return getConditionally(baseUrl + "/" + configurationId, ConfigurationResponse.class);
+    }
+
+    /**
+     * A past revision of the configuration. Revisions are immutable, so repeated reads are answered with 304.
+     */
+    public ConfigurationResponse getConfigurationVersion(UUID configurationId, int version) {
+
+        return getConditionally(baseUrl + "/" + configurationId + "?version=" + version, ConfigurationResponse.class);
+    }
+
+    public ConfigurationResponse getConfigurationAsOf(UUID configurationId, OffsetDateTime asOf) {
+
+        // In UTC, a '+' offset would be read back as a space from the query string
+        String url = UriComponentsBuilder.fromHttpUrl(baseUrl + "/" + configurationId)
+                .queryParam("asOf", asOf.toInstant().toString())
+                .toUriString();
+
+        return exchange(url, HttpMethod.GET, null, ConfigurationResponse.class);
     }
 
     public ConfigurationCollectionResponse getConfigurations(String name, String application, String environment) {
@@ -62,11 +158,175 @@ public class ConfigurationClient {
             builder.queryParam("environment", environment);
         }
 
-        return restTemplate.getForObject(builder.toUriString(), ConfigurationCollectionResponse.class);
+        return getConditionally(builder.toUriString(), ConfigurationCollectionResponse.class);
+    }
+
+    /**
+     * All configurations of an application and environment in one pre-built response (empty when there are none).
+     * Cheaper for the service than {@link #getConfigurations(String, String, String)} and revalidated with 304s.
+     */
+    public ConfigurationCollectionResponse getNamespaceSnapshot(String application, String environment) {
+
+        String url = UriComponentsBuilder.fromHttpUrl(baseUrl + "/snapshot")
+                .queryParam("application", application)
+                .queryParam("environment", environment)
+                .toUriString();
+
+        // Served as JSON only, the bytes are prepared once on the service
+        return getConditionally(url, ConfigurationCollectionResponse.class, List.of(MediaType.APPLICATION_JSON));
+    }
+
+    public ConfigurationCollectionResponse getConfigurationsPage(String name, String application, String environment,
+                                                                 int limit, String cursor) {
+
+        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(baseUrl + "/")
+                .queryParam("limit", limit);
+        if (name != null) {
+            builder.queryParam("name", name);
+        }
+        if (application != null) {
+            builder.queryParam("application", application);
+        }
+        if (environment != null) {
+            builder.queryParam("environment", environment);
+        }
+        if (cursor != null) {
+            builder.queryParam("cursor", cursor);
+        }
+
+        return exchange(builder.toUriString(), HttpMethod.GET, null, ConfigurationCollectionResponse.class);
+    }
+
+    public ConfigurationBatchGetResponse getConfigurations(Collection<UUID> configurationIds) {
+
+        ConfigurationBatchGetRequest request = new ConfigurationBatchGetRequest(new ArrayList<>(configurationIds));
+
+        return exchange(baseUrl + "/batch-get", HttpMethod.POST, request, ConfigurationBatchGetResponse.class);
+    }
+
+    /**
+     * Subscribes to changes for an application/environment (either may be null for all).
+     * {@code onReset} runs when the service can no longer resume the stream and state must be re-read.
+     */
+    public ConfigurationWatch watch(String application, String environment,
+                                    Consumer<ConfigurationEvent> onChange, Runnable onReset) {
+
+        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(baseUrl + "/watch");
+        if (application != null) {
+            builder.queryParam("application", application);
+        }
+        if (environment != null) {
+            builder.queryParam("environment", environment);
+        }
+
+        return new ConfigurationWatch(builder.toUriString(), watchRestTemplate, onChange, onReset);
+    }
+
+    public ConfigurationWatch watch(String application, String environment, Consumer<ConfigurationEvent> onChange) {
+
+        return watch(application, environment, onChange, () -> { });
     }
 
     public void deleteConfiguration(UUID configurationId) {
 
+        // Dropped first so it goes whatever the outcome, including 404
+        conditionalCache.remove(baseUrl + "/" + configurationId);
         restTemplate.delete(baseUrl + "/" + configurationId);
     }
+
+    private ConfigurationResponse write(UUID configurationId, HttpMethod method, Object request,
+                                        MediaType contentType, String eTag) {
+
+        return write(configurationId, method, request, contentType, eTag, baseUrl + "/" + configurationId);
+    }
+
+    private ConfigurationResponse write(UUID configurationId, HttpMethod method, Object request,
+                                        MediaType contentType, String eTag, String target) {
+
+        String url = baseUrl + "/" + configurationId;
+        HttpHeaders headers = headers();
+        if (contentType != null) {
+            headers.setContentType(contentType);
+        }
+        if (eTag != null) {
+            headers.setIfMatch(eTag);
+        }
+
+        ResponseEntity<ConfigurationResponse> response;
+        try {
+            response = restTemplate.exchange(target, method, new HttpEntity<>(request, headers), ConfigurationResponse.class);
+        } catch (HttpClientErrorException.NotFound e) {
+            conditionalCache.remove(url);
+            throw e;
+        }
+
+        // Writes answer with the new ETag, so the next read of this url can already be conditional
+        String newETag = response.getHeaders().getETag();
+        if (newETag != null && response.getBody() != null) {
+            conditionalCache.put(url, new CachedResponse(newETag, response.getBody()));
+        } else {
+            conditionalCache.remove(url);
+        }
+
+        return response.getBody();
+    }
+
+    private <T> T getConditionally(String url, Class<T> responseType) {
+
+        return getConditionally(url, responseType, accept);
+    }
+
+    private <T> T getConditionally(String url, Class<T> responseType, List<MediaType> acceptTypes) {
+
+        CachedResponse cached = conditionalCache.get(url);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(acceptTypes);
+        if (cached != null) {
+            headers.setIfNoneMatch(cached.eTag());
+        }
+
+        ResponseEntity<T> response;
+        try {
+            response = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), responseType);
+        } catch (HttpClientErrorException.NotFound e) {
+            conditionalCache.remove(url);
+            throw e;
+        }
+
+        if (cached != null && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            return responseType.cast(cached.body());
+        }
+
+        String eTag = response.getHeaders().getETag();
+        if (eTag != null && response.getBody() != null) {
+            conditionalCache.put(url, new CachedResponse(eTag, response.getBody()));
+        } else {
+            conditionalCache.remove(url);
+        }
+
+        return response.getBody();
+    }
+
+    private <T> T exchange(String url, HttpMethod method, Object body, Class<T> responseType) {
+
+        return restTemplate.exchange(url, method, new HttpEntity<>(body, headers()), responseType).getBody();
+    }
+
+    private HttpHeaders headers() {
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(accept);
+
+        return headers;
+    }
+
+    private static boolean canRead(RestTemplate restTemplate, MediaType mediaType) {
+
+        return restTemplate.getMessageConverters().stream()
+                .anyMatch(converter -> converter.canRead(ConfigurationResponse.class, mediaType));
+    }
+
+    private record CachedResponse(String eTag, Object body) {
+    }
 }
@@ -0,0 +1,168 @@
+package com.company.sdk;
+
+import com.company.svc.config.kafka.KafkaConfig;
+import com.company.svc.event.ConfigurationEvent;
+import com.company.svc.event.EventType;
+import com.company.svc.service.patch.ContentPatch;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Current state of all configurations, rebuilt by reading the compacted configuration topic from the beginning
+ * up to the end offsets taken at start. Compaction leaves roughly one event per configuration, so this takes
+ * seconds regardless of how long the topic has existed.
+ * <p>
+ * Consumers bootstrap from the snapshot, then seek to {@link #getPositions()} and keep consuming for changes.
+ * Configurations whose latest event is a content delta without its base in the topic are listed in
+ * {@link #getUnresolved()} and have to be fetched from the service.
+ */
+public final class ConfigurationTopicSnapshot {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigurationTopicSnapshot.class);
+
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(200);
+
+    private final Map<UUID, ConfigurationEvent> configurations;
+    private final Set<UUID> unresolved;
+    private final Map<TopicPartition, Long> positions;
+
+    private ConfigurationTopicSnapshot(Map<UUID, ConfigurationEvent> configurations, Set<UUID> unresolved,
+                                       Map<TopicPartition, Long> positions) {
+        this.configurations = Collections.unmodifiableMap(configurations);
+        this.unresolved = Collections.unmodifiableSet(unresolved);
+        this.positions = Collections.unmodifiableMap(positions);
+    }
+
+    public static ConfigurationTopicSnapshot read(Consumer<String, ConfigurationEvent> consumer, Duration timeout)
+            throws TimeoutException {
+
+        return read(consumer, KafkaConfig.CONFIGURATION_UPDATES_TOPIC, timeout);
+    }
+
+    /**
+     * Reads {@code topic} with a manually assigned consumer (no group, nothing committed).
+     */
+    public static ConfigurationTopicSnapshot read(Consumer<String, ConfigurationEvent> consumer, String topic,
+                                                  Duration timeout) throws TimeoutException {
+
+        List<TopicPartition> partitions = consumer.partitionsFor(topic).stream()
+                .map(PartitionInfo::partition)
+                .map(partition -> new TopicPartition(topic, partition))
+                .toList();
+        consumer.assign(partitions);
+        consumer.seekToBeginning(partitions);
+        Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+
+        Map<UUID, ConfigurationEvent> configurations = new HashMap<>();
+        Set<UUID> unresolved = new HashSet<>();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        long records = 0;
+
+        while (!caughtUp(consumer, endOffsets)) {
+            if (System.nanoTime() > deadline) {
+                throw new TimeoutException("Configuration topic snapshot not complete after " + timeout);
+            }
+            for (ConsumerRecord<String, ConfigurationEvent> record : consumer.poll(POLL_TIMEOUT)) {
+                apply(record, configurations, unresolved);
+                records++;
+            }
+        }
+
+        logger.info("Configuration topic snapshot: {} configurations from {} records, {} unresolved",
+                configurations.size() - unresolved.size(), records, unresolved.size());
+
+        return new ConfigurationTopicSnapshot(configurations, unresolved, endOffsets);
+    }
+
+    /**
+     * Latest full event per configuration, without the ones listed in {@link #getUnresolved()}.
+     */
+    public Map<UUID, ConfigurationEvent> getConfigurations() {
+
+        Map<UUID, ConfigurationEvent> resolved = new HashMap<>(configurations);
+        resolved.keySet().removeAll(unresolved);
+        return resolved;
+    }
+
+    public Set<UUID> getUnresolved() {
+
+        return unresolved;
+    }
+
+    /**
+     * Offsets the snapshot covers, i.e. where live consumption continues.
+     */
+    public Map<TopicPartition, Long> getPositions() {
+
+        return positions;
+    }
+
+    private static boolean caughtUp(Consumer<String, ConfigurationEvent> consumer, Map<TopicPartition, Long> endOffsets) {
+
+        for (Map.Entry<TopicPartition, Long> end : endOffsets.entrySet()) {
+            if (consumer.position(end.getKey()) < end.getValue()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static void apply(ConsumerRecord<String, ConfigurationEvent> record,
+                              Map<UUID, ConfigurationEvent> configurations, Set<UUID> unresolved) {
+
+        ConfigurationEvent event = record.value();
+        UUID id = record.key() != null ? UUID.fromString(record.key()) : event != null ? event.getId() : null;
+        if (id == null) {
+            return;
+        }
+
+        if (event == null || event.getEventType() == EventType.DELETED) {
+            configurations.remove(id);
+            unresolved.remove(id);
+            return;
+        }
+
+        if (event.getContentPatch() == null) {
+            configurations.put(id, event);
+            unresolved.remove(id);
+            return;
+        }
+
+        ConfigurationEvent base = configurations.get(id);
+        if (base != null && !unresolved.contains(id) && Objects.equals(base.getVersion(), event.getBaseVersion())) {
+            try {
+                ContentPatch patch = ContentPatch.parse(event.getContentPatchType(), event.getContentPatch());
+                ConfigurationEvent merged = event.toBuilder()
+                        .content(patch.applyTo(base.getContent()))
+                        .baseVersion(null)
+                        .contentPatch(null)
+                        .contentPatchType(null)
+                        .build();
+                configurations.put(id, merged);
+                return;
+            } catch (RuntimeException e) {
+                logger.debug("Could not apply content delta for [id={}]: {}", id, e.toString());
+            }
+        }
+
+        // Compaction removed the base, only the service can tell the current content
+        configurations.put(id, event);
+        unresolved.add(id);
+    }
+}
@@ -0,0 +1,157 @@
+package com.company.sdk;
+
+import com.company.svc.event.ConfigurationEvent;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Long-lived subscription to the service's watch endpoint. Runs on its own virtual thread,
+ * reconnects with Last-Event-ID after failures and stops on {@link #close()}.
+ */
+public class ConfigurationWatch implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigurationWatch.class);
+
+    private static final Duration MIN_BACKOFF = Duration.ofMillis(500);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    private static final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private final String url;
+    private final RestTemplate restTemplate;
+    private final Consumer<ConfigurationEvent> onChange;
+    private final Runnable onReset;
+    private final AtomicReference<InputStream> currentStream = new AtomicReference<>();
+    private final Thread thread;
+
+    private volatile boolean closed;
+    private volatile String lastEventId;
+
+    ConfigurationWatch(String url, RestTemplate restTemplate,
+                       Consumer<ConfigurationEvent> onChange, Runnable onReset) {
+        this.url = url;
+        this.restTemplate = restTemplate;
+        this.onChange = onChange;
+        this.onReset = onReset;
+        this.thread = Thread.ofVirtual().name("configuration-watch").start(this::run);
+    }
+
+    public String getLastEventId() {
+
+        return lastEventId;
+    }
+
+    @Override
+    public void close() {
+
+        closed = true;
+        InputStream stream = currentStream.getAndSet(null);
+        if (stream != null) {
+            try {
+                stream.close();
+            } catch (IOException ignored) {
+                // Closing only unblocks the reader
+            }
+        }
+        thread.interrupt();
+    }
+
+    private void run() {
+
+        Duration backoff = MIN_BACKOFF;
+        while (!closed) {
+            try {
+                restTemplate.execute(url, HttpMethod.GET,
+                        request -> {
+                            request.getHeaders().setAccept(List.of(MediaType.TEXT_EVENT_STREAM));
+                            if (lastEventId != null) {
+                                request.getHeaders().set("Last-Event-ID", lastEventId);
+                            }
+                        },
+                        response -> {
+                            read(response.getBody());
+                            return null;
+                        });
+                backoff = MIN_BACKOFF;
+            } catch (RuntimeException e) {
+                if (closed) {
+                    return;
+                }
+                logger.warn("Configuration watch disconnected, retrying in {}: {}", backoff, e.toString());
+            }
+
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            backoff = backoff.multipliedBy(2).compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff.multipliedBy(2);
+        }
+    }
+
+    private void read(InputStream body) throws IOException {
+
+        currentStream.set(body);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+
+        String id = null;
+        String event = null;
+        StringBuilder data = new StringBuilder();
+
+        String line;
+        while (!closed && (line = reader.readLine()) != null) {
+            if (line.isEmpty()) {
+                dispatch(id, event, data.toString());
+                id = null;
+                event = null;
+                data.setLength(0);
+            } else if (line.startsWith("id:")) {
+                id = line.substring(3).trim();
+            } else if (line.startsWith("event:")) {
+                event = line.substring(6).trim();
+            } else if (line.startsWith("data:")) {
+                if (!data.isEmpty()) {
+                    data.append('\n');
+                }
+                data.append(line.substring(5).stripLeading());
+            }
+        }
+    }
+
+    private void dispatch(String id, String event, String data) throws IOException {
+
+        if ("reset".equals(event)) {
+            lastEventId = null;
+            onReset.run();
+            return;
+        }
+        if (!"change".equals(event) || data.isEmpty()) {
+            return;
+        }
+
+        onChange.accept(objectMapper.readValue(data, ConfigurationEvent.class));
+        if (id != null) {
+            lastEventId = id;
+        }
+    }
+}
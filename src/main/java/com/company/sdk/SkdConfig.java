@@ -1,25 +1,103 @@
 package com.company.sdk;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+
 @Configuration
 public class SkdConfig {
 
     @Value("${sdk.config-service.base-url}")
     private String baseUrl;
 
+    @Value("${sdk.config-service.virtual-threads:${spring.threads.virtual.enabled:false}}")
+    private boolean virtualThreads;
+
+    @Value("${sdk.config-service.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${sdk.config-service.read-timeout:5s}")
+    private Duration readTimeout;
+
+    @Value("${sdk.config-service.binary-format:true}")
+    private boolean binaryFormat;
+
+    @Value("${sdk.config-service.conditional-cache-size:" + ConfigurationClient.DEFAULT_CONDITIONAL_CACHE_SIZE + "}")
+    private int conditionalCacheSize;
+
     @Bean
     public RestTemplate restTemplate() {
 
-        return new RestTemplate();
+        return restTemplate(connectTimeout, readTimeout, virtualThreads);
     }
 
     @Bean
     public ConfigurationClient configurationClient(RestTemplate restTemplate) {
 
-        return new ConfigurationClient(baseUrl, restTemplate);
+        // Watch streams stay quiet for a heartbeat interval at a time; a read timeout would drop them while idle
+        return new ConfigurationClient(baseUrl, restTemplate, restTemplate(connectTimeout, null, virtualThreads),
+                binaryFormat, conditionalCacheSize);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "sdk.config-service.local-cache.enabled", havingValue = "true")
+    public CachingConfigurationClient cachingConfigurationClient(
+            ConfigurationClient configurationClient,
+            @Value("${sdk.config-service.local-cache.namespaces:}") List<String> namespaces,
+            @Value("${sdk.config-service.local-cache.refresh-interval:30s}") Duration refreshInterval,
+            @Value("${sdk.config-service.local-cache.refresh-after:30s}") Duration refreshAfter,
+            @Value("${sdk.config-service.local-cache.watch:true}") boolean watch,
+            @Value("${sdk.config-service.local-cache.snapshot-file:}") String snapshotFile) {
+
+        CachingConfigurationClient.Options.OptionsBuilder options = CachingConfigurationClient.Options.builder()
+                .refreshInterval(refreshInterval)
+                .refreshAfter(refreshAfter)
+                .watch(watch)
+                .snapshotFile(snapshotFile.isBlank() ? null : Path.of(snapshotFile));
+
+        // Namespaces are given as application/environment, e.g. payments/prod
+        for (String namespace : namespaces) {
+            String[] parts = namespace.trim().split("/", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid namespace '" + namespace + "', expected application/environment");
+            }
+            options.namespace(new CachingConfigurationClient.Namespace(parts[0], parts[1]));
+        }
+
+        return new CachingConfigurationClient(configurationClient, options.build()).start();
+    }
+
+    /**
+     * RestTemplate on the java.net.http client; no read timeout when {@code readTimeout} is null.
+     */
+    static RestTemplate restTemplate(Duration connectTimeout, Duration readTimeout, boolean virtualThreads) {
+
+        // java.net.http client: pooled keep-alive connections and no synchronized blocking I/O,
+        // so callers on virtual threads are never pinned
+        HttpClient.Builder httpClient = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout);
+        if (virtualThreads) {
+            httpClient.executor(Executors.newVirtualThreadPerTaskExecutor());
+        }
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient.build());
+        if (readTimeout != null) {
+            requestFactory.setReadTimeout(readTimeout);
+        }
+
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        // The JDK client does not inflate gzip responses itself
+        restTemplate.getInterceptors().add(new GzipResponseInterceptor());
+
+        return restTemplate;
     }
 }
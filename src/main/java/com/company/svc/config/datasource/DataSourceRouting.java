@@ -0,0 +1,35 @@
+package com.company.svc.config.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread override for {@link ReplicaRoutingDataSource}: work run through {@link #onPrimary(Supplier)}
+ * uses the primary even inside read-only transactions. Has no effect when replica routing is disabled.
+ */
+public final class DataSourceRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY_FORCED = new ThreadLocal<>();
+
+    private DataSourceRouting() {
+    }
+
+    public static <T> T onPrimary(Supplier<T> work) {
+
+        // Nested calls keep the outer setting
+        if (isPrimaryForced()) {
+            return work.get();
+        }
+
+        PRIMARY_FORCED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            PRIMARY_FORCED.remove();
+        }
+    }
+
+    public static boolean isPrimaryForced() {
+
+        return Boolean.TRUE.equals(PRIMARY_FORCED.get());
+    }
+}
@@ -0,0 +1,79 @@
+package com.company.svc.config.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Primary plus read replicas when {@code datasource.replica.enabled=true}; otherwise Spring Boot's single
+ * auto-configured DataSource is used. Replica pools copy the primary's Hikari settings
+ * ({@code spring.datasource.hikari.*}) and connect read-only.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             @Value("${datasource.replica.urls}") List<String> urls,
+                                                             @Value("${datasource.replica.username:}") String username,
+                                                             @Value("${datasource.replica.password:}") String password,
+                                                             @Value("${datasource.replica.maximum-pool-size:0}") int maximumPoolSize,
+                                                             @Value("${datasource.replica.max-lag:1s}") Duration maxLag,
+                                                             MeterRegistry meterRegistry) {
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setPoolName("replica-" + i);
+            config.setJdbcUrl(urls.get(i));
+            config.setReadOnly(true);
+            if (!username.isEmpty()) {
+                config.setUsername(username);
+                config.setPassword(password);
+            }
+            if (maximumPoolSize > 0) {
+                config.setMaximumPoolSize(maximumPoolSize);
+            }
+            // Not beans, so Boot's pool metrics do not see them
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.put(config.getPoolName(), new HikariDataSource(config));
+        }
+
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, maxLag, meterRegistry);
+    }
+
+    /**
+     * The DataSource JPA, Flyway and the transaction manager see. The lazy proxy defers fetching the physical
+     * connection to the first statement, after the transaction has been marked read-only.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
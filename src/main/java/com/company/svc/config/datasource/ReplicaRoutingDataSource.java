@@ -0,0 +1,144 @@
+package com.company.svc.config.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections for read-only transactions to the replicas (round-robin) and everything else to the primary.
+ * Must sit behind a {@code LazyConnectionDataSourceProxy} so the connection is only fetched once the
+ * transaction's read-only flag is known.
+ * <p>
+ * Replication lag is checked periodically; a replica that is further behind than {@code maxLag},
+ * or cannot be reached, is taken out of rotation until it catches up. With no replica in rotation reads use the primary.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    // Zero when the replica has replayed everything it received, so an idle primary does not look like lag
+    private static final String LAG_QUERY = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final Map<String, DataSource> replicas;
+    private final double maxLagSeconds;
+    private final Map<String, Double> lagSeconds = new ConcurrentHashMap<>();
+    private final Map<String, Counter> routed = new HashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    private volatile List<String> inRotation;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration maxLag,
+                                    MeterRegistry meterRegistry) {
+
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        this.inRotation = List.copyOf(this.replicas.keySet());
+
+        Map<Object, Object> targets = new HashMap<>(this.replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+
+        for (String target : targets.keySet().stream().map(String::valueOf).toList()) {
+            routed.put(target, Counter.builder("config.datasource.connections.routed")
+                    .description("Connections handed out per routing target")
+                    .tag("target", target)
+                    .register(meterRegistry));
+        }
+        for (String replica : this.replicas.keySet()) {
+            Gauge.builder("config.datasource.replica.lag", this, routing -> routing.lagSeconds.getOrDefault(replica, Double.NaN))
+                    .description("Replication lag seen by the last check, NaN when the replica could not be reached")
+                    .tag("replica", replica)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+
+        String target = PRIMARY;
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !DataSourceRouting.isPrimaryForced()) {
+            List<String> candidates = inRotation;
+            if (!candidates.isEmpty()) {
+                target = candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+            }
+        }
+
+        routed.get(target).increment();
+        return target;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-interval-ms:5000}")
+    public void checkLag() {
+
+        List<String> healthy = new ArrayList<>();
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            String name = replica.getKey();
+            double lag = lagOf(name, replica.getValue());
+            lagSeconds.put(name, lag);
+
+            boolean usable = lag <= maxLagSeconds;
+            if (usable) {
+                healthy.add(name);
+            }
+            if (usable != inRotation.contains(name)) {
+                logger.warn("Replica [{}] {} rotation [lagSeconds={}, maxLagSeconds={}]",
+                        name, usable ? "back in" : "taken out of", lag, maxLagSeconds);
+            }
+        }
+
+        inRotation = List.copyOf(healthy);
+    }
+
+    List<String> getReplicasInRotation() {
+
+        return inRotation;
+    }
+
+    @Override
+    public void close() throws Exception {
+
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static double lagOf(String name, DataSource replica) {
+
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+
+            return resultSet.next() ? resultSet.getDouble(1) : Double.NaN;
+        } catch (SQLException e) {
+            logger.warn("Replication lag check failed for replica [{}]: {}", name, e.toString());
+            return Double.NaN;
+        }
+    }
+}
@@ -1,17 +1,29 @@
 package com.company.svc.config.kafka;
 
 import com.company.svc.event.ConfigurationEvent;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -19,12 +31,35 @@ import java.util.Map;
 @EnableKafka
 public class KafkaConfig {
 
+    public static final String CONFIGURATION_UPDATES_TOPIC = "configuration-updates";
+
     private final KafkaProperties kafkaProperties;
 
     public KafkaConfig(KafkaProperties kafkaProperties) {
         this.kafkaProperties = kafkaProperties;
     }
 
+    /**
+     * Events are keyed by configuration id, so one configuration's events stay ordered on one partition and
+     * compaction keeps the latest event per configuration. Deletes are followed by a tombstone.
+     * Recent history is left uncompacted for watch resumes and delta consumers. Adding partitions later
+     * moves keys, so size this for growth up front.
+     */
+    @Bean
+    public NewTopic configurationUpdatesTopic(@Value("${configuration-events.topic.partitions:12}") int partitions,
+                                              @Value("${configuration-events.topic.replicas:1}") int replicas,
+                                              @Value("${configuration-events.topic.min-compaction-lag:1h}") Duration minCompactionLag,
+                                              @Value("${configuration-events.topic.tombstone-retention:1d}") Duration tombstoneRetention) {
+
+        return TopicBuilder.name(CONFIGURATION_UPDATES_TOPIC)
+                .partitions(partitions)
+                .replicas(replicas)
+                .compact()
+                .config(TopicConfig.MIN_COMPACTION_LAG_MS_CONFIG, String.valueOf(minCompactionLag.toMillis()))
+                .config(TopicConfig.DELETE_RETENTION_MS_CONFIG, String.valueOf(tombstoneRetention.toMillis()))
+                .build();
+    }
+
     @Bean
     public ProducerFactory<String, ConfigurationEvent> producerFactory() {
 
@@ -37,6 +72,10 @@ public class KafkaConfig {
         props.putIfAbsent(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, 120_000);
         props.putIfAbsent(ProducerConfig.RETRIES_CONFIG, 10);
         props.putIfAbsent(ProducerConfig.RETRY_BACKOFF_MS_CONFIG, 100L);
+        // The outbox relay sends in bursts, let the producer batch and compress them
+        props.putIfAbsent(ProducerConfig.LINGER_MS_CONFIG, 10);
+        props.putIfAbsent(ProducerConfig.BATCH_SIZE_CONFIG, 65_536);
+        props.putIfAbsent(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
 
         return new DefaultKafkaProducerFactory<>(props);
     }
@@ -46,4 +85,35 @@ public class KafkaConfig {
 
         return new KafkaTemplate<>(producerFactory());
     }
+
+    @Bean
+    public ConsumerFactory<String, ConfigurationEvent> configurationEventConsumerFactory() {
+
+        Map<String, Object> props = new HashMap<>(kafkaProperties.buildConsumerProperties());
+
+        // Only changes made after startup matter to in-process caches
+        props.putIfAbsent(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+
+        return new DefaultKafkaConsumerFactory<>(props,
+                new StringDeserializer(),
+                new JsonDeserializer<>(ConfigurationEvent.class, false));
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ConfigurationEvent> configurationEventListenerContainerFactory(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+
+        ConcurrentKafkaListenerContainerFactory<String, ConfigurationEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(configurationEventConsumerFactory());
+
+        // Boot only applies virtual threads to the listener factory it auto-configures
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("config-event-listener-");
+            executor.setVirtualThreads(true);
+            factory.getContainerProperties().setListenerTaskExecutor(executor);
+        }
+
+        return factory;
+    }
 }
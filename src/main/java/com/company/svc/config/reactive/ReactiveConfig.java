@@ -0,0 +1,150 @@
+package com.company.svc.config.reactive;
+
+import com.company.svc.config.web.RepresentationETagWebFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import java.time.Duration;
+
+import static com.company.svc.web.api.ApiConstants.EndpointPaths.CONFIGURATIONS;
+import static com.company.svc.web.api.ApiConstants.Versions.V1;
+
+/**
+ * Infrastructure of the reactive variant ({@code SPRING_PROFILES_ACTIVE=reactive}): Reactor Netty, an R2DBC pool,
+ * reactive Redis and the WebFlux codecs. JPA, Flyway and the outbox relay keep their JDBC pool.
+ * <p>
+ * The R2DBC pool is deliberately not a bean: a {@code ConnectionFactory} or reactive transaction manager bean would
+ * switch off the JDBC DataSource and the JPA transaction manager. Only the client and a transactional operator
+ * over it are exposed.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveConfig.class);
+
+    private final ConnectionPool connectionPool;
+
+    public ReactiveConfig(@Value("${reactive.r2dbc.url}") String url,
+                          @Value("${reactive.r2dbc.username:}") String username,
+                          @Value("${reactive.r2dbc.password:}") String password,
+                          @Value("${reactive.r2dbc.pool.initial-size:10}") int initialSize,
+                          @Value("${reactive.r2dbc.pool.max-size:20}") int maxSize,
+                          @Value("${reactive.r2dbc.pool.max-acquire-time:2s}") Duration maxAcquireTime,
+                          @Value("${reactive.r2dbc.pool.max-idle-time:30m}") Duration maxIdleTime) {
+
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        if (!username.isBlank()) {
+            options.option(ConnectionFactoryOptions.USER, username);
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+
+        // Fails fast like the Hikari pool instead of queueing requests behind a saturated pool
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration
+                .builder(ConnectionFactories.get(options.build()))
+                .name("config-r2dbc")
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .maxAcquireTime(maxAcquireTime)
+                .maxIdleTime(maxIdleTime)
+                .build());
+
+        logger.info("R2DBC pool [url={}, initialSize={}, maxSize={}, maxAcquireTime={}]",
+                url, initialSize, maxSize, maxAcquireTime);
+    }
+
+    /**
+     * Netty rather than Tomcat: both are on the classpath and Boot would otherwise serve WebFlux from Tomcat.
+     * Connection and request meters are published as {@code reactor.netty.http.server.*}.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+
+        NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+        // One uri tag for the whole API, per-id tags would explode the meter count
+        factory.addServerCustomizers(server -> server.metrics(true,
+                uri -> uri.startsWith(V1 + CONFIGURATIONS) ? V1 + CONFIGURATIONS : "other"));
+
+        return factory;
+    }
+
+    @Bean
+    public DatabaseClient databaseClient() {
+
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator() {
+
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionPool));
+    }
+
+    /**
+     * Reactive twin of {@code configurationCacheTemplate}: string keys, raw byte values encoded by the codec.
+     */
+    @Bean
+    public ReactiveRedisTemplate<String, byte[]> reactiveConfigurationCacheTemplate(
+            ReactiveRedisConnectionFactory connectionFactory) {
+
+        RedisSerializationContext<String, byte[]> serializationContext = RedisSerializationContext
+                .<String, byte[]>newSerializationContext(RedisSerializer.byteArray())
+                .key(RedisSerializer.string())
+                .hashKey(RedisSerializer.string())
+                .build();
+
+        return new ReactiveRedisTemplate<>(connectionFactory, serializationContext);
+    }
+
+    /**
+     * CBOR with the same mapper settings as JSON, see {@code WebConfig}. Custom codecs are consulted before the
+     * defaults, so the JSON encoder is registered again ahead of CBOR to stay the default for clients without
+     * a preference.
+     */
+    @Bean
+    public CodecCustomizer cborCodecCustomizer(Jackson2ObjectMapperBuilder builder, ObjectMapper objectMapper) {
+
+        return configurer -> {
+            ObjectMapper cborMapper = builder.createXmlMapper(false).factory(new CBORFactory()).build();
+            configurer.customCodecs().register(new Jackson2JsonEncoder(objectMapper));
+            configurer.customCodecs().register(new Jackson2CborEncoder(cborMapper));
+            configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper));
+        };
+    }
+
+    @Bean
+    public RepresentationETagWebFilter representationETagWebFilter() {
+
+        return new RepresentationETagWebFilter();
+    }
+
+    @PreDestroy
+    public void closeConnectionPool() {
+
+        connectionPool.dispose();
+    }
+}
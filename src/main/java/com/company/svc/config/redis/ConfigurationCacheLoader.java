@@ -3,32 +3,126 @@ package com.company.svc.config.redis;
 import com.company.svc.model.Configuration;
 import com.company.svc.repository.ConfigurationRepository;
 import com.company.svc.service.RedisCacheService;
-import jakarta.annotation.PostConstruct;
-import lombok.RequiredArgsConstructor;
+import com.company.svc.util.ConfigurationCursor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Warms Redis from the database in keyset-ordered pages, writing each page with one pipeline.
+ * By default it runs in the background once the application is ready; with
+ * {@code cache.warmup.gate-readiness=true} it runs as an ApplicationRunner so readiness waits for it.
+ */
 @Component
-@RequiredArgsConstructor
-public class ConfigurationCacheLoader {
+public class ConfigurationCacheLoader implements ApplicationRunner {
 
     private static final Logger logger = LoggerFactory.getLogger(ConfigurationCacheLoader.class);
 
     private final ConfigurationRepository configurationRepository;
     private final RedisCacheService cacheService;
+    private final AsyncTaskExecutor taskExecutor;
+    private final boolean enabled;
+    private final boolean gateReadiness;
+    private final int pageSize;
+
+    private final Counter loadedCounter;
+    private final Timer warmupTimer;
+    private final AtomicLong loaded;
+
+    public ConfigurationCacheLoader(ConfigurationRepository configurationRepository,
+                                    RedisCacheService cacheService,
+                                    @Qualifier("applicationTaskExecutor") AsyncTaskExecutor taskExecutor,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${cache.warmup.enabled:true}") boolean enabled,
+                                    @Value("${cache.warmup.gate-readiness:false}") boolean gateReadiness,
+                                    @Value("${cache.warmup.page-size:1000}") int pageSize) {
+        this.configurationRepository = configurationRepository;
+        this.cacheService = cacheService;
+        this.taskExecutor = taskExecutor;
+        this.enabled = enabled;
+        this.gateReadiness = gateReadiness;
+        this.pageSize = pageSize;
+
+        this.loadedCounter = Counter.builder("config.cache.warmup.entries")
+                .description("Configurations written to Redis by cache warm-up")
+                .register(meterRegistry);
+        this.warmupTimer = Timer.builder("config.cache.warmup.duration")
+                .description("Duration of cache warm-up runs")
+                .register(meterRegistry);
+        this.loaded = meterRegistry.gauge("config.cache.warmup.progress", new AtomicLong());
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+
+        if (enabled && gateReadiness) {
+            loadCache();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+
+        if (enabled && !gateReadiness) {
+            taskExecutor.execute(this::loadCache);
+        }
+    }
 
-    @PostConstruct
     public void loadCache() {
 
-        logger.info("Loading configurations into Redis cache...");
+        logger.info("Loading configurations into Redis cache in pages of {}...", pageSize);
+
+        long started = System.nanoTime();
+        loaded.set(0);
+
+        try {
+            Example<Configuration> all = Example.of(Configuration.builder().build());
+            ScrollPosition position = ScrollPosition.keyset();
+            Window<Configuration> page;
 
-        int count = 0;
-        for (Configuration config : configurationRepository.findAll()) {
-            cacheService.put(config);
-            count++;
+            do {
+                ScrollPosition current = position;
+                page = configurationRepository.findBy(all,
+                        query -> query.sortBy(ConfigurationCursor.KEYSET_SORT).limit(pageSize).scroll(current));
+
+                if (!page.isEmpty()) {
+                    cacheService.warmAll(page.getContent());
+                    loadedCounter.increment(page.size());
+                    long total = loaded.addAndGet(page.size());
+                    logger.info("Cache warm-up progress: {} configurations ({} /s)", total, rate(total, started));
+                    position = page.positionAt(page.size() - 1);
+                }
+            } while (page.hasNext());
+
+        } catch (RuntimeException e) {
+            logger.error("Cache warm-up aborted after {} configurations. Reads fall back to the database.", loaded.get(), e);
+            return;
+        } finally {
+            warmupTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
         }
 
-        logger.info("Loaded {} configurations into Redis cache", count);
+        logger.info("Loaded {} configurations into Redis cache ({} /s)", loaded.get(), rate(loaded.get(), started));
+    }
+
+    private long rate(long total, long startedNanos) {
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startedNanos) / 1_000_000);
+        return total * 1000 / elapsedMillis;
     }
 }
@@ -1,10 +1,17 @@
 package com.company.svc.config.redis;
 
+import com.company.svc.service.codec.BinaryConfigurationCodec;
+import com.company.svc.service.codec.CompressionAlgorithm;
+import com.company.svc.service.codec.ConfigurationCodec;
+import com.company.svc.service.codec.JsonConfigurationCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
 @Configuration
 public class RedisConfig {
@@ -23,4 +30,34 @@ public class RedisConfig {
 
         return template;
     }
+
+    /**
+     * String keys, raw byte values: cache entries are encoded by {@link ConfigurationCodec}, not by the template.
+     */
+    @Bean
+    public RedisTemplate<String, byte[]> configurationCacheTemplate(RedisConnectionFactory connectionFactory) {
+
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(RedisSerializer.string());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.setEnableDefaultSerializer(false);
+
+        return template;
+    }
+
+    @Bean
+    public ConfigurationCodec configurationCodec(ObjectMapper objectMapper,
+                                                 @Value("${cache.codec.format:binary}") String format,
+                                                 @Value("${cache.codec.compression:LZ4}") CompressionAlgorithm compression,
+                                                 @Value("${cache.codec.compression-threshold-bytes:1024}") int compressionThresholdBytes) {
+
+        JsonConfigurationCodec jsonCodec = new JsonConfigurationCodec(objectMapper);
+
+        return switch (format) {
+            case "json" -> jsonCodec;
+            case "binary" -> new BinaryConfigurationCodec(compression, compressionThresholdBytes, jsonCodec);
+            default -> throw new IllegalArgumentException("Unknown cache.codec.format '" + format + "'");
+        };
+    }
 }
@@ -0,0 +1,408 @@
+package com.company.svc.config.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Turns the state tags set by the controllers ({@code "<id>-<version>"}, collection digests) into tags of the
+ * representation actually sent: {@code "<id>-<version>.cbor+gzip"} differs from {@code "<id>-<version>.json"}, so a
+ * cache never serves one for the other, and every tagged response varies by {@code Accept} and
+ * {@code Accept-Encoding}.
+ * <p>
+ * The container does not compress responses with a strong ETag, so tagged responses are gzipped here whenever the
+ * client accepts it, regardless of size, which keeps the tag a function of the request alone. Untagged responses
+ * (streams, errors) pass through and are left to {@code server.compression}. If-None-Match tags naming the
+ * representation this request would get are mapped back to the state tag before the controller compares them.
+ */
+public class RepresentationETagFilter extends OncePerRequestFilter {
+
+    private static final String GZIP = "gzip";
+    private static final String WEAK_PREFIX = "W/";
+    private static final String VARY = HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String mediaSuffix = predictedMediaSuffix(request.getHeader(HttpHeaders.ACCEPT));
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+
+        RepresentationResponse representationResponse = new RepresentationResponse(response, mediaSuffix, gzip);
+        filterChain.doFilter(new RepresentationRequest(request, suffix(mediaSuffix, gzip)), representationResponse);
+
+        // Streaming and SSE responses finish on their own; none of them is tagged
+        if (!request.isAsyncStarted()) {
+            representationResponse.finish();
+        }
+    }
+
+    /**
+     * Whether an Accept-Encoding header value allows gzip, i.e. names it without {@code q=0}.
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        for (String candidate : acceptEncoding.split(",")) {
+            String[] parts = candidate.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase(GZIP)) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+
+        return false;
+    }
+
+    // Mirrors content negotiation between the JSON and CBOR converters: highest quality first, a concrete type
+    // over a wildcard, JSON for wildcards and clients without a preference
+    public static String predictedMediaSuffix(String accept) {
+
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON.getSubtype();
+        }
+
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON.getSubtype();
+        }
+
+        MediaType best = null;
+        for (MediaType mediaType : accepted) {
+            if (mediaType.getQualityValue() == 0
+                    || !(mediaType.includes(MediaType.APPLICATION_JSON) || mediaType.includes(MediaType.APPLICATION_CBOR))) {
+                continue;
+            }
+            if (best == null || mediaType.getQualityValue() > best.getQualityValue()
+                    || (mediaType.getQualityValue() == best.getQualityValue() && best.isWildcardSubtype()
+                    && !mediaType.isWildcardSubtype())) {
+                best = mediaType;
+            }
+        }
+
+        return best != null && !best.isWildcardSubtype() && best.includes(MediaType.APPLICATION_CBOR)
+                ? MediaType.APPLICATION_CBOR.getSubtype()
+                : MediaType.APPLICATION_JSON.getSubtype();
+    }
+
+    /**
+     * Representation part of a tag, e.g. {@code .cbor+gzip}.
+     */
+    public static String suffix(String mediaSuffix, boolean gzip) {
+
+        return "." + mediaSuffix + (gzip ? "+" + GZIP : "");
+    }
+
+    public static boolean isStrong(String eTag) {
+
+        return !eTag.startsWith(WEAK_PREFIX) && eTag.length() > 1 && eTag.startsWith("\"") && eTag.endsWith("\"");
+    }
+
+    /**
+     * Maps If-None-Match tags naming the representation with the given suffix back to state tags.
+     */
+    public static String toStateTags(String ifNoneMatch, String suffix) {
+
+        StringBuilder stateTags = new StringBuilder();
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            String end = suffix + "\"";
+            if (tag.endsWith(end) && tag.length() > end.length() + 1) {
+                tag = tag.substring(0, tag.length() - end.length()) + "\"";
+            }
+            stateTags.append(stateTags.isEmpty() ? "" : ", ").append(tag);
+        }
+
+        return stateTags.toString();
+    }
+
+    /**
+     * Tag of the representation sent: the state tag with the media subtype of {@code contentType} (the prediction
+     * when there is none) and the coding appended.
+     */
+    public static String representationTag(String stateTag, String contentType, String predictedMediaSuffix, boolean gzip) {
+
+        if (!stateTag.endsWith("\"") || stateTag.length() < 2) {
+            return stateTag;
+        }
+
+        String mediaSuffix = predictedMediaSuffix;
+        if (contentType != null) {
+            try {
+                mediaSuffix = MediaType.parseMediaType(contentType).getSubtype();
+            } catch (InvalidMediaTypeException e) {
+                // Keep the prediction
+            }
+        }
+
+        return stateTag.substring(0, stateTag.length() - 1) + suffix(mediaSuffix, gzip) + "\"";
+    }
+
+    private static class RepresentationRequest extends HttpServletRequestWrapper {
+
+        private final String suffix;
+
+        RepresentationRequest(HttpServletRequest request, String suffix) {
+            super(request);
+            this.suffix = suffix;
+        }
+
+        @Override
+        public String getHeader(String name) {
+
+            String value = super.getHeader(name);
+            return value != null && HttpHeaders.IF_NONE_MATCH.equalsIgnoreCase(name) ? toStateTags(value, suffix) : value;
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+
+            if (!HttpHeaders.IF_NONE_MATCH.equalsIgnoreCase(name)) {
+                return super.getHeaders(name);
+            }
+
+            List<String> values = Collections.list(super.getHeaders(name));
+            values.replaceAll(value -> toStateTags(value, suffix));
+            return Collections.enumeration(values);
+        }
+    }
+
+    private static class RepresentationResponse extends HttpServletResponseWrapper {
+
+        private final String predictedMediaSuffix;
+        private final boolean acceptsGzip;
+
+        // Held back until the body starts, when the content type is known and compression is decided
+        private String stateTag;
+        private Long contentLength;
+        private boolean decided;
+        private GzipOutputStream gzipOutputStream;
+        private PrintWriter writer;
+
+        RepresentationResponse(HttpServletResponse response, String predictedMediaSuffix, boolean acceptsGzip) {
+            super(response);
+            this.predictedMediaSuffix = predictedMediaSuffix;
+            this.acceptsGzip = acceptsGzip;
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+
+            if (!decided && hold(name, value)) {
+                return;
+            }
+            super.setHeader(name, value);
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+
+            if (!decided && hold(name, value)) {
+                return;
+            }
+            super.addHeader(name, value);
+        }
+
+        @Override
+        public void setContentLength(int length) {
+
+            setContentLengthLong(length);
+        }
+
+        @Override
+        public void setContentLengthLong(long length) {
+
+            if (!decided) {
+                contentLength = length;
+                return;
+            }
+            if (gzipOutputStream == null) {
+                super.setContentLengthLong(length);
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+
+            decide();
+            return gzipOutputStream != null ? gzipOutputStream : super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+
+            decide();
+            if (gzipOutputStream == null) {
+                return super.getWriter();
+            }
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(gzipOutputStream, getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+
+            decide();
+            if (writer != null) {
+                writer.flush();
+            }
+            if (gzipOutputStream != null) {
+                gzipOutputStream.flush();
+            }
+            super.flushBuffer();
+        }
+
+        @Override
+        public void reset() {
+
+            super.reset();
+            if (!decided) {
+                stateTag = null;
+                contentLength = null;
+            }
+        }
+
+        void finish() throws IOException {
+
+            decide();
+            if (writer != null) {
+                writer.flush();
+            }
+            if (gzipOutputStream != null) {
+                gzipOutputStream.finish();
+            }
+        }
+
+        private boolean hold(String name, String value) {
+
+            if (HttpHeaders.ETAG.equalsIgnoreCase(name)) {
+                stateTag = value;
+                return true;
+            }
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                contentLength = value != null ? Long.valueOf(value) : null;
+                return true;
+            }
+            return false;
+        }
+
+        private void decide() throws IOException {
+
+            if (decided) {
+                return;
+            }
+            decided = true;
+
+            if (stateTag == null) {
+                applyContentLength();
+                return;
+            }
+
+            String contentEncoding = getHeader(HttpHeaders.CONTENT_ENCODING);
+            boolean compress = acceptsGzip && isStrong(stateTag) && contentEncoding == null
+                    && getStatus() >= 200 && getStatus() < 300 && getStatus() != SC_NO_CONTENT;
+            boolean gzip = compress || GZIP.equalsIgnoreCase(contentEncoding)
+                    || (getStatus() == SC_NOT_MODIFIED && acceptsGzip);
+
+            super.setHeader(HttpHeaders.ETAG, representationTag(stateTag, getContentType(), predictedMediaSuffix, gzip));
+            super.addHeader(HttpHeaders.VARY, VARY);
+
+            if (compress) {
+                super.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+                gzipOutputStream = new GzipOutputStream(super.getOutputStream());
+            } else {
+                applyContentLength();
+            }
+        }
+
+        private void applyContentLength() {
+
+            if (contentLength != null) {
+                super.setContentLengthLong(contentLength);
+            }
+        }
+    }
+
+    private static class GzipOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream target;
+        private final GZIPOutputStream gzip;
+        private boolean finished;
+
+        GzipOutputStream(ServletOutputStream target) throws IOException {
+            this.target = target;
+            this.gzip = new GZIPOutputStream(target, true);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+
+            gzip.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+
+            gzip.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+
+            if (!finished) {
+                gzip.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+
+            finish();
+            target.close();
+        }
+
+        @Override
+        public boolean isReady() {
+
+            return target.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+
+            target.setWriteListener(writeListener);
+        }
+
+        void finish() throws IOException {
+
+            if (!finished) {
+                finished = true;
+                gzip.finish();
+                target.flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.company.svc.config.web;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * WebFlux counterpart of {@link RepresentationETagFilter} for the reactive variant: the same representation tags,
+ * {@code Vary} header and If-None-Match mapping. Tagged responses are gzipped here as well, so the tag never depends
+ * on whether Netty's size threshold compressed the body; Netty leaves responses with a Content-Encoding alone.
+ */
+public class RepresentationETagWebFilter implements WebFilter {
+
+    private static final String GZIP = "gzip";
+    private static final String VARY = HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+
+        HttpHeaders requestHeaders = exchange.getRequest().getHeaders();
+        String mediaSuffix = RepresentationETagFilter.predictedMediaSuffix(requestHeaders.getFirst(HttpHeaders.ACCEPT));
+        boolean gzip = RepresentationETagFilter.acceptsGzip(requestHeaders.getFirst(HttpHeaders.ACCEPT_ENCODING));
+        String suffix = RepresentationETagFilter.suffix(mediaSuffix, gzip);
+
+        ServerHttpRequest request = exchange.getRequest();
+        List<String> ifNoneMatch = requestHeaders.get(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            List<String> stateTags = ifNoneMatch.stream()
+                    .map(value -> RepresentationETagFilter.toStateTags(value, suffix))
+                    .toList();
+            request = request.mutate().headers(headers -> headers.put(HttpHeaders.IF_NONE_MATCH, stateTags)).build();
+        }
+
+        return chain.filter(exchange.mutate()
+                .request(request)
+                .response(new RepresentationResponse(exchange.getResponse(), mediaSuffix, gzip))
+                .build());
+    }
+
+    private static class RepresentationResponse extends ServerHttpResponseDecorator {
+
+        private final String predictedMediaSuffix;
+        private final boolean acceptsGzip;
+        private boolean decided;
+
+        RepresentationResponse(ServerHttpResponse response, String predictedMediaSuffix, boolean acceptsGzip) {
+            super(response);
+            this.predictedMediaSuffix = predictedMediaSuffix;
+            this.acceptsGzip = acceptsGzip;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+
+            if (!decide(true)) {
+                return super.writeWith(body);
+            }
+
+            return super.writeWith(DataBufferUtils.join(body).map(this::gzip));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+
+            // Streams are never tagged
+            decide(false);
+            return super.writeAndFlushWith(body);
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+
+            decide(false);
+            return super.setComplete();
+        }
+
+        // Rewrites the state tag once the content type and status are known; true when the body is to be gzipped here
+        private boolean decide(boolean hasBody) {
+
+            if (decided) {
+                return false;
+            }
+            decided = true;
+
+            HttpHeaders headers = getHeaders();
+            String stateTag = headers.getETag();
+            if (stateTag == null) {
+                return false;
+            }
+
+            HttpStatusCode status = getStatusCode() != null ? getStatusCode() : HttpStatus.OK;
+            String contentEncoding = headers.getFirst(HttpHeaders.CONTENT_ENCODING);
+            boolean compress = hasBody && acceptsGzip && RepresentationETagFilter.isStrong(stateTag)
+                    && contentEncoding == null && status.is2xxSuccessful() && !status.isSameCodeAs(HttpStatus.NO_CONTENT);
+            boolean gzip = compress || GZIP.equalsIgnoreCase(contentEncoding)
+                    || (status.isSameCodeAs(HttpStatus.NOT_MODIFIED) && acceptsGzip);
+
+            MediaType contentType = headers.getContentType();
+            headers.setETag(RepresentationETagFilter.representationTag(stateTag,
+                    contentType != null ? contentType.toString() : null, predictedMediaSuffix, gzip));
+            headers.add(HttpHeaders.VARY, VARY);
+
+            if (compress) {
+                headers.set(HttpHeaders.CONTENT_ENCODING, GZIP);
+                headers.remove(HttpHeaders.CONTENT_LENGTH);
+            }
+
+            return compress;
+        }
+
+        private DataBuffer gzip(DataBuffer buffer) {
+
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (InputStream in = buffer.asInputStream(true); GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                in.transferTo(out);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to compress response", e);
+            }
+
+            getHeaders().setContentLength(compressed.size());
+            return bufferFactory().wrap(compressed.toByteArray());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.company.svc.config.web;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+// Servlet stack only; the reactive variant has its own codecs and filter in ReactiveConfig
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class WebConfig {
+
+    /**
+     * CBOR representation of every JSON endpoint, chosen with {@code Accept: application/cbor}. Same mapper
+     * settings as the JSON converter; it replaces the MVC default CBOR converter in place, so JSON stays the
+     * default for clients without a preference.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+
+        return new MappingJackson2CborHttpMessageConverter(builder.createXmlMapper(false).factory(new CBORFactory()).build());
+    }
+
+    /**
+     * Representation-specific ETags, and gzip for tagged responses the container would leave uncompressed.
+     */
+    @Bean
+    public RepresentationETagFilter representationETagFilter() {
+
+        return new RepresentationETagFilter();
+    }
+}
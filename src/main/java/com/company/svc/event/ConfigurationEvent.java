@@ -1,13 +1,17 @@
 package com.company.svc.event;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.OffsetDateTime;
 import java.util.UUID;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
 public class ConfigurationEvent {
 
     private UUID id;
@@ -15,6 +19,12 @@ public class ConfigurationEvent {
     private String application;
     private String environment;
     private String content;
+    private Integer version;
     private EventType eventType;
     private OffsetDateTime timestamp;
+
+    // Delta events leave content null and carry the patch that turns baseVersion's content into this version's
+    private Integer baseVersion;
+    private String contentPatch;
+    private String contentPatchType;
 }
@@ -0,0 +1,14 @@
+package com.company.svc.exception;
+
+public class CacheCodecException extends RuntimeException {
+
+    public CacheCodecException(String message) {
+
+        super(message);
+    }
+
+    public CacheCodecException(String message, Throwable cause) {
+
+        super(message, cause);
+    }
+}
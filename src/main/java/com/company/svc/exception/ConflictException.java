@@ -0,0 +1,12 @@
+package com.company.svc.exception;
+
+/**
+ * A write kept losing to concurrent writers and was given up; the client should re-read and retry.
+ */
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+
+        super(message);
+    }
+}
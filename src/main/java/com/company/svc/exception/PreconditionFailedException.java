@@ -0,0 +1,12 @@
+package com.company.svc.exception;
+
+/**
+ * An If-Match precondition did not hold: the resource has moved on from the version the client last saw.
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.company.svc.exception;
+
+/**
+ * A well-formed patch that cannot be applied to the current content: a missing path, a failed {@code test}
+ * operation or content that is not JSON.
+ */
+public class UnprocessablePatchException extends RuntimeException {
+
+    public UnprocessablePatchException(String message) {
+
+        super(message);
+    }
+}
@@ -2,6 +2,8 @@ package com.company.svc.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.Length;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.OffsetDateTime;
 import java.util.UUID;
@@ -11,12 +13,16 @@ import java.util.UUID;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
-@Table(name = "configurations")
+@Builder(toBuilder = true)
+// Mirrors the V5 constraint, so the generated test schema enforces the key as well
+@Table(name = "configurations", uniqueConstraints = @UniqueConstraint(
+        name = "uq_configurations_app_env_name", columnNames = {"application", "environment", "name"}))
 public class Configuration {
 
+    // Time-ordered ids are generated in memory, so inserts batch and land at the right edge of the index
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedValue
+    @UuidGenerator(style = UuidGenerator.Style.TIME)
     private UUID id;
 
     @Column(nullable = false)
@@ -28,9 +34,13 @@ public class Configuration {
     @Column(nullable = false)
     private String environment;
 
+    // Optimistic lock: entity writes check and bump it, single-statement writes do the same in their WHERE clause
+    @Version
     @Column(nullable = false)
     private Integer version;
 
+    // TEXT in the schema; without a length the generated test schema would cap it at 255 characters
+    @Column(length = Length.LONG32)
     private String content;
 
     @Column(nullable = false)
@@ -38,4 +48,13 @@ public class Configuration {
 
     @Column(nullable = false)
     private OffsetDateTime updatedAt;
+
+    // Left null until persist so Spring Data treats the entity as new; versions start at 1, not Hibernate's 0
+    @PrePersist
+    void initializeVersion() {
+
+        if (version == null) {
+            version = 1;
+        }
+    }
 }
@@ -0,0 +1,14 @@
+package com.company.svc.model;
+
+import java.util.UUID;
+
+/**
+ * Closed projection of a configuration's unique key within its namespace, used to check
+ * bulk writes for key clashes before they reach the constraint.
+ */
+public interface ConfigurationKeyView {
+
+    UUID getId();
+
+    String getName();
+}
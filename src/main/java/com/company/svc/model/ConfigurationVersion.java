@@ -0,0 +1,68 @@
+package com.company.svc.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.Length;
+
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * One revision in a configuration's history. Snapshot rows hold the full content; delta rows hold only
+ * the text that replaced the middle of the previous revision's content, between an unchanged prefix and suffix.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@IdClass(ConfigurationVersion.Key.class)
+@Table(name = "configuration_versions")
+public class ConfigurationVersion {
+
+    @Id
+    private UUID configurationId;
+
+    @Id
+    private Integer version;
+
+    @Column(nullable = false)
+    private boolean snapshot;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private String application;
+
+    @Column(nullable = false)
+    private String environment;
+
+    // Full content for snapshots, the replacement text for deltas
+    @Column(length = Length.LONG32)
+    private String content;
+
+    // Deltas only: characters kept from the start and the end of the previous content
+    private Integer prefixLength;
+
+    private Integer suffixLength;
+
+    @Column(nullable = false)
+    private OffsetDateTime createdAt;
+
+    // When this revision became current (the configuration's updatedAt)
+    @Column(nullable = false)
+    private OffsetDateTime recordedAt;
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+
+        private UUID configurationId;
+        private Integer version;
+    }
+}
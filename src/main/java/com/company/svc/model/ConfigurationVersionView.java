@@ -0,0 +1,14 @@
+package com.company.svc.model;
+
+import java.util.UUID;
+
+/**
+ * Closed projection of a configuration's identity and version, used to answer
+ * conditional requests without loading {@code content}.
+ */
+public interface ConfigurationVersionView {
+
+    UUID getId();
+
+    Integer getVersion();
+}
@@ -0,0 +1,39 @@
+package com.company.svc.model;
+
+import com.company.svc.event.EventType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.Length;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "configuration_outbox")
+public class OutboxEvent {
+
+    // Not pooled: ids are taken from the database at insert time, so writes to the same configuration
+    // (serialized by its row lock) get increasing ids on every instance and the relay sends them in that order
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "configuration_outbox_seq")
+    @SequenceGenerator(name = "configuration_outbox_seq", sequenceName = "configuration_outbox_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(nullable = false)
+    private UUID aggregateId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EventType eventType;
+
+    @Column(nullable = false, length = Length.LONG32)
+    private String payload;
+
+    @Column(nullable = false)
+    private OffsetDateTime createdAt;
+}
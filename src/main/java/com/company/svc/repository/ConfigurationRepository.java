@@ -1,18 +1,78 @@
 package com.company.svc.repository;
 
 import com.company.svc.model.Configuration;
+import com.company.svc.model.ConfigurationKeyView;
+import com.company.svc.model.ConfigurationVersionView;
+import jakarta.persistence.QueryHint;
 import jdk.jfr.Registered;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Every query runs in a read-only transaction unless the caller already has one, which is what lets
+ * replica routing send it to a replica. The conditional writes below join the caller's read-write transaction.
+ */
 @Registered
+@Transactional(readOnly = true)
 public interface ConfigurationRepository extends JpaRepository<Configuration, UUID> {
 
+    // Lookups below are only mapped and cached, never modified: read-only entities skip the dirty-checking snapshot
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     List<Configuration> findByApplicationAndEnvironment(String application, String environment);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     List<Configuration> findByApplicationAndEnvironmentAndName(String application, String environment, String name);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     List<Configuration> findAllByName(String name);
+
+    /**
+     * Ids and versions of a namespace, answered from the unique key's index alone.
+     */
+    List<ConfigurationVersionView> findVersionsByApplicationAndEnvironment(String application, String environment);
+
+    Optional<ConfigurationVersionView> findVersionById(UUID id);
+
+    /**
+     * Ids holding any of {@code names} in a namespace, answered from the unique key's index alone.
+     */
+    List<ConfigurationKeyView> findKeysByApplicationAndEnvironmentAndNameIn(String application, String environment,
+                                                                             Collection<String> names);
+
+    /**
+     * Compare-and-set write in one statement: applies only while the row is still at {@code expectedVersion}.
+     * Returns the number of rows written, 0 when the row changed or no longer exists.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Configuration c
+            SET c.name = :name, c.application = :application, c.environment = :environment,
+                c.content = :content, c.version = :expectedVersion + 1, c.updatedAt = :updatedAt
+            WHERE c.id = :id AND c.version = :expectedVersion
+            """)
+    int updateIfVersion(@Param("id") UUID id,
+                        @Param("expectedVersion") int expectedVersion,
+                        @Param("name") String name,
+                        @Param("application") String application,
+                        @Param("environment") String environment,
+                        @Param("content") String content,
+                        @Param("updatedAt") OffsetDateTime updatedAt);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Configuration c WHERE c.id = :id AND c.version = :expectedVersion")
+    int deleteIfVersion(@Param("id") UUID id, @Param("expectedVersion") int expectedVersion);
 }
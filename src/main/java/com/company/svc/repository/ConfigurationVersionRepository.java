@@ -0,0 +1,59 @@
+package com.company.svc.repository;
+
+import com.company.svc.model.ConfigurationVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+// Queries run read-only (replica-routable) unless the caller already has a transaction, as for ConfigurationRepository
+@Transactional(readOnly = true)
+public interface ConfigurationVersionRepository extends JpaRepository<ConfigurationVersion, ConfigurationVersion.Key> {
+
+    /**
+     * Rows needed to rebuild {@code version}: the nearest snapshot at or below it and the deltas up to it,
+     * in version order. Empty when the version is not in the history.
+     */
+    @Query("""
+            SELECT v FROM ConfigurationVersion v
+            WHERE v.configurationId = :configurationId
+              AND v.version <= :version
+              AND v.version >= (SELECT MAX(s.version) FROM ConfigurationVersion s
+                                WHERE s.configurationId = :configurationId AND s.version <= :version AND s.snapshot = true)
+            ORDER BY v.version
+            """)
+    List<ConfigurationVersion> findChain(@Param("configurationId") UUID configurationId, @Param("version") int version);
+
+    @Query("""
+            SELECT MAX(s.version) FROM ConfigurationVersion s
+            WHERE s.configurationId = :configurationId AND s.version <= :version AND s.snapshot = true
+            """)
+    Optional<Integer> findSnapshotAtOrBelow(@Param("configurationId") UUID configurationId, @Param("version") int version);
+
+    Optional<ConfigurationVersion> findFirstByConfigurationIdAndRecordedAtLessThanEqualOrderByRecordedAtDescVersionDesc(
+            UUID configurationId, OffsetDateTime asOf);
+
+    /**
+     * Per configuration with more than {@code minVersions} revisions: the latest version and the first version
+     * recorded at or after {@code cutoff} (null when all are older), as {@code [id, latest, firstRecent]}.
+     */
+    @Query("""
+            SELECT v.configurationId, MAX(v.version),
+                   MIN(CASE WHEN v.recordedAt >= :cutoff THEN v.version ELSE NULL END)
+            FROM ConfigurationVersion v
+            GROUP BY v.configurationId
+            HAVING COUNT(v.version) > :minVersions
+            """)
+    List<Object[]> findCompactionCandidates(@Param("cutoff") OffsetDateTime cutoff, @Param("minVersions") long minVersions);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ConfigurationVersion v WHERE v.configurationId = :configurationId AND v.version < :version")
+    int deleteOlderThan(@Param("configurationId") UUID configurationId, @Param("version") int version);
+}
@@ -0,0 +1,24 @@
+package com.company.svc.repository;
+
+import com.company.svc.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query(value = "SELECT * FROM configuration_outbox ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<OutboxEvent> findNextBatch(@Param("limit") int limit);
+
+    /**
+     * Takes or renews the relay lease (V6). Returns 1 when {@code owner} holds it afterwards,
+     * 0 while another instance holds an unexpired lease.
+     */
+    @Modifying
+    @Query(value = "UPDATE configuration_outbox_lease SET owner = :owner, expires_at = now() + make_interval(secs => :seconds) "
+            + "WHERE name = 'relay' AND (owner = :owner OR expires_at < now())", nativeQuery = true)
+    int acquireRelayLease(@Param("owner") String owner, @Param("seconds") long seconds);
+}
@@ -0,0 +1,271 @@
+package com.company.svc.repository;
+
+import com.company.svc.model.Configuration;
+import com.company.svc.model.ConfigurationVersion;
+import com.company.svc.model.OutboxEvent;
+import io.r2dbc.spi.Readable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * R2DBC counterpart of {@link ConfigurationRepository} for the reactive variant. Same tables and the same
+ * single-statement, version-conditional writes; history and outbox rows are inserted here as well so a write
+ * and its side rows share one R2DBC transaction.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfigurationRepository {
+
+    private static final String COLUMNS = "id, name, application, environment, version, content, created_at, updated_at";
+
+    // Keyset order of the list endpoint, see ConfigurationCursor
+    private static final String KEYSET_ORDER = " ORDER BY application, environment, name, id";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveConfigurationRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<Configuration> findById(UUID id) {
+
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM configurations WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveConfigurationRepository::toConfiguration)
+                .one();
+    }
+
+    public Mono<Integer> findVersionById(UUID id) {
+
+        return databaseClient.sql("SELECT version FROM configurations WHERE id = :id")
+                .bind("id", id)
+                .map(row -> row.get("version", Integer.class))
+                .one();
+    }
+
+    /**
+     * Ids and versions matching the non-null filters, without reading {@code content}.
+     */
+    public Flux<Map.Entry<UUID, Integer>> findVersions(String name, String application, String environment) {
+
+        return filtered("SELECT id, version FROM configurations", name, application, environment, KEYSET_ORDER)
+                .map(row -> Map.entry(row.get("id", UUID.class), row.get("version", Integer.class)))
+                .all();
+    }
+
+    public Flux<Configuration> findAllById(Collection<UUID> ids) {
+
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM configurations WHERE id IN (:ids)")
+                .bind("ids", ids)
+                .map(ReactiveConfigurationRepository::toConfiguration)
+                .all();
+    }
+
+    /**
+     * Configurations matching the non-null filters in keyset order; rows are emitted as they are read.
+     */
+    public Flux<Configuration> findAll(String name, String application, String environment) {
+
+        return filtered("SELECT " + COLUMNS + " FROM configurations", name, application, environment, KEYSET_ORDER)
+                .map(ReactiveConfigurationRepository::toConfiguration)
+                .all();
+    }
+
+    /**
+     * Up to {@code limit} configurations after the given keyset position (all from the start when null),
+     * in keyset order.
+     */
+    public Flux<Configuration> findPage(String name, String application, String environment,
+                                        Map<String, ?> after, int limit) {
+
+        Map<String, Object> conditions = filters(name, application, environment);
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM configurations");
+        appendWhere(sql, conditions.keySet());
+        if (after != null && !after.isEmpty()) {
+            sql.append(conditions.isEmpty() ? " WHERE " : " AND ")
+                    .append("(application, environment, name, id) > (:afterApplication, :afterEnvironment, :afterName, :afterId)");
+        }
+        sql.append(KEYSET_ORDER).append(" LIMIT :limit");
+
+        GenericExecuteSpec spec = bindAll(databaseClient.sql(sql.toString()), conditions).bind("limit", limit);
+        if (after != null && !after.isEmpty()) {
+            spec = spec.bind("afterApplication", after.get("application"))
+                    .bind("afterEnvironment", after.get("environment"))
+                    .bind("afterName", after.get("name"))
+                    .bind("afterId", after.get("id"));
+        }
+
+        return spec.map(ReactiveConfigurationRepository::toConfiguration).all();
+    }
+
+    public Mono<Long> insert(Configuration configuration) {
+
+        return databaseClient.sql("""
+                        INSERT INTO configurations (id, name, application, environment, version, content, created_at, updated_at)
+                        VALUES (:id, :name, :application, :environment, :version, :content, :createdAt, :updatedAt)
+                        """)
+                .bind("id", configuration.getId())
+                .bind("name", configuration.getName())
+                .bind("application", configuration.getApplication())
+                .bind("environment", configuration.getEnvironment())
+                .bind("version", configuration.getVersion())
+                .bind("content", configuration.getContent())
+                .bind("createdAt", configuration.getCreatedAt())
+                .bind("updatedAt", configuration.getUpdatedAt())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Same compare-and-set write as {@link ConfigurationRepository#updateIfVersion}: 1 when applied,
+     * 0 when the row changed or no longer exists.
+     */
+    public Mono<Long> updateIfVersion(UUID id, int expectedVersion, String name, String application,
+                                      String environment, String content, OffsetDateTime updatedAt) {
+
+        return databaseClient.sql("""
+                        UPDATE configurations
+                        SET name = :name, application = :application, environment = :environment,
+                            content = :content, version = :expectedVersion + 1, updated_at = :updatedAt
+                        WHERE id = :id AND version = :expectedVersion
+                        """)
+                .bind("id", id)
+                .bind("expectedVersion", expectedVersion)
+                .bind("name", name)
+                .bind("application", application)
+                .bind("environment", environment)
+                .bind("content", content)
+                .bind("updatedAt", updatedAt)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> deleteIfVersion(UUID id, int expectedVersion) {
+
+        return databaseClient.sql("DELETE FROM configurations WHERE id = :id AND version = :expectedVersion")
+                .bind("id", id)
+                .bind("expectedVersion", expectedVersion)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> insertRevision(ConfigurationVersion revision) {
+
+        GenericExecuteSpec spec = databaseClient.sql("""
+                        INSERT INTO configuration_versions (configuration_id, version, snapshot, name, application,
+                                                            environment, content, prefix_length, suffix_length,
+                                                            created_at, recorded_at)
+                        VALUES (:configurationId, :version, :snapshot, :name, :application, :environment, :content,
+                                :prefixLength, :suffixLength, :createdAt, :recordedAt)
+                        """)
+                .bind("configurationId", revision.getConfigurationId())
+                .bind("version", revision.getVersion())
+                .bind("snapshot", revision.isSnapshot())
+                .bind("name", revision.getName())
+                .bind("application", revision.getApplication())
+                .bind("environment", revision.getEnvironment())
+                .bind("createdAt", revision.getCreatedAt())
+                .bind("recordedAt", revision.getRecordedAt());
+
+        spec = bindNullable(spec, "content", revision.getContent(), String.class);
+        spec = bindNullable(spec, "prefixLength", revision.getPrefixLength(), Integer.class);
+        spec = bindNullable(spec, "suffixLength", revision.getSuffixLength(), Integer.class);
+
+        return spec.fetch().rowsUpdated();
+    }
+
+    /**
+     * Ids are taken from the unpooled sequence at insert time, as for the JPA entity, so the relay keeps
+     * sending events of one configuration in commit order.
+     */
+    public Mono<Long> insertOutboxEvent(OutboxEvent event) {
+
+        return databaseClient.sql("""
+                        INSERT INTO configuration_outbox (id, aggregate_id, event_type, payload, created_at)
+                        VALUES (nextval('configuration_outbox_seq'), :aggregateId, :eventType, :payload, :createdAt)
+                        """)
+                .bind("aggregateId", event.getAggregateId())
+                .bind("eventType", event.getEventType().name())
+                .bind("payload", event.getPayload())
+                .bind("createdAt", event.getCreatedAt())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private GenericExecuteSpec filtered(String select, String name, String application, String environment,
+                                        String orderBy) {
+
+        Map<String, Object> conditions = filters(name, application, environment);
+        StringBuilder sql = new StringBuilder(select);
+        appendWhere(sql, conditions.keySet());
+        sql.append(orderBy);
+
+        return bindAll(databaseClient.sql(sql.toString()), conditions);
+    }
+
+    // Column (and parameter) name to value for the filters that are set; absent filters match everything
+    private static Map<String, Object> filters(String name, String application, String environment) {
+
+        Map<String, Object> conditions = new LinkedHashMap<>();
+        if (name != null) {
+            conditions.put("name", name);
+        }
+        if (application != null) {
+            conditions.put("application", application);
+        }
+        if (environment != null) {
+            conditions.put("environment", environment);
+        }
+
+        return conditions;
+    }
+
+    private static void appendWhere(StringBuilder sql, Collection<String> columns) {
+
+        List<String> predicates = new ArrayList<>(columns.size());
+        columns.forEach(column -> predicates.add(column + " = :" + column));
+        if (!predicates.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", predicates));
+        }
+    }
+
+    private static GenericExecuteSpec bindAll(GenericExecuteSpec spec, Map<String, Object> values) {
+
+        for (Map.Entry<String, Object> value : values.entrySet()) {
+            spec = spec.bind(value.getKey(), value.getValue());
+        }
+
+        return spec;
+    }
+
+    private static GenericExecuteSpec bindNullable(GenericExecuteSpec spec, String name, Object value, Class<?> type) {
+
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, type);
+    }
+
+    private static Configuration toConfiguration(Readable row) {
+
+        return Configuration.builder()
+                .id(row.get("id", UUID.class))
+                .name(row.get("name", String.class))
+                .application(row.get("application", String.class))
+                .environment(row.get("environment", String.class))
+                .version(row.get("version", Integer.class))
+                .content(row.get("content", String.class))
+                .createdAt(row.get("created_at", OffsetDateTime.class))
+                .updatedAt(row.get("updated_at", OffsetDateTime.class))
+                .build();
+    }
+}
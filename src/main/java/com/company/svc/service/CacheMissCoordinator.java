@@ -0,0 +1,150 @@
+package com.company.svc.service;
+
+import com.company.svc.model.Configuration;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Keeps an expiring hot entry from turning into a burst of identical database loads.
+ * Within a node, concurrent misses for the same id share one load (single flight). Across nodes,
+ * the loading node holds a short Redis lock; the others poll the cache briefly before loading themselves.
+ */
+@Service
+public class CacheMissCoordinator {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheMissCoordinator.class);
+
+    private final RedisCacheService cacheService;
+    private final boolean distributedLockEnabled;
+    private final Duration lockTtl;
+    private final Duration lockWaitInterval;
+    private final int lockWaitAttempts;
+
+    private final Map<UUID, CompletableFuture<Configuration>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter databaseLoads;
+    private final Counter coalescedLoads;
+    private final Counter lockWaitHits;
+
+    public CacheMissCoordinator(RedisCacheService cacheService,
+                                MeterRegistry meterRegistry,
+                                @Value("${cache.stampede.distributed-lock.enabled:true}") boolean distributedLockEnabled,
+                                @Value("${cache.stampede.distributed-lock.ttl:2s}") Duration lockTtl,
+                                @Value("${cache.stampede.distributed-lock.wait-interval:25ms}") Duration lockWaitInterval,
+                                @Value("${cache.stampede.distributed-lock.wait-attempts:8}") int lockWaitAttempts) {
+        this.cacheService = cacheService;
+        this.distributedLockEnabled = distributedLockEnabled;
+        this.lockTtl = lockTtl;
+        this.lockWaitInterval = lockWaitInterval;
+        this.lockWaitAttempts = lockWaitAttempts;
+
+        this.databaseLoads = Counter.builder("config.cache.loads")
+                .description("Cache misses loaded from the database")
+                .register(meterRegistry);
+        this.coalescedLoads = Counter.builder("config.cache.loads.saved")
+                .description("Database loads avoided by stampede protection")
+                .tag("reason", "coalesced")
+                .register(meterRegistry);
+        this.lockWaitHits = Counter.builder("config.cache.loads.saved")
+                .description("Database loads avoided by stampede protection")
+                .tag("reason", "distributed-lock")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code loader} for a cache miss unless a load of the same id is already running.
+     * The loader is expected to read the database and populate the cache; its exceptions reach every waiter.
+     */
+    public Configuration load(UUID configurationId, Supplier<Configuration> loader) {
+
+        CompletableFuture<Configuration> flight = new CompletableFuture<>();
+        CompletableFuture<Configuration> running = inFlight.putIfAbsent(configurationId, flight);
+
+        if (running != null) {
+            coalescedLoads.increment();
+            return copyOf(await(running));
+        }
+
+        try {
+            Configuration configuration = loadAcrossNodes(configurationId, loader);
+            // Waiters get their own copy, the caller may go on to mutate this instance
+            flight.complete(copyOf(configuration));
+            return configuration;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(configurationId, flight);
+        }
+    }
+
+    private Configuration loadAcrossNodes(UUID configurationId, Supplier<Configuration> loader) {
+
+        if (!distributedLockEnabled) {
+            return loadFromDatabase(loader);
+        }
+
+        String token = UUID.randomUUID().toString();
+        if (cacheService.tryLockLoad(configurationId, token, lockTtl)) {
+            try {
+                return loadFromDatabase(loader);
+            } finally {
+                cacheService.unlockLoad(configurationId, token);
+            }
+        }
+
+        // Another node is loading this id, its result normally shows up in Redis within a few milliseconds
+        for (int attempt = 0; attempt < lockWaitAttempts; attempt++) {
+            try {
+                Thread.sleep(lockWaitInterval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            Configuration cached = cacheService.get(configurationId);
+            if (cached != null) {
+                lockWaitHits.increment();
+                return cached;
+            }
+        }
+
+        logger.debug("Load of configuration [id={}] on another node did not finish in time, loading locally",
+                configurationId);
+        return loadFromDatabase(loader);
+    }
+
+    private Configuration loadFromDatabase(Supplier<Configuration> loader) {
+
+        databaseLoads.increment();
+        return loader.get();
+    }
+
+    private static Configuration await(CompletableFuture<Configuration> running) {
+
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static Configuration copyOf(Configuration configuration) {
+
+        return configuration.toBuilder().build();
+    }
+}
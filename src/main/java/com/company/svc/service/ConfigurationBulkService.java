@@ -0,0 +1,309 @@
+package com.company.svc.service;
+
+import com.company.svc.event.ConfigurationEvent;
+import com.company.svc.event.EventType;
+import com.company.svc.model.Configuration;
+import com.company.svc.repository.ConfigurationRepository;
+import com.company.svc.util.ConfigurationMapper;
+import com.company.svc.web.dto.ConfigurationBulkOperation;
+import com.company.svc.web.dto.ConfigurationBulkOperation.Action;
+import com.company.svc.web.dto.ConfigurationBulkResult;
+import com.company.svc.web.dto.ConfigurationCreateRequest;
+import com.company.svc.web.dto.ConfigurationUpdateRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies many create/update/delete operations in one database transaction.
+ * Invalid items (constraint violations, unknown ids, stale versions, key clashes) are reported individually
+ * and skipped; the valid ones are written with JDBC batching together with their outbox events, then cached
+ * with one Redis pipeline.
+ */
+@Service
+public class ConfigurationBulkService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigurationBulkService.class);
+
+    private final ConfigurationRepository configurationRepository;
+    private final ConfigurationEventPublisher eventPublisher;
+    private final RedisCacheService cacheService;
+    private final ConfigurationHistoryService historyService;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+
+    public ConfigurationBulkService(ConfigurationRepository configurationRepository,
+                                    ConfigurationEventPublisher eventPublisher,
+                                    RedisCacheService cacheService,
+                                    ConfigurationHistoryService historyService,
+                                    TransactionTemplate transactionTemplate,
+                                    Validator validator) {
+        this.configurationRepository = configurationRepository;
+        this.eventPublisher = eventPublisher;
+        this.cacheService = cacheService;
+        this.historyService = historyService;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+    }
+
+    public List<ConfigurationBulkResult> apply(List<ConfigurationBulkOperation> operations) {
+
+        ConfigurationBulkResult[] results = new ConfigurationBulkResult[operations.size()];
+        List<Configuration> saved = new ArrayList<>();
+        List<Configuration> deleted = new ArrayList<>();
+        List<Configuration> previous = new ArrayList<>();
+
+        transactionTemplate.executeWithoutResult(status -> {
+
+            Map<UUID, Configuration> existing = loadTargets(operations);
+            Map<ConfigurationKey, UUID> stored = loadKeys(operations);
+            Set<UUID> touched = new HashSet<>();
+            Set<ConfigurationKey> claimed = new HashSet<>();
+
+            List<Integer> saveIndexes = new ArrayList<>();
+            List<Configuration> toSave = new ArrayList<>();
+            List<Integer> deleteIndexes = new ArrayList<>();
+            List<Configuration> toDelete = new ArrayList<>();
+
+            for (int i = 0; i < operations.size(); i++) {
+                ConfigurationBulkOperation operation = operations.get(i);
+
+                ConfigurationBulkResult failure = validate(i, operation, existing, touched, stored, claimed);
+                if (failure != null) {
+                    results[i] = failure;
+                    continue;
+                }
+
+                switch (operation.getAction()) {
+                    case CREATE -> {
+                        saveIndexes.add(i);
+                        toSave.add(ConfigurationMapper.mapToConfiguration(toCreateRequest(operation)));
+                    }
+                    case UPDATE -> {
+                        Configuration configuration = existing.get(operation.getId());
+                        previous.add(configuration.toBuilder().build());
+                        ConfigurationService.applyUpdate(configuration, toUpdateRequest(operation));
+                        saveIndexes.add(i);
+                        toSave.add(configuration);
+                    }
+                    case DELETE -> {
+                        deleteIndexes.add(i);
+                        toDelete.add(existing.get(operation.getId()));
+                    }
+                }
+            }
+
+            List<Configuration> persisted = configurationRepository.saveAll(toSave);
+            for (int j = 0; j < toDelete.size(); j++) {
+                int index = deleteIndexes.get(j);
+                Configuration configuration = toDelete.get(j);
+                // Pinned to the version read above, so a write committed since then is not silently discarded
+                if (configurationRepository.deleteIfVersion(configuration.getId(), configuration.getVersion()) == 0) {
+                    results[index] = failure(index, operations.get(index), HttpStatus.CONFLICT, String.format(
+                            "Configuration with ID [%s] changed while the batch was applied.", configuration.getId()));
+                    continue;
+                }
+                deleted.add(configuration);
+                results[index] = ConfigurationBulkResult.builder()
+                        .index(index)
+                        .action(Action.DELETE)
+                        .id(configuration.getId())
+                        .status(HttpStatus.NO_CONTENT.value())
+                        .build();
+            }
+            configurationRepository.flush();
+
+            Map<UUID, Configuration> previousById = new HashMap<>();
+            previous.forEach(configuration -> previousById.put(configuration.getId(), configuration));
+
+            for (int j = 0; j < persisted.size(); j++) {
+                int index = saveIndexes.get(j);
+                Configuration configuration = persisted.get(j);
+                Action action = operations.get(index).getAction();
+                historyService.record(previousById.get(configuration.getId()), configuration);
+                saved.add(configuration);
+                results[index] = success(index, action, configuration,
+                        action == Action.CREATE ? HttpStatus.CREATED : HttpStatus.OK);
+            }
+
+            Map<UUID, Configuration> applied = new HashMap<>();
+            saved.forEach(configuration -> applied.put(configuration.getId(), configuration));
+            deleted.forEach(configuration -> applied.put(configuration.getId(), configuration));
+
+            List<ConfigurationEvent> events = new ArrayList<>(applied.size());
+            for (ConfigurationBulkResult result : results) {
+                if (result.getStatus() >= HttpStatus.BAD_REQUEST.value()) {
+                    continue;
+                }
+                EventType eventType = switch (result.getAction()) {
+                    case CREATE -> EventType.CREATED;
+                    case UPDATE -> EventType.UPDATED;
+                    case DELETE -> EventType.DELETED;
+                };
+                events.add(ConfigurationMapper.mapToConfigurationEvent(applied.get(result.getId()), eventType));
+            }
+            eventPublisher.publishAll(events);
+        });
+
+        // Cache writes only after the transaction has committed
+        cacheService.putAll(saved);
+        cacheService.evictAll(deleted.stream().map(Configuration::getId).toList());
+
+        // Cheaper than one re-index script per item: the touched index sets are reloaded on the next read
+        List<Configuration> indexed = new ArrayList<>(previous);
+        indexed.addAll(saved);
+        indexed.addAll(deleted);
+        cacheService.evictIndexes(indexed);
+
+        logger.info("Bulk operation applied: {} saved, {} deleted, {} rejected",
+                saved.size(), deleted.size(), operations.size() - saved.size() - deleted.size());
+
+        return Arrays.asList(results);
+    }
+
+    private Map<UUID, Configuration> loadTargets(List<ConfigurationBulkOperation> operations) {
+
+        Set<UUID> ids = operations.stream()
+                .filter(operation -> operation.getAction() != Action.CREATE)
+                .map(ConfigurationBulkOperation::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+
+        return configurationRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Configuration::getId, Function.identity()));
+    }
+
+    // Existing (application, environment, name) keys the batch creates or updates to, with the id holding each
+    private Map<ConfigurationKey, UUID> loadKeys(List<ConfigurationBulkOperation> operations) {
+
+        Map<ConfigurationKey, UUID> keys = new HashMap<>();
+        operations.stream()
+                .filter(operation -> operation.getAction() != Action.DELETE)
+                .filter(operation -> operation.getApplication() != null && operation.getEnvironment() != null
+                        && operation.getName() != null)
+                .collect(Collectors.groupingBy(operation -> new Namespace(operation.getApplication(), operation.getEnvironment()),
+                        Collectors.mapping(ConfigurationBulkOperation::getName, Collectors.toSet())))
+                .forEach((namespace, names) -> configurationRepository
+                        .findKeysByApplicationAndEnvironmentAndNameIn(namespace.application(), namespace.environment(), names)
+                        .forEach(key -> keys.put(
+                                new ConfigurationKey(namespace.application(), namespace.environment(), key.getName()),
+                                key.getId())));
+
+        return keys;
+    }
+
+    private ConfigurationBulkResult validate(int index, ConfigurationBulkOperation operation,
+                                             Map<UUID, Configuration> existing, Set<UUID> touched,
+                                             Map<ConfigurationKey, UUID> stored, Set<ConfigurationKey> claimed) {
+
+        if (operation.getAction() != Action.CREATE) {
+            if (operation.getId() == null) {
+                return failure(index, operation, HttpStatus.BAD_REQUEST, "Id is required.");
+            }
+            if (!existing.containsKey(operation.getId())) {
+                return failure(index, operation, HttpStatus.NOT_FOUND,
+                        String.format("Configuration with ID [%s] not found.", operation.getId()));
+            }
+            if (!touched.add(operation.getId())) {
+                return failure(index, operation, HttpStatus.BAD_REQUEST,
+                        String.format("Configuration with ID [%s] is targeted more than once.", operation.getId()));
+            }
+            Integer current = existing.get(operation.getId()).getVersion();
+            if (operation.getVersion() != null && !operation.getVersion().equals(current)) {
+                return failure(index, operation, HttpStatus.PRECONDITION_FAILED, String.format(
+                        "Configuration with ID [%s] is at version %d, not %d.",
+                        operation.getId(), current, operation.getVersion()));
+            }
+        }
+
+        if (operation.getAction() == Action.DELETE) {
+            return null;
+        }
+
+        Set<? extends ConstraintViolation<?>> violations = operation.getAction() == Action.CREATE
+                ? validator.validate(toCreateRequest(operation))
+                : validator.validate(toUpdateRequest(operation));
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(" "));
+            return failure(index, operation, HttpStatus.BAD_REQUEST, message);
+        }
+
+        // Keys are checked against the rows as read, not as the batch leaves them: inserts flush before deletes
+        ConfigurationKey key = new ConfigurationKey(operation.getApplication(), operation.getEnvironment(), operation.getName());
+        UUID holder = stored.get(key);
+        if ((holder != null && !holder.equals(operation.getId())) || !claimed.add(key)) {
+            return failure(index, operation, HttpStatus.CONFLICT, String.format(
+                    "Configuration [%s] already exists in [%s/%s].", key.name(), key.application(), key.environment()));
+        }
+
+        return null;
+    }
+
+    private ConfigurationBulkResult success(int index, Action action, Configuration configuration, HttpStatus status) {
+
+        return ConfigurationBulkResult.builder()
+                .index(index)
+                .action(action)
+                .id(configuration.getId())
+                .status(status.value())
+                .configuration(ConfigurationMapper.mapToResponse(configuration))
+                .build();
+    }
+
+    private ConfigurationBulkResult failure(int index, ConfigurationBulkOperation operation,
+                                            HttpStatus status, String message) {
+
+        return ConfigurationBulkResult.builder()
+                .index(index)
+                .action(operation.getAction())
+                .id(operation.getId())
+                .status(status.value())
+                .message(message)
+                .build();
+    }
+
+    private ConfigurationCreateRequest toCreateRequest(ConfigurationBulkOperation operation) {
+
+        return ConfigurationCreateRequest.builder()
+                .name(operation.getName())
+                .application(operation.getApplication())
+                .environment(operation.getEnvironment())
+                .content(operation.getContent())
+                .build();
+    }
+
+    private ConfigurationUpdateRequest toUpdateRequest(ConfigurationBulkOperation operation) {
+
+        return new ConfigurationUpdateRequest(operation.getName(), operation.getApplication(),
+                operation.getEnvironment(), operation.getContent());
+    }
+
+    private record Namespace(String application, String environment) {
+    }
+
+    private record ConfigurationKey(String application, String environment, String name) {
+    }
+}
@@ -0,0 +1,60 @@
+package com.company.svc.service;
+
+import com.company.svc.config.kafka.KafkaConfig;
+import com.company.svc.event.ConfigurationEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consumes configuration changes on every replica: evicts the near cache entry, updates namespace
+ * snapshots, records the write for read-your-writes routing and fans the event out to watch subscribers.
+ * Each instance consumes with its own group so all replicas see every event.
+ */
+@Component
+public class ConfigurationEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigurationEventListener.class);
+
+    private final NearCacheService nearCacheService;
+    private final NamespaceSnapshotService snapshotService;
+    private final ConfigurationWatchService watchService;
+    private final RecentWrites recentWrites;
+
+    public ConfigurationEventListener(NearCacheService nearCacheService, NamespaceSnapshotService snapshotService,
+                                      ConfigurationWatchService watchService, RecentWrites recentWrites) {
+        this.nearCacheService = nearCacheService;
+        this.snapshotService = snapshotService;
+        this.watchService = watchService;
+        this.recentWrites = recentWrites;
+    }
+
+    @KafkaListener(
+            topics = KafkaConfig.CONFIGURATION_UPDATES_TOPIC,
+            groupId = "config-svc-instance-${random.uuid}",
+            containerFactory = "configurationEventListenerContainerFactory",
+            autoStartup = "${configuration-events.listener.enabled:true}")
+    public void onConfigurationEvent(@Payload(required = false) ConfigurationEvent event,
+                                     @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                                     @Header(KafkaHeaders.OFFSET) long offset) {
+
+        // Tombstones follow the DELETED event they compact away, there is nothing left to do for them
+        if (event == null || event.getId() == null) {
+            return;
+        }
+
+        // First, so a snapshot rebuild triggered below reads the namespace from the primary
+        recentWrites.record(event);
+
+        nearCacheService.evict(event.getId());
+        logger.debug("Evicted configuration [id={}] from near cache on {} event", event.getId(), event.getEventType());
+
+        snapshotService.apply(event);
+
+        watchService.dispatch(event, partition, offset);
+    }
+}
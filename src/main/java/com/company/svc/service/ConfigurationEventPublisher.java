@@ -1,51 +1,68 @@
 package com.company.svc.service;
 
 import com.company.svc.event.ConfigurationEvent;
-import lombok.RequiredArgsConstructor;
+import com.company.svc.model.OutboxEvent;
+import com.company.svc.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Recover;
-import org.springframework.retry.annotation.Retryable;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.concurrent.ExecutionException;
+import java.time.OffsetDateTime;
+import java.util.List;
 
+/**
+ * Records configuration events in the outbox table as part of the caller's transaction.
+ * {@link OutboxRelay} delivers them to Kafka asynchronously, so request threads never wait on the broker.
+ */
 @Service
-@RequiredArgsConstructor
 public class ConfigurationEventPublisher {
 
     private static final Logger logger = LoggerFactory.getLogger(ConfigurationEventPublisher.class);
 
-    private final KafkaTemplate<String, ConfigurationEvent> kafkaTemplate;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final RecentWrites recentWrites;
 
-    private static final String TOPIC = "configuration-updates";
+    public ConfigurationEventPublisher(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper,
+                                       RecentWrites recentWrites) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.recentWrites = recentWrites;
+    }
 
-    @Retryable(include = {Exception.class}, maxAttempts = 3,
-            backoff = @Backoff(delay = 200, multiplier = 2.0))
+    @Transactional(propagation = Propagation.MANDATORY)
     public void publish(ConfigurationEvent event) {
 
-        try {
-            var future = kafkaTemplate.send(TOPIC, event);
-            var result = future.get();
-            logger.info("ConfigurationEventPublisher sent to TOPIC {} partition {} offset {} with EVENT {}",
-                    TOPIC,
-                    result.getRecordMetadata().partition(),
-                    result.getRecordMetadata().offset(),
-                    event);
-        } catch (InterruptedException ie) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Interrupted while sending Kafka message", ie);
-        } catch (ExecutionException ee) {
-            throw new RuntimeException("Kafka send failed", ee.getCause() != null ? ee.getCause() : ee);
-        }
+        outboxEventRepository.save(toOutboxEvent(event));
+        recentWrites.record(event);
+        logger.info("ConfigurationEventPublisher recorded EVENT {} in outbox", event);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishAll(List<ConfigurationEvent> events) {
+
+        outboxEventRepository.saveAll(events.stream().map(this::toOutboxEvent).toList());
+        events.forEach(recentWrites::record);
+        logger.info("ConfigurationEventPublisher recorded {} events in outbox", events.size());
     }
 
-    @Recover
-    public void recover(Exception ex, ConfigurationEvent event) {
+    // Also used by the reactive variant, which inserts the row itself
+    OutboxEvent toOutboxEvent(ConfigurationEvent event) {
 
-        logger.error("Failed to publish ConfigurationEvent to Kafka after retries. Event={}"
-                + ", reason={}", event, ex.toString());
+        try {
+            return OutboxEvent.builder()
+                    .aggregateId(event.getId())
+                    .eventType(event.getEventType())
+                    .payload(objectMapper.writeValueAsString(event))
+                    .createdAt(OffsetDateTime.now())
+                    .build();
+        } catch (JsonProcessingException e) {
+            logger.error("Could not serialize ConfigurationEvent [id={}] for the outbox.", event.getId(), e);
+            throw new RuntimeException("Failed to serialize ConfigurationEvent for the outbox", e);
+        }
     }
 }
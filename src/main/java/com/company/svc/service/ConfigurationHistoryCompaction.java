@@ -0,0 +1,77 @@
+package com.company.svc.service;
+
+import com.company.svc.repository.ConfigurationVersionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Trims revision history. A configuration keeps its last {@code history.retention.min-versions} revisions and
+ * everything younger than {@code history.retention.max-age}; older revisions are dropped only below a snapshot,
+ * so every remaining delta can still be rebuilt. Idempotent, safe to run on every replica.
+ */
+@Component
+@ConditionalOnProperty(name = "history.compaction.enabled", havingValue = "true", matchIfMissing = true)
+public class ConfigurationHistoryCompaction {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigurationHistoryCompaction.class);
+
+    private final ConfigurationVersionRepository versionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int minVersions;
+    private final Duration maxAge;
+    private final Counter compacted;
+
+    public ConfigurationHistoryCompaction(ConfigurationVersionRepository versionRepository,
+                                          TransactionTemplate transactionTemplate,
+                                          @Value("${history.retention.min-versions:100}") int minVersions,
+                                          @Value("${history.retention.max-age:90d}") Duration maxAge,
+                                          MeterRegistry meterRegistry) {
+        this.versionRepository = versionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.minVersions = Math.max(minVersions, 1);
+        this.maxAge = maxAge;
+        this.compacted = Counter.builder("config.history.compacted")
+                .description("Revisions removed from configuration history by retention")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${history.compaction.cron:0 30 3 * * *}")
+    public void compact() {
+
+        OffsetDateTime cutoff = OffsetDateTime.now().minus(maxAge);
+        List<Object[]> candidates = versionRepository.findCompactionCandidates(cutoff, minVersions);
+
+        long removed = 0;
+        for (Object[] candidate : candidates) {
+            UUID configurationId = (UUID) candidate[0];
+            int latest = ((Number) candidate[1]).intValue();
+            Integer firstRecent = candidate[2] != null ? ((Number) candidate[2]).intValue() : null;
+
+            int keepFrom = latest - minVersions + 1;
+            if (firstRecent != null) {
+                keepFrom = Math.min(keepFrom, firstRecent);
+            }
+            int from = keepFrom;
+
+            Integer deleted = transactionTemplate.execute(status -> versionRepository.findSnapshotAtOrBelow(configurationId, from)
+                    .map(snapshot -> versionRepository.deleteOlderThan(configurationId, snapshot))
+                    .orElse(0));
+            removed += deleted != null ? deleted : 0;
+        }
+
+        compacted.increment(removed);
+        logger.info("History compaction removed {} revisions across {} configurations", removed, candidates.size());
+    }
+}
@@ -0,0 +1,183 @@
+package com.company.svc.service;
+
+import com.company.svc.config.datasource.DataSourceRouting;
+import com.company.svc.exception.ResourceNotFoundException;
+import com.company.svc.model.Configuration;
+import com.company.svc.model.ConfigurationVersion;
+import com.company.svc.repository.ConfigurationVersionRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Revision history of configurations. Every write records the new revision in the writer's transaction:
+ * a full snapshot every {@code history.snapshot-interval} versions, otherwise the changed middle section of
+ * the content relative to the previous revision. Rebuilding any version reads one snapshot and at most
+ * interval - 1 deltas through the primary key, however long the history is.
+ */
+@Service
+public class ConfigurationHistoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigurationHistoryService.class);
+
+    private final ConfigurationVersionRepository versionRepository;
+    private final EntityManager entityManager;
+    private final RecentWrites recentWrites;
+    private final int snapshotInterval;
+
+    public ConfigurationHistoryService(ConfigurationVersionRepository versionRepository,
+                                       EntityManager entityManager,
+                                       RecentWrites recentWrites,
+                                       @Value("${history.snapshot-interval:20}") int snapshotInterval) {
+        this.versionRepository = versionRepository;
+        this.entityManager = entityManager;
+        this.recentWrites = recentWrites;
+        this.snapshotInterval = Math.max(snapshotInterval, 1);
+    }
+
+    /**
+     * Records {@code after} as a new revision. {@code before} is the revision it replaced, null for creates.
+     */
+    public void record(Configuration before, Configuration after) {
+
+        // Persisted directly: the key is assigned, so save() would first SELECT to decide between insert and merge
+        entityManager.persist(revision(before, after));
+    }
+
+    @Transactional(readOnly = true)
+    public Configuration getVersion(UUID configurationId, int version) {
+
+        // A replica may not have the revision yet when it was just written
+        List<ConfigurationVersion> chain = recentWrites.isRecent(configurationId)
+                ? DataSourceRouting.onPrimary(() -> versionRepository.findChain(configurationId, version))
+                : versionRepository.findChain(configurationId, version);
+        if (chain.isEmpty() || chain.get(chain.size() - 1).getVersion() != version) {
+            logger.warn("Version [{}] of configuration with ID [{}] not found.", version, configurationId);
+            throw new ResourceNotFoundException(
+                    String.format("Version [%d] of configuration with ID [%s] not found.", version, configurationId));
+        }
+
+        return rebuild(configurationId, chain);
+    }
+
+    @Transactional(readOnly = true)
+    public Configuration getAsOf(UUID configurationId, OffsetDateTime asOf) {
+
+        ConfigurationVersion revision = (recentWrites.isRecent(configurationId)
+                ? DataSourceRouting.onPrimary(() -> findRevisionAsOf(configurationId, asOf))
+                : findRevisionAsOf(configurationId, asOf))
+                .orElseThrow(() -> {
+                    logger.warn("No revision of configuration with ID [{}] as of [{}].", configurationId, asOf);
+                    return new ResourceNotFoundException(
+                            String.format("No revision of configuration with ID [%s] as of [%s].", configurationId, asOf));
+                });
+
+        if (revision.isSnapshot()) {
+            return rebuild(configurationId, List.of(revision));
+        }
+
+        return getVersion(configurationId, revision.getVersion());
+    }
+
+    private Optional<ConfigurationVersion> findRevisionAsOf(UUID configurationId, OffsetDateTime asOf) {
+
+        return versionRepository
+                .findFirstByConfigurationIdAndRecordedAtLessThanEqualOrderByRecordedAtDescVersionDesc(configurationId, asOf);
+    }
+
+    // Also used by the reactive variant, which inserts the row itself
+    ConfigurationVersion revision(Configuration before, Configuration after) {
+
+        ConfigurationVersion.ConfigurationVersionBuilder revision = ConfigurationVersion.builder()
+                .configurationId(after.getId())
+                .version(after.getVersion())
+                .name(after.getName())
+                .application(after.getApplication())
+                .environment(after.getEnvironment())
+                .createdAt(after.getCreatedAt())
+                .recordedAt(after.getUpdatedAt());
+
+        boolean snapshot = before == null
+                || before.getContent() == null
+                || after.getContent() == null
+                || before.getVersion() + 1 != after.getVersion()
+                || (after.getVersion() - 1) % snapshotInterval == 0;
+
+        if (!snapshot) {
+            String previous = before.getContent();
+            String current = after.getContent();
+
+            int max = Math.min(previous.length(), current.length());
+            int prefix = 0;
+            while (prefix < max && previous.charAt(prefix) == current.charAt(prefix)) {
+                prefix++;
+            }
+            // Never split a surrogate pair, the replacement has to be valid text on its own
+            if (prefix > 0 && Character.isHighSurrogate(previous.charAt(prefix - 1))) {
+                prefix--;
+            }
+            int suffix = 0;
+            while (suffix < max - prefix
+                    && previous.charAt(previous.length() - 1 - suffix) == current.charAt(current.length() - 1 - suffix)) {
+                suffix++;
+            }
+            if (suffix > 0 && Character.isLowSurrogate(previous.charAt(previous.length() - suffix))) {
+                suffix--;
+            }
+
+            String replacement = current.substring(prefix, current.length() - suffix);
+            // A delta rewriting most of the document saves little and lengthens every later rebuild
+            if (replacement.length() < current.length() / 2) {
+                return revision.snapshot(false)
+                        .content(replacement)
+                        .prefixLength(prefix)
+                        .suffixLength(suffix)
+                        .build();
+            }
+        }
+
+        return revision.snapshot(true)
+                .content(after.getContent())
+                .build();
+    }
+
+    private static Configuration rebuild(UUID configurationId, List<ConfigurationVersion> chain) {
+
+        String content = null;
+        int expected = chain.get(0).getVersion();
+        for (ConfigurationVersion revision : chain) {
+            if (revision.getVersion() != expected++) {
+                throw new IllegalStateException(String.format(
+                        "History of configuration [%s] has a gap before version [%d].", configurationId, revision.getVersion()));
+            }
+            if (revision.isSnapshot()) {
+                content = revision.getContent();
+            } else {
+                String replacement = revision.getContent() != null ? revision.getContent() : "";
+                content = content.substring(0, revision.getPrefixLength())
+                        + replacement
+                        + content.substring(content.length() - revision.getSuffixLength());
+            }
+        }
+
+        ConfigurationVersion last = chain.get(chain.size() - 1);
+        return Configuration.builder()
+                .id(configurationId)
+                .name(last.getName())
+                .application(last.getApplication())
+                .environment(last.getEnvironment())
+                .version(last.getVersion())
+                .content(content)
+                .createdAt(last.getCreatedAt())
+                .updatedAt(last.getRecordedAt())
+                .build();
+    }
+}
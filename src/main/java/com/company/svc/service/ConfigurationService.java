@@ -1,21 +1,50 @@
 package com.company.svc.service;
 
+import com.company.svc.config.datasource.DataSourceRouting;
 import com.company.svc.event.ConfigurationEvent;
 import com.company.svc.event.EventType;
+import com.company.svc.exception.ConflictException;
+import com.company.svc.exception.PreconditionFailedException;
 import com.company.svc.exception.ResourceNotFoundException;
 import com.company.svc.repository.ConfigurationRepository;
 import com.company.svc.model.Configuration;
+import com.company.svc.model.ConfigurationVersionView;
+import com.company.svc.service.patch.ContentPatch;
+import com.company.svc.util.ConfigurationCursor;
 import com.company.svc.util.ConfigurationMapper;
+import com.company.svc.util.ConfigurationObservations;
 import com.company.svc.web.dto.ConfigurationCreateRequest;
 import com.company.svc.web.dto.ConfigurationPatchRequest;
 import com.company.svc.web.dto.ConfigurationUpdateRequest;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 
 @Service
@@ -23,60 +52,213 @@ public class ConfigurationService {
 
     private static final Logger logger = LoggerFactory.getLogger(ConfigurationService.class);
 
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    // Operation and stage names used as observation tags
+    private static final String GET = "get";
+    private static final String CREATE = "create";
+    private static final String UPDATE = "update";
+    private static final String PATCH = "patch";
+    private static final String DELETE = "delete";
+
+    private static final String STAGE_CACHE_LOOKUP = "cache.lookup";
+    private static final String STAGE_DB_LOAD = "db.load";
+    private static final String STAGE_DB_WRITE = "db.write";
+    private static final String STAGE_HISTORY_WRITE = "history.write";
+    private static final String STAGE_CACHE_WRITE = "cache.write";
+    private static final String STAGE_EVENT_PUBLISH = "event.publish";
+
+    // Unconditional writes re-read and retry when they lose a race; past this they give up with 409
+    static final int MAX_WRITE_ATTEMPTS = 3;
+
+    // Index sets are unordered; results served from them use the keyset order of the list endpoint
+    static final Comparator<Configuration> INDEX_ORDER = Comparator
+            .comparing(Configuration::getApplication)
+            .thenComparing(Configuration::getEnvironment)
+            .thenComparing(Configuration::getName)
+            .thenComparing(Configuration::getId);
+
     private final ConfigurationRepository configurationRepository;
     private final ConfigurationEventPublisher eventPublisher;
     private final RedisCacheService cacheService;
+    private final EntityManager entityManager;
+    private final CacheMissCoordinator cacheMissCoordinator;
+    private final ObservationRegistry observationRegistry;
+    private final ConfigurationHistoryService historyService;
+    private final RecentWrites recentWrites;
+    private final boolean contentDeltaEvents;
 
     public ConfigurationService(ConfigurationRepository configurationRepository,
                                 ConfigurationEventPublisher eventPublisher,
-                                RedisCacheService cacheService) {
+                                RedisCacheService cacheService,
+                                EntityManager entityManager,
+                                CacheMissCoordinator cacheMissCoordinator,
+                                ObservationRegistry observationRegistry,
+                                ConfigurationHistoryService historyService,
+                                RecentWrites recentWrites,
+                                @Value("${configuration-events.content-delta.enabled:false}") boolean contentDeltaEvents) {
         this.configurationRepository = configurationRepository;
         this.eventPublisher = eventPublisher;
         this.cacheService = cacheService;
+        this.entityManager = entityManager;
+        this.cacheMissCoordinator = cacheMissCoordinator;
+        this.observationRegistry = observationRegistry;
+        this.historyService = historyService;
+        this.recentWrites = recentWrites;
+        this.contentDeltaEvents = contentDeltaEvents;
     }
 
+    @Transactional
     public Configuration create(ConfigurationCreateRequest request) {
 
-        Configuration configuration = ConfigurationMapper.mapToConfiguration(request);
+        return operation(CREATE).observe(() -> {
+
+            Configuration configuration = ConfigurationMapper.mapToConfiguration(request);
 
-        Configuration persistedConfiguration = configurationRepository.save(configuration);
-        logger.info("Configuration created with ID [{}] ", persistedConfiguration.getId());
+            // Flushed here so the INSERT is timed as part of the database stage, not the commit
+            Configuration persistedConfiguration = stage(CREATE, STAGE_DB_WRITE,
+                    () -> configurationRepository.saveAndFlush(configuration));
+            logger.info("Configuration created with ID [{}] ", persistedConfiguration.getId());
+            stage(CREATE, STAGE_HISTORY_WRITE, () -> historyService.record(null, persistedConfiguration));
 
-        cacheService.put(persistedConfiguration);
+            afterCommit(CREATE, () -> {
+                cacheService.put(persistedConfiguration);
+                cacheService.reindex(null, persistedConfiguration);
+            });
 
-        ConfigurationEvent configurationEvent = ConfigurationMapper.mapToConfigurationEvent(persistedConfiguration, EventType.CREATED);
-        eventPublisher.publish(configurationEvent);
+            ConfigurationEvent configurationEvent = ConfigurationMapper.mapToConfigurationEvent(persistedConfiguration, EventType.CREATED);
+            stage(CREATE, STAGE_EVENT_PUBLISH, () -> eventPublisher.publish(configurationEvent));
 
-        return persistedConfiguration;
+            return persistedConfiguration;
+        });
     }
 
     public Configuration getById(UUID configurationId) {
 
-        Configuration cached = cacheService.get(configurationId);
+        return operation(GET).observe(() -> find(GET, configurationId));
+    }
+
+    private Configuration find(String operation, UUID configurationId) {
+
+        Configuration cached = stage(operation, STAGE_CACHE_LOOKUP, () -> cacheService.get(configurationId));
         if (cached != null) {
             return cached;
         }
 
-        Configuration configuration = configurationRepository.findById(configurationId)
-                .orElseThrow(() -> {
-                    logger.warn("Configuration with ID [{}] not found.", configurationId);
-                    return new ResourceNotFoundException(
-                            String.format("Configuration with ID [%s] not found.", configurationId));
-                });
+        return cacheMissCoordinator.load(configurationId, () -> loadAndCache(operation, configurationId));
+    }
+
+    private Configuration loadAndCache(String operation, UUID configurationId) {
+
+        Configuration configuration = stage(operation, STAGE_DB_LOAD, () -> read(recentWrites.isRecent(configurationId),
+                        () -> configurationRepository.findById(configurationId)))
+                .orElseThrow(() -> notFound(configurationId));
 
-        cacheService.put(configuration);
+        stage(operation, STAGE_CACHE_WRITE, () -> cacheService.put(configuration));
 
         return configuration;
     }
 
+    /**
+     * Runs a query on the primary when a replica may not have replayed a recent write it depends on.
+     * Otherwise read-only transactions go wherever replica routing sends them.
+     */
+    private <T> T read(boolean recentlyWritten, Supplier<T> query) {
+
+        return recentlyWritten ? DataSourceRouting.onPrimary(query) : query.get();
+    }
+
+    private boolean recentlyWritten(String name, String application, String environment) {
+
+        if (application != null && environment != null) {
+            return recentWrites.isRecent(application, environment);
+        }
+
+        return name != null ? recentWrites.isRecentName(name) : recentWrites.isAnyRecent();
+    }
+
+    private static ResourceNotFoundException notFound(UUID configurationId) {
+
+        logger.warn("Configuration with ID [{}] not found.", configurationId);
+        return new ResourceNotFoundException(String.format("Configuration with ID [%s] not found.", configurationId));
+    }
+
+    /**
+     * Current version of a configuration, answered from the near cache or a projection query
+     * that never reads {@code content}.
+     */
+    public Integer getVersion(UUID configurationId) {
+
+        Integer cached = cacheService.getCachedVersion(configurationId);
+        if (cached != null) {
+            return cached;
+        }
+
+        return read(recentWrites.isRecent(configurationId), () -> configurationRepository.findVersionById(configurationId))
+                .map(ConfigurationVersionView::getVersion)
+                .orElseThrow(() -> notFound(configurationId));
+    }
+
+    public List<ConfigurationVersionView> findConfigurationVersions(String name, String application, String environment) {
+
+        // The common revalidation of a whole namespace is an index-only scan
+        if (name == null && application != null && environment != null) {
+            return read(recentWrites.isRecent(application, environment),
+                    () -> configurationRepository.findVersionsByApplicationAndEnvironment(application, environment));
+        }
+
+        return read(recentlyWritten(name, application, environment),
+                () -> configurationRepository.findBy(probe(name, application, environment),
+                        query -> query.as(ConfigurationVersionView.class).all()));
+    }
+
+    /**
+     * Resolves many ids with one cache multi-get and a single IN query for the misses,
+     * which are then written back to the cache in one pipelined batch.
+     * Unknown ids are skipped; the result keeps the order of the requested ids.
+     */
+    public List<Configuration> getByIds(Collection<UUID> configurationIds) {
+
+        Set<UUID> ids = new LinkedHashSet<>(configurationIds);
+        Map<UUID, Configuration> found = new HashMap<>(cacheService.getAll(ids));
+
+        List<UUID> misses = ids.stream()
+                .filter(id -> !found.containsKey(id))
+                .toList();
+
+        if (!misses.isEmpty()) {
+            List<Configuration> loaded = read(misses.stream().anyMatch(recentWrites::isRecent),
+                    () -> configurationRepository.findAllById(misses));
+            cacheService.putAll(loaded);
+            loaded.forEach(configuration -> found.put(configuration.getId(), configuration));
+            logger.info("Batch get resolved {} of {} cache misses from the database", loaded.size(), misses.size());
+        }
+
+        return ids.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
     public List<Configuration> getAll() {
 
-        return configurationRepository.findAll();
+        return read(recentWrites.isAnyRecent(), configurationRepository::findAll);
     }
 
     public List<Configuration> getByName(String name) {
 
-        List<Configuration> configurations = configurationRepository.findAllByName(name);
+        List<Configuration> configurations = cacheService.getNameIndex(name)
+                .map(ids -> getIndexed(ids, configuration -> name.equals(configuration.getName())))
+                .orElseGet(() -> {
+                    // Read first, so a write committing while we load makes the rebuild stale
+                    String generation = cacheService.getNameIndexGeneration(name);
+                    List<Configuration> loaded = read(recentWrites.isRecentName(name),
+                            () -> configurationRepository.findAllByName(name));
+                    cacheService.putAll(loaded);
+                    cacheService.indexName(name, generation, loaded);
+                    return loaded;
+                });
 
         if (configurations.isEmpty()) {
             logger.warn("Configuration with name [{}] not found.", name);
@@ -100,9 +282,46 @@ public class ConfigurationService {
         }
     }
 
+    public Window<Configuration> findConfigurationsPage(String name, String application, String environment,
+                                                        Integer limit, String cursor) {
+
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        ScrollPosition position = ConfigurationCursor.decode(cursor);
+
+        return read(recentlyWritten(name, application, environment),
+                () -> configurationRepository.findBy(probe(name, application, environment),
+                        query -> query.sortBy(ConfigurationCursor.KEYSET_SORT).limit(pageSize).scroll(position)));
+    }
+
+    /**
+     * Streams matching configurations in keyset order without materializing the result set.
+     * Each entity is detached before being handed to the consumer so the persistence context stays flat.
+     */
+    @Transactional(readOnly = true)
+    public void streamConfigurations(String name, String application, String environment,
+                                     Consumer<Configuration> consumer) {
+
+        read(recentlyWritten(name, application, environment), () -> {
+            try (Stream<Configuration> configurations = configurationRepository.findBy(
+                    probe(name, application, environment),
+                    query -> query.sortBy(ConfigurationCursor.KEYSET_SORT).stream())) {
+
+                configurations.forEach(configuration -> {
+                    entityManager.detach(configuration);
+                    consumer.accept(configuration);
+                });
+            }
+            return null;
+        });
+    }
+
     public List<Configuration> getByApplicationAndEnvironmentAndName(String application, String environment, String name) {
 
-        List<Configuration> configurations = configurationRepository.findByApplicationAndEnvironmentAndName(application, environment, name);
+        List<Configuration> configurations = cacheService.getNamespaceAndNameIndex(application, environment, name)
+                .map(ids -> getIndexed(ids, configuration -> inNamespace(configuration, application, environment)
+                        && name.equals(configuration.getName())))
+                .orElseGet(() -> read(recentWrites.isRecent(application, environment),
+                        () -> configurationRepository.findByApplicationAndEnvironmentAndName(application, environment, name)));
         if (configurations.isEmpty()) {
             logger.warn("Configuration with application [{}] and environment [{}] and name [{}] not found.",
                     application, environment, name);
@@ -116,7 +335,16 @@ public class ConfigurationService {
 
     public List<Configuration> getByApplicationAndEnvironment(String application, String environment) {
 
-        List<Configuration> configurations = configurationRepository.findByApplicationAndEnvironment(application, environment);
+        List<Configuration> configurations = cacheService.getNamespaceIndex(application, environment)
+                .map(ids -> getIndexed(ids, configuration -> inNamespace(configuration, application, environment)))
+                .orElseGet(() -> {
+                    String generation = cacheService.getNamespaceIndexGeneration(application, environment);
+                    List<Configuration> loaded = read(recentWrites.isRecent(application, environment),
+                            () -> configurationRepository.findByApplicationAndEnvironment(application, environment));
+                    cacheService.putAll(loaded);
+                    cacheService.indexNamespace(application, environment, generation, loaded);
+                    return loaded;
+                });
 
         if (configurations.isEmpty()) {
             logger.warn("Configuration with application [{}] and environment [{}] not found.", application, environment);
@@ -126,53 +354,255 @@ public class ConfigurationService {
         return configurations;
     }
 
+    @Transactional
     public Configuration update(ConfigurationUpdateRequest request, UUID configurationId) {
 
-        Configuration configuration = getById(configurationId);
+        return update(request, configurationId, null);
+    }
+
+    /**
+     * Replaces a configuration. With an {@code expectedVersion} (from If-Match) the write only applies
+     * to that version, otherwise it applies to whatever version is current.
+     */
+    @Transactional
+    public Configuration update(ConfigurationUpdateRequest request, UUID configurationId, Integer expectedVersion) {
+
+        return operation(UPDATE).observe(() -> {
+
+            AppliedWrite write = writeConditionally(UPDATE, configurationId, expectedVersion, current -> {
+                Configuration updated = current.toBuilder().build();
+                applyUpdate(updated, request);
+                return updateRow(UPDATE, current, updated);
+            });
+            Configuration updatedConfiguration = write.after();
+            logger.info("Configuration updated with ID [{}] ", updatedConfiguration.getId());
+            stage(UPDATE, STAGE_HISTORY_WRITE, () -> historyService.record(write.before(), updatedConfiguration));
+
+            afterCommit(UPDATE, () -> {
+                cacheService.put(updatedConfiguration);
+                cacheService.reindex(write.before(), updatedConfiguration);
+            });
+
+            ConfigurationEvent configurationEvent = ConfigurationMapper.mapToConfigurationEvent(updatedConfiguration, EventType.UPDATED);
+            stage(UPDATE, STAGE_EVENT_PUBLISH, () -> eventPublisher.publish(configurationEvent));
+
+            return updatedConfiguration;
+        });
+    }
 
-        applyUpdate(configuration, request);
+    @Transactional
+    public Configuration patch(ConfigurationPatchRequest request, UUID configurationId) {
+
+        return patch(request, configurationId, null);
+    }
 
-        Configuration updatedConfiguration = configurationRepository.save(configuration);
-        logger.info("Configuration updated with ID [{}] ", updatedConfiguration.getId());
+    @Transactional
+    public Configuration patch(ConfigurationPatchRequest request, UUID configurationId, Integer expectedVersion) {
 
-        cacheService.put(updatedConfiguration);
+        return operation(PATCH).observe(() -> {
 
-        ConfigurationEvent configurationEvent = ConfigurationMapper.mapToConfigurationEvent(updatedConfiguration, EventType.UPDATED);
-        eventPublisher.publish(configurationEvent);
+            AppliedWrite write = writeConditionally(PATCH, configurationId, expectedVersion, current -> {
+                Configuration patched = current.toBuilder().build();
+                applyPatch(patched, request);
+                return updateRow(PATCH, current, patched);
+            });
+            Configuration updatedConfiguration = write.after();
+            logger.info("Configuration partially updated with ID [{}] ", updatedConfiguration.getId());
+            stage(PATCH, STAGE_HISTORY_WRITE, () -> historyService.record(write.before(), updatedConfiguration));
 
-        return updatedConfiguration;
+            // A patch may move the configuration to another application/environment
+            afterCommit(PATCH, () -> {
+                cacheService.put(updatedConfiguration);
+                cacheService.reindex(write.before(), updatedConfiguration);
+            });
+
+            ConfigurationEvent configurationEvent = ConfigurationMapper.mapToConfigurationEvent(updatedConfiguration, EventType.UPDATED);
+            stage(PATCH, STAGE_EVENT_PUBLISH, () -> eventPublisher.publish(configurationEvent));
+
+            return updatedConfiguration;
+        });
     }
 
-    public Configuration patch(ConfigurationPatchRequest request, UUID configurationId) {
+    /**
+     * Applies a JSON Patch or merge patch to the stored content. The patch is re-applied to the fresh content
+     * if the write has to be retried. With content-delta events enabled, consumers receive the patch and the
+     * base version instead of the whole document whenever that is smaller.
+     */
+    @Transactional
+    public Configuration patchContent(ContentPatch patch, UUID configurationId, Integer expectedVersion) {
+
+        return operation(PATCH).observe(() -> {
+
+            AppliedWrite write = writeConditionally(PATCH, configurationId, expectedVersion, current -> {
+                Configuration patched = current.toBuilder().build();
+                patched.setContent(patch.applyTo(current.getContent()));
+                patched.setUpdatedAt(OffsetDateTime.now());
+                return updateRow(PATCH, current, patched);
+            });
+            Configuration updatedConfiguration = write.after();
+            logger.info("Configuration content patched with ID [{}] ", updatedConfiguration.getId());
+            stage(PATCH, STAGE_HISTORY_WRITE, () -> historyService.record(write.before(), updatedConfiguration));
+
+            // Name, application and environment are untouched, the index sets stay valid
+            afterCommit(PATCH, () -> cacheService.put(updatedConfiguration));
+
+            ConfigurationEvent configurationEvent = useDelta(patch, updatedConfiguration)
+                    ? ConfigurationMapper.mapToContentDeltaEvent(updatedConfiguration, write.before().getVersion(), patch)
+                    : ConfigurationMapper.mapToConfigurationEvent(updatedConfiguration, EventType.UPDATED);
+            stage(PATCH, STAGE_EVENT_PUBLISH, () -> eventPublisher.publish(configurationEvent));
+
+            return updatedConfiguration;
+        });
+    }
+
+    @Transactional
+    public void delete(UUID configurationId) {
 
-        Configuration configuration = getById(configurationId);
+        delete(configurationId, null);
+    }
 
-        applyPatch(configuration, request);
+    @Transactional
+    public void delete(UUID configurationId, Integer expectedVersion) {
 
-        Configuration updatedConfiguration = configurationRepository.save(configuration);
-        logger.info("Configuration partially updated with ID [{}] ", updatedConfiguration.getId());
+        operation(DELETE).observe(() -> {
 
-        cacheService.put(updatedConfiguration);
+            AppliedWrite write = writeConditionally(DELETE, configurationId, expectedVersion, current -> {
+                int deleted = stage(DELETE, STAGE_DB_WRITE,
+                        () -> configurationRepository.deleteIfVersion(configurationId, current.getVersion()));
+                return deleted == 1 ? current : null;
+            });
+            Configuration configuration = write.before();
+            logger.info("Configuration with ID [{}] has been deleted.", configurationId);
 
-        ConfigurationEvent configurationEvent = ConfigurationMapper.mapToConfigurationEvent(updatedConfiguration, EventType.UPDATED);
-        eventPublisher.publish(configurationEvent);
+            afterCommit(DELETE, () -> {
+                cacheService.evict(configurationId);
+                cacheService.reindex(configuration, null);
+            });
 
-        return updatedConfiguration;
+            ConfigurationEvent configurationEvent = ConfigurationMapper.mapToConfigurationEvent(configuration, EventType.DELETED);
+            stage(DELETE, STAGE_EVENT_PUBLISH, () -> eventPublisher.publish(configurationEvent));
+        });
     }
 
-    public void delete(UUID configurationId) {
+    /**
+     * Runs a version-conditional write. The first attempt goes against the cached copy, so the common case
+     * is a single statement with no read. A write that matches no row means the copy was behind or another
+     * writer got in first: the row is re-read and, unless the caller pinned a version, the write is retried.
+     * The write function returns the state it wrote, or null when no row matched.
+     */
+    private AppliedWrite writeConditionally(String operation, UUID configurationId, Integer expectedVersion,
+                                            UnaryOperator<Configuration> write) {
+
+        Configuration current = find(operation, configurationId);
+        for (int attempt = 1; ; attempt++) {
+            if (expectedVersion == null || expectedVersion.equals(current.getVersion())) {
+                Configuration written = write.apply(current);
+                if (written != null) {
+                    return new AppliedWrite(current, written);
+                }
+            }
+
+            if (attempt == MAX_WRITE_ATTEMPTS) {
+                logger.warn("Configuration with ID [{}] kept changing, giving up after {} attempts.",
+                        configurationId, attempt);
+                throw new ConflictException(String.format(
+                        "Configuration with ID [%s] was modified concurrently, please retry.", configurationId));
+            }
+
+            cacheService.evict(configurationId);
+            current = stage(operation, STAGE_DB_LOAD, () -> configurationRepository.findById(configurationId))
+                    .orElseThrow(() -> notFound(configurationId));
+
+            if (expectedVersion != null && !expectedVersion.equals(current.getVersion())) {
+                logger.info("Configuration with ID [{}] is at version [{}], If-Match expected [{}].",
+                        configurationId, current.getVersion(), expectedVersion);
+                throw new PreconditionFailedException(String.format(
+                        "Configuration with ID [%s] is at version [%d], not [%d].",
+                        configurationId, current.getVersion(), expectedVersion));
+            }
+        }
+    }
+
+    /**
+     * Defers a cache write until the surrounding transaction has committed, so readers never see an uncommitted
+     * version and a rollback leaves nothing behind in Redis or the index sets. Same rule as the bulk path.
+     */
+    private void afterCommit(String operation, Runnable cacheWrite) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            stage(operation, STAGE_CACHE_WRITE, cacheWrite);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                stage(operation, STAGE_CACHE_WRITE, cacheWrite);
+            }
+        });
+    }
+
+    private boolean useDelta(ContentPatch patch, Configuration updated) {
 
-        Configuration configuration = getById(configurationId);
-        configurationRepository.delete(configuration);
-        logger.info("Configuration with ID [{}] has been deleted.", configurationId);
+        return contentDeltaEvents
+                && updated.getContent() != null
+                && patch.documentAsString().length() < updated.getContent().length();
+    }
+
+    private Configuration updateRow(String operation, Configuration current, Configuration updated) {
+
+        updated.setVersion(current.getVersion() + 1);
+        int rows = stage(operation, STAGE_DB_WRITE, () -> configurationRepository.updateIfVersion(
+                updated.getId(), current.getVersion(),
+                updated.getName(), updated.getApplication(), updated.getEnvironment(), updated.getContent(),
+                updated.getUpdatedAt()));
+
+        return rows == 1 ? updated : null;
+    }
+
+    private Observation operation(String operation) {
+
+        return ConfigurationObservations.operation(observationRegistry, operation);
+    }
+
+    private <T> T stage(String operation, String stage, Supplier<T> work) {
+
+        return ConfigurationObservations.stage(observationRegistry, operation, stage, work);
+    }
 
-        cacheService.evict(configurationId);
+    private void stage(String operation, String stage, Runnable work) {
 
-        ConfigurationEvent configurationEvent = ConfigurationMapper.mapToConfigurationEvent(configuration, EventType.DELETED);
-        eventPublisher.publish(configurationEvent);
+        ConfigurationObservations.stage(observationRegistry, operation, stage, work);
     }
 
-    private void applyPatch(Configuration configuration, ConfigurationPatchRequest request) {
+    /**
+     * Resolves ids from an index set through the entry cache. The filter drops entries that no longer
+     * match, which guards against an index set that has not caught up with a write yet.
+     */
+    private List<Configuration> getIndexed(Set<UUID> ids, Predicate<Configuration> filter) {
+
+        return getByIds(ids).stream()
+                .filter(filter)
+                .sorted(INDEX_ORDER)
+                .toList();
+    }
+
+    private static boolean inNamespace(Configuration configuration, String application, String environment) {
+
+        return application.equals(configuration.getApplication()) && environment.equals(configuration.getEnvironment());
+    }
+
+    private Example<Configuration> probe(String name, String application, String environment) {
+
+        // Null fields are ignored by the default matcher, so absent filters match everything
+        return Example.of(Configuration.builder()
+                .name(name)
+                .application(application)
+                .environment(environment)
+                .build());
+    }
+
+    static void applyPatch(Configuration configuration, ConfigurationPatchRequest request) {
 
         if (request.getName() != null) {
             configuration.setName(request.getName());
@@ -186,18 +616,20 @@ public class ConfigurationService {
         if (request.getContent() != null) {
             configuration.setContent(request.getContent());
         }
-        configuration.setVersion(configuration.getVersion() + 1);
         configuration.setUpdatedAt(OffsetDateTime.now());
     }
 
 
-    private void applyUpdate(Configuration configuration, ConfigurationUpdateRequest request) {
+    // Leaves the version alone: @Version bumps it for managed entities, updateIfVersion for single-statement writes
+    static void applyUpdate(Configuration configuration, ConfigurationUpdateRequest request) {
 
         configuration.setName(request.getName());
         configuration.setApplication(request.getApplication());
         configuration.setEnvironment(request.getEnvironment());
-        configuration.setVersion(configuration.getVersion() + 1);
         configuration.setContent(request.getContent());
         configuration.setUpdatedAt(OffsetDateTime.now());
     }
+
+    private record AppliedWrite(Configuration before, Configuration after) {
+    }
 }
@@ -0,0 +1,401 @@
+package com.company.svc.service;
+
+import com.company.svc.event.ConfigurationEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Fans configuration events out to SSE subscribers. Connections hold no thread: each subscriber
+ * owns a queue that is drained on the task executor only while it has pending events, into an
+ * {@link SseEmitter} on the servlet stack or a {@link Flux} on the reactive one.
+ * <p>
+ * Event ids are resume tokens: the Kafka offset per partition this instance had reached when the
+ * event was sent, e.g. {@code 0:41,1:17}. Replicas consume the same topic, so a token is valid on any of them.
+ * A reconnect with Last-Event-ID replays the buffered events after that position, or sends {@code reset}
+ * when the buffer no longer reaches back that far and the client has to re-read the current state.
+ */
+@Service
+public class ConfigurationWatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigurationWatchService.class);
+
+    public static final String CHANGE_EVENT = "change";
+    public static final String RESET_EVENT = "reset";
+
+    private static final WatchEvent HEARTBEAT = new WatchEvent(null, null, null, "heartbeat");
+
+    private final AsyncTaskExecutor taskExecutor;
+    private final long timeoutMillis;
+    private final int replayBufferSize;
+    private final int maxPendingPerSubscriber;
+
+    // Subscribers indexed by (application, environment); null parts are wildcards
+    private final Map<Namespace, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private final ReentrantLock bufferLock = new ReentrantLock();
+    private final Deque<BufferedEvent> replayBuffer = new ArrayDeque<>();
+    private final Map<Integer, Long> positions = new TreeMap<>();
+
+    public ConfigurationWatchService(@Qualifier("applicationTaskExecutor") AsyncTaskExecutor taskExecutor,
+                                     @Value("${watch.timeout:30m}") Duration timeout,
+                                     @Value("${watch.replay-buffer-size:10000}") int replayBufferSize,
+                                     @Value("${watch.max-pending-per-subscriber:1000}") int maxPendingPerSubscriber) {
+        this.taskExecutor = taskExecutor;
+        this.timeoutMillis = timeout.toMillis();
+        this.replayBufferSize = replayBufferSize;
+        this.maxPendingPerSubscriber = maxPendingPerSubscriber;
+    }
+
+    public SseEmitter subscribe(String application, String environment, String name, String lastEventId) {
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = register(application, environment, name, lastEventId, new EmitterSink(emitter));
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(ex -> remove(subscriber));
+
+        return emitter;
+    }
+
+    /**
+     * Reactive counterpart of {@link #subscribe}: the same events, ended after {@code watch.timeout}.
+     * A subscriber with {@code watch.max-pending-per-subscriber} events not yet written is closed.
+     */
+    public Flux<ServerSentEvent<Object>> watch(String application, String environment, String name, String lastEventId) {
+
+        Sinks.Many<ServerSentEvent<Object>> sink = Sinks.many().unicast()
+                .onBackpressureBuffer(Queues.<ServerSentEvent<Object>>get(maxPendingPerSubscriber).get());
+        Subscriber subscriber = register(application, environment, name, lastEventId, new ReactiveSink(sink));
+
+        return sink.asFlux()
+                .take(Duration.ofMillis(timeoutMillis))
+                .doFinally(signal -> remove(subscriber));
+    }
+
+    private Subscriber register(String application, String environment, String name, String lastEventId, WatchSink sink) {
+
+        Namespace namespace = new Namespace(application, environment);
+        Subscriber subscriber = new Subscriber(namespace, name, sink);
+
+        // Register before replaying so nothing dispatched in between is lost; duplicates are possible, gaps are not
+        subscribers.computeIfAbsent(namespace, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        subscriberCount.incrementAndGet();
+
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            replay(subscriber, lastEventId);
+        }
+
+        logger.info("Watch subscribed [application={}, environment={}, name={}], {} active",
+                application, environment, name, subscriberCount.get());
+
+        return subscriber;
+    }
+
+    public void dispatch(ConfigurationEvent event, int partition, long offset) {
+
+        String eventId;
+        bufferLock.lock();
+        try {
+            positions.put(partition, offset);
+            eventId = encode(positions);
+            replayBuffer.addLast(new BufferedEvent(event, partition, offset, eventId));
+            while (replayBuffer.size() > replayBufferSize) {
+                replayBuffer.removeFirst();
+            }
+        } finally {
+            bufferLock.unlock();
+        }
+
+        for (Namespace namespace : Namespace.candidates(event)) {
+            Set<Subscriber> matching = subscribers.get(namespace);
+            if (matching == null) {
+                continue;
+            }
+            for (Subscriber subscriber : matching) {
+                if (subscriber.accepts(event)) {
+                    subscriber.enqueue(change(event, eventId));
+                }
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+
+        return subscriberCount.get();
+    }
+
+    @Scheduled(fixedDelayString = "${watch.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+
+        // Also how dead connections are detected, sending to them fails
+        subscribers.values().forEach(set -> set.forEach(subscriber ->
+                subscriber.enqueue(HEARTBEAT)));
+    }
+
+    private void replay(Subscriber subscriber, String lastEventId) {
+
+        Map<Integer, Long> resumeFrom;
+        try {
+            resumeFrom = decode(lastEventId);
+        } catch (IllegalArgumentException e) {
+            subscriber.enqueue(reset("invalid resume token"));
+            return;
+        }
+
+        List<BufferedEvent> missed = new ArrayList<>();
+        boolean gap;
+        bufferLock.lock();
+        try {
+            gap = hasGap(resumeFrom);
+            if (!gap) {
+                for (BufferedEvent buffered : replayBuffer) {
+                    if (buffered.offset() > resumeFrom.getOrDefault(buffered.partition(), -1L)) {
+                        missed.add(buffered);
+                    }
+                }
+            }
+        } finally {
+            bufferLock.unlock();
+        }
+
+        if (gap) {
+            subscriber.enqueue(reset("resume token too old"));
+            return;
+        }
+
+        missed.stream()
+                .filter(buffered -> subscriber.accepts(buffered.event()))
+                .forEach(buffered -> subscriber.enqueue(change(buffered.event(), buffered.eventId())));
+    }
+
+    // Caller holds bufferLock
+    private boolean hasGap(Map<Integer, Long> resumeFrom) {
+
+        Map<Integer, Long> oldestBuffered = new HashMap<>();
+        for (BufferedEvent buffered : replayBuffer) {
+            oldestBuffered.putIfAbsent(buffered.partition(), buffered.offset());
+        }
+
+        for (Map.Entry<Integer, Long> entry : resumeFrom.entrySet()) {
+            Long oldest = oldestBuffered.get(entry.getKey());
+            Long latest = positions.get(entry.getKey());
+            if (latest == null || latest <= entry.getValue()) {
+                continue;
+            }
+            if (oldest == null || oldest > entry.getValue() + 1) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void remove(Subscriber subscriber) {
+
+        Set<Subscriber> set = subscribers.get(subscriber.namespace);
+        if (set != null && set.remove(subscriber)) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    private static WatchEvent change(ConfigurationEvent event, String eventId) {
+
+        return new WatchEvent(eventId, CHANGE_EVENT, event, null);
+    }
+
+    private static WatchEvent reset(String reason) {
+
+        return new WatchEvent(null, RESET_EVENT, reason, null);
+    }
+
+    private static String encode(Map<Integer, Long> positions) {
+
+        return positions.entrySet().stream()
+                .map(entry -> entry.getKey() + ":" + entry.getValue())
+                .collect(Collectors.joining(","));
+    }
+
+    private static Map<Integer, Long> decode(String token) {
+
+        Map<Integer, Long> positions = new HashMap<>();
+        for (String part : token.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid resume token " + token);
+            }
+            positions.put(Integer.parseInt(pair[0]), Long.parseLong(pair[1]));
+        }
+
+        return positions;
+    }
+
+    private record BufferedEvent(ConfigurationEvent event, int partition, long offset, String eventId) {
+    }
+
+    // An SSE event independent of the web stack; a comment-only event when comment is set
+    private record WatchEvent(String id, String name, Object data, String comment) {
+    }
+
+    private interface WatchSink {
+
+        void send(WatchEvent event) throws IOException;
+
+        void complete();
+    }
+
+    private record EmitterSink(SseEmitter emitter) implements WatchSink {
+
+        @Override
+        public void send(WatchEvent event) throws IOException {
+
+            if (event.comment() != null) {
+                emitter.send(SseEmitter.event().comment(event.comment()));
+                return;
+            }
+
+            SseEmitter.SseEventBuilder builder = SseEmitter.event();
+            if (event.id() != null) {
+                builder.id(event.id());
+            }
+            builder.name(event.name());
+            emitter.send(event.data() instanceof ConfigurationEvent
+                    ? builder.data(event.data(), MediaType.APPLICATION_JSON)
+                    : builder.data(event.data()));
+        }
+
+        @Override
+        public void complete() {
+
+            emitter.complete();
+        }
+    }
+
+    private record ReactiveSink(Sinks.Many<ServerSentEvent<Object>> sink) implements WatchSink {
+
+        @Override
+        public void send(WatchEvent event) throws IOException {
+
+            ServerSentEvent<Object> serverSentEvent = event.comment() != null
+                    ? ServerSentEvent.builder().comment(event.comment()).build()
+                    : ServerSentEvent.builder(event.data()).id(event.id()).event(event.name()).build();
+
+            // Fails once the client is gone or its buffer is full
+            if (sink.tryEmitNext(serverSentEvent).isFailure()) {
+                throw new IOException("Watch subscriber no longer accepts events");
+            }
+        }
+
+        @Override
+        public void complete() {
+
+            sink.emitComplete(Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+        }
+    }
+
+    private record Namespace(String application, String environment) {
+
+        static List<Namespace> candidates(ConfigurationEvent event) {
+
+            return List.of(
+                    new Namespace(event.getApplication(), event.getEnvironment()),
+                    new Namespace(event.getApplication(), null),
+                    new Namespace(null, event.getEnvironment()),
+                    new Namespace(null, null));
+        }
+    }
+
+    private final class Subscriber {
+
+        private final Namespace namespace;
+        private final String name;
+        private final WatchSink sink;
+        private final Queue<WatchEvent> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(Namespace namespace, String name, WatchSink sink) {
+            this.namespace = namespace;
+            this.name = name;
+            this.sink = sink;
+        }
+
+        boolean accepts(ConfigurationEvent event) {
+
+            return name == null || Objects.equals(name, event.getName());
+        }
+
+        void enqueue(WatchEvent event) {
+
+            // A consumer this far behind reconnects with its last id instead of growing our heap
+            if (pendingCount.incrementAndGet() > maxPendingPerSubscriber) {
+                logger.warn("Watch subscriber is too slow, closing [application={}, environment={}]",
+                        namespace.application(), namespace.environment());
+                remove(this);
+                sink.complete();
+                return;
+            }
+
+            pending.add(event);
+            schedule();
+        }
+
+        private void schedule() {
+
+            if (draining.compareAndSet(false, true)) {
+                taskExecutor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+
+            try {
+                WatchEvent event;
+                while ((event = pending.poll()) != null) {
+                    pendingCount.decrementAndGet();
+                    sink.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                remove(this);
+                return;
+            } finally {
+                draining.set(false);
+            }
+
+            if (!pending.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
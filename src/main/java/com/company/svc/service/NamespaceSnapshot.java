@@ -0,0 +1,18 @@
+package com.company.svc.service;
+
+import com.company.svc.web.dto.ConfigurationResponse;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * All configurations of one (application, environment), ready to send: {@code json} is the list response body,
+ * {@code gzip} the same bytes compressed. The arrays are shared between requests and must not be modified.
+ */
+public record NamespaceSnapshot(String application,
+                                String environment,
+                                Map<UUID, ConfigurationResponse> configurations,
+                                byte[] json,
+                                byte[] gzip,
+                                String eTag) {
+}
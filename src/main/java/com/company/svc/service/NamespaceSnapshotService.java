@@ -0,0 +1,312 @@
+package com.company.svc.service;
+
+import com.company.svc.event.ConfigurationEvent;
+import com.company.svc.event.EventType;
+import com.company.svc.exception.ResourceNotFoundException;
+import com.company.svc.service.patch.ContentPatch;
+import com.company.svc.util.ConfigurationETags;
+import com.company.svc.util.ConfigurationMapper;
+import com.company.svc.web.dto.ConfigurationCollectionResponse;
+import com.company.svc.web.dto.ConfigurationResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-serialized, gzip-compressed list responses per (application, environment), so the startup read of a whole
+ * namespace costs a byte copy instead of a query, mapping and serialization per request.
+ * <p>
+ * A snapshot is built once per node (from Redis, else from the database) and then kept current from
+ * configuration events: each event re-serializes only the namespaces it touches. Every snapshot is rebuilt
+ * from scratch after {@code cache.snapshot.max-age} at the latest, which bounds the effect of an event that
+ * raced with a build.
+ */
+@Service
+public class NamespaceSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NamespaceSnapshotService.class);
+
+    private static final String CACHE_NAME = "configurations.snapshots";
+
+    // Keyset order of the list endpoint within one namespace
+    private static final Comparator<ConfigurationResponse> ORDER = Comparator
+            .comparing(ConfigurationResponse::getName)
+            .thenComparing(ConfigurationResponse::getId);
+
+    private final ConfigurationService configurationService;
+    private final RedisCacheService cacheService;
+    private final ObjectMapper objectMapper;
+    private final Duration redisTtl;
+    private final Cache<Namespace, NamespaceSnapshot> snapshots;
+
+    private final Counter redisBuilds;
+    private final Counter databaseBuilds;
+    private final Counter eventUpdates;
+
+    public NamespaceSnapshotService(ConfigurationService configurationService,
+                                    RedisCacheService cacheService,
+                                    ObjectMapper objectMapper,
+                                    @Value("${cache.snapshot.maximum-weight-bytes:134217728}") long maximumWeightBytes,
+                                    @Value("${cache.snapshot.max-age:5m}") Duration maxAge,
+                                    @Value("${cache.snapshot.redis-ttl:1m}") Duration redisTtl,
+                                    MeterRegistry meterRegistry) {
+
+        this.configurationService = configurationService;
+        this.cacheService = cacheService;
+        this.objectMapper = objectMapper;
+        this.redisTtl = redisTtl;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumWeight(maximumWeightBytes)
+                .weigher((Namespace namespace, NamespaceSnapshot snapshot) -> weigh(snapshot))
+                .expireAfter(new FixedAge(maxAge))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, CACHE_NAME);
+        this.redisBuilds = buildCounter(meterRegistry, "redis");
+        this.databaseBuilds = buildCounter(meterRegistry, "database");
+        this.eventUpdates = buildCounter(meterRegistry, "event");
+    }
+
+    /**
+     * Current snapshot of the namespace; an empty one when it has no configurations.
+     * Concurrent first requests on a node wait for a single build.
+     */
+    public NamespaceSnapshot get(String application, String environment) {
+
+        return snapshots.get(new Namespace(application, environment), this::load);
+    }
+
+    /**
+     * Folds a configuration event into the snapshots it touches. A configuration that moved to another
+     * namespace is dropped from the old one; a snapshot the event cannot be applied to is discarded
+     * and rebuilt on the next read.
+     */
+    public void apply(ConfigurationEvent event) {
+
+        Namespace target = new Namespace(event.getApplication(), event.getEnvironment());
+
+        for (Map.Entry<Namespace, NamespaceSnapshot> entry : snapshots.asMap().entrySet()) {
+            Namespace namespace = entry.getKey();
+            if (!namespace.equals(target) && entry.getValue().configurations().containsKey(event.getId())) {
+                snapshots.asMap().computeIfPresent(namespace, (key, snapshot) -> without(snapshot, event.getId()));
+                cacheService.evictSnapshot(namespace.application(), namespace.environment());
+            }
+        }
+
+        if (event.getApplication() == null || event.getEnvironment() == null) {
+            return;
+        }
+
+        snapshots.asMap().computeIfPresent(target, (key, snapshot) -> with(snapshot, event));
+        cacheService.evictSnapshot(target.application(), target.environment());
+    }
+
+    private NamespaceSnapshot load(Namespace namespace) {
+
+        byte[] cached = cacheService.getSnapshot(namespace.application(), namespace.environment());
+        if (cached != null) {
+            try {
+                NamespaceSnapshot snapshot = fromGzip(namespace, cached);
+                redisBuilds.increment();
+                return snapshot;
+            } catch (UncheckedIOException e) {
+                logger.error("Failed to read cached snapshot [app={}, env={}] - rebuilding",
+                        namespace.application(), namespace.environment(), e);
+            }
+        }
+
+        List<ConfigurationResponse> configurations;
+        try {
+            configurations = configurationService.getByApplicationAndEnvironment(namespace.application(), namespace.environment())
+                    .stream()
+                    .map(ConfigurationMapper::mapToResponse)
+                    .toList();
+        } catch (ResourceNotFoundException e) {
+            configurations = List.of();
+        }
+
+        NamespaceSnapshot snapshot = build(namespace, configurations);
+        cacheService.putSnapshot(namespace.application(), namespace.environment(), snapshot.gzip(), redisTtl);
+        databaseBuilds.increment();
+        logger.info("Built snapshot [app={}, env={}, configurations={}, bytes={}, gzipBytes={}]",
+                namespace.application(), namespace.environment(), configurations.size(),
+                snapshot.json().length, snapshot.gzip().length);
+
+        return snapshot;
+    }
+
+    private NamespaceSnapshot with(NamespaceSnapshot snapshot, ConfigurationEvent event) {
+
+        if (event.getEventType() == EventType.DELETED) {
+            return without(snapshot, event.getId());
+        }
+
+        ConfigurationResponse current = snapshot.configurations().get(event.getId());
+        // Redelivered or older than what the snapshot was built from
+        if (current != null && current.getVersion() != null && event.getVersion() != null
+                && current.getVersion() >= event.getVersion()) {
+            return snapshot;
+        }
+
+        String content = event.getContent();
+        if (event.getContentPatch() != null) {
+            if (current == null || !Objects.equals(current.getVersion(), event.getBaseVersion())) {
+                return null;
+            }
+            try {
+                content = ContentPatch.parse(event.getContentPatchType(), event.getContentPatch()).applyTo(current.getContent());
+            } catch (RuntimeException e) {
+                logger.debug("Could not apply content delta for [id={}], rebuilding snapshot: {}", event.getId(), e.toString());
+                return null;
+            }
+        }
+
+        ConfigurationResponse updated = ConfigurationResponse.builder()
+                .id(event.getId())
+                .name(event.getName())
+                .application(event.getApplication())
+                .environment(event.getEnvironment())
+                .version(event.getVersion())
+                .content(content)
+                .created(current != null ? current.getCreated() : event.getTimestamp())
+                .updated(event.getTimestamp())
+                .build();
+
+        Map<UUID, ConfigurationResponse> configurations = new LinkedHashMap<>(snapshot.configurations());
+        configurations.put(updated.getId(), updated);
+        eventUpdates.increment();
+
+        return build(new Namespace(snapshot.application(), snapshot.environment()), configurations.values());
+    }
+
+    private NamespaceSnapshot without(NamespaceSnapshot snapshot, UUID configurationId) {
+
+        if (!snapshot.configurations().containsKey(configurationId)) {
+            return snapshot;
+        }
+
+        Map<UUID, ConfigurationResponse> configurations = new LinkedHashMap<>(snapshot.configurations());
+        configurations.remove(configurationId);
+        eventUpdates.increment();
+
+        return build(new Namespace(snapshot.application(), snapshot.environment()), configurations.values());
+    }
+
+    private NamespaceSnapshot build(Namespace namespace, Collection<ConfigurationResponse> configurations) {
+
+        List<ConfigurationResponse> sorted = configurations.stream().sorted(ORDER).toList();
+
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(ConfigurationCollectionResponse.builder().configurations(sorted).build());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize snapshot " + namespace, e);
+        }
+
+        return snapshot(namespace, sorted, json, gzip(json));
+    }
+
+    private NamespaceSnapshot fromGzip(Namespace namespace, byte[] gzip) {
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            byte[] json = in.readAllBytes();
+            List<ConfigurationResponse> configurations =
+                    objectMapper.readValue(json, ConfigurationCollectionResponse.class).getConfigurations();
+            return snapshot(namespace, configurations, json, gzip);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read snapshot " + namespace, e);
+        }
+    }
+
+    // The tag is the one the list endpoint computes for the same namespace state, so it is equal on every replica
+    private static NamespaceSnapshot snapshot(Namespace namespace, List<ConfigurationResponse> configurations,
+                                              byte[] json, byte[] gzip) {
+
+        Map<UUID, ConfigurationResponse> byId = configurations.stream()
+                .collect(Collectors.toMap(ConfigurationResponse::getId, Function.identity(),
+                        (first, second) -> second, LinkedHashMap::new));
+        String eTag = ConfigurationETags.forCollection(configurations,
+                ConfigurationResponse::getId, ConfigurationResponse::getVersion);
+
+        return new NamespaceSnapshot(namespace.application(), namespace.environment(), byId, json, gzip, eTag);
+    }
+
+    private static byte[] gzip(byte[] json) {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return out.toByteArray();
+    }
+
+    // Body bytes plus roughly the same again for the decoded responses kept for incremental updates
+    private static int weigh(NamespaceSnapshot snapshot) {
+
+        long weight = 2L * snapshot.json().length + snapshot.gzip().length;
+
+        return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+
+    private static Counter buildCounter(MeterRegistry meterRegistry, String source) {
+
+        return Counter.builder("config.snapshot.builds")
+                .description("Namespace snapshots built, by source")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    private record Namespace(String application, String environment) {
+    }
+
+    // Incremental updates keep the original deadline, so each snapshot is rebuilt after maxAge regardless
+    private record FixedAge(Duration maxAge) implements Expiry<Namespace, NamespaceSnapshot> {
+
+        @Override
+        public long expireAfterCreate(Namespace key, NamespaceSnapshot value, long currentTime) {
+
+            return maxAge.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Namespace key, NamespaceSnapshot value, long currentTime, long currentDuration) {
+
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(Namespace key, NamespaceSnapshot value, long currentTime, long currentDuration) {
+
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.company.svc.service;
+
+import com.company.svc.model.Configuration;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * In-process (L1) cache sitting in front of Redis.
+ * Entries are bounded by an approximate byte weight and expire shortly after write,
+ * replicas are kept coherent through {@link ConfigurationEventListener}.
+ */
+@Service
+public class NearCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NearCacheService.class);
+
+    private static final String CACHE_NAME = "configurations.near";
+
+    // Rough per-entry overhead for the entity, ids and timestamps
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private final boolean enabled;
+    private final Cache<UUID, Configuration> cache;
+
+    public NearCacheService(@Value("${cache.near.enabled:true}") boolean enabled,
+                            @Value("${cache.near.maximum-weight-bytes:67108864}") long maximumWeightBytes,
+                            @Value("${cache.near.expire-after-write:30s}") Duration expireAfterWrite,
+                            MeterRegistry meterRegistry) {
+
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumWeightBytes)
+                .weigher(NearCacheService::weigh)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        logger.info("Near cache {} [maximumWeightBytes={}, expireAfterWrite={}]",
+                enabled ? "enabled" : "disabled", maximumWeightBytes, expireAfterWrite);
+    }
+
+    public Configuration get(UUID configurationId) {
+
+        if (!enabled) {
+            return null;
+        }
+
+        Configuration cached = cache.getIfPresent(configurationId);
+
+        // Hand out a copy so callers mutating the entity never corrupt the shared entry
+        return cached != null ? cached.toBuilder().build() : null;
+    }
+
+    /**
+     * Version of the cached entry without copying it, or null when not cached.
+     */
+    public Integer getVersion(UUID configurationId) {
+
+        if (!enabled) {
+            return null;
+        }
+
+        Configuration cached = cache.getIfPresent(configurationId);
+        return cached != null ? cached.getVersion() : null;
+    }
+
+    public void put(Configuration configuration) {
+
+        if (!enabled || configuration.getId() == null) {
+            return;
+        }
+
+        cache.put(configuration.getId(), configuration.toBuilder().build());
+    }
+
+    public void evict(UUID configurationId) {
+
+        cache.invalidate(configurationId);
+    }
+
+    public void evictAll() {
+
+        cache.invalidateAll();
+    }
+
+    private static int weigh(UUID configurationId, Configuration configuration) {
+
+        long weight = ENTRY_OVERHEAD_BYTES;
+        weight += lengthOf(configuration.getName());
+        weight += lengthOf(configuration.getApplication());
+        weight += lengthOf(configuration.getEnvironment());
+        weight += lengthOf(configuration.getContent());
+
+        return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+
+    private static int lengthOf(String value) {
+
+        return value != null ? value.length() : 0;
+    }
+}
@@ -0,0 +1,207 @@
+package com.company.svc.service;
+
+import com.company.svc.config.kafka.KafkaConfig;
+import com.company.svc.event.ConfigurationEvent;
+import com.company.svc.event.EventType;
+import com.company.svc.model.OutboxEvent;
+import com.company.svc.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Drains the outbox to Kafka. One instance at a time relays, the one holding the lease in
+ * {@code configuration_outbox_lease}; it sends the oldest events in id order, which per configuration is commit order.
+ * Each batch is read in a short transaction and sent asynchronously so the producer can batch and compress it;
+ * no rows are locked and no transaction is open while waiting for acks. Nothing waits on the acks either: once every
+ * send of the batch has settled, a callback on the task executor deletes the acknowledged prefix and, after a full
+ * batch, relays the next one. Anything unacknowledged stays in the outbox and is retried (at-least-once).
+ * <p>
+ * The lease is renewed on every run and outlives the send timeout, so it only passes to another instance
+ * when the holder stops relaying.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final String TOPIC = KafkaConfig.CONFIGURATION_UPDATES_TOPIC;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, ConfigurationEvent> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+    private final long leaseSeconds;
+    private final Executor callbackExecutor;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    // Set from a scheduled run until its last batch is done, so runs never overlap
+    private final AtomicBoolean relaying = new AtomicBoolean();
+
+    private final Timer batchTimer;
+    private final Timer ackTimer;
+    private final Counter sendFailures;
+    private final Counter dropped;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, ConfigurationEvent> kafkaTemplate,
+                       TransactionTemplate transactionTemplate,
+                       ObjectMapper objectMapper,
+                       @Qualifier("applicationTaskExecutor") Executor callbackExecutor,
+                       @Value("${outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${outbox.relay.send-timeout-ms:30000}") long sendTimeoutMs,
+                       @Value("${outbox.relay.lease-duration:60s}") Duration leaseDuration,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.callbackExecutor = callbackExecutor;
+        this.batchSize = batchSize;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.leaseSeconds = leaseDuration.toSeconds();
+        if (leaseDuration.toMillis() <= sendTimeoutMs) {
+            logger.warn("outbox.relay.lease-duration ({}) should exceed outbox.relay.send-timeout-ms ({}), "
+                    + "otherwise a slow batch lets another instance relay the same events", leaseDuration, sendTimeoutMs);
+        }
+
+        this.batchTimer = Timer.builder("config.outbox.relay.batch")
+                .description("Read, send and delete of one outbox batch")
+                .register(meterRegistry);
+        this.ackTimer = Timer.builder("config.outbox.send")
+                .description("Time from handing an event to the producer until the broker acknowledged it")
+                .register(meterRegistry);
+        this.sendFailures = Counter.builder("config.outbox.send.failures")
+                .description("Failed Kafka sends; the event and everything after it are retried on the next run")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("config.outbox.dropped")
+                .description("Outbox events dropped because their payload could not be read")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:200}")
+    public void relay() {
+
+        if (relaying.compareAndSet(false, true)) {
+            relayBatch();
+        }
+    }
+
+    private void relayBatch() {
+
+        Timer.Sample batchSample = Timer.start();
+        List<OutboxEvent> batch;
+        try {
+            batch = transactionTemplate.execute(status ->
+                    outboxEventRepository.acquireRelayLease(instanceId, leaseSeconds) == 1
+                            ? outboxEventRepository.findNextBatch(batchSize)
+                            : List.of());
+        } catch (RuntimeException e) {
+            relaying.set(false);
+            throw e;
+        }
+        if (batch == null || batch.isEmpty()) {
+            relaying.set(false);
+            return;
+        }
+
+        List<CompletableFuture<SendResult<String, ConfigurationEvent>>> futures = new ArrayList<>(batch.size());
+        for (OutboxEvent outboxEvent : batch) {
+            futures.add(send(outboxEvent).orTimeout(sendTimeoutMs, TimeUnit.MILLISECONDS));
+        }
+
+        // Deletes are JDBC calls, they must not run on the producer's network thread
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .handle((ignored, failure) -> null)
+                .thenRunAsync(() -> {
+                    int relayed = deleteAcknowledged(batch, futures);
+                    batchSample.stop(batchTimer);
+                    if (relayed == batchSize) {
+                        relayBatch();
+                    } else {
+                        relaying.set(false);
+                    }
+                }, callbackExecutor)
+                .exceptionally(failure -> {
+                    relaying.set(false);
+                    logger.warn("OutboxRelay batch failed, retrying on the next run", failure);
+                    return null;
+                });
+    }
+
+    private int deleteAcknowledged(List<OutboxEvent> batch,
+                                   List<CompletableFuture<SendResult<String, ConfigurationEvent>>> futures) {
+
+        List<Long> relayedIds = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            CompletableFuture<SendResult<String, ConfigurationEvent>> future = futures.get(i);
+            if (future.state() == Future.State.FAILED) {
+                sendFailures.increment();
+                // Keep the rest for the next run so per-configuration order is preserved
+                logger.warn("Kafka send failed for outbox event [id={}]. Will retry. reason={}",
+                        batch.get(i).getId(), future.exceptionNow().toString());
+                break;
+            }
+            relayedIds.add(batch.get(i).getId());
+        }
+
+        if (!relayedIds.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.deleteAllByIdInBatch(relayedIds));
+        }
+        logger.info("OutboxRelay sent {} of {} events to TOPIC {}", relayedIds.size(), batch.size(), TOPIC);
+
+        return relayedIds.size();
+    }
+
+    private CompletableFuture<SendResult<String, ConfigurationEvent>> send(OutboxEvent outboxEvent) {
+
+        try {
+            ConfigurationEvent event = objectMapper.readValue(outboxEvent.getPayload(), ConfigurationEvent.class);
+            String key = outboxEvent.getAggregateId().toString();
+            Timer.Sample sample = Timer.start();
+
+            CompletableFuture<SendResult<String, ConfigurationEvent>> sent = kafkaTemplate.send(TOPIC, key, event);
+            if (event.getEventType() == EventType.DELETED) {
+                // Consumers still see the DELETED event; the tombstone lets compaction drop the key entirely
+                sent = sent.thenCombine(kafkaTemplate.send(TOPIC, key, null), (deleted, tombstone) -> deleted);
+            }
+
+            return sent
+                    .whenComplete((result, failure) -> {
+                        if (failure == null) {
+                            sample.stop(ackTimer);
+                        }
+                    });
+        } catch (JsonProcessingException e) {
+            dropped.increment();
+            // A payload we cannot read will never succeed; drop it rather than block the outbox
+            logger.error("Dropping unreadable outbox event [id={}]", outboxEvent.getId(), e);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
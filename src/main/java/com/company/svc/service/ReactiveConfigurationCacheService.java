@@ -0,0 +1,360 @@
+package com.company.svc.service;
+
+import com.company.svc.exception.CacheCodecException;
+import com.company.svc.model.Configuration;
+import com.company.svc.service.codec.ConfigurationCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Non-blocking twin of {@link RedisCacheService} for the reactive variant: same near cache, entry encoding,
+ * keys, index sets and scripts, so both variants can share a Redis. Redis failures degrade to cache misses.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfigurationCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveConfigurationCacheService.class);
+
+    private final ReactiveRedisTemplate<String, byte[]> redisTemplate;
+    private final ReactiveStringRedisTemplate stringRedisTemplate;
+    private final ConfigurationCodec codec;
+    private final NearCacheService nearCacheService;
+    private final Duration indexTtl;
+    private final Duration entryTtl;
+    private final double entryTtlJitter;
+
+    private final Counter redisHits;
+    private final Counter redisMisses;
+    private final Counter redisErrors;
+
+    public ReactiveConfigurationCacheService(
+            @Qualifier("reactiveConfigurationCacheTemplate") ReactiveRedisTemplate<String, byte[]> redisTemplate,
+            ReactiveStringRedisTemplate stringRedisTemplate,
+            ConfigurationCodec codec,
+            NearCacheService nearCacheService,
+            @Value("${cache.index.ttl:5m}") Duration indexTtl,
+            @Value("${cache.entry.ttl:1m}") Duration entryTtl,
+            @Value("${cache.entry.ttl-jitter:0.2}") double entryTtlJitter,
+            MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.codec = codec;
+        this.nearCacheService = nearCacheService;
+        this.indexTtl = indexTtl;
+        this.entryTtl = entryTtl;
+        this.entryTtlJitter = entryTtlJitter;
+
+        // Same meters as the servlet variant, so dashboards work for either
+        this.redisHits = requestCounter(meterRegistry, "hit");
+        this.redisMisses = requestCounter(meterRegistry, "miss");
+        this.redisErrors = requestCounter(meterRegistry, "error");
+    }
+
+    /**
+     * The cached configuration, or empty on a miss.
+     */
+    public Mono<Configuration> get(UUID configurationId) {
+
+        Configuration nearCached = nearCacheService.get(configurationId);
+        if (nearCached != null) {
+            return Mono.just(nearCached);
+        }
+
+        return redisTemplate.opsForValue().get(RedisCacheService.key(configurationId))
+                .flatMap(value -> decode(configurationId, value))
+                .doOnNext(configuration -> {
+                    nearCacheService.put(configuration);
+                    redisHits.increment();
+                })
+                .switchIfEmpty(Mono.fromRunnable(() -> {
+                    redisMisses.increment();
+                    logger.info("Cache miss for configuration id [{}]", configurationId);
+                }))
+                .onErrorResume(DataAccessException.class, e -> {
+                    redisErrors.increment();
+                    logger.warn("Redis unavailable while reading configuration [id={}]. Returning cache miss.",
+                            configurationId, e);
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Version known to the near cache, or null. Never touches Redis.
+     */
+    public Integer getCachedVersion(UUID configurationId) {
+
+        return nearCacheService.getVersion(configurationId);
+    }
+
+    /**
+     * Near cache first, then one MGET for the remainder. Ids missing from both tiers are absent from the map.
+     */
+    public Mono<Map<UUID, Configuration>> getAll(Collection<UUID> configurationIds) {
+
+        Map<UUID, Configuration> result = new HashMap<>();
+        List<UUID> remaining = new ArrayList<>();
+        for (UUID configurationId : configurationIds) {
+            Configuration nearCached = nearCacheService.get(configurationId);
+            if (nearCached != null) {
+                result.put(configurationId, nearCached);
+            } else {
+                remaining.add(configurationId);
+            }
+        }
+
+        if (remaining.isEmpty()) {
+            return Mono.just(result);
+        }
+
+        AtomicInteger redisFound = new AtomicInteger();
+        return redisTemplate.opsForValue().multiGet(remaining.stream().map(RedisCacheService::key).toList())
+                .flatMapMany(values -> Flux.range(0, remaining.size())
+                        // Missing keys come back as null (or empty) elements
+                        .filter(i -> values.get(i) != null && values.get(i).length > 0)
+                        .concatMap(i -> decode(remaining.get(i), values.get(i))))
+                .doOnNext(configuration -> {
+                    nearCacheService.put(configuration);
+                    result.put(configuration.getId(), configuration);
+                    redisFound.incrementAndGet();
+                    redisHits.increment();
+                })
+                .then(Mono.fromSupplier(() -> {
+                    redisMisses.increment(remaining.size() - redisFound.get());
+                    logger.info("Batch cache lookup for {} configurations: {} hits", configurationIds.size(), result.size());
+                    return result;
+                }))
+                .onErrorResume(DataAccessException.class, e -> {
+                    redisErrors.increment();
+                    logger.warn("Redis unavailable while reading {} configurations. Returning cache misses.",
+                            remaining.size(), e);
+                    return Mono.just(result);
+                });
+    }
+
+    public Mono<Void> put(Configuration configuration) {
+
+        nearCacheService.put(configuration);
+
+        return redisTemplate.opsForValue()
+                .set(RedisCacheService.key(configuration.getId()), codec.encode(configuration), entryTtl())
+                .then()
+                .onErrorResume(DataAccessException.class, e -> {
+                    redisErrors.increment();
+                    logger.warn("Redis unavailable while storing configuration [id={}]. Proceeding without cache.",
+                            configuration.getId(), e);
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Writes all entries concurrently over the shared connection, each with its own jittered TTL.
+     */
+    public Mono<Void> putAll(Collection<Configuration> configurations) {
+
+        configurations.forEach(nearCacheService::put);
+
+        return Flux.fromIterable(configurations)
+                .flatMap(configuration -> redisTemplate.opsForValue()
+                        .set(RedisCacheService.key(configuration.getId()), codec.encode(configuration), entryTtl()))
+                .then()
+                .onErrorResume(DataAccessException.class, e -> {
+                    redisErrors.increment();
+                    logger.warn("Redis unavailable while storing {} configurations. Proceeding without cache.",
+                            configurations.size(), e);
+                    return Mono.empty();
+                });
+    }
+
+    public Mono<Void> evict(UUID configurationId) {
+
+        nearCacheService.evict(configurationId);
+
+        // Same tombstone as the servlet variant, in case a warm-up of a shared Redis read the entry earlier
+        return stringRedisTemplate.execute(RedisCacheService.EVICT_SCRIPT,
+                        RedisCacheService.entryAndTombstoneKeys(List.of(configurationId)),
+                        List.of(String.valueOf(entryTtl.toMillis())))
+                .then()
+                .onErrorResume(DataAccessException.class, e -> {
+                    logger.warn("Redis unavailable while evicting configuration [id={}]. Ignoring.", configurationId, e);
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Ids in an (application, environment), or empty optional when that index is not loaded.
+     */
+    public Mono<Optional<Set<UUID>>> getNamespaceIndex(String application, String environment) {
+
+        return readIndex(List.of(RedisCacheService.namespaceKey(application, environment)));
+    }
+
+    public Mono<Optional<Set<UUID>>> getNameIndex(String name) {
+
+        return readIndex(List.of(RedisCacheService.nameKey(name)));
+    }
+
+    public Mono<Optional<Set<UUID>>> getNamespaceAndNameIndex(String application, String environment, String name) {
+
+        return readIndex(List.of(RedisCacheService.namespaceKey(application, environment),
+                RedisCacheService.nameKey(name)));
+    }
+
+    /**
+     * Generation to read before loading an index, see {@link RedisCacheService#getNamespaceIndexGeneration}.
+     * Empty optional when Redis is unavailable.
+     */
+    public Mono<Optional<String>> getNamespaceIndexGeneration(String application, String environment) {
+
+        return readGeneration(RedisCacheService.namespaceKey(application, environment));
+    }
+
+    public Mono<Optional<String>> getNameIndexGeneration(String name) {
+
+        return readGeneration(RedisCacheService.nameKey(name));
+    }
+
+    public Mono<Void> indexNamespace(String application, String environment, String generation,
+                                     Collection<Configuration> configurations) {
+
+        return writeIndex(RedisCacheService.namespaceKey(application, environment), generation, configurations);
+    }
+
+    public Mono<Void> indexName(String name, String generation, Collection<Configuration> configurations) {
+
+        return writeIndex(RedisCacheService.nameKey(name), generation, configurations);
+    }
+
+    /**
+     * Moves an id between index sets after a write, see {@link RedisCacheService#reindex}.
+     */
+    public Mono<Void> reindex(Configuration before, Configuration after) {
+
+        Configuration any = after != null ? after : before;
+        if (any == null || any.getId() == null) {
+            return Mono.empty();
+        }
+
+        List<Configuration> touched = before != null && after != null ? List.of(before, after) : List.of(any);
+        String generationTtl = String.valueOf(RedisCacheService.generationTtl(indexTtl).toSeconds());
+
+        return stringRedisTemplate.execute(RedisCacheService.REINDEX_SCRIPT,
+                        RedisCacheService.reindexKeys(before, after),
+                        List.of(any.getId().toString(), String.valueOf(before != null ? 2 : 0), generationTtl))
+                .then()
+                .onErrorResume(DataAccessException.class, e -> {
+                    // Readers would trust a stale set until it expires, so drop the sets instead
+                    logger.warn("Redis unavailable while re-indexing configuration [id={}]. Evicting indexes.",
+                            any.getId(), e);
+                    return stringRedisTemplate.execute(RedisCacheService.EVICT_INDEXES_SCRIPT,
+                                    RedisCacheService.withGenerations(RedisCacheService.indexKeys(touched)),
+                                    List.of(generationTtl))
+                            .then()
+                            .onErrorResume(DataAccessException.class, ignored -> Mono.empty());
+                });
+    }
+
+    private Mono<Optional<Set<UUID>>> readIndex(List<String> keys) {
+
+        Flux<String> members = keys.size() == 1
+                ? stringRedisTemplate.opsForSet().members(keys.get(0))
+                : stringRedisTemplate.opsForSet().intersect(keys);
+
+        return members.collect(Collectors.toSet())
+                .map(ReactiveConfigurationCacheService::indexedIds)
+                .onErrorResume(DataAccessException.class, e -> {
+                    logger.warn("Redis unavailable while reading index {}. Returning cache miss.", keys, e);
+                    return Mono.just(Optional.empty());
+                });
+    }
+
+    private Mono<Optional<String>> readGeneration(String key) {
+
+        return stringRedisTemplate.opsForValue().get(RedisCacheService.generationKey(key))
+                .defaultIfEmpty("0")
+                .map(Optional::of)
+                .onErrorResume(DataAccessException.class, e -> {
+                    logger.warn("Redis unavailable while reading index generation [{}]. Index will not be written.", key, e);
+                    return Mono.just(Optional.empty());
+                });
+    }
+
+    private Mono<Void> writeIndex(String key, String generation, Collection<Configuration> configurations) {
+
+        return stringRedisTemplate.execute(RedisCacheService.WRITE_INDEX_SCRIPT,
+                        List.of(key, RedisCacheService.generationKey(key)),
+                        RedisCacheService.indexArgs(indexTtl, generation, configurations))
+                .doOnNext(written -> {
+                    if (written == 0) {
+                        logger.info("Discarded stale rebuild of index [{}], it changed while loading", key);
+                    }
+                })
+                .then()
+                .onErrorResume(DataAccessException.class, e -> {
+                    logger.warn("Redis unavailable while writing index [{}]. Proceeding without cache.", key, e);
+                    return Mono.empty();
+                });
+    }
+
+    // The marker survives an intersection only if every set is loaded
+    private static Optional<Set<UUID>> indexedIds(Set<String> members) {
+
+        if (!members.contains(RedisCacheService.INDEX_MARKER)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(members.stream()
+                .filter(member -> !RedisCacheService.INDEX_MARKER.equals(member))
+                .map(UUID::fromString)
+                .collect(Collectors.toCollection(LinkedHashSet::new)));
+    }
+
+    // A corrupt entry is evicted and reported as a miss, as in the servlet variant
+    private Mono<Configuration> decode(UUID configurationId, byte[] value) {
+
+        try {
+            return Mono.just(codec.decode(value));
+        } catch (CacheCodecException e) {
+            logger.error("Failed to parse cached Configuration [id={}] - evicted entry", configurationId, e);
+            return evict(configurationId).then(Mono.empty());
+        }
+    }
+
+    private Duration entryTtl() {
+
+        return RedisCacheService.jitteredTtl(entryTtl, entryTtlJitter);
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+
+        return Counter.builder("config.cache.requests")
+                .description("Redis cache lookups by result")
+                .tag("tier", "redis")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
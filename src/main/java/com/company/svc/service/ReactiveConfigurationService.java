@@ -0,0 +1,457 @@
+package com.company.svc.service;
+
+import com.company.svc.event.ConfigurationEvent;
+import com.company.svc.event.EventType;
+import com.company.svc.exception.ConflictException;
+import com.company.svc.exception.PreconditionFailedException;
+import com.company.svc.exception.ResourceNotFoundException;
+import com.company.svc.model.Configuration;
+import com.company.svc.repository.ReactiveConfigurationRepository;
+import com.company.svc.util.ConfigurationCursor;
+import com.company.svc.util.ConfigurationMapper;
+import com.company.svc.util.ConfigurationObservations;
+import com.company.svc.web.dto.ConfigurationCreateRequest;
+import com.company.svc.web.dto.ConfigurationPatchRequest;
+import com.company.svc.web.dto.ConfigurationUpdateRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.hibernate.id.uuid.CustomVersionOneStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * {@link ConfigurationService} for the reactive variant: the same reads, version-conditional writes, history rows,
+ * outbox events and cache maintenance, on R2DBC and reactive Redis. Every write, its revision and its outbox event
+ * commit together; caches are written after the commit.
+ * <p>
+ * All reads go to the primary (there is no R2DBC replica pool) and cache misses are coalesced per node only.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfigurationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveConfigurationService.class);
+
+    // Operation names used as observation tags, as in ConfigurationService
+    private static final String GET = "get";
+    private static final String CREATE = "create";
+    private static final String UPDATE = "update";
+    private static final String PATCH = "patch";
+    private static final String DELETE = "delete";
+
+    // Same time-ordered ids the entity's @UuidGenerator(style = TIME) assigns
+    private static final CustomVersionOneStrategy ID_STRATEGY = new CustomVersionOneStrategy();
+
+    private final ReactiveConfigurationRepository configurationRepository;
+    private final ReactiveConfigurationCacheService cacheService;
+    private final ConfigurationHistoryService historyService;
+    private final ConfigurationEventPublisher eventPublisher;
+    private final RecentWrites recentWrites;
+    private final TransactionalOperator transactionalOperator;
+    private final ObservationRegistry observationRegistry;
+
+    private final Map<UUID, Mono<Configuration>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter databaseLoads;
+    private final Counter coalescedLoads;
+
+    public ReactiveConfigurationService(ReactiveConfigurationRepository configurationRepository,
+                                        ReactiveConfigurationCacheService cacheService,
+                                        ConfigurationHistoryService historyService,
+                                        ConfigurationEventPublisher eventPublisher,
+                                        RecentWrites recentWrites,
+                                        TransactionalOperator reactiveTransactionalOperator,
+                                        ObservationRegistry observationRegistry,
+                                        MeterRegistry meterRegistry) {
+        this.configurationRepository = configurationRepository;
+        this.cacheService = cacheService;
+        this.historyService = historyService;
+        this.eventPublisher = eventPublisher;
+        this.recentWrites = recentWrites;
+        this.transactionalOperator = reactiveTransactionalOperator;
+        this.observationRegistry = observationRegistry;
+
+        // Same meters as CacheMissCoordinator
+        this.databaseLoads = Counter.builder("config.cache.loads")
+                .description("Cache misses loaded from the database")
+                .register(meterRegistry);
+        this.coalescedLoads = Counter.builder("config.cache.loads.saved")
+                .description("Database loads avoided by stampede protection")
+                .tag("reason", "coalesced")
+                .register(meterRegistry);
+    }
+
+    public Mono<Configuration> create(ConfigurationCreateRequest request) {
+
+        return observe(CREATE, Mono.defer(() -> {
+
+            Configuration configuration = ConfigurationMapper.mapToConfiguration(request);
+            configuration.setId(ID_STRATEGY.generateUUID(null));
+            configuration.setVersion(1);
+            ConfigurationEvent configurationEvent = ConfigurationMapper.mapToConfigurationEvent(configuration, EventType.CREATED);
+
+            return configurationRepository.insert(configuration)
+                    .then(configurationRepository.insertRevision(historyService.revision(null, configuration)))
+                    .then(publish(configurationEvent))
+                    .as(transactionalOperator::transactional)
+                    .then(Mono.defer(() -> {
+                        logger.info("Configuration created with ID [{}] ", configuration.getId());
+                        return cacheService.put(configuration).then(cacheService.reindex(null, configuration));
+                    }))
+                    .thenReturn(configuration);
+        }));
+    }
+
+    public Mono<Configuration> getById(UUID configurationId) {
+
+        return observe(GET, find(configurationId));
+    }
+
+    /**
+     * Current version of a configuration, from the near cache or a query that never reads {@code content}.
+     */
+    public Mono<Integer> getVersion(UUID configurationId) {
+
+        return Mono.defer(() -> {
+            Integer cached = cacheService.getCachedVersion(configurationId);
+            return cached != null
+                    ? Mono.just(cached)
+                    : configurationRepository.findVersionById(configurationId)
+                            .switchIfEmpty(Mono.error(() -> notFound(configurationId)));
+        });
+    }
+
+    /**
+     * (id, version) pairs of the matching configurations, for collection ETags.
+     */
+    public Mono<List<Map.Entry<UUID, Integer>>> findConfigurationVersions(String name, String application,
+                                                                          String environment) {
+
+        return configurationRepository.findVersions(name, application, environment).collectList();
+    }
+
+    /**
+     * Resolves many ids with one cache multi-get and a single IN query for the misses. Unknown ids are skipped;
+     * the result keeps the order of the requested ids.
+     */
+    public Mono<List<Configuration>> getByIds(Collection<UUID> configurationIds) {
+
+        Set<UUID> ids = new LinkedHashSet<>(configurationIds);
+
+        return cacheService.getAll(ids).flatMap(cached -> {
+            Map<UUID, Configuration> found = new HashMap<>(cached);
+            List<UUID> misses = ids.stream()
+                    .filter(id -> !found.containsKey(id))
+                    .toList();
+
+            Mono<Void> loadMisses = misses.isEmpty()
+                    ? Mono.empty()
+                    : configurationRepository.findAllById(misses).collectList().flatMap(loaded -> {
+                        loaded.forEach(configuration -> found.put(configuration.getId(), configuration));
+                        logger.info("Batch get resolved {} of {} cache misses from the database",
+                                loaded.size(), misses.size());
+                        return cacheService.putAll(loaded);
+                    });
+
+            return loadMisses.then(Mono.fromSupplier(() -> ids.stream()
+                    .map(found::get)
+                    .filter(Objects::nonNull)
+                    .toList()));
+        });
+    }
+
+    /**
+     * Same lookups and not-found rules as {@link ConfigurationService#findConfigurations}, including the index sets.
+     */
+    public Mono<List<Configuration>> findConfigurations(String name, String application, String environment) {
+
+        if (name != null && application != null && environment != null) {
+            return orNotFound(cacheService.getNamespaceAndNameIndex(application, environment, name)
+                            .flatMap(index -> index
+                                    .map(ids -> getIndexed(ids, configuration -> inNamespace(configuration, application, environment)
+                                            && name.equals(configuration.getName())))
+                                    .orElseGet(() -> configurationRepository.findAll(name, application, environment).collectList())),
+                    String.format("Configuration with application [%s] and environment [%s] and name [%s] not found.",
+                            application, environment, name));
+        } else if (name != null) {
+            return orNotFound(cacheService.getNameIndex(name)
+                            .flatMap(index -> index
+                                    .map(ids -> getIndexed(ids, configuration -> name.equals(configuration.getName())))
+                                    .orElseGet(() -> loadAndIndex(cacheService.getNameIndexGeneration(name),
+                                            configurationRepository.findAll(name, null, null),
+                                            (generation, loaded) -> cacheService.indexName(name, generation, loaded)))),
+                    String.format("Configuration with name [%s] not found.", name));
+        } else if (application != null && environment != null) {
+            return orNotFound(cacheService.getNamespaceIndex(application, environment)
+                            .flatMap(index -> index
+                                    .map(ids -> getIndexed(ids, configuration -> inNamespace(configuration, application, environment)))
+                                    .orElseGet(() -> loadAndIndex(cacheService.getNamespaceIndexGeneration(application, environment),
+                                            configurationRepository.findAll(null, application, environment),
+                                            (generation, loaded) -> cacheService.indexNamespace(application, environment,
+                                                    generation, loaded)))),
+                    String.format("Configuration with application [%s] and environment [%s] not found.",
+                            application, environment));
+        } else {
+            return configurationRepository.findAll(null, null, null).collectList();
+        }
+    }
+
+    /**
+     * Keyset page in the order and with the cursor format of {@link ConfigurationService#findConfigurationsPage}.
+     */
+    public Mono<Window<Configuration>> findConfigurationsPage(String name, String application, String environment,
+                                                             Integer limit, String cursor) {
+
+        int pageSize = limit == null
+                ? ConfigurationService.DEFAULT_PAGE_SIZE
+                : Math.min(Math.max(limit, 1), ConfigurationService.MAX_PAGE_SIZE);
+        ScrollPosition position = ConfigurationCursor.decode(cursor);
+        Map<String, ?> after = position instanceof KeysetScrollPosition keyset ? keyset.getKeys() : null;
+
+        // One row past the page tells whether there is a next one
+        return configurationRepository.findPage(name, application, environment, after, pageSize + 1)
+                .collectList()
+                .map(rows -> {
+                    boolean hasNext = rows.size() > pageSize;
+                    List<Configuration> page = hasNext ? rows.subList(0, pageSize) : rows;
+                    return Window.from(page, index -> keysetPosition(page.get(index)), hasNext);
+                });
+    }
+
+    /**
+     * Matching configurations in keyset order, emitted as rows arrive.
+     */
+    public Flux<Configuration> streamConfigurations(String name, String application, String environment) {
+
+        return configurationRepository.findAll(name, application, environment);
+    }
+
+    /**
+     * Replaces a configuration; with an {@code expectedVersion} (from If-Match) only that version is replaced.
+     */
+    public Mono<Configuration> update(ConfigurationUpdateRequest request, UUID configurationId, Integer expectedVersion) {
+
+        return observe(UPDATE, writeConditionally(configurationId, expectedVersion, current -> {
+            Configuration updated = current.toBuilder().build();
+            ConfigurationService.applyUpdate(updated, request);
+            return updateRow(current, updated);
+        }).flatMap(write -> {
+            logger.info("Configuration updated with ID [{}] ", configurationId);
+            return cacheService.put(write.after())
+                    .then(cacheService.reindex(write.before(), write.after()))
+                    .thenReturn(write.after());
+        }));
+    }
+
+    public Mono<Configuration> patch(ConfigurationPatchRequest request, UUID configurationId, Integer expectedVersion) {
+
+        return observe(PATCH, writeConditionally(configurationId, expectedVersion, current -> {
+            Configuration patched = current.toBuilder().build();
+            ConfigurationService.applyPatch(patched, request);
+            return updateRow(current, patched);
+        }).flatMap(write -> {
+            logger.info("Configuration partially updated with ID [{}] ", configurationId);
+            // A patch may move the configuration to another application/environment
+            return cacheService.put(write.after())
+                    .then(cacheService.reindex(write.before(), write.after()))
+                    .thenReturn(write.after());
+        }));
+    }
+
+    public Mono<Void> delete(UUID configurationId, Integer expectedVersion) {
+
+        return observe(DELETE, writeConditionally(configurationId, expectedVersion, current ->
+                configurationRepository.deleteIfVersion(configurationId, current.getVersion())
+                        .filter(rows -> rows == 1)
+                        .flatMap(rows -> publish(ConfigurationMapper.mapToConfigurationEvent(current, EventType.DELETED))
+                                .thenReturn(current))
+                        .as(transactionalOperator::transactional)
+        ).flatMap(write -> {
+            logger.info("Configuration with ID [{}] has been deleted.", configurationId);
+            return cacheService.evict(configurationId).then(cacheService.reindex(write.before(), null));
+        }));
+    }
+
+    private Mono<Configuration> find(UUID configurationId) {
+
+        return cacheService.get(configurationId)
+                .switchIfEmpty(Mono.defer(() -> loadCoalesced(configurationId)));
+    }
+
+    /**
+     * Concurrent misses for the same id share one database load; everyone gets their own copy of the result.
+     */
+    private Mono<Configuration> loadCoalesced(UUID configurationId) {
+
+        boolean[] started = {false};
+        Mono<Configuration> flight = inFlight.computeIfAbsent(configurationId, id -> {
+            started[0] = true;
+            databaseLoads.increment();
+            return loadAndCache(id)
+                    .doFinally(signal -> inFlight.remove(id))
+                    .cache();
+        });
+        if (!started[0]) {
+            coalescedLoads.increment();
+        }
+
+        return flight.map(configuration -> configuration.toBuilder().build());
+    }
+
+    private Mono<Configuration> loadAndCache(UUID configurationId) {
+
+        return configurationRepository.findById(configurationId)
+                .switchIfEmpty(Mono.error(() -> notFound(configurationId)))
+                .flatMap(configuration -> cacheService.put(configuration).thenReturn(configuration));
+    }
+
+    /**
+     * Reactive form of the conditional write loop in {@link ConfigurationService}: the first attempt goes against
+     * the cached copy; a write that matches no row re-reads the row and, unless the caller pinned a version,
+     * retries. The write function emits the state it wrote, or nothing when no row matched.
+     */
+    private Mono<AppliedWrite> writeConditionally(UUID configurationId, Integer expectedVersion,
+                                                  Function<Configuration, Mono<Configuration>> write) {
+
+        return find(configurationId).flatMap(current -> attempt(configurationId, expectedVersion, write, current, 1));
+    }
+
+    private Mono<AppliedWrite> attempt(UUID configurationId, Integer expectedVersion,
+                                       Function<Configuration, Mono<Configuration>> write,
+                                       Configuration current, int attempt) {
+
+        Mono<AppliedWrite> written = expectedVersion == null || expectedVersion.equals(current.getVersion())
+                ? write.apply(current).map(after -> new AppliedWrite(current, after))
+                : Mono.empty();
+
+        return written.switchIfEmpty(Mono.defer(() -> {
+            if (attempt == ConfigurationService.MAX_WRITE_ATTEMPTS) {
+                logger.warn("Configuration with ID [{}] kept changing, giving up after {} attempts.",
+                        configurationId, attempt);
+                return Mono.<AppliedWrite>error(new ConflictException(String.format(
+                        "Configuration with ID [%s] was modified concurrently, please retry.", configurationId)));
+            }
+
+            return cacheService.evict(configurationId)
+                    .then(configurationRepository.findById(configurationId))
+                    .switchIfEmpty(Mono.error(() -> notFound(configurationId)))
+                    .flatMap(fresh -> {
+                        if (expectedVersion != null && !expectedVersion.equals(fresh.getVersion())) {
+                            logger.info("Configuration with ID [{}] is at version [{}], If-Match expected [{}].",
+                                    configurationId, fresh.getVersion(), expectedVersion);
+                            return Mono.<AppliedWrite>error(new PreconditionFailedException(String.format(
+                                    "Configuration with ID [%s] is at version [%d], not [%d].",
+                                    configurationId, fresh.getVersion(), expectedVersion)));
+                        }
+                        return attempt(configurationId, expectedVersion, write, fresh, attempt + 1);
+                    });
+        }));
+    }
+
+    // Row write, revision and outbox event in one transaction; empty when the row was no longer at current's version
+    private Mono<Configuration> updateRow(Configuration current, Configuration updated) {
+
+        updated.setVersion(current.getVersion() + 1);
+        ConfigurationEvent configurationEvent = ConfigurationMapper.mapToConfigurationEvent(updated, EventType.UPDATED);
+
+        return configurationRepository.updateIfVersion(updated.getId(), current.getVersion(),
+                        updated.getName(), updated.getApplication(), updated.getEnvironment(), updated.getContent(),
+                        updated.getUpdatedAt())
+                .filter(rows -> rows == 1)
+                .flatMap(rows -> configurationRepository.insertRevision(historyService.revision(current, updated)))
+                .flatMap(rows -> publish(configurationEvent).thenReturn(updated))
+                .as(transactionalOperator::transactional);
+    }
+
+    // Outbox row in the caller's transaction, delivered by OutboxRelay like every other event
+    private Mono<Void> publish(ConfigurationEvent event) {
+
+        return configurationRepository.insertOutboxEvent(eventPublisher.toOutboxEvent(event))
+                .doOnSuccess(rows -> recentWrites.record(event))
+                .then();
+    }
+
+    // The index generation is read before the query, see RedisCacheService#getNamespaceIndexGeneration
+    private Mono<List<Configuration>> loadAndIndex(Mono<Optional<String>> generation, Flux<Configuration> query,
+                                                   BiFunction<String, List<Configuration>, Mono<Void>> index) {
+
+        return generation.flatMap(seen -> query.collectList().flatMap(loaded -> cacheService.putAll(loaded)
+                .then(seen.map(value -> index.apply(value, loaded)).orElseGet(Mono::empty))
+                .thenReturn(loaded)));
+    }
+
+    // Index sets may lag a write, entries that no longer match are dropped
+    private Mono<List<Configuration>> getIndexed(Set<UUID> ids, Predicate<Configuration> filter) {
+
+        return getByIds(ids).map(configurations -> configurations.stream()
+                .filter(filter)
+                .sorted(ConfigurationService.INDEX_ORDER)
+                .toList());
+    }
+
+    private static Mono<List<Configuration>> orNotFound(Mono<List<Configuration>> configurations, String message) {
+
+        return configurations.flatMap(found -> {
+            if (found.isEmpty()) {
+                logger.warn(message);
+                return Mono.<List<Configuration>>error(new ResourceNotFoundException(message));
+            }
+            return Mono.just(found);
+        });
+    }
+
+    private static boolean inNamespace(Configuration configuration, String application, String environment) {
+
+        return application.equals(configuration.getApplication()) && environment.equals(configuration.getEnvironment());
+    }
+
+    private static ScrollPosition keysetPosition(Configuration configuration) {
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("application", configuration.getApplication());
+        keys.put("environment", configuration.getEnvironment());
+        keys.put("name", configuration.getName());
+        keys.put("id", configuration.getId());
+
+        return ScrollPosition.forward(keys);
+    }
+
+    private static ResourceNotFoundException notFound(UUID configurationId) {
+
+        logger.warn("Configuration with ID [{}] not found.", configurationId);
+        return new ResourceNotFoundException(String.format("Configuration with ID [%s] not found.", configurationId));
+    }
+
+    private <T> Mono<T> observe(String operation, Mono<T> work) {
+
+        return ConfigurationObservations.observe(
+                () -> ConfigurationObservations.operation(observationRegistry, operation), work);
+    }
+
+    private record AppliedWrite(Configuration before, Configuration after) {
+    }
+}
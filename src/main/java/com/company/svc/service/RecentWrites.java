@@ -0,0 +1,96 @@
+package com.company.svc.service;
+
+import com.company.svc.event.ConfigurationEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-your-writes for replica routing: remembers which configurations, names and namespaces changed within
+ * the last {@code datasource.replica.read-your-writes-window}, so reads touching them go to the primary
+ * instead of a replica that may not have replayed the change yet.
+ * <p>
+ * Fed by this instance's writes and by configuration events from the other instances.
+ * Tracks nothing when replica routing is disabled.
+ */
+@Service
+public class RecentWrites {
+
+    private final boolean enabled;
+    private final long windowNanos;
+
+    private final Map<UUID, Long> ids = new ConcurrentHashMap<>();
+    private final Map<String, Long> names = new ConcurrentHashMap<>();
+    private final Map<Namespace, Long> namespaces = new ConcurrentHashMap<>();
+    private volatile long lastWriteNanos;
+
+    public RecentWrites(@Value("${datasource.replica.enabled:false}") boolean enabled,
+                        @Value("${datasource.replica.read-your-writes-window:2s}") Duration window) {
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.lastWriteNanos = System.nanoTime() - windowNanos;
+    }
+
+    public void record(ConfigurationEvent event) {
+
+        if (!enabled || event.getId() == null) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        ids.put(event.getId(), now);
+        if (event.getName() != null) {
+            names.put(event.getName(), now);
+        }
+        namespaces.put(new Namespace(event.getApplication(), event.getEnvironment()), now);
+        lastWriteNanos = now;
+    }
+
+    public boolean isRecent(UUID configurationId) {
+
+        return enabled && withinWindow(ids.get(configurationId));
+    }
+
+    public boolean isRecentName(String name) {
+
+        return enabled && withinWindow(names.get(name));
+    }
+
+    public boolean isRecent(String application, String environment) {
+
+        return enabled && withinWindow(namespaces.get(new Namespace(application, environment)));
+    }
+
+    /**
+     * For reads that cannot be narrowed down to ids, names or a namespace.
+     */
+    public boolean isAnyRecent() {
+
+        return enabled && withinWindow(lastWriteNanos);
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.read-your-writes-purge-interval-ms:10000}")
+    public void purge() {
+
+        if (!enabled) {
+            return;
+        }
+
+        ids.values().removeIf(writtenAt -> !withinWindow(writtenAt));
+        names.values().removeIf(writtenAt -> !withinWindow(writtenAt));
+        namespaces.values().removeIf(writtenAt -> !withinWindow(writtenAt));
+    }
+
+    private boolean withinWindow(Long writtenAtNanos) {
+
+        return writtenAtNanos != null && System.nanoTime() - writtenAtNanos < windowNanos;
+    }
+
+    private record Namespace(String application, String environment) {
+    }
+}
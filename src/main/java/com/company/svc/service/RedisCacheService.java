@@ -1,95 +1,759 @@
 package com.company.svc.service;
 
+import com.company.svc.exception.CacheCodecException;
 import com.company.svc.model.Configuration;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.company.svc.service.codec.ConfigurationCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class RedisCacheService {
 
     private static final Logger logger = LoggerFactory.getLogger(RedisCacheService.class);
 
-    private final StringRedisTemplate redisTemplate;
-    private final ObjectMapper objectMapper;
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ConfigurationCodec codec;
+    private final NearCacheService nearCacheService;
+    private final Duration indexTtl;
+    private final Duration entryTtl;
+    private final double entryTtlJitter;
 
-    private static final Duration DEFAULT_TTL = Duration.ofMinutes(1);
+    private final Counter redisHits;
+    private final Counter redisMisses;
+    private final Counter redisErrors;
+    private final Counter corruptEvictions;
+    private final Timer encodeTimer;
+    private final Timer decodeTimer;
+    private final Timer redisReadTimer;
+    private final Timer redisWriteTimer;
 
-    public RedisCacheService(StringRedisTemplate redisTemplate, ObjectMapper objectMapper) {
+    private static final int PARALLEL_SERIALIZATION_THRESHOLD = 256;
+
+    // Present in every loaded index set, so "loaded but empty" differs from "not loaded".
+    // Shared with ReactiveConfigurationCacheService, as are the scripts and key layouts below.
+    static final String INDEX_MARKER = "-";
+
+    // Every write bumps the generation of the index sets it touches. A rebuild carries the generation it read before
+    // querying the database and is dropped if it changed since: the rows it read may miss that write.
+
+    // KEYS: index set, its generation; ARGV: ttl seconds, generation read before loading, members.
+    // Replaces the set in one step, SADD in chunks to stay under Lua's stack limit. Returns 0 when the rebuild is stale
+    static final RedisScript<Long> WRITE_INDEX_SCRIPT = new DefaultRedisScript<>("""
+            if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[2] then
+              return 0
+            end
+            redis.call('DEL', KEYS[1])
+            for i = 3, #ARGV, 1000 do
+              redis.call('SADD', KEYS[1], unpack(ARGV, i, math.min(i + 999, #ARGV)))
+            end
+            redis.call('EXPIRE', KEYS[1], ARGV[1])
+            return 1
+            """, Long.class);
+
+    // KEYS: sets to remove the id from, then sets to add it to, then the generation of each set in the same order;
+    // ARGV: id, number of removal sets, generation ttl seconds.
+    // Only sets that are already loaded get the id, adding to a missing set would make it look complete.
+    static final RedisScript<Long> REINDEX_SCRIPT = new DefaultRedisScript<>("""
+            local removals = tonumber(ARGV[2])
+            local sets = #KEYS / 2
+            for i = 1, sets do
+              redis.call('INCR', KEYS[sets + i])
+              redis.call('EXPIRE', KEYS[sets + i], ARGV[3])
+              if i <= removals then
+                redis.call('SREM', KEYS[i], ARGV[1])
+              elseif redis.call('EXISTS', KEYS[i]) == 1 then
+                redis.call('SADD', KEYS[i], ARGV[1])
+              end
+            end
+            return 1
+            """, Long.class);
+
+    // KEYS: index sets, then the generation of each in the same order; ARGV: generation ttl seconds
+    static final RedisScript<Long> EVICT_INDEXES_SCRIPT = new DefaultRedisScript<>("""
+            local sets = #KEYS / 2
+            for i = 1, sets do
+              redis.call('DEL', KEYS[i])
+              redis.call('INCR', KEYS[sets + i])
+              redis.call('EXPIRE', KEYS[sets + i], ARGV[1])
+            end
+            return 1
+            """, Long.class);
+
+    // KEYS: entries, then the tombstone of each in the same order; ARGV: tombstone ttl millis.
+    // The tombstone tells a warm-up holding an older read that the entry was evicted since
+    static final RedisScript<Long> EVICT_SCRIPT = new DefaultRedisScript<>("""
+            local n = #KEYS / 2
+            for i = 1, n do
+              redis.call('DEL', KEYS[i])
+              redis.call('SET', KEYS[n + i], '1', 'PX', ARGV[1])
+            end
+            return n
+            """, Long.class);
+
+    // KEYS: entries, then the tombstone of each in the same order; ARGV: values, then the ttl millis of each.
+    // Adds an entry only if none exists and it was not evicted recently. Returns the number stored
+    private static final RedisScript<Long> WARM_SCRIPT = new DefaultRedisScript<>("""
+            local n = #KEYS / 2
+            local stored = 0
+            for i = 1, n do
+              if redis.call('EXISTS', KEYS[n + i]) == 0 and redis.call('SET', KEYS[i], ARGV[i], 'PX', ARGV[n + i], 'NX') then
+                stored = stored + 1
+              end
+            end
+            return stored
+            """, Long.class);
+
+    // KEYS: lock; ARGV: owner token. Deletes the lock only if we still own it
+    private static final RedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+              return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    public RedisCacheService(@Qualifier("configurationCacheTemplate") RedisTemplate<String, byte[]> redisTemplate,
+                             StringRedisTemplate stringRedisTemplate,
+                             ConfigurationCodec codec,
+                             NearCacheService nearCacheService,
+                             @Value("${cache.index.ttl:5m}") Duration indexTtl,
+                             @Value("${cache.entry.ttl:1m}") Duration entryTtl,
+                             @Value("${cache.entry.ttl-jitter:0.2}") double entryTtlJitter,
+                             MeterRegistry meterRegistry) {
         this.redisTemplate = redisTemplate;
-        this.objectMapper = objectMapper;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.codec = codec;
+        this.nearCacheService = nearCacheService;
+        this.indexTtl = indexTtl;
+        this.entryTtl = entryTtl;
+        this.entryTtlJitter = entryTtlJitter;
+
+        // Near cache hits and misses are reported by the Caffeine binder (cache.gets{cache=configurations.near})
+        this.redisHits = requestCounter(meterRegistry, "hit");
+        this.redisMisses = requestCounter(meterRegistry, "miss");
+        this.redisErrors = requestCounter(meterRegistry, "error");
+        this.corruptEvictions = Counter.builder("config.cache.corrupt.evictions")
+                .description("Redis entries evicted because they could not be decoded")
+                .register(meterRegistry);
+        this.encodeTimer = stageTimer(meterRegistry, "config.cache.codec", "encode");
+        this.decodeTimer = stageTimer(meterRegistry, "config.cache.codec", "decode");
+        this.redisReadTimer = stageTimer(meterRegistry, "config.cache.redis", "read");
+        this.redisWriteTimer = stageTimer(meterRegistry, "config.cache.redis", "write");
     }
 
     public void put(Configuration configuration) {
 
-        try {
-            String json = objectMapper.writeValueAsString(configuration);
+        nearCacheService.put(configuration);
 
-            try {
-                redisTemplate.opsForValue().set(key(configuration.getId()), json, DEFAULT_TTL);
-            } catch (RedisSystemException e) {
-                logger.warn("Redis unavailable while storing configuration [id={}]. Proceeding without cache.",
-                        configuration.getId(), e);
-                return;
-            }
-
-            logger.info("Stored configuration in Redis [id={}, name={}, app={}, env={}]",
-                    configuration.getId(), configuration.getName(),
-                    configuration.getApplication(), configuration.getEnvironment());
+        byte[] value = encode(configuration);
 
-        } catch (JsonProcessingException e) {
-            logger.error("Could not serialize configuration [id={}] to JSON for Redis.", configuration.getId(), e);
-            throw new RuntimeException("Failed to serialize Configuration for Redis", e);
+        try {
+            redisWriteTimer.record(() -> redisTemplate.opsForValue().set(key(configuration.getId()), value, entryTtl()));
+        } catch (RedisSystemException e) {
+            redisErrors.increment();
+            logger.warn("Redis unavailable while storing configuration [id={}]. Proceeding without cache.",
+                    configuration.getId(), e);
+            return;
         }
+
+        logger.info("Stored configuration in Redis [id={}, name={}, app={}, env={}, bytes={}]",
+                configuration.getId(), configuration.getName(),
+                configuration.getApplication(), configuration.getEnvironment(), value.length);
     }
 
     public Configuration get(UUID configurationId) {
-        String json;
+
+        Configuration nearCached = nearCacheService.get(configurationId);
+        if (nearCached != null) {
+            return nearCached;
+        }
+
+        byte[] value;
         try {
-            json = redisTemplate.opsForValue().get(key(configurationId));
+            value = redisReadTimer.record(() -> redisTemplate.opsForValue().get(key(configurationId)));
         } catch (RedisSystemException e) {
+            redisErrors.increment();
             // Redis down → degrade to no-cache
             logger.warn("Redis unavailable while reading configuration [id={}]. Returning cache miss.",
                     configurationId, e);
             return null;
         }
 
-        if (json == null) {
+        if (value == null) {
+            redisMisses.increment();
             logger.info("Cache miss for configuration id [{}]", configurationId);
             return null;
         }
 
         try {
-            Configuration configuration = objectMapper.readValue(json, Configuration.class);
+            Configuration configuration = decode(value);
+            nearCacheService.put(configuration);
+            redisHits.increment();
             logger.info("Cache hit for configuration id [{}]", configurationId);
             return configuration;
-        } catch (JsonProcessingException e) {
+        } catch (CacheCodecException e) {
             // Corrupted cache → evict and fallback to DB
+            corruptEvictions.increment();
             evict(configurationId);
             logger.error("Failed to parse cached Configuration [id={}] - evicted entry", configurationId, e);
             return null;
         }
     }
 
+    /**
+     * Version known to the near cache, or null. Never touches Redis.
+     */
+    public Integer getCachedVersion(UUID configurationId) {
+
+        return nearCacheService.getVersion(configurationId);
+    }
+
+    /**
+     * Multi-get: near cache first, then a single Redis MGET for the remainder.
+     * Ids missing from both tiers are absent from the returned map.
+     */
+    public Map<UUID, Configuration> getAll(Collection<UUID> configurationIds) {
+
+        Map<UUID, Configuration> result = new HashMap<>();
+        List<UUID> remaining = new ArrayList<>();
+
+        for (UUID configurationId : configurationIds) {
+            Configuration nearCached = nearCacheService.get(configurationId);
+            if (nearCached != null) {
+                result.put(configurationId, nearCached);
+            } else {
+                remaining.add(configurationId);
+            }
+        }
+
+        if (remaining.isEmpty()) {
+            return result;
+        }
+
+        List<byte[]> values;
+        try {
+            values = redisReadTimer.record(() -> redisTemplate.opsForValue().multiGet(remaining.stream().map(RedisCacheService::key).toList()));
+        } catch (RedisSystemException e) {
+            redisErrors.increment();
+            logger.warn("Redis unavailable while reading {} configurations. Returning cache misses.",
+                    remaining.size(), e);
+            return result;
+        }
+
+        if (values == null) {
+            return result;
+        }
+
+        for (int i = 0; i < remaining.size(); i++) {
+            byte[] value = values.get(i);
+            if (value == null) {
+                redisMisses.increment();
+                continue;
+            }
+
+            UUID configurationId = remaining.get(i);
+            try {
+                Configuration configuration = decode(value);
+                nearCacheService.put(configuration);
+                result.put(configurationId, configuration);
+                redisHits.increment();
+            } catch (CacheCodecException e) {
+                corruptEvictions.increment();
+                evict(configurationId);
+                logger.error("Failed to parse cached Configuration [id={}] - evicted entry", configurationId, e);
+            }
+        }
+
+        logger.info("Batch cache lookup for {} configurations: {} hits", configurationIds.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Writes all configurations in one pipelined round trip.
+     */
+    public void putAll(Collection<Configuration> configurations) {
+
+        configurations.forEach(nearCacheService::put);
+        writeAll(configurations);
+    }
+
+    /**
+     * Redis-only variant of {@link #putAll} for cache warm-up; the near cache is left to fill with hot entries.
+     * The page was read before live writes that may have changed it since. An entry is only added where none
+     * exists, so a newer version cached by an update is kept, and not where a tombstone shows it was evicted
+     * by a delete within the last entry TTL.
+     */
+    public void warmAll(Collection<Configuration> configurations) {
+
+        if (configurations.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, byte[]> entries = encodeAll(configurations);
+
+        List<String> keys = entryAndTombstoneKeys(entries.keySet());
+        List<byte[]> args = new ArrayList<>(entries.size() * 2);
+        args.addAll(entries.values());
+        // Each entry gets its own TTL so a warmed batch does not expire all at once
+        entries.keySet().forEach(id -> args.add(String.valueOf(entryTtl().toMillis()).getBytes(StandardCharsets.UTF_8)));
+
+        Long stored;
+        try {
+            stored = redisWriteTimer.record(() -> redisTemplate.execute(WARM_SCRIPT, keys, args.toArray()));
+        } catch (RedisSystemException e) {
+            redisErrors.increment();
+            logger.warn("Redis unavailable while warming {} configurations. Proceeding without cache.",
+                    entries.size(), e);
+            return;
+        }
+
+        logger.info("Warmed {} of {} configurations in Redis", stored, entries.size());
+    }
+
     public void evict(UUID configurationId) {
-        logger.info("Evicting configuration from Redis [id={}]", configurationId);
+
+        evictAll(List.of(configurationId));
+    }
+
+    /**
+     * Evicts all given ids in one script, leaving a tombstone per id that keeps warm-up from restoring them.
+     */
+    public void evictAll(Collection<UUID> configurationIds) {
+
+        if (configurationIds.isEmpty()) {
+            return;
+        }
+
+        configurationIds.forEach(nearCacheService::evict);
+        logger.info("Evicting {} configurations from Redis", configurationIds.size());
         try {
-            redisTemplate.delete(key(configurationId));
+            stringRedisTemplate.execute(EVICT_SCRIPT, entryAndTombstoneKeys(configurationIds),
+                    String.valueOf(entryTtl.toMillis()));
         } catch (RedisSystemException e) {
             // If Redis is down, nothing to evict — ignore
-            logger.warn("Redis unavailable while evicting configuration [id={}]. Ignoring.", configurationId, e);
+            logger.warn("Redis unavailable while evicting {} configurations. Ignoring.", configurationIds.size(), e);
+        }
+    }
+
+    /**
+     * Ids in an (application, environment), or empty when that index is not loaded.
+     */
+    public Optional<Set<UUID>> getNamespaceIndex(String application, String environment) {
+
+        return readIndex(List.of(namespaceKey(application, environment)));
+    }
+
+    /**
+     * Ids with the given name, or empty when that index is not loaded.
+     */
+    public Optional<Set<UUID>> getNameIndex(String name) {
+
+        return readIndex(List.of(nameKey(name)));
+    }
+
+    /**
+     * Ids matching all three fields, from the intersection of the namespace and name indexes,
+     * or empty when either index is not loaded.
+     */
+    public Optional<Set<UUID>> getNamespaceAndNameIndex(String application, String environment, String name) {
+
+        return readIndex(List.of(namespaceKey(application, environment), nameKey(name)));
+    }
+
+    /**
+     * Generation of the namespace index, to be read before loading its members from the database and passed to
+     * {@link #indexNamespace}. Null when Redis is unavailable, in which case nothing is indexed.
+     */
+    public String getNamespaceIndexGeneration(String application, String environment) {
+
+        return readGeneration(namespaceKey(application, environment));
+    }
+
+    public String getNameIndexGeneration(String name) {
+
+        return readGeneration(nameKey(name));
+    }
+
+    /**
+     * Installs the loaded namespace index, unless a write touched it after {@code generation} was read.
+     */
+    public void indexNamespace(String application, String environment, String generation,
+                               Collection<Configuration> configurations) {
+
+        writeIndex(namespaceKey(application, environment), generation, configurations);
+    }
+
+    public void indexName(String name, String generation, Collection<Configuration> configurations) {
+
+        writeIndex(nameKey(name), generation, configurations);
+    }
+
+    /**
+     * Moves an id between index sets after a write in one atomic script.
+     * {@code before} is null for creates, {@code after} is null for deletes.
+     */
+    public void reindex(Configuration before, Configuration after) {
+
+        Configuration any = after != null ? after : before;
+        if (any == null || any.getId() == null) {
+            return;
+        }
+
+        try {
+            stringRedisTemplate.execute(REINDEX_SCRIPT, reindexKeys(before, after), any.getId().toString(),
+                    String.valueOf(before != null ? 2 : 0), String.valueOf(generationTtl(indexTtl).toSeconds()));
+        } catch (RedisSystemException e) {
+            // Readers would trust a stale set until it expires, so drop the sets instead
+            logger.warn("Redis unavailable while re-indexing configuration [id={}]. Evicting indexes.", any.getId(), e);
+            evictIndexes(before != null && after != null ? List.of(before, after) : List.of(any));
+        }
+    }
+
+    /**
+     * Drops every index set the given configurations belong to, and discards rebuilds of them still in flight;
+     * used by bulk writes.
+     */
+    public void evictIndexes(Collection<Configuration> configurations) {
+
+        Set<String> keys = indexKeys(configurations);
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        try {
+            stringRedisTemplate.execute(EVICT_INDEXES_SCRIPT, withGenerations(keys),
+                    String.valueOf(generationTtl(indexTtl).toSeconds()));
+        } catch (RedisSystemException e) {
+            logger.warn("Redis unavailable while evicting {} index sets. Ignoring.", keys.size(), e);
+        }
+    }
+
+    /**
+     * Short-lived lock marking that this node is loading the entry from the database.
+     * Returns true when the lock was taken, or when Redis is unavailable and the caller should just load.
+     */
+    public boolean tryLockLoad(UUID configurationId, String token, Duration ttl) {
+
+        try {
+            Boolean acquired = stringRedisTemplate.opsForValue().setIfAbsent(lockKey(configurationId), token, ttl);
+            return !Boolean.FALSE.equals(acquired);
+        } catch (RedisSystemException e) {
+            logger.warn("Redis unavailable while locking configuration [id={}] for load. Loading anyway.",
+                    configurationId, e);
+            return true;
+        }
+    }
+
+    public void unlockLoad(UUID configurationId, String token) {
+
+        try {
+            stringRedisTemplate.execute(UNLOCK_SCRIPT, List.of(lockKey(configurationId)), token);
+        } catch (RedisSystemException e) {
+            // The lock expires on its own
+            logger.warn("Redis unavailable while unlocking configuration [id={}].", configurationId, e);
+        }
+    }
+
+    /**
+     * Serialized snapshot of an (application, environment), or null on a miss or when Redis is down.
+     */
+    public byte[] getSnapshot(String application, String environment) {
+
+        try {
+            return redisReadTimer.record(() -> redisTemplate.opsForValue().get(snapshotKey(application, environment)));
+        } catch (RedisSystemException e) {
+            redisErrors.increment();
+            logger.warn("Redis unavailable while reading snapshot [app={}, env={}]. Returning cache miss.",
+                    application, environment, e);
+            return null;
+        }
+    }
+
+    public void putSnapshot(String application, String environment, byte[] value, Duration ttl) {
+
+        try {
+            redisWriteTimer.record(() -> redisTemplate.opsForValue().set(snapshotKey(application, environment), value, ttl));
+        } catch (RedisSystemException e) {
+            redisErrors.increment();
+            logger.warn("Redis unavailable while storing snapshot [app={}, env={}]. Proceeding without cache.",
+                    application, environment, e);
+        }
+    }
+
+    public void evictSnapshot(String application, String environment) {
+
+        try {
+            redisTemplate.delete(snapshotKey(application, environment));
+        } catch (RedisSystemException e) {
+            // The entry expires on its own
+            logger.warn("Redis unavailable while evicting snapshot [app={}, env={}]. Ignoring.",
+                    application, environment, e);
+        }
+    }
+
+    private Optional<Set<UUID>> readIndex(List<String> keys) {
+
+        Set<String> members;
+        try {
+            members = keys.size() == 1
+                    ? stringRedisTemplate.opsForSet().members(keys.get(0))
+                    : stringRedisTemplate.opsForSet().intersect(keys);
+        } catch (RedisSystemException e) {
+            logger.warn("Redis unavailable while reading index {}. Returning cache miss.", keys, e);
+            return Optional.empty();
+        }
+
+        // The marker survives an intersection only if every set is loaded
+        if (members == null || !members.contains(INDEX_MARKER)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(members.stream()
+                .filter(member -> !INDEX_MARKER.equals(member))
+                .map(UUID::fromString)
+                .collect(Collectors.toCollection(LinkedHashSet::new)));
+    }
+
+    private String readGeneration(String key) {
+
+        try {
+            String generation = stringRedisTemplate.opsForValue().get(generationKey(key));
+            return generation != null ? generation : "0";
+        } catch (RedisSystemException e) {
+            logger.warn("Redis unavailable while reading index generation [{}]. Index will not be written.", key, e);
+            return null;
+        }
+    }
+
+    private void writeIndex(String key, String generation, Collection<Configuration> configurations) {
+
+        if (generation == null) {
+            return;
+        }
+
+        try {
+            Long written = stringRedisTemplate.execute(WRITE_INDEX_SCRIPT, List.of(key, generationKey(key)),
+                    indexArgs(indexTtl, generation, configurations).toArray());
+            if (Long.valueOf(0).equals(written)) {
+                logger.info("Discarded stale rebuild of index [{}], it changed while loading", key);
+            }
+        } catch (RedisSystemException e) {
+            logger.warn("Redis unavailable while writing index [{}]. Proceeding without cache.", key, e);
+        }
+    }
+
+    private void writeAll(Collection<Configuration> configurations) {
+
+        if (configurations.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, byte[]> entries = encodeAll(configurations);
+
+        try {
+            redisWriteTimer.record(() -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                // Each entry gets its own TTL so a bulk-written batch does not expire all at once
+                entries.forEach((id, value) -> connection.stringCommands().set(key(id).getBytes(StandardCharsets.UTF_8),
+                        value, Expiration.from(entryTtl()), SetOption.upsert()));
+                return null;
+            }));
+        } catch (RedisSystemException e) {
+            redisErrors.increment();
+            logger.warn("Redis unavailable while storing {} configurations. Proceeding without cache.",
+                    entries.size(), e);
+            return;
+        }
+
+        logger.info("Stored {} configurations in Redis", entries.size());
+    }
+
+    private Map<UUID, byte[]> encodeAll(Collection<Configuration> configurations) {
+
+        // Encoding dominates for large batches, spread it across cores
+        Stream<Configuration> stream = configurations.size() >= PARALLEL_SERIALIZATION_THRESHOLD
+                ? configurations.parallelStream()
+                : configurations.stream();
+        return stream.collect(Collectors.toMap(
+                Configuration::getId,
+                this::encode,
+                (first, second) -> second,
+                LinkedHashMap::new));
+    }
+
+    private Configuration decode(byte[] value) {
+
+        return decodeTimer.record(() -> codec.decode(value));
+    }
+
+    private byte[] encode(Configuration configuration) {
+
+        try {
+            return encodeTimer.record(() -> codec.encode(configuration));
+        } catch (CacheCodecException e) {
+            logger.error("Could not encode configuration [id={}] for Redis.", configuration.getId(), e);
+            throw e;
         }
     }
 
-    private String key(UUID configurationId) {
+    static String key(UUID configurationId) {
 
         return "config:" + configurationId;
     }
+
+    static String tombstoneKey(UUID configurationId) {
+
+        return "config:gone:" + configurationId;
+    }
+
+    // Entry keys followed by their tombstones, for EVICT_SCRIPT and WARM_SCRIPT
+    static List<String> entryAndTombstoneKeys(Collection<UUID> configurationIds) {
+
+        List<String> keys = new ArrayList<>(configurationIds.size() * 2);
+        configurationIds.forEach(id -> keys.add(key(id)));
+        configurationIds.forEach(id -> keys.add(tombstoneKey(id)));
+
+        return keys;
+    }
+
+    // Index sets the old state leaves (the first two, if any) followed by those the new state joins,
+    // then their generations, for REINDEX_SCRIPT
+    static List<String> reindexKeys(Configuration before, Configuration after) {
+
+        List<String> keys = new ArrayList<>(4);
+        if (before != null) {
+            keys.add(namespaceKey(before.getApplication(), before.getEnvironment()));
+            keys.add(nameKey(before.getName()));
+        }
+        if (after != null) {
+            keys.add(namespaceKey(after.getApplication(), after.getEnvironment()));
+            keys.add(nameKey(after.getName()));
+        }
+
+        return withGenerations(keys);
+    }
+
+    static List<String> withGenerations(Collection<String> indexKeys) {
+
+        List<String> keys = new ArrayList<>(indexKeys);
+        indexKeys.forEach(key -> keys.add(generationKey(key)));
+
+        return keys;
+    }
+
+    // ARGV of WRITE_INDEX_SCRIPT
+    static List<String> indexArgs(Duration indexTtl, String generation, Collection<Configuration> configurations) {
+
+        List<String> args = new ArrayList<>(configurations.size() + 3);
+        args.add(String.valueOf(indexTtl.toSeconds()));
+        args.add(generation);
+        args.add(INDEX_MARKER);
+        configurations.forEach(configuration -> args.add(configuration.getId().toString()));
+
+        return args;
+    }
+
+    // Outlives any load by far, so an expired generation cannot come back to the value a rebuild read
+    static Duration generationTtl(Duration indexTtl) {
+
+        return indexTtl.multipliedBy(2);
+    }
+
+    // Own prefix: a name index key plus a suffix could be another name's index key
+    static String generationKey(String indexKey) {
+
+        return "config:idx-gen:" + indexKey.substring("config:idx:".length());
+    }
+
+    static Set<String> indexKeys(Collection<Configuration> configurations) {
+
+        Set<String> keys = new LinkedHashSet<>();
+        for (Configuration configuration : configurations) {
+            keys.add(namespaceKey(configuration.getApplication(), configuration.getEnvironment()));
+            keys.add(nameKey(configuration.getName()));
+        }
+
+        return keys;
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+
+        return Counter.builder("config.cache.requests")
+                .description("Redis cache lookups by result")
+                .tag("tier", "redis")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static Timer stageTimer(MeterRegistry meterRegistry, String name, String operation) {
+
+        return Timer.builder(name)
+                .tag("op", operation)
+                .register(meterRegistry);
+    }
+
+    private String lockKey(UUID configurationId) {
+
+        return "config:lock:" + configurationId;
+    }
+
+    private Duration entryTtl() {
+
+        return jitteredTtl(entryTtl, entryTtlJitter);
+    }
+
+    // Spreads expiry of entries written together over [ttl, ttl * (1 + jitter)]
+    static Duration jitteredTtl(Duration ttl, double jitter) {
+
+        if (jitter <= 0) {
+            return ttl;
+        }
+        long jitterMillis = (long) (ttl.toMillis() * jitter * ThreadLocalRandom.current().nextDouble());
+        return ttl.plusMillis(jitterMillis);
+    }
+
+    // Length-prefixed so an application containing ':' cannot collide with another namespace
+    static String namespaceKey(String application, String environment) {
+
+        return "config:idx:ns:" + application.length() + ":" + application + ":" + environment;
+    }
+
+    private String snapshotKey(String application, String environment) {
+
+        return "config:snapshot:" + application.length() + ":" + application + ":" + environment;
+    }
+
+    static String nameKey(String name) {
+
+        return "config:idx:name:" + name;
+    }
 }
@@ -0,0 +1,204 @@
+package com.company.svc.service.codec;
+
+import com.company.svc.exception.CacheCodecException;
+import com.company.svc.model.Configuration;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Compact cache format. Layout (big-endian):
+ * <pre>
+ * format:1  flags:1  id:16  version:4  createdAt:16  updatedAt:16    fixed header, 54 bytes
+ * name, application, environment                                   length:4 + UTF-8 (length -1 = null)
+ * content                                                          [rawLength:4 if compressed] length:4 + bytes
+ * </pre>
+ * Timestamps are epoch second:8, nano:4 and offset seconds:4. {@code content} is compressed once it
+ * reaches the threshold and compression actually saves space; the flags record which algorithm was used.
+ * <p>
+ * Entries starting with '{' are the previous JSON format and are still read, so a rolling
+ * deploy does not turn every cached entry into a miss.
+ */
+public class BinaryConfigurationCodec implements ConfigurationCodec {
+
+    static final byte FORMAT_V1 = 1;
+
+    private static final byte FLAG_LZ4 = 1;
+    private static final byte FLAG_ZSTD = 1 << 1;
+
+    private static final int HEADER_BYTES = 1 + 1 + 16 + 4 + 16 + 16;
+    private static final int NULL_LENGTH = -1;
+    private static final int NULL_VERSION = Integer.MIN_VALUE;
+    private static final long NULL_TIMESTAMP = Long.MIN_VALUE;
+
+    private final CompressionAlgorithm compression;
+    private final int compressionThresholdBytes;
+    private final ConfigurationCodec legacyCodec;
+
+    public BinaryConfigurationCodec(CompressionAlgorithm compression,
+                                    int compressionThresholdBytes,
+                                    ConfigurationCodec legacyCodec) {
+        this.compression = compression;
+        this.compressionThresholdBytes = compressionThresholdBytes;
+        this.legacyCodec = legacyCodec;
+    }
+
+    @Override
+    public byte[] encode(Configuration configuration) {
+
+        byte[] name = utf8(configuration.getName());
+        byte[] application = utf8(configuration.getApplication());
+        byte[] environment = utf8(configuration.getEnvironment());
+        byte[] content = utf8(configuration.getContent());
+
+        byte flags = 0;
+        int rawContentLength = 0;
+        if (content != null && compression != CompressionAlgorithm.NONE && content.length >= compressionThresholdBytes) {
+            byte[] compressed = compression.compress(content);
+            if (compressed.length < content.length) {
+                rawContentLength = content.length;
+                content = compressed;
+                flags = compression == CompressionAlgorithm.LZ4 ? FLAG_LZ4 : FLAG_ZSTD;
+            }
+        }
+
+        int size = HEADER_BYTES
+                + sizeOf(name) + sizeOf(application) + sizeOf(environment) + sizeOf(content)
+                + (flags != 0 ? 4 : 0);
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+
+        buffer.put(FORMAT_V1);
+        buffer.put(flags);
+        UUID id = configuration.getId();
+        buffer.putLong(id != null ? id.getMostSignificantBits() : 0L);
+        buffer.putLong(id != null ? id.getLeastSignificantBits() : 0L);
+        buffer.putInt(configuration.getVersion() != null ? configuration.getVersion() : NULL_VERSION);
+        putTimestamp(buffer, configuration.getCreatedAt());
+        putTimestamp(buffer, configuration.getUpdatedAt());
+
+        putBytes(buffer, name);
+        putBytes(buffer, application);
+        putBytes(buffer, environment);
+        if (flags != 0) {
+            buffer.putInt(rawContentLength);
+        }
+        putBytes(buffer, content);
+
+        return buffer.array();
+    }
+
+    @Override
+    public Configuration decode(byte[] bytes) {
+
+        if (bytes.length > 0 && bytes[0] == '{') {
+            return legacyCodec.decode(bytes);
+        }
+        if (bytes.length < HEADER_BYTES || bytes[0] != FORMAT_V1) {
+            throw new CacheCodecException("Unsupported cache entry format " + (bytes.length > 0 ? bytes[0] : "<empty>"));
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            buffer.get();
+            byte flags = buffer.get();
+            UUID id = new UUID(buffer.getLong(), buffer.getLong());
+            int version = buffer.getInt();
+            OffsetDateTime createdAt = getTimestamp(buffer);
+            OffsetDateTime updatedAt = getTimestamp(buffer);
+
+            String name = getString(buffer);
+            String application = getString(buffer);
+            String environment = getString(buffer);
+
+            String content;
+            if (flags == 0) {
+                content = getString(buffer);
+            } else {
+                int rawLength = buffer.getInt();
+                byte[] compressed = getBytes(buffer);
+                CompressionAlgorithm algorithm = (flags & FLAG_LZ4) != 0 ? CompressionAlgorithm.LZ4 : CompressionAlgorithm.ZSTD;
+                content = new String(algorithm.decompress(compressed, rawLength), StandardCharsets.UTF_8);
+            }
+
+            return Configuration.builder()
+                    .id(id)
+                    .name(name)
+                    .application(application)
+                    .environment(environment)
+                    .version(version != NULL_VERSION ? version : null)
+                    .content(content)
+                    .createdAt(createdAt)
+                    .updatedAt(updatedAt)
+                    .build();
+        } catch (RuntimeException e) {
+            // Truncated buffers, bad lengths and decompressor errors all mean the entry is unusable
+            throw new CacheCodecException("Corrupted cache entry", e);
+        }
+    }
+
+    private static void putTimestamp(ByteBuffer buffer, OffsetDateTime timestamp) {
+
+        if (timestamp == null) {
+            buffer.putLong(NULL_TIMESTAMP).putInt(0).putInt(0);
+            return;
+        }
+        buffer.putLong(timestamp.toEpochSecond());
+        buffer.putInt(timestamp.getNano());
+        buffer.putInt(timestamp.getOffset().getTotalSeconds());
+    }
+
+    private static OffsetDateTime getTimestamp(ByteBuffer buffer) {
+
+        long epochSecond = buffer.getLong();
+        int nano = buffer.getInt();
+        int offsetSeconds = buffer.getInt();
+        if (epochSecond == NULL_TIMESTAMP) {
+            return null;
+        }
+        return OffsetDateTime.ofInstant(Instant.ofEpochSecond(epochSecond, nano), ZoneOffset.ofTotalSeconds(offsetSeconds));
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+
+        if (bytes == null) {
+            buffer.putInt(NULL_LENGTH);
+            return;
+        }
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static byte[] getBytes(ByteBuffer buffer) {
+
+        int length = buffer.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid field length " + length);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static String getString(ByteBuffer buffer) {
+
+        byte[] bytes = getBytes(buffer);
+        return bytes != null ? new String(bytes, StandardCharsets.UTF_8) : null;
+    }
+
+    private static byte[] utf8(String value) {
+
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int sizeOf(byte[] bytes) {
+
+        return 4 + (bytes != null ? bytes.length : 0);
+    }
+}
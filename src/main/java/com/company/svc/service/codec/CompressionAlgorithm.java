@@ -0,0 +1,56 @@
+package com.company.svc.service.codec;
+
+import com.github.luben.zstd.Zstd;
+import net.jpountz.lz4.LZ4Factory;
+
+/**
+ * Block compression applied to large {@code content} values in the binary cache format.
+ * Callers keep the uncompressed length, decompression needs it.
+ */
+public enum CompressionAlgorithm {
+
+    NONE {
+        @Override
+        byte[] compress(byte[] raw) {
+            return raw;
+        }
+
+        @Override
+        byte[] decompress(byte[] compressed, int rawLength) {
+            return compressed;
+        }
+    },
+
+    // Cheapest to decompress, the right default for a read-heavy cache
+    LZ4 {
+        @Override
+        byte[] compress(byte[] raw) {
+            return LZ4_FACTORY.fastCompressor().compress(raw);
+        }
+
+        @Override
+        byte[] decompress(byte[] compressed, int rawLength) {
+            return LZ4_FACTORY.fastDecompressor().decompress(compressed, rawLength);
+        }
+    },
+
+    // Better ratio for large YAML/JSON documents at a higher CPU cost
+    ZSTD {
+        @Override
+        byte[] compress(byte[] raw) {
+            return Zstd.compress(raw, ZSTD_LEVEL);
+        }
+
+        @Override
+        byte[] decompress(byte[] compressed, int rawLength) {
+            return Zstd.decompress(compressed, rawLength);
+        }
+    };
+
+    private static final LZ4Factory LZ4_FACTORY = LZ4Factory.fastestInstance();
+    private static final int ZSTD_LEVEL = 3;
+
+    abstract byte[] compress(byte[] raw);
+
+    abstract byte[] decompress(byte[] compressed, int rawLength);
+}
@@ -0,0 +1,14 @@
+package com.company.svc.service.codec;
+
+import com.company.svc.model.Configuration;
+
+/**
+ * Encoding of cached configurations, as stored in Redis.
+ * Implementations throw {@link com.company.svc.exception.CacheCodecException} for unreadable entries.
+ */
+public interface ConfigurationCodec {
+
+    byte[] encode(Configuration configuration);
+
+    Configuration decode(byte[] bytes);
+}
@@ -0,0 +1,39 @@
+package com.company.svc.service.codec;
+
+import com.company.svc.exception.CacheCodecException;
+import com.company.svc.model.Configuration;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+
+/**
+ * The original cache format: the entity as Jackson JSON.
+ */
+public class JsonConfigurationCodec implements ConfigurationCodec {
+
+    private final ObjectMapper objectMapper;
+
+    public JsonConfigurationCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public byte[] encode(Configuration configuration) {
+
+        try {
+            return objectMapper.writeValueAsBytes(configuration);
+        } catch (IOException e) {
+            throw new CacheCodecException("Failed to serialize Configuration [id=" + configuration.getId() + "]", e);
+        }
+    }
+
+    @Override
+    public Configuration decode(byte[] bytes) {
+
+        try {
+            return objectMapper.readValue(bytes, Configuration.class);
+        } catch (IOException e) {
+            throw new CacheCodecException("Failed to parse cached Configuration", e);
+        }
+    }
+}
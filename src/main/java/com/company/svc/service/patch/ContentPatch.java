@@ -0,0 +1,82 @@
+package com.company.svc.service.patch;
+
+import com.company.svc.exception.BadRequestException;
+import com.company.svc.exception.UnprocessablePatchException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+
+import java.util.Arrays;
+
+/**
+ * A change to a configuration's JSON {@code content}, expressed as a JSON Patch or a JSON Merge Patch.
+ * Applying it re-serializes the content compactly, so whitespace in the stored document is not preserved.
+ */
+public record ContentPatch(Format format, JsonNode document) {
+
+    public static final String JSON_PATCH_VALUE = "application/json-patch+json";
+    public static final String MERGE_PATCH_VALUE = "application/merge-patch+json";
+
+    private static final ObjectMapper objectMapper = JsonMapper.builder().build();
+
+    public enum Format {
+
+        JSON_PATCH(JSON_PATCH_VALUE),
+        MERGE_PATCH(MERGE_PATCH_VALUE);
+
+        private final String mediaType;
+
+        Format(String mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public String getMediaType() {
+
+            return mediaType;
+        }
+
+        public static Format fromMediaType(String mediaType) {
+
+            return Arrays.stream(values())
+                    .filter(format -> format.mediaType.equals(mediaType))
+                    .findFirst()
+                    .orElseThrow(() -> new BadRequestException(String.format("Unsupported patch type [%s].", mediaType)));
+        }
+    }
+
+    public static ContentPatch parse(String mediaType, String document) {
+
+        try {
+            return new ContentPatch(Format.fromMediaType(mediaType), objectMapper.readTree(document));
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Patch document is not valid JSON.");
+        }
+    }
+
+    public String applyTo(String content) {
+
+        JsonNode target;
+        try {
+            target = content == null || content.isBlank() ? NullNode.getInstance() : objectMapper.readTree(content);
+        } catch (JsonProcessingException e) {
+            throw new UnprocessablePatchException("Configuration content is not JSON and cannot be patched.");
+        }
+
+        JsonNode patched = switch (format) {
+            case JSON_PATCH -> JsonPatches.jsonPatch(target, document);
+            case MERGE_PATCH -> JsonPatches.mergePatch(target, document);
+        };
+
+        return patched.toString();
+    }
+
+    /**
+     * Serialized form carried by delta events.
+     */
+    public String documentAsString() {
+
+        return document.toString();
+    }
+}
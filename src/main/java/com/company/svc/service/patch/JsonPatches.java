@@ -0,0 +1,217 @@
+package com.company.svc.service.patch;
+
+import com.company.svc.exception.BadRequestException;
+import com.company.svc.exception.UnprocessablePatchException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JSON Patch (RFC 6902) and JSON Merge Patch (RFC 7386) over Jackson trees.
+ * Both modify the given document in place where possible and return the new root.
+ * Malformed patch documents are a {@link BadRequestException}, patches that do not fit the document
+ * an {@link UnprocessablePatchException}.
+ */
+final class JsonPatches {
+
+    private static final String APPEND = "-";
+
+    private JsonPatches() {
+    }
+
+    static JsonNode mergePatch(JsonNode target, JsonNode patch) {
+
+        // Copied so the result never shares nodes with the patch document, which may be applied again
+        if (!patch.isObject()) {
+            return patch.deepCopy();
+        }
+
+        ObjectNode result = target != null && target.isObject() ? (ObjectNode) target : JsonNodeFactory.instance.objectNode();
+        patch.fields().forEachRemaining(field -> {
+            if (field.getValue().isNull()) {
+                result.remove(field.getKey());
+            } else {
+                result.set(field.getKey(), mergePatch(result.get(field.getKey()), field.getValue()));
+            }
+        });
+
+        return result;
+    }
+
+    static JsonNode jsonPatch(JsonNode document, JsonNode patch) {
+
+        if (!patch.isArray()) {
+            throw new BadRequestException("A JSON Patch must be an array of operations.");
+        }
+
+        JsonNode root = document;
+        for (JsonNode operation : patch) {
+            String op = member(operation, "op");
+            List<String> path = pointer(member(operation, "path"));
+
+            root = switch (op) {
+                case "add" -> add(root, path, value(operation));
+                case "remove" -> remove(root, path);
+                case "replace" -> replace(root, path, value(operation));
+                case "move" -> {
+                    List<String> from = pointer(member(operation, "from"));
+                    if (path.size() > from.size() && path.subList(0, from.size()).equals(from)) {
+                        throw new UnprocessablePatchException("Cannot move a value into one of its children.");
+                    }
+                    JsonNode moved = get(root, from);
+                    yield add(remove(root, from), path, moved);
+                }
+                case "copy" -> add(root, path, get(root, pointer(member(operation, "from"))));
+                case "test" -> {
+                    if (!get(root, path).equals(value(operation))) {
+                        throw new UnprocessablePatchException(
+                                String.format("Test failed at [%s].", member(operation, "path")));
+                    }
+                    yield root;
+                }
+                default -> throw new BadRequestException(String.format("Unknown JSON Patch operation [%s].", op));
+            };
+        }
+
+        return root;
+    }
+
+    // Inserts a copy: the value belongs to the patch document or, for copy, to another place in the tree
+    private static JsonNode add(JsonNode root, List<String> path, JsonNode value) {
+
+        if (path.isEmpty()) {
+            return value.deepCopy();
+        }
+
+        JsonNode parent = get(root, path.subList(0, path.size() - 1));
+        String last = path.get(path.size() - 1);
+
+        if (parent instanceof ObjectNode object) {
+            object.set(last, value.deepCopy());
+        } else if (parent instanceof ArrayNode array) {
+            if (APPEND.equals(last)) {
+                array.add(value.deepCopy());
+            } else {
+                array.insert(index(array, last, array.size()), value.deepCopy());
+            }
+        } else {
+            throw new UnprocessablePatchException(String.format("Cannot add [%s] to a scalar value.", last));
+        }
+
+        return root;
+    }
+
+    private static JsonNode remove(JsonNode root, List<String> path) {
+
+        if (path.isEmpty()) {
+            throw new UnprocessablePatchException("Cannot remove the whole document.");
+        }
+
+        JsonNode parent = get(root, path.subList(0, path.size() - 1));
+        String last = path.get(path.size() - 1);
+
+        if (parent instanceof ObjectNode object && object.has(last)) {
+            object.remove(last);
+        } else if (parent instanceof ArrayNode array) {
+            array.remove(index(array, last, array.size() - 1));
+        } else {
+            throw new UnprocessablePatchException(String.format("No value at [%s].", last));
+        }
+
+        return root;
+    }
+
+    private static JsonNode replace(JsonNode root, List<String> path, JsonNode value) {
+
+        if (path.isEmpty()) {
+            return value.deepCopy();
+        }
+
+        JsonNode parent = get(root, path.subList(0, path.size() - 1));
+        String last = path.get(path.size() - 1);
+
+        if (parent instanceof ObjectNode object && object.has(last)) {
+            object.set(last, value.deepCopy());
+        } else if (parent instanceof ArrayNode array) {
+            array.set(index(array, last, array.size() - 1), value.deepCopy());
+        } else {
+            throw new UnprocessablePatchException(String.format("No value at [%s].", last));
+        }
+
+        return root;
+    }
+
+    private static JsonNode get(JsonNode root, List<String> path) {
+
+        JsonNode node = root;
+        for (String token : path) {
+            if (node instanceof ArrayNode array) {
+                node = array.get(index(array, token, array.size() - 1));
+            } else {
+                node = node != null ? node.get(token) : null;
+            }
+            if (node == null) {
+                throw new UnprocessablePatchException(String.format("No value at [%s].", token));
+            }
+        }
+
+        return node;
+    }
+
+    private static int index(ArrayNode array, String token, int max) {
+
+        // RFC 6901: decimal digits without leading zeros
+        if (!token.matches("0|[1-9][0-9]{0,8}")) {
+            throw new UnprocessablePatchException(String.format("Invalid array index [%s].", token));
+        }
+
+        int index = Integer.parseInt(token);
+        if (index > max) {
+            throw new UnprocessablePatchException(
+                    String.format("Array index [%d] out of bounds, size is %d.", index, array.size()));
+        }
+
+        return index;
+    }
+
+    // JSON Pointer (RFC 6901) reference tokens
+    private static List<String> pointer(String pointer) {
+
+        if (pointer.isEmpty()) {
+            return List.of();
+        }
+        if (!pointer.startsWith("/")) {
+            throw new BadRequestException(String.format("Invalid JSON Pointer [%s].", pointer));
+        }
+
+        List<String> tokens = new ArrayList<>();
+        for (String token : pointer.substring(1).split("/", -1)) {
+            tokens.add(token.replace("~1", "/").replace("~0", "~"));
+        }
+
+        return tokens;
+    }
+
+    private static String member(JsonNode operation, String name) {
+
+        JsonNode member = operation.get(name);
+        if (member == null || !member.isTextual()) {
+            throw new BadRequestException(String.format("JSON Patch operation is missing [%s].", name));
+        }
+
+        return member.asText();
+    }
+
+    private static JsonNode value(JsonNode operation) {
+
+        if (!operation.has("value")) {
+            throw new BadRequestException("JSON Patch operation is missing [value].");
+        }
+
+        return operation.get("value");
+    }
+}
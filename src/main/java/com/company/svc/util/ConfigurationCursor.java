@@ -0,0 +1,72 @@
+package com.company.svc.util;
+
+import com.company.svc.exception.BadRequestException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Opaque keyset cursor over (application, environment, name, id).
+ * Encoded as four base64url segments joined by '.'.
+ */
+public class ConfigurationCursor {
+
+    public static final Sort KEYSET_SORT = Sort.by("application", "environment", "name", "id");
+
+    private static final String SEPARATOR = ".";
+
+    public static String encode(ScrollPosition position) {
+
+        if (!(position instanceof KeysetScrollPosition keyset)) {
+            throw new IllegalArgumentException("Only keyset positions can be encoded as a cursor");
+        }
+
+        Map<String, ?> keys = keyset.getKeys();
+
+        return segment(keys.get("application"))
+                + SEPARATOR + segment(keys.get("environment"))
+                + SEPARATOR + segment(keys.get("name"))
+                + SEPARATOR + segment(keys.get("id"));
+    }
+
+    public static ScrollPosition decode(String cursor) {
+
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        String[] segments = cursor.split("\\.", -1);
+        if (segments.length != 4) {
+            throw new BadRequestException(String.format("Invalid cursor [%s].", cursor));
+        }
+
+        try {
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put("application", value(segments[0]));
+            keys.put("environment", value(segments[1]));
+            keys.put("name", value(segments[2]));
+            keys.put("id", UUID.fromString(value(segments[3])));
+
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(String.format("Invalid cursor [%s].", cursor));
+        }
+    }
+
+    private static String segment(Object value) {
+
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String value(String segment) {
+
+        return new String(Base64.getUrlDecoder().decode(segment), StandardCharsets.UTF_8);
+    }
+}
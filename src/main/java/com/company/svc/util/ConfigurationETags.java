@@ -0,0 +1,127 @@
+package com.company.svc.util;
+
+import com.company.svc.exception.BadRequestException;
+import com.company.svc.exception.PreconditionFailedException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Strong entity tags for configuration resources. A single configuration is tagged by id and version,
+ * a collection by a digest over the sorted (id, version) pairs of its members. These are state tags;
+ * {@link com.company.svc.config.web.RepresentationETagFilter} adds the media type and content coding on the wire.
+ */
+public class ConfigurationETags {
+
+    private static final String WILDCARD = "*";
+    private static final String WEAK_PREFIX = "W/";
+    private static final char REPRESENTATION_SEPARATOR = '.';
+
+    public static String forConfiguration(UUID id, Integer version) {
+
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    public static <T> String forCollection(List<T> items, Function<T, UUID> id, Function<T, Integer> version) {
+
+        MessageDigest digest = sha256();
+        items.stream()
+                .sorted(Comparator.comparing(id))
+                .forEach(item -> digest.update((id.apply(item) + ":" + version.apply(item) + ";")
+                        .getBytes(StandardCharsets.UTF_8)));
+
+        // 128 bits is plenty to tell collection states apart
+        return "\"" + items.size() + "-" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+    }
+
+    /**
+     * Evaluates an If-None-Match header value against the current tag (weak comparison, RFC 9110).
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals(WILDCARD)) {
+                return true;
+            }
+            if (tag.startsWith(WEAK_PREFIX)) {
+                tag = tag.substring(WEAK_PREFIX.length());
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Version pinned by an If-Match header (strong comparison, RFC 9110). Null when there is no header or it is
+     * {@code *}, i.e. any current version is acceptable. A header naming no tag of this configuration can never
+     * match and fails the precondition right away, and so does a weak tag, which never matches strongly. Any
+     * strong representation tag of a version pins it, whatever its media type or coding.
+     */
+    public static Integer expectedVersion(String ifMatch, UUID id) {
+
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals(WILDCARD)) {
+            return null;
+        }
+
+        String prefix = "\"" + id + "-";
+        List<Integer> versions = new ArrayList<>();
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith(prefix) && tag.endsWith("\"") && tag.length() > prefix.length() + 1) {
+                versions.add(parseVersion(stripRepresentation(tag.substring(prefix.length(), tag.length() - 1))));
+            }
+        }
+        versions.removeIf(Objects::isNull);
+
+        if (versions.isEmpty()) {
+            throw new PreconditionFailedException(
+                    String.format("If-Match [%s] does not match configuration with ID [%s].", ifMatch, id));
+        }
+        if (versions.size() > 1) {
+            throw new BadRequestException(String.format("If-Match [%s] names more than one version.", ifMatch));
+        }
+
+        return versions.get(0);
+    }
+
+    // "3.cbor+gzip" -> "3"
+    private static String stripRepresentation(String value) {
+
+        int end = value.indexOf(REPRESENTATION_SEPARATOR);
+        return end < 0 ? value : value.substring(0, end);
+    }
+
+    private static Integer parseVersion(String value) {
+
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static MessageDigest sha256() {
+
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -3,12 +3,21 @@ package com.company.svc.util;
 import com.company.svc.event.ConfigurationEvent;
 import com.company.svc.event.EventType;
 import com.company.svc.model.Configuration;
+import com.company.svc.service.patch.ContentPatch;
+import com.company.svc.web.dto.ConfigurationBatchGetResponse;
+import com.company.svc.web.dto.ConfigurationBulkResponse;
+import com.company.svc.web.dto.ConfigurationBulkResult;
 import com.company.svc.web.dto.ConfigurationCollectionResponse;
 import com.company.svc.web.dto.ConfigurationCreateRequest;
 import com.company.svc.web.dto.ConfigurationResponse;
+import org.springframework.data.domain.Window;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 public class ConfigurationMapper {
 
@@ -18,7 +27,6 @@ public class ConfigurationMapper {
                 .name(request.getName())
                 .application(request.getApplication())
                 .environment(request.getEnvironment())
-                .version(1)
                 .content(request.getContent())
                 .createdAt(OffsetDateTime.now())
                 .updatedAt(OffsetDateTime.now())
@@ -50,6 +58,51 @@ public class ConfigurationMapper {
                 .configurations(response).build();
     }
 
+    public static ConfigurationCollectionResponse mapToCollectionResponse(Window<Configuration> window) {
+
+        List<ConfigurationResponse> response = window
+                .stream()
+                .map(ConfigurationMapper::mapToResponse)
+                .toList();
+
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? ConfigurationCursor.encode(window.positionAt(window.size() - 1))
+                : null;
+
+        return ConfigurationCollectionResponse.builder()
+                .configurations(response)
+                .nextCursor(nextCursor).build();
+    }
+
+    public static ConfigurationBatchGetResponse mapToBatchGetResponse(Collection<UUID> requestedIds,
+                                                                      List<Configuration> configurations) {
+
+        Set<UUID> foundIds = configurations.stream()
+                .map(Configuration::getId)
+                .collect(Collectors.toSet());
+
+        List<UUID> notFound = requestedIds.stream()
+                .distinct()
+                .filter(id -> !foundIds.contains(id))
+                .toList();
+
+        return ConfigurationBatchGetResponse.builder()
+                .configurations(configurations.stream().map(ConfigurationMapper::mapToResponse).toList())
+                .notFound(notFound).build();
+    }
+
+    public static ConfigurationBulkResponse mapToBulkResponse(List<ConfigurationBulkResult> results) {
+
+        int failed = (int) results.stream()
+                .filter(result -> result.getStatus() >= 400)
+                .count();
+
+        return ConfigurationBulkResponse.builder()
+                .succeeded(results.size() - failed)
+                .failed(failed)
+                .results(results).build();
+    }
+
     public static ConfigurationEvent mapToConfigurationEvent(Configuration persistedConfiguration, EventType eventType) {
 
         return ConfigurationEvent.builder()
@@ -58,8 +111,21 @@ public class ConfigurationMapper {
                 .application(persistedConfiguration.getApplication())
                 .environment(persistedConfiguration.getEnvironment())
                 .content(persistedConfiguration.getContent())
+                .version(persistedConfiguration.getVersion())
                 .eventType(eventType)
                 .timestamp(OffsetDateTime.now())
                 .build();
     }
+
+    public static ConfigurationEvent mapToContentDeltaEvent(Configuration persistedConfiguration, Integer baseVersion,
+                                                            ContentPatch patch) {
+
+        ConfigurationEvent event = mapToConfigurationEvent(persistedConfiguration, EventType.UPDATED);
+        event.setContent(null);
+        event.setBaseVersion(baseVersion);
+        event.setContentPatch(patch.documentAsString());
+        event.setContentPatchType(patch.format().getMediaType());
+
+        return event;
+    }
 }
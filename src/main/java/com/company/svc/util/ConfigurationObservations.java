@@ -0,0 +1,58 @@
+package com.company.svc.util;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * Observations for the latency breakdown of configuration reads and writes. Each observation is recorded
+ * as a timer and, when tracing is enabled, as a span; stages started inside an operation become its children.
+ */
+public final class ConfigurationObservations {
+
+    public static final String OPERATION = "config.operation";
+    public static final String STAGE = "config.stage";
+
+    private ConfigurationObservations() {
+    }
+
+    public static Observation operation(ObservationRegistry registry, String operation) {
+
+        return Observation.createNotStarted(OPERATION, registry)
+                .contextualName("configuration " + operation)
+                .lowCardinalityKeyValue("operation", operation);
+    }
+
+    public static <T> T stage(ObservationRegistry registry, String operation, String stage, Supplier<T> work) {
+
+        return Observation.createNotStarted(STAGE, registry)
+                .contextualName(stage)
+                .lowCardinalityKeyValue("operation", operation)
+                .lowCardinalityKeyValue("stage", stage)
+                .observe(work);
+    }
+
+    public static void stage(ObservationRegistry registry, String operation, String stage, Runnable work) {
+
+        stage(registry, operation, stage, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Reactive counterpart of {@link Observation#observe}: the observation runs from subscription until
+     * {@code work} completes, fails or is cancelled.
+     */
+    public static <T> Mono<T> observe(Supplier<Observation> observation, Mono<T> work) {
+
+        return Mono.defer(() -> {
+            Observation started = observation.get().start();
+            return work
+                    .doOnError(started::error)
+                    .doFinally(signal -> started.stop());
+        });
+    }
+}
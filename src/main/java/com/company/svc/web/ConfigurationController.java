@@ -1,24 +1,66 @@
 package com.company.svc.web;
 
+import com.company.svc.config.web.RepresentationETagFilter;
+import com.company.svc.exception.BadRequestException;
 import com.company.svc.model.Configuration;
+import com.company.svc.model.ConfigurationVersionView;
+import com.company.svc.service.ConfigurationBulkService;
+import com.company.svc.service.ConfigurationHistoryService;
 import com.company.svc.service.ConfigurationService;
+import com.company.svc.service.ConfigurationWatchService;
+import com.company.svc.service.NamespaceSnapshot;
+import com.company.svc.service.NamespaceSnapshotService;
+import com.company.svc.service.patch.ContentPatch;
+import com.company.svc.util.ConfigurationETags;
 import com.company.svc.util.ConfigurationMapper;
 import com.company.svc.web.api.ConfigurationApi;
 import com.company.svc.web.dto.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Window;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ConfigurationController implements ConfigurationApi {
 
+    private static final byte NEWLINE = '\n';
+    private static final String GZIP = "gzip";
+
     private final ConfigurationService configurationService;
+    private final ConfigurationBulkService configurationBulkService;
+    private final ConfigurationHistoryService configurationHistoryService;
+    private final ConfigurationWatchService configurationWatchService;
+    private final NamespaceSnapshotService namespaceSnapshotService;
+    private final ObjectMapper objectMapper;
 
-    public ConfigurationController(ConfigurationService configurationService) {
+    public ConfigurationController(ConfigurationService configurationService,
+                                   ConfigurationBulkService configurationBulkService,
+                                   ConfigurationHistoryService configurationHistoryService,
+                                   ConfigurationWatchService configurationWatchService,
+                                   NamespaceSnapshotService namespaceSnapshotService,
+                                   ObjectMapper objectMapper) {
         this.configurationService = configurationService;
+        this.configurationBulkService = configurationBulkService;
+        this.configurationHistoryService = configurationHistoryService;
+        this.configurationWatchService = configurationWatchService;
+        this.namespaceSnapshotService = namespaceSnapshotService;
+        this.objectMapper = objectMapper;
     }
 
     @Override
@@ -31,45 +73,196 @@ public class ConfigurationController implements ConfigurationApi {
     }
 
     @Override
-    public ResponseEntity<ConfigurationResponse> updateConfiguration(ConfigurationUpdateRequest request, UUID configurationId) {
+    public ResponseEntity<ConfigurationResponse> updateConfiguration(ConfigurationUpdateRequest request, UUID configurationId,
+                                                                     String ifMatch) {
 
-        Configuration configuration = configurationService.update(request, configurationId);
-        ConfigurationResponse response = ConfigurationMapper.mapToResponse(configuration);
+        Integer expectedVersion = ConfigurationETags.expectedVersion(ifMatch, configurationId);
+        Configuration configuration = configurationService.update(request, configurationId, expectedVersion);
 
-        return ResponseEntity.ok(response);
+        return written(configuration);
     }
 
     @Override
-    public ResponseEntity<ConfigurationResponse> patchConfiguration(ConfigurationPatchRequest request, UUID configurationId) {
+    public ResponseEntity<ConfigurationResponse> patchConfiguration(ConfigurationPatchRequest request, UUID configurationId,
+                                                                    String ifMatch) {
 
-        Configuration configuration = configurationService.patch(request, configurationId);
-        ConfigurationResponse response = ConfigurationMapper.mapToResponse(configuration);
+        Integer expectedVersion = ConfigurationETags.expectedVersion(ifMatch, configurationId);
+        Configuration configuration = configurationService.patch(request, configurationId, expectedVersion);
 
-        return ResponseEntity.ok(response);
+        return written(configuration);
+    }
+
+    @Override
+    public ResponseEntity<ConfigurationResponse> patchConfigurationContent(String patch, UUID configurationId,
+                                                                           MediaType contentType, String ifMatch) {
+
+        Integer expectedVersion = ConfigurationETags.expectedVersion(ifMatch, configurationId);
+        ContentPatch contentPatch = ContentPatch.parse(contentType.getType() + "/" + contentType.getSubtype(), patch);
+        Configuration configuration = configurationService.patchContent(contentPatch, configurationId, expectedVersion);
+
+        return written(configuration);
     }
 
     @Override
-    public ResponseEntity<ConfigurationResponse> getConfiguration(UUID configurationId) {
+    public ResponseEntity<ConfigurationResponse> getConfiguration(UUID configurationId, String ifNoneMatch,
+                                                                  Integer version, OffsetDateTime asOf) {
+
+        if (version != null && asOf != null) {
+            throw new BadRequestException("Pass either version or asOf, not both.");
+        }
+        if (version != null) {
+            return getRevision(configurationId, version, ifNoneMatch);
+        }
+        if (asOf != null) {
+            Configuration configuration = configurationHistoryService.getAsOf(configurationId, asOf);
+            return ResponseEntity.ok()
+                    .eTag(ConfigurationETags.forConfiguration(configuration.getId(), configuration.getVersion()))
+                    .body(ConfigurationMapper.mapToResponse(configuration));
+        }
+
+        // Conditional requests are answered from the version alone, content is never loaded for a 304
+        if (ifNoneMatch != null) {
+            String current = ConfigurationETags.forConfiguration(configurationId, configurationService.getVersion(configurationId));
+            if (ConfigurationETags.matches(ifNoneMatch, current)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+            }
+        }
 
         Configuration configuration = configurationService.getById(configurationId);
         ConfigurationResponse response = ConfigurationMapper.mapToResponse(configuration);
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+                .eTag(ConfigurationETags.forConfiguration(configuration.getId(), configuration.getVersion()))
+                .body(response);
     }
 
     @Override
-    public ResponseEntity<ConfigurationCollectionResponse> getConfigurations(String name, String application, String environment) {
+    public ResponseEntity<ConfigurationCollectionResponse> getConfigurations(String name, String application, String environment,
+                                                                             Integer limit, String cursor, String ifNoneMatch) {
+
+        if (limit != null || cursor != null) {
+            Window<Configuration> page = configurationService.findConfigurationsPage(name, application, environment, limit, cursor);
+
+            return ResponseEntity.ok(ConfigurationMapper.mapToCollectionResponse(page));
+        }
+
+        if (ifNoneMatch != null) {
+            List<ConfigurationVersionView> versions = configurationService.findConfigurationVersions(name, application, environment);
+            String current = ConfigurationETags.forCollection(versions,
+                    ConfigurationVersionView::getId, ConfigurationVersionView::getVersion);
+            if (!versions.isEmpty() && ConfigurationETags.matches(ifNoneMatch, current)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+            }
+        }
 
         List<Configuration> configurations = configurationService.findConfigurations(name, application, environment);
         ConfigurationCollectionResponse response = ConfigurationMapper.mapToCollectionResponse(configurations);
 
+        return ResponseEntity.ok()
+                .eTag(ConfigurationETags.forCollection(configurations, Configuration::getId, Configuration::getVersion))
+                .body(response);
+    }
+
+    @Override
+    public ResponseEntity<byte[]> getNamespaceSnapshot(String application, String environment,
+                                                       String ifNoneMatch, String acceptEncoding) {
+
+        NamespaceSnapshot snapshot = namespaceSnapshotService.get(application, environment);
+        if (ConfigurationETags.matches(ifNoneMatch, snapshot.eTag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(snapshot.eTag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+
+        // Already compressed, the container does not compress it again
+        boolean gzip = RepresentationETagFilter.acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(snapshot.eTag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+
+        return response.body(gzip ? snapshot.gzip() : snapshot.json());
+    }
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> streamConfigurations(String name, String application, String environment) {
+
+        StreamingResponseBody body = outputStream -> configurationService.streamConfigurations(
+                name, application, environment,
+                configuration -> writeLine(outputStream, ConfigurationMapper.mapToResponse(configuration)));
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @Override
+    public SseEmitter watchConfigurations(String application, String environment, String name, String lastEventId) {
+
+        return configurationWatchService.subscribe(application, environment, name, lastEventId);
+    }
+
+    @Override
+    public ResponseEntity<ConfigurationBatchGetResponse> batchGetConfigurations(ConfigurationBatchGetRequest request) {
+
+        List<Configuration> configurations = configurationService.getByIds(request.getIds());
+        ConfigurationBatchGetResponse response = ConfigurationMapper.mapToBatchGetResponse(request.getIds(), configurations);
+
+        return ResponseEntity.ok(response);
+    }
+
+    @Override
+    public ResponseEntity<ConfigurationBulkResponse> bulkConfigurations(ConfigurationBulkRequest request) {
+
+        List<ConfigurationBulkResult> results = configurationBulkService.apply(request.getOperations());
+        ConfigurationBulkResponse response = ConfigurationMapper.mapToBulkResponse(results);
+
         return ResponseEntity.ok(response);
     }
 
     @Override
-    public ResponseEntity<Void> deleteConfiguration(UUID configurationId) {
+    public ResponseEntity<Void> deleteConfiguration(UUID configurationId, String ifMatch) {
 
-        configurationService.delete(configurationId);
+        configurationService.delete(configurationId, ConfigurationETags.expectedVersion(ifMatch, configurationId));
         return ResponseEntity.noContent().build();
     }
+
+    // A revision never changes once written, so clients and proxies may keep it
+    private ResponseEntity<ConfigurationResponse> getRevision(UUID configurationId, int version, String ifNoneMatch) {
+
+        String eTag = ConfigurationETags.forConfiguration(configurationId, version);
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable();
+        if (ConfigurationETags.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).build();
+        }
+
+        Configuration configuration = configurationHistoryService.getVersion(configurationId, version);
+
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(cacheControl)
+                .body(ConfigurationMapper.mapToResponse(configuration));
+    }
+
+    // The new ETag lets the client chain its next conditional write without a re-read
+    private ResponseEntity<ConfigurationResponse> written(Configuration configuration) {
+
+        return ResponseEntity.ok()
+                .eTag(ConfigurationETags.forConfiguration(configuration.getId(), configuration.getVersion()))
+                .body(ConfigurationMapper.mapToResponse(configuration));
+    }
+
+    private void writeLine(OutputStream outputStream, ConfigurationResponse response) {
+
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(response));
+            outputStream.write(NEWLINE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to stream configuration " + response.getId(), e);
+        }
+    }
 }
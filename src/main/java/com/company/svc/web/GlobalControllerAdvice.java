@@ -1,15 +1,22 @@
 package com.company.svc.web;
 
 
+import com.company.svc.exception.BadRequestException;
+import com.company.svc.exception.ConflictException;
+import com.company.svc.exception.PreconditionFailedException;
 import com.company.svc.exception.ResourceNotFoundException;
+import com.company.svc.exception.UnprocessablePatchException;
 import com.company.svc.web.dto.ErrorResponse;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
 import java.time.OffsetDateTime;
 import java.util.List;
@@ -24,6 +31,45 @@ public class GlobalControllerAdvice {
         return buildResponse(HttpStatus.NOT_FOUND, ex.getMessage(), null);
     }
 
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ErrorResponse> handleBadRequestException(BadRequestException ex) {
+
+        return buildResponse(HttpStatus.BAD_REQUEST, ex.getMessage(), null);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponse> handlePreconditionFailedException(PreconditionFailedException ex) {
+
+        return buildResponse(HttpStatus.PRECONDITION_FAILED, ex.getMessage(), null);
+    }
+
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ErrorResponse> handleConflictException(ConflictException ex) {
+
+        return buildResponse(HttpStatus.CONFLICT, ex.getMessage(), null);
+    }
+
+    @ExceptionHandler(UnprocessablePatchException.class)
+    public ResponseEntity<ErrorResponse> handleUnprocessablePatchException(UnprocessablePatchException ex) {
+
+        return buildResponse(HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage(), null);
+    }
+
+    // Entity writes (bulk) that lost the @Version check against a concurrent writer
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException ex) {
+
+        return buildResponse(HttpStatus.CONFLICT, "Configuration was modified concurrently, please retry.", null);
+    }
+
+    // Mostly the unique (application, environment, name) key, e.g. two creates of the same configuration racing
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+
+        return buildResponse(HttpStatus.CONFLICT,
+                "Configuration conflicts with stored data; application, environment and name must be unique.", null);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationException(MethodArgumentNotValidException ex) {
 
@@ -34,6 +80,17 @@ public class GlobalControllerAdvice {
         return buildResponse(HttpStatus.BAD_REQUEST, "Validation failed", errors);
     }
 
+    // Same failure on the reactive variant, where WebFlux reports invalid request bodies this way
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> handleValidationException(WebExchangeBindException ex) {
+
+        List<String> errors = ex.getBindingResult().getAllErrors().stream()
+                .map(DefaultMessageSourceResolvable::getDefaultMessage)
+                .toList();
+
+        return buildResponse(HttpStatus.BAD_REQUEST, "Validation failed", errors);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
 
@@ -0,0 +1,264 @@
+package com.company.svc.web;
+
+import com.company.svc.config.web.RepresentationETagFilter;
+import com.company.svc.exception.BadRequestException;
+import com.company.svc.model.Configuration;
+import com.company.svc.service.ConfigurationBulkService;
+import com.company.svc.service.ConfigurationHistoryService;
+import com.company.svc.service.ConfigurationService;
+import com.company.svc.service.ConfigurationWatchService;
+import com.company.svc.service.NamespaceSnapshotService;
+import com.company.svc.service.ReactiveConfigurationService;
+import com.company.svc.service.patch.ContentPatch;
+import com.company.svc.util.ConfigurationETags;
+import com.company.svc.util.ConfigurationMapper;
+import com.company.svc.web.api.ReactiveConfigurationApi;
+import com.company.svc.web.dto.*;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+/**
+ * Reactive variant of {@link ConfigurationController}. Reads, writes, listing, streaming and batch gets run on
+ * {@link ReactiveConfigurationService}; content patches, bulk writes, history and snapshots reuse the JPA services
+ * on the bounded elastic scheduler so they never block an event-loop thread.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfigurationController implements ReactiveConfigurationApi {
+
+    private static final String GZIP = "gzip";
+
+    private final ReactiveConfigurationService configurationService;
+    private final ConfigurationService blockingConfigurationService;
+    private final ConfigurationBulkService configurationBulkService;
+    private final ConfigurationHistoryService configurationHistoryService;
+    private final ConfigurationWatchService configurationWatchService;
+    private final NamespaceSnapshotService namespaceSnapshotService;
+
+    public ReactiveConfigurationController(ReactiveConfigurationService configurationService,
+                                           ConfigurationService blockingConfigurationService,
+                                           ConfigurationBulkService configurationBulkService,
+                                           ConfigurationHistoryService configurationHistoryService,
+                                           ConfigurationWatchService configurationWatchService,
+                                           NamespaceSnapshotService namespaceSnapshotService) {
+        this.configurationService = configurationService;
+        this.blockingConfigurationService = blockingConfigurationService;
+        this.configurationBulkService = configurationBulkService;
+        this.configurationHistoryService = configurationHistoryService;
+        this.configurationWatchService = configurationWatchService;
+        this.namespaceSnapshotService = namespaceSnapshotService;
+    }
+
+    @Override
+    public Mono<ResponseEntity<ConfigurationResponse>> createConfiguration(ConfigurationCreateRequest request) {
+
+        return configurationService.create(request)
+                .map(configuration -> ResponseEntity.status(HttpStatus.CREATED)
+                        .body(ConfigurationMapper.mapToResponse(configuration)));
+    }
+
+    @Override
+    public Mono<ResponseEntity<ConfigurationResponse>> updateConfiguration(ConfigurationUpdateRequest request,
+                                                                           UUID configurationId, String ifMatch) {
+
+        // Deferred so a failed If-Match check surfaces as an error signal
+        return Mono.defer(() -> configurationService.update(request, configurationId,
+                        ConfigurationETags.expectedVersion(ifMatch, configurationId)))
+                .map(ReactiveConfigurationController::written);
+    }
+
+    @Override
+    public Mono<ResponseEntity<ConfigurationResponse>> patchConfiguration(ConfigurationPatchRequest request,
+                                                                          UUID configurationId, String ifMatch) {
+
+        return Mono.defer(() -> configurationService.patch(request, configurationId,
+                        ConfigurationETags.expectedVersion(ifMatch, configurationId)))
+                .map(ReactiveConfigurationController::written);
+    }
+
+    @Override
+    public Mono<ResponseEntity<ConfigurationResponse>> patchConfigurationContent(String patch, UUID configurationId,
+                                                                                 MediaType contentType, String ifMatch) {
+
+        return blocking(() -> {
+            Integer expectedVersion = ConfigurationETags.expectedVersion(ifMatch, configurationId);
+            ContentPatch contentPatch = ContentPatch.parse(contentType.getType() + "/" + contentType.getSubtype(), patch);
+            return written(blockingConfigurationService.patchContent(contentPatch, configurationId, expectedVersion));
+        });
+    }
+
+    @Override
+    public Mono<ResponseEntity<ConfigurationResponse>> getConfiguration(UUID configurationId, String ifNoneMatch,
+                                                                        Integer version, OffsetDateTime asOf) {
+
+        if (version != null && asOf != null) {
+            return Mono.error(new BadRequestException("Pass either version or asOf, not both."));
+        }
+        if (version != null) {
+            return getRevision(configurationId, version, ifNoneMatch);
+        }
+        if (asOf != null) {
+            return blocking(() -> configurationHistoryService.getAsOf(configurationId, asOf))
+                    .map(configuration -> ResponseEntity.ok()
+                            .eTag(ConfigurationETags.forConfiguration(configuration.getId(), configuration.getVersion()))
+                            .body(ConfigurationMapper.mapToResponse(configuration)));
+        }
+
+        Mono<ResponseEntity<ConfigurationResponse>> full = configurationService.getById(configurationId)
+                .map(configuration -> ResponseEntity.ok()
+                        .eTag(ConfigurationETags.forConfiguration(configuration.getId(), configuration.getVersion()))
+                        .body(ConfigurationMapper.mapToResponse(configuration)));
+        if (ifNoneMatch == null) {
+            return full;
+        }
+
+        // Conditional requests are answered from the version alone, content is never loaded for a 304
+        return configurationService.getVersion(configurationId)
+                .map(currentVersion -> ConfigurationETags.forConfiguration(configurationId, currentVersion))
+                .flatMap(current -> ConfigurationETags.matches(ifNoneMatch, current)
+                        ? Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).<ConfigurationResponse>build())
+                        : full);
+    }
+
+    @Override
+    public Mono<ResponseEntity<ConfigurationCollectionResponse>> getConfigurations(String name, String application,
+                                                                                   String environment, Integer limit,
+                                                                                   String cursor, String ifNoneMatch) {
+
+        if (limit != null || cursor != null) {
+            return Mono.defer(() -> configurationService.findConfigurationsPage(name, application, environment, limit, cursor))
+                    .map(page -> ResponseEntity.ok(ConfigurationMapper.mapToCollectionResponse(page)));
+        }
+
+        Mono<ResponseEntity<ConfigurationCollectionResponse>> full = configurationService
+                .findConfigurations(name, application, environment)
+                .map(configurations -> ResponseEntity.ok()
+                        .eTag(ConfigurationETags.forCollection(configurations, Configuration::getId, Configuration::getVersion))
+                        .body(ConfigurationMapper.mapToCollectionResponse(configurations)));
+        if (ifNoneMatch == null) {
+            return full;
+        }
+
+        return configurationService.findConfigurationVersions(name, application, environment)
+                .flatMap(versions -> {
+                    String current = ConfigurationETags.forCollection(versions, Map.Entry::getKey, Map.Entry::getValue);
+                    return !versions.isEmpty() && ConfigurationETags.matches(ifNoneMatch, current)
+                            ? Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).<ConfigurationCollectionResponse>build())
+                            : full;
+                });
+    }
+
+    @Override
+    public Mono<ResponseEntity<byte[]>> getNamespaceSnapshot(String application, String environment,
+                                                             String ifNoneMatch, String acceptEncoding) {
+
+        return blocking(() -> namespaceSnapshotService.get(application, environment)).map(snapshot -> {
+            if (ConfigurationETags.matches(ifNoneMatch, snapshot.eTag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(snapshot.eTag())
+                        .cacheControl(CacheControl.noCache())
+                        .<byte[]>build();
+            }
+
+            // Already compressed, Netty does not compress it again
+            boolean gzip = RepresentationETagFilter.acceptsGzip(acceptEncoding);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .eTag(snapshot.eTag())
+                    .cacheControl(CacheControl.noCache())
+                    .contentType(MediaType.APPLICATION_JSON);
+            if (gzip) {
+                response.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+            }
+
+            return response.body(gzip ? snapshot.gzip() : snapshot.json());
+        });
+    }
+
+    @Override
+    public ResponseEntity<Flux<ConfigurationResponse>> streamConfigurations(String name, String application,
+                                                                            String environment) {
+
+        // Rows are written as they arrive, demand from the connection flows back to the database cursor
+        Flux<ConfigurationResponse> body = configurationService.streamConfigurations(name, application, environment)
+                .map(ConfigurationMapper::mapToResponse);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @Override
+    public Flux<ServerSentEvent<Object>> watchConfigurations(String application, String environment, String name,
+                                                             String lastEventId) {
+
+        return configurationWatchService.watch(application, environment, name, lastEventId);
+    }
+
+    @Override
+    public Mono<ResponseEntity<ConfigurationBatchGetResponse>> batchGetConfigurations(ConfigurationBatchGetRequest request) {
+
+        return configurationService.getByIds(request.getIds())
+                .map(configurations -> ResponseEntity.ok(
+                        ConfigurationMapper.mapToBatchGetResponse(request.getIds(), configurations)));
+    }
+
+    @Override
+    public Mono<ResponseEntity<ConfigurationBulkResponse>> bulkConfigurations(ConfigurationBulkRequest request) {
+
+        return blocking(() -> ResponseEntity.ok(
+                ConfigurationMapper.mapToBulkResponse(configurationBulkService.apply(request.getOperations()))));
+    }
+
+    @Override
+    public Mono<ResponseEntity<Void>> deleteConfiguration(UUID configurationId, String ifMatch) {
+
+        return Mono.defer(() -> configurationService.delete(configurationId,
+                        ConfigurationETags.expectedVersion(ifMatch, configurationId)))
+                .then(Mono.fromSupplier(() -> ResponseEntity.noContent().<Void>build()));
+    }
+
+    // A revision never changes once written, so clients and proxies may keep it
+    private Mono<ResponseEntity<ConfigurationResponse>> getRevision(UUID configurationId, int version, String ifNoneMatch) {
+
+        String eTag = ConfigurationETags.forConfiguration(configurationId, version);
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable();
+        if (ConfigurationETags.matches(ifNoneMatch, eTag)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).build());
+        }
+
+        return blocking(() -> configurationHistoryService.getVersion(configurationId, version))
+                .map(configuration -> ResponseEntity.ok()
+                        .eTag(eTag)
+                        .cacheControl(cacheControl)
+                        .body(ConfigurationMapper.mapToResponse(configuration)));
+    }
+
+    // The new ETag lets the client chain its next conditional write without a re-read
+    private static ResponseEntity<ConfigurationResponse> written(Configuration configuration) {
+
+        return ResponseEntity.ok()
+                .eTag(ConfigurationETags.forConfiguration(configuration.getId(), configuration.getVersion()))
+                .body(ConfigurationMapper.mapToResponse(configuration));
+    }
+
+    // JPA and JDBC calls move off the event loop
+    private static <T> Mono<T> blocking(Callable<T> work) {
+
+        return Mono.fromCallable(work).subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -15,6 +15,18 @@ public class ApiConstants {
     public static class EndpointPaths {
 
         public static final String CONFIGURATIONS = "/configurations";
+
+        public static final String STREAM = "/stream";
+
+        public static final String BATCH_GET = "/batch-get";
+
+        public static final String BULK = "/bulk";
+
+        public static final String WATCH = "/watch";
+
+        public static final String CONTENT = "/content";
+
+        public static final String SNAPSHOT = "/snapshot";
     }
 
 }
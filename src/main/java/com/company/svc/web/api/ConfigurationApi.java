@@ -1,16 +1,29 @@
 package com.company.svc.web.api;
 
+import com.company.svc.service.patch.ContentPatch;
 import com.company.svc.web.dto.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.OffsetDateTime;
 import java.util.UUID;
 
+import static com.company.svc.web.api.ApiConstants.EndpointPaths.BATCH_GET;
+import static com.company.svc.web.api.ApiConstants.EndpointPaths.BULK;
 import static com.company.svc.web.api.ApiConstants.EndpointPaths.CONFIGURATIONS;
+import static com.company.svc.web.api.ApiConstants.EndpointPaths.CONTENT;
+import static com.company.svc.web.api.ApiConstants.EndpointPaths.SNAPSHOT;
+import static com.company.svc.web.api.ApiConstants.EndpointPaths.STREAM;
+import static com.company.svc.web.api.ApiConstants.EndpointPaths.WATCH;
 import static com.company.svc.web.api.ApiConstants.Versions.V1;
 
 @RequestMapping(V1 + CONFIGURATIONS)
@@ -30,30 +43,130 @@ public interface ConfigurationApi {
     @Operation(summary = "Update a configuration by ID",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Configuration updated successfully"),
-                    @ApiResponse(responseCode = "404", description = "Configuration not found")
+                    @ApiResponse(responseCode = "404", description = "Configuration not found"),
+                    @ApiResponse(responseCode = "409", description = "Concurrent writers kept winning, re-read and retry"),
+                    @ApiResponse(responseCode = "412", description = "Configuration no longer matches the If-Match ETag")
             })
     ResponseEntity<ConfigurationResponse> updateConfiguration(
             @RequestBody @Valid ConfigurationUpdateRequest request,
-            @PathVariable UUID configurationId);
+            @PathVariable UUID configurationId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch);
 
     @PatchMapping("/{configurationId}")
-    @Operation(summary = "Patch a configuration by ID")
+    @Operation(summary = "Patch a configuration by ID",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Configuration patched successfully"),
+                    @ApiResponse(responseCode = "404", description = "Configuration not found"),
+                    @ApiResponse(responseCode = "409", description = "Concurrent writers kept winning, re-read and retry"),
+                    @ApiResponse(responseCode = "412", description = "Configuration no longer matches the If-Match ETag")
+            })
     ResponseEntity<ConfigurationResponse> patchConfiguration(
             @RequestBody ConfigurationPatchRequest request,
-            @PathVariable UUID configurationId);
+            @PathVariable UUID configurationId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch);
+
+    @PatchMapping(value = "/{configurationId}" + CONTENT,
+            consumes = {ContentPatch.JSON_PATCH_VALUE, ContentPatch.MERGE_PATCH_VALUE})
+    @Operation(summary = "Patch the JSON content of a configuration",
+            description = "Send a JSON Patch (application/json-patch+json) or a JSON Merge Patch "
+                    + "(application/merge-patch+json); it is applied to the stored content on the server.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Content patched successfully"),
+                    @ApiResponse(responseCode = "400", description = "Malformed patch document"),
+                    @ApiResponse(responseCode = "404", description = "Configuration not found"),
+                    @ApiResponse(responseCode = "412", description = "Configuration no longer matches the If-Match ETag"),
+                    @ApiResponse(responseCode = "422", description = "Patch does not apply to the current content")
+            })
+    ResponseEntity<ConfigurationResponse> patchConfigurationContent(
+            @RequestBody String patch,
+            @PathVariable UUID configurationId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch);
 
     @GetMapping("/{configurationId}")
-    @Operation(summary = "Get a configuration by ID")
-    ResponseEntity<ConfigurationResponse> getConfiguration(@PathVariable UUID configurationId);
+    @Operation(summary = "Get a configuration by ID",
+            description = "Pass version to read that revision, or asOf (ISO-8601) for the revision current at that time.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Configuration found"),
+                    @ApiResponse(responseCode = "304", description = "Configuration matches the If-None-Match ETag"),
+                    @ApiResponse(responseCode = "404", description = "Configuration not found")
+            })
+    ResponseEntity<ConfigurationResponse> getConfiguration(
+            @PathVariable UUID configurationId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestParam(required = false) Integer version,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime asOf);
 
     @GetMapping
-    @Operation(summary = "Find configurations with optional filters")
+    @Operation(summary = "Find configurations with optional filters",
+            description = "Passing limit or cursor switches to keyset pagination ordered by "
+                    + "application, environment, name and id; follow nextCursor until it is absent.")
     ResponseEntity<ConfigurationCollectionResponse> getConfigurations(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String application,
+            @RequestParam(required = false) String environment,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch);
+
+    @GetMapping(value = SNAPSHOT, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get all configurations of an application and environment as one cacheable document",
+            description = "Same body as the list endpoint filtered by application and environment (an empty list when "
+                    + "there are none), served pre-serialized and, with Accept-Encoding: gzip, pre-compressed. "
+                    + "Revalidate with If-None-Match.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Snapshot of the namespace"),
+                    @ApiResponse(responseCode = "304", description = "Snapshot matches the If-None-Match ETag")
+            })
+    ResponseEntity<byte[]> getNamespaceSnapshot(
+            @RequestParam String application,
+            @RequestParam String environment,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding);
+
+    @GetMapping(value = STREAM, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream configurations with optional filters as newline-delimited JSON")
+    ResponseEntity<StreamingResponseBody> streamConfigurations(
             @RequestParam(required = false) String name,
             @RequestParam(required = false) String application,
             @RequestParam(required = false) String environment);
 
+    @GetMapping(value = WATCH, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Watch configuration changes as server-sent events",
+            description = "Emits 'change' events carrying a ConfigurationEvent. Reconnect with Last-Event-ID "
+                    + "to resume; a 'reset' event means the client must re-read the current state.")
+    SseEmitter watchConfigurations(
+            @RequestParam(required = false) String application,
+            @RequestParam(required = false) String environment,
+            @RequestParam(required = false) String name,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId);
+
+    @PostMapping(BATCH_GET)
+    @Operation(summary = "Get many configurations by ID in one call",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Found configurations, unknown IDs listed in notFound"),
+                    @ApiResponse(responseCode = "400", description = "Invalid request")
+            })
+    ResponseEntity<ConfigurationBatchGetResponse> batchGetConfigurations(
+            @RequestBody @Valid ConfigurationBatchGetRequest request);
+
+    @PostMapping(BULK)
+    @Operation(summary = "Create, update and delete many configurations in one transaction",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Operations applied, see per-item status"),
+                    @ApiResponse(responseCode = "400", description = "Invalid request")
+            })
+    ResponseEntity<ConfigurationBulkResponse> bulkConfigurations(
+            @RequestBody @Valid ConfigurationBulkRequest request);
+
     @DeleteMapping("/{configurationId}")
-    @Operation(summary = "Delete configuration by ID")
-    ResponseEntity<Void> deleteConfiguration(@PathVariable UUID configurationId);
+    @Operation(summary = "Delete configuration by ID",
+            responses = {
+                    @ApiResponse(responseCode = "204", description = "Configuration deleted"),
+                    @ApiResponse(responseCode = "404", description = "Configuration not found"),
+                    @ApiResponse(responseCode = "412", description = "Configuration no longer matches the If-Match ETag")
+            })
+    ResponseEntity<Void> deleteConfiguration(
+            @PathVariable UUID configurationId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch);
 }
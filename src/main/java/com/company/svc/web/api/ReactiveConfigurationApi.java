@@ -0,0 +1,121 @@
+package com.company.svc.web.api;
+
+import com.company.svc.service.patch.ContentPatch;
+import com.company.svc.web.dto.*;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import static com.company.svc.web.api.ApiConstants.EndpointPaths.BATCH_GET;
+import static com.company.svc.web.api.ApiConstants.EndpointPaths.BULK;
+import static com.company.svc.web.api.ApiConstants.EndpointPaths.CONFIGURATIONS;
+import static com.company.svc.web.api.ApiConstants.EndpointPaths.CONTENT;
+import static com.company.svc.web.api.ApiConstants.EndpointPaths.SNAPSHOT;
+import static com.company.svc.web.api.ApiConstants.EndpointPaths.STREAM;
+import static com.company.svc.web.api.ApiConstants.EndpointPaths.WATCH;
+import static com.company.svc.web.api.ApiConstants.Versions.V1;
+
+/**
+ * WebFlux form of {@link ConfigurationApi}: same paths, parameters, bodies and status codes, see there for the
+ * documentation of each endpoint.
+ */
+@RequestMapping(V1 + CONFIGURATIONS)
+@Tag(name = "Configuration API", description = "Manage configurations for applications")
+public interface ReactiveConfigurationApi {
+
+    @PostMapping
+    @Operation(summary = "Create a new configuration")
+    Mono<ResponseEntity<ConfigurationResponse>> createConfiguration(
+            @RequestBody @Valid ConfigurationCreateRequest request);
+
+    @PutMapping("/{configurationId}")
+    @Operation(summary = "Update a configuration by ID")
+    Mono<ResponseEntity<ConfigurationResponse>> updateConfiguration(
+            @RequestBody @Valid ConfigurationUpdateRequest request,
+            @PathVariable UUID configurationId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch);
+
+    @PatchMapping("/{configurationId}")
+    @Operation(summary = "Patch a configuration by ID")
+    Mono<ResponseEntity<ConfigurationResponse>> patchConfiguration(
+            @RequestBody ConfigurationPatchRequest request,
+            @PathVariable UUID configurationId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch);
+
+    @PatchMapping(value = "/{configurationId}" + CONTENT,
+            consumes = {ContentPatch.JSON_PATCH_VALUE, ContentPatch.MERGE_PATCH_VALUE})
+    @Operation(summary = "Patch the JSON content of a configuration")
+    Mono<ResponseEntity<ConfigurationResponse>> patchConfigurationContent(
+            @RequestBody String patch,
+            @PathVariable UUID configurationId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch);
+
+    @GetMapping("/{configurationId}")
+    @Operation(summary = "Get a configuration by ID")
+    Mono<ResponseEntity<ConfigurationResponse>> getConfiguration(
+            @PathVariable UUID configurationId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestParam(required = false) Integer version,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime asOf);
+
+    @GetMapping
+    @Operation(summary = "Find configurations with optional filters")
+    Mono<ResponseEntity<ConfigurationCollectionResponse>> getConfigurations(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String application,
+            @RequestParam(required = false) String environment,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch);
+
+    @GetMapping(value = SNAPSHOT, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get all configurations of an application and environment as one cacheable document")
+    Mono<ResponseEntity<byte[]>> getNamespaceSnapshot(
+            @RequestParam String application,
+            @RequestParam String environment,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding);
+
+    @GetMapping(value = STREAM, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream configurations with optional filters as newline-delimited JSON")
+    ResponseEntity<Flux<ConfigurationResponse>> streamConfigurations(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String application,
+            @RequestParam(required = false) String environment);
+
+    @GetMapping(value = WATCH, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Watch configuration changes as server-sent events")
+    Flux<ServerSentEvent<Object>> watchConfigurations(
+            @RequestParam(required = false) String application,
+            @RequestParam(required = false) String environment,
+            @RequestParam(required = false) String name,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId);
+
+    @PostMapping(BATCH_GET)
+    @Operation(summary = "Get many configurations by ID in one call")
+    Mono<ResponseEntity<ConfigurationBatchGetResponse>> batchGetConfigurations(
+            @RequestBody @Valid ConfigurationBatchGetRequest request);
+
+    @PostMapping(BULK)
+    @Operation(summary = "Create, update and delete many configurations in one transaction")
+    Mono<ResponseEntity<ConfigurationBulkResponse>> bulkConfigurations(
+            @RequestBody @Valid ConfigurationBulkRequest request);
+
+    @DeleteMapping("/{configurationId}")
+    @Operation(summary = "Delete configuration by ID")
+    Mono<ResponseEntity<Void>> deleteConfiguration(
+            @PathVariable UUID configurationId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch);
+}
@@ -0,0 +1,21 @@
+package com.company.svc.web.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ConfigurationBatchGetRequest {
+
+    @NotEmpty(message = "At least one id is required.")
+    @Size(max = 500, message = "At most 500 ids can be requested at once.")
+    private List<@NotNull(message = "Ids must not be null.") UUID> ids;
+}
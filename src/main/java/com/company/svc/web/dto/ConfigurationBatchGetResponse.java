@@ -0,0 +1,20 @@
+package com.company.svc.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConfigurationBatchGetResponse {
+
+    private List<ConfigurationResponse> configurations;
+
+    private List<UUID> notFound;
+}
@@ -0,0 +1,36 @@
+package com.company.svc.web.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ConfigurationBulkOperation {
+
+    public enum Action {
+        CREATE,
+        UPDATE,
+        DELETE
+    }
+
+    @NotNull(message = "Action is required.")
+    private Action action;
+
+    // Required for UPDATE and DELETE
+    private UUID id;
+
+    private String name;
+    private String application;
+    private String environment;
+    private String content;
+
+    // Optional for UPDATE and DELETE: the item applies only while the configuration is still at this version
+    private Integer version;
+}
@@ -0,0 +1,20 @@
+package com.company.svc.web.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ConfigurationBulkRequest {
+
+    @NotEmpty(message = "At least one operation is required.")
+    @Size(max = 1000, message = "At most 1000 operations can be applied at once.")
+    private List<@Valid ConfigurationBulkOperation> operations;
+}
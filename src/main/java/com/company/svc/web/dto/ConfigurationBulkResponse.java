@@ -0,0 +1,19 @@
+package com.company.svc.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConfigurationBulkResponse {
+
+    private int succeeded;
+    private int failed;
+    private List<ConfigurationBulkResult> results;
+}
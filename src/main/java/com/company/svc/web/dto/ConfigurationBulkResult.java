@@ -0,0 +1,26 @@
+package com.company.svc.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ConfigurationBulkResult {
+
+    // Position of the operation in the request
+    private int index;
+    private ConfigurationBulkOperation.Action action;
+    private UUID id;
+    // HTTP-style status of this item: 201, 200, 204, 400 or 404
+    private int status;
+    private String message;
+    private ConfigurationResponse configuration;
+}
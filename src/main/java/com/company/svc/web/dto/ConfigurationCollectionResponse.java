@@ -1,5 +1,6 @@
 package com.company.svc.web.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,4 +15,8 @@ import java.util.List;
 public class ConfigurationCollectionResponse {
 
     private List<ConfigurationResponse> configurations;
+
+    // Cursor for the next keyset page, absent on the last page and on unpaged responses
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
 }
@@ -1,6 +1,6 @@
 package com.company.svc.web.dto;
 
-
+import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -10,8 +10,15 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class ConfigurationUpdateRequest {
 
+    @NotBlank(message = "Name is required.")
     private String name;
+
+    @NotBlank(message = "Application is required.")
     private String application;
+
+    @NotBlank(message = "Environment is required.")
     private String environment;
+
+    @NotBlank(message = "Content is required.")
     private String content;
 }
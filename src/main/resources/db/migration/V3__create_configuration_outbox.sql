@@ -0,0 +1,10 @@
+-- Transactional outbox for configuration change events
+CREATE SEQUENCE IF NOT EXISTS configuration_outbox_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS configuration_outbox (
+                                                    id BIGINT PRIMARY KEY,
+                                                    aggregate_id UUID NOT NULL,
+                                                    event_type VARCHAR(20) NOT NULL,
+                                                    payload TEXT NOT NULL,
+                                                    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
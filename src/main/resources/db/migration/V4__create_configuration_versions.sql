@@ -0,0 +1,30 @@
+-- Revision history: a full snapshot every few versions, prefix/suffix deltas in between
+CREATE TABLE IF NOT EXISTS configuration_versions (
+                                                      configuration_id UUID NOT NULL,
+                                                      version INT NOT NULL,
+                                                      snapshot BOOLEAN NOT NULL,
+                                                      name VARCHAR(100) NOT NULL,
+                                                      application VARCHAR(100) NOT NULL,
+                                                      environment VARCHAR(50) NOT NULL,
+                                                      content TEXT,
+                                                      prefix_length INT,
+                                                      suffix_length INT,
+                                                      created_at TIMESTAMPTZ NOT NULL,
+                                                      recorded_at TIMESTAMPTZ NOT NULL,
+                                                      PRIMARY KEY (configuration_id, version)
+);
+
+-- Nearest snapshot at or below a version is one index probe
+CREATE INDEX idx_config_versions_snapshots
+    ON configuration_versions (configuration_id, version) WHERE snapshot;
+
+-- Point-in-time (asOf) lookups
+CREATE INDEX idx_config_versions_recorded_at
+    ON configuration_versions (configuration_id, recorded_at);
+
+-- Existing configurations start their history with a snapshot of the current revision
+INSERT INTO configuration_versions (configuration_id, version, snapshot, name, application, environment,
+                                    content, created_at, recorded_at)
+SELECT id, version, TRUE, name, application, environment, content,
+       COALESCE(created_at, NOW()), COALESCE(updated_at, NOW())
+FROM configurations;
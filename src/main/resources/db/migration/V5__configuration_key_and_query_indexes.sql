@@ -0,0 +1,36 @@
+-- Unique configuration key plus indexes shaped after the repository queries
+-- (plans for 1M rows: loadtest/explain-repository-queries.sql)
+
+-- The constraint below cannot be added over duplicates; list them with
+--   SELECT application, environment, name, COUNT(*) FROM configurations GROUP BY 1, 2, 3 HAVING COUNT(*) > 1;
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM configurations GROUP BY application, environment, name HAVING COUNT(*) > 1) THEN
+        RAISE EXCEPTION 'configurations has duplicate (application, environment, name) keys, resolve them before migrating';
+    END IF;
+END $$;
+
+-- One configuration per key. The included columns make (id, version) listings of a namespace index-only
+ALTER TABLE configurations
+    ADD CONSTRAINT uq_configurations_app_env_name UNIQUE (application, environment, name) INCLUDE (id, version);
+
+-- Same leading columns as the constraint's index
+DROP INDEX IF EXISTS idx_config_app_env_name;
+
+-- Name lookups across namespaces: equality on name, then the keyset order of the list endpoint
+CREATE INDEX IF NOT EXISTS idx_configurations_name
+    ON configurations (name, application, environment) INCLUDE (id, version);
+
+-- lz4 instead of pglz for content that is TOASTed (above ~2KB): faster to compress and to read back.
+-- Needs PostgreSQL 14 built with lz4, skipped otherwise; applies to values written from now on
+DO $$
+BEGIN
+    IF current_setting('server_version_num')::int >= 140000 THEN
+        BEGIN
+            ALTER TABLE configurations ALTER COLUMN content SET COMPRESSION lz4;
+            ALTER TABLE configuration_versions ALTER COLUMN content SET COMPRESSION lz4;
+        EXCEPTION WHEN feature_not_supported OR invalid_parameter_value THEN
+            RAISE NOTICE 'lz4 TOAST compression not available, keeping pglz';
+        END;
+    END IF;
+END $$;
@@ -0,0 +1,14 @@
+-- Outbox ids must follow commit order per configuration. A pooled sequence hands every instance its own
+-- block of ids, so a later write on one node could get a lower id than an earlier write on another.
+ALTER SEQUENCE configuration_outbox_seq INCREMENT BY 1;
+
+-- Single relay leader: whoever holds the unexpired lease drains the outbox, the others skip their run
+CREATE TABLE IF NOT EXISTS configuration_outbox_lease (
+                                                          name VARCHAR(64) PRIMARY KEY,
+                                                          owner VARCHAR(64) NOT NULL,
+                                                          expires_at TIMESTAMPTZ NOT NULL
+);
+
+INSERT INTO configuration_outbox_lease (name, owner, expires_at)
+VALUES ('relay', '', '-infinity')
+ON CONFLICT (name) DO NOTHING;
@@ -0,0 +1,136 @@
+package com.company.sdk;
+
+import com.company.svc.service.ConfigurationEventPublisher;
+import com.company.svc.service.RedisCacheService;
+import com.company.svc.web.dto.ConfigurationCreateRequest;
+import com.company.svc.web.dto.ConfigurationResponse;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        classes = com.company.svc.Application.class)
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties")
+class CachingConfigurationClientTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate testRestTemplate;
+
+    @MockBean
+    private ConfigurationEventPublisher configurationEventPublisher;
+
+    @MockBean
+    private RedisCacheService redisCacheService;
+
+    @TempDir
+    private Path tempDir;
+
+    private ConfigurationClient client;
+
+    @BeforeEach
+    void setUp() {
+
+        String baseUrl = "http://localhost:" + port + "/api/v1/configurations";
+        this.client = new ConfigurationClient(baseUrl, testRestTemplate.getRestTemplate());
+    }
+
+    @Test
+    @DisplayName("tracked namespaces are served locally by id and by key")
+    void trackedNamespaceServedLocally_happyPath() {
+
+        ConfigurationResponse created = client.createConfiguration(ConfigurationCreateRequest.builder()
+                .name("local.first").application("sdk-cache").environment("dev").content("v1").build());
+
+        try (CachingConfigurationClient caching = new CachingConfigurationClient(client, options(null))) {
+            caching.start();
+
+            assertEquals("v1", caching.getConfiguration("sdk-cache", "dev", "local.first")
+                    .map(ConfigurationResponse::getContent).orElseThrow());
+            assertEquals(created.getId(), caching.getConfiguration(created.getId())
+                    .map(ConfigurationResponse::getId).orElseThrow());
+            assertTrue(caching.getConfiguration("sdk-cache", "dev", "missing").isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("snapshot file keeps serving last-known-good values while the service is unreachable")
+    void snapshotServedWhenServiceDown() {
+
+        Path snapshot = tempDir.resolve("configurations.json");
+        ConfigurationResponse created = client.createConfiguration(ConfigurationCreateRequest.builder()
+                .name("cold.start").application("sdk-snapshot").environment("prod").content("lkg").build());
+
+        try (CachingConfigurationClient caching = new CachingConfigurationClient(client, options(snapshot))) {
+            caching.start();
+        }
+
+        // Nothing listens on port 1
+        ConfigurationClient unreachable = new ConfigurationClient(
+                "http://localhost:1/api/v1/configurations", testRestTemplate.getRestTemplate());
+
+        try (CachingConfigurationClient caching = new CachingConfigurationClient(unreachable, options(snapshot))) {
+            caching.start();
+
+            Optional<ConfigurationResponse> byKey = caching.getConfiguration("sdk-snapshot", "prod", "cold.start");
+            assertTrue(byKey.isPresent());
+            assertEquals("lkg", byKey.get().getContent());
+            assertEquals("lkg", caching.getConfiguration(created.getId())
+                    .map(ConfigurationResponse::getContent).orElseThrow());
+        }
+    }
+
+    @Test
+    @DisplayName("an older version from the service never replaces a newer local entry")
+    void olderVersionDoesNotReplaceNewer() throws Exception {
+
+        Path snapshot = tempDir.resolve("configurations.json");
+        ConfigurationResponse created = client.createConfiguration(ConfigurationCreateRequest.builder()
+                .name("version.guard").application("sdk-snapshot").environment("prod").content("v1").build());
+
+        // As if a push for version 5 had been applied before a slower read of version 1 came back
+        ConfigurationResponse newer = created.toBuilder().version(5).content("v5").build();
+        JsonMapper.builder().findAndAddModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build()
+                .writeValue(snapshot.toFile(), List.of(newer));
+
+        try (CachingConfigurationClient caching = new CachingConfigurationClient(client, options(snapshot))) {
+            caching.start();
+
+            assertEquals("v5", caching.getConfiguration(created.getId())
+                    .map(ConfigurationResponse::getContent).orElseThrow());
+            assertEquals("v5", caching.getConfiguration("sdk-snapshot", "prod", "version.guard")
+                    .map(ConfigurationResponse::getContent).orElseThrow());
+        }
+    }
+
+    private static CachingConfigurationClient.Options options(Path snapshotFile) {
+
+        return CachingConfigurationClient.Options.builder()
+                .namespace(new CachingConfigurationClient.Namespace("sdk-cache", "dev"))
+                .namespace(new CachingConfigurationClient.Namespace("sdk-snapshot", "prod"))
+                .refreshInterval(Duration.ofMinutes(5))
+                .watch(false)
+                .snapshotFile(snapshotFile)
+                .build();
+    }
+}
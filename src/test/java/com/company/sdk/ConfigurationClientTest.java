@@ -12,10 +12,17 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.HttpClientErrorException;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
@@ -40,11 +47,13 @@ class ConfigurationClientTest {
     @MockBean
     private RedisCacheService redisCacheService;
 
+    private String baseUrl;
+
     @BeforeEach
     void setUp() {
 
         this.restTemplate = testRestTemplate.getRestTemplate();
-        String baseUrl = "http://localhost:" + port + "/api/v1/configurations";
+        this.baseUrl = "http://localhost:" + port + "/api/v1/configurations";
         this.client = new ConfigurationClient(baseUrl, restTemplate);
     }
 
@@ -182,4 +191,71 @@ class ConfigurationClientTest {
             assertEquals(404, ex.getStatusCode().value());
         }
     }
+
+    @Test
+    @DisplayName("getConfiguration() revalidates only urls still in its bounded conditional cache")
+    void conditionalCacheIsBounded() {
+
+        List<String> ifNoneMatch = new ArrayList<>();
+        RestTemplate recording = new RestTemplate(new JdkClientHttpRequestFactory());
+        recording.getInterceptors().add((request, body, execution) -> {
+            ifNoneMatch.add(request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH));
+            return execution.execute(request, body);
+        });
+        ConfigurationClient sdkClient = new ConfigurationClient(baseUrl, recording, false, 1);
+
+        ConfigurationResponse first = client.createConfiguration(ConfigurationCreateRequest.builder()
+                .name("lru.first").application("svc").environment("lru").content("c").build());
+        ConfigurationResponse second = client.createConfiguration(ConfigurationCreateRequest.builder()
+                .name("lru.second").application("svc").environment("lru").content("c").build());
+
+        sdkClient.getConfiguration(first.getId());
+        sdkClient.getConfiguration(first.getId());
+        sdkClient.getConfiguration(second.getId());
+        sdkClient.getConfiguration(first.getId());
+
+        assertNull(ifNoneMatch.get(0));
+        assertNotNull(ifNoneMatch.get(1));
+        assertNull(ifNoneMatch.get(2));
+        // Evicted by the second url
+        assertNull(ifNoneMatch.get(3));
+
+        client.deleteConfiguration(first.getId());
+        assertThrows(HttpClientErrorException.NotFound.class, () -> sdkClient.getConfiguration(first.getId()));
+        assertThrows(HttpClientErrorException.NotFound.class, () -> sdkClient.getConfiguration(first.getId()));
+        // Dropped on the first 404, the second request was unconditional
+        assertNull(ifNoneMatch.get(ifNoneMatch.size() - 1));
+    }
+
+    @Test
+    @DisplayName("getConfiguration() receives large responses as gzip-compressed CBOR")
+    void getConfigurationNegotiatesCborAndGzip() {
+
+        // Same setup as SkdConfig; the recorder runs after the gzip interceptor and sees the wire headers
+        List<HttpHeaders> received = new ArrayList<>();
+        RestTemplate sdkRestTemplate = new RestTemplate(new JdkClientHttpRequestFactory());
+        sdkRestTemplate.getInterceptors().add(new GzipResponseInterceptor());
+        sdkRestTemplate.getInterceptors().add((request, body, execution) -> {
+            ClientHttpResponse response = execution.execute(request, body);
+            received.add(response.getHeaders());
+            return response;
+        });
+        ConfigurationClient sdkClient = new ConfigurationClient(baseUrl, sdkRestTemplate);
+
+        String content = "{\"flags\":[" + "\"flag\",".repeat(1000) + "\"last\"]}";
+        ConfigurationResponse created = client.createConfiguration(ConfigurationCreateRequest.builder()
+                .name("large")
+                .application("svc")
+                .environment("perf")
+                .content(content)
+                .build());
+
+        ConfigurationResponse got = sdkClient.getConfiguration(created.getId());
+
+        assertEquals(content, got.getContent());
+        assertEquals(created.getVersion(), got.getVersion());
+        HttpHeaders wire = received.get(received.size() - 1);
+        assertTrue(MediaType.APPLICATION_CBOR.isCompatibleWith(wire.getContentType()));
+        assertEquals("gzip", wire.getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
 }
@@ -0,0 +1,87 @@
+package com.company.sdk;
+
+import com.company.svc.event.ConfigurationEvent;
+import com.company.svc.event.EventType;
+import com.company.svc.service.patch.ContentPatch;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConfigurationTopicSnapshotTest {
+
+    private static final String TOPIC = "configuration-updates";
+
+    @Test
+    @DisplayName("read() folds the topic into the latest state per key, applying deltas and dropping deletes")
+    void readRebuildsCurrentState() throws Exception {
+
+        UUID kept = UUID.randomUUID();
+        UUID deleted = UUID.randomUUID();
+        UUID orphanDelta = UUID.randomUUID();
+
+        TopicPartition partition = new TopicPartition(TOPIC, 0);
+        MockConsumer<String, ConfigurationEvent> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        consumer.updatePartitions(TOPIC, List.of(new PartitionInfo(TOPIC, 0, null, null, null)));
+        consumer.updateBeginningOffsets(Map.of(partition, 0L));
+        consumer.updateEndOffsets(Map.of(partition, 6L));
+
+        List<ConsumerRecord<String, ConfigurationEvent>> records = List.of(
+                record(0, kept, full(kept, EventType.CREATED, 1, "{\"a\":1,\"b\":true}")),
+                record(1, deleted, full(deleted, EventType.CREATED, 1, "{}")),
+                record(2, kept, delta(kept, 1, 2, "{\"a\":2}")),
+                record(3, deleted, full(deleted, EventType.DELETED, 1, "{}")),
+                record(4, deleted, null),
+                record(5, orphanDelta, delta(orphanDelta, 3, 4, "{\"x\":1}")));
+        consumer.schedulePollTask(() -> records.forEach(consumer::addRecord));
+
+        ConfigurationTopicSnapshot snapshot = ConfigurationTopicSnapshot.read(consumer, TOPIC, Duration.ofSeconds(5));
+
+        assertEquals(Set.of(kept), snapshot.getConfigurations().keySet());
+        ConfigurationEvent current = snapshot.getConfigurations().get(kept);
+        assertEquals(2, current.getVersion());
+        assertEquals("{\"a\":2,\"b\":true}", current.getContent());
+        assertNull(current.getContentPatch());
+
+        assertEquals(Set.of(orphanDelta), snapshot.getUnresolved());
+        assertEquals(Map.of(partition, 6L), snapshot.getPositions());
+    }
+
+    private static ConsumerRecord<String, ConfigurationEvent> record(long offset, UUID key, ConfigurationEvent event) {
+
+        return new ConsumerRecord<>(TOPIC, 0, offset, key.toString(), event);
+    }
+
+    private static ConfigurationEvent full(UUID id, EventType eventType, int version, String content) {
+
+        return ConfigurationEvent.builder()
+                .id(id)
+                .name("n")
+                .application("a")
+                .environment("e")
+                .version(version)
+                .content(content)
+                .eventType(eventType)
+                .build();
+    }
+
+    private static ConfigurationEvent delta(UUID id, int baseVersion, int version, String mergePatch) {
+
+        return full(id, EventType.UPDATED, version, null).toBuilder()
+                .baseVersion(baseVersion)
+                .contentPatch(mergePatch)
+                .contentPatchType(ContentPatch.MERGE_PATCH_VALUE)
+                .build();
+    }
+}
@@ -0,0 +1,104 @@
+package com.company.sdk;
+
+import com.company.svc.event.ConfigurationEvent;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A stub watch endpoint that sends one event, stays silent past the client's read timeout, then sends another.
+ */
+class ConfigurationWatchTest {
+
+    private static final Duration READ_TIMEOUT = Duration.ofMillis(300);
+    private static final Duration IDLE = Duration.ofMillis(1500);
+
+    private final UUID first = UUID.randomUUID();
+    private final UUID second = UUID.randomUUID();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    private HttpServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/api/v1/configurations/watch", this::stream);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+
+        stopped.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("an idle watch stream outlives the client's read timeout without reconnecting")
+    void idleStreamSurvivesReadTimeout() throws Exception {
+
+        String baseUrl = "http://localhost:" + server.getAddress().getPort() + "/api/v1/configurations";
+        ConfigurationClient client = new ConfigurationClient(baseUrl,
+                SkdConfig.restTemplate(Duration.ofSeconds(1), READ_TIMEOUT, false),
+                SkdConfig.restTemplate(Duration.ofSeconds(1), null, false),
+                false, 10);
+
+        List<UUID> received = new CopyOnWriteArrayList<>();
+        CountDownLatch both = new CountDownLatch(2);
+        try (ConfigurationWatch ignored = client.watch("payments", "prod", (ConfigurationEvent event) -> {
+            received.add(event.getId());
+            both.countDown();
+        })) {
+            assertTrue(both.await(10, TimeUnit.SECONDS));
+        }
+
+        assertEquals(List.of(first, second), received);
+        assertEquals(1, connections.get());
+    }
+
+    private void stream(HttpExchange exchange) throws IOException {
+
+        connections.incrementAndGet();
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+
+        try (OutputStream body = exchange.getResponseBody()) {
+            send(body, "1", first);
+            Thread.sleep(IDLE.toMillis());
+            send(body, "2", second);
+            stopped.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException ignored) {
+            // The client closed the stream
+        }
+    }
+
+    private static void send(OutputStream body, String id, UUID configurationId) throws IOException {
+
+        String event = "id:" + id + "\nevent:change\ndata:{\"id\":\"" + configurationId + "\"}\n\n";
+        body.write(event.getBytes(StandardCharsets.UTF_8));
+        body.flush();
+    }
+}
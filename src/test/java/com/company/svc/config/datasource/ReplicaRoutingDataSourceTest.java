@@ -0,0 +1,92 @@
+package com.company.svc.config.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two in-memory H2 databases stand in for primary and replica; each holds a row naming itself.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReplicaRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+
+        meterRegistry = new SimpleMeterRegistry();
+        routingDataSource = new ReplicaRoutingDataSource(database("primary"), Map.of("replica-0", database("replica-0")),
+                Duration.ofSeconds(1), meterRegistry);
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @Test
+    @DisplayName("read-only transactions use the replica, read-write transactions the primary")
+    void routesByTransactionReadOnlyFlag_thenHappyPath() {
+
+        assertEquals("replica-0", readOnly.execute(status -> whoAmI()));
+        assertEquals("primary", readWrite.execute(status -> whoAmI()));
+        assertEquals(1.0, meterRegistry.get("config.datasource.connections.routed").tag("target", "replica-0").counter().count());
+    }
+
+    @Test
+    @DisplayName("onPrimary() keeps a read-only transaction on the primary")
+    void onPrimaryOverridesReplica() {
+
+        assertEquals("primary", readOnly.execute(status -> DataSourceRouting.onPrimary(this::whoAmI)));
+        assertFalse(DataSourceRouting.isPrimaryForced());
+    }
+
+    @Test
+    @DisplayName("a replica whose lag cannot be determined leaves the rotation and reads fall back to the primary")
+    void failedLagCheckTakesReplicaOutOfRotation() {
+
+        // H2 has no pg_last_wal_* functions, which the check treats like an unreachable replica
+        routingDataSource.checkLag();
+
+        assertEquals(List.of(), routingDataSource.getReplicasInRotation());
+        assertEquals("primary", readOnly.execute(status -> whoAmI()));
+        assertTrue(Double.isNaN(meterRegistry.get("config.datasource.replica.lag").tag("replica", "replica-0").gauge().value()));
+    }
+
+    private String whoAmI() {
+
+        return jdbcTemplate.queryForObject("SELECT name FROM whoami", String.class);
+    }
+
+    private static DataSource database(String name) {
+
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE whoami (name VARCHAR(32))");
+        jdbcTemplate.update("INSERT INTO whoami (name) VALUES (?)", name);
+
+        return dataSource;
+    }
+}
@@ -0,0 +1,135 @@
+package com.company.svc.service;
+
+import com.company.svc.exception.ResourceNotFoundException;
+import com.company.svc.model.Configuration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CacheMissCoordinatorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RedisCacheService cacheService;
+
+    @BeforeEach
+    void setUp() {
+
+        meterRegistry = new SimpleMeterRegistry();
+        cacheService = mock(RedisCacheService.class);
+    }
+
+    @Test
+    @DisplayName("concurrent misses for the same id share one database load")
+    void concurrentMissesAreCoalesced() throws Exception {
+
+        CacheMissCoordinator coordinator = coordinator(false);
+        UUID id = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        int callers = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        List<Future<Configuration>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> coordinator.load(id, () -> {
+                    loads.incrementAndGet();
+                    awaitQuietly(release);
+                    return configuration(id);
+                })));
+            }
+
+            // Let every caller reach the coordinator before the load finishes
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<Configuration> result : results) {
+                assertEquals(id, result.get(5, TimeUnit.SECONDS).getId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(callers - 1, meterRegistry.get("config.cache.loads.saved").tag("reason", "coalesced").counter().count());
+        assertEquals(1, meterRegistry.get("config.cache.loads").counter().count());
+    }
+
+    @Test
+    @DisplayName("a failed load is reported to the caller and the next miss loads again")
+    void failedLoadIsNotCached() {
+
+        CacheMissCoordinator coordinator = coordinator(false);
+        UUID id = UUID.randomUUID();
+
+        assertThrows(ResourceNotFoundException.class, () -> coordinator.load(id, () -> {
+            throw new ResourceNotFoundException("missing");
+        }));
+
+        assertEquals(id, coordinator.load(id, () -> configuration(id)).getId());
+    }
+
+    @Test
+    @DisplayName("when another node holds the load lock, the entry it writes to the cache is used")
+    void waitsForLoadOnAnotherNode() {
+
+        CacheMissCoordinator coordinator = coordinator(true);
+        UUID id = UUID.randomUUID();
+        when(cacheService.tryLockLoad(eq(id), any(), any())).thenReturn(false);
+        when(cacheService.get(id)).thenReturn(null, configuration(id));
+
+        Configuration loaded = coordinator.load(id, () -> fail("should not load from the database"));
+
+        assertEquals(id, loaded.getId());
+        assertEquals(1, meterRegistry.get("config.cache.loads.saved").tag("reason", "distributed-lock").counter().count());
+        verify(cacheService, never()).unlockLoad(any(), any());
+    }
+
+    private CacheMissCoordinator coordinator(boolean distributedLock) {
+
+        return new CacheMissCoordinator(cacheService, meterRegistry, distributedLock,
+                Duration.ofSeconds(2), Duration.ofMillis(5), 10);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Configuration configuration(UUID id) {
+
+        return Configuration.builder()
+                .id(id)
+                .name("hot")
+                .application("payments")
+                .environment("prod")
+                .version(1)
+                .content("c")
+                .createdAt(OffsetDateTime.now())
+                .updatedAt(OffsetDateTime.now())
+                .build();
+    }
+}
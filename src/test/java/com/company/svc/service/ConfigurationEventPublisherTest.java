@@ -0,0 +1,79 @@
+package com.company.svc.service;
+
+import com.company.svc.event.ConfigurationEvent;
+import com.company.svc.event.EventType;
+import com.company.svc.model.Configuration;
+import com.company.svc.model.OutboxEvent;
+import com.company.svc.repository.OutboxEventRepository;
+import com.company.svc.web.dto.ConfigurationCreateRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.IllegalTransactionStateException;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties")
+class ConfigurationEventPublisherTest {
+
+    @Autowired
+    private ConfigurationService configurationService;
+
+    @Autowired
+    private ConfigurationEventPublisher configurationEventPublisher;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @MockBean
+    private RedisCacheService redisCacheService;
+
+    @BeforeEach
+    void setUp() {
+
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("create() records the CREATED event in the outbox within the same transaction")
+    void createRecordsEventInOutbox_thenHappyPath() {
+
+        Configuration created = configurationService.create(ConfigurationCreateRequest.builder()
+                .name("outbox.config")
+                .application("svc")
+                .environment("dev")
+                .content("content")
+                .build());
+
+        List<OutboxEvent> outbox = outboxEventRepository.findAll();
+
+        assertEquals(1, outbox.size());
+        assertEquals(created.getId(), outbox.get(0).getAggregateId());
+        assertEquals(EventType.CREATED, outbox.get(0).getEventType());
+        assertTrue(outbox.get(0).getPayload().contains("outbox.config"));
+    }
+
+    @Test
+    @DisplayName("publish() refuses to run outside a transaction")
+    void publishRequiresTransaction() {
+
+        ConfigurationEvent event = ConfigurationEvent.builder()
+                .id(UUID.randomUUID())
+                .eventType(EventType.CREATED)
+                .timestamp(OffsetDateTime.now())
+                .build();
+
+        assertThrows(IllegalTransactionStateException.class, () -> configurationEventPublisher.publish(event));
+    }
+}
@@ -0,0 +1,110 @@
+package com.company.svc.service;
+
+import com.company.svc.exception.ResourceNotFoundException;
+import com.company.svc.model.Configuration;
+import com.company.svc.model.ConfigurationVersion;
+import com.company.svc.repository.ConfigurationVersionRepository;
+import com.company.svc.web.dto.ConfigurationCreateRequest;
+import com.company.svc.web.dto.ConfigurationUpdateRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ConfigurationHistoryServiceTest {
+
+    @Autowired
+    private ConfigurationService configurationService;
+
+    @Autowired
+    private ConfigurationHistoryService historyService;
+
+    @Autowired
+    private ConfigurationVersionRepository versionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockBean
+    private ConfigurationEventPublisher configurationEventPublisher;
+
+    @MockBean
+    private RedisCacheService redisCacheService;
+
+    @Test
+    @DisplayName("every revision is recorded as snapshot or delta and can be read back by version and asOf")
+    void readsRevisionsByVersionAndAsOf() {
+
+        UUID id = createWithRevisions(26);
+        OffsetDateTime afterLast = OffsetDateTime.now();
+
+        assertTrue(revision(id, 1).isSnapshot());
+        assertFalse(revision(id, 2).isSnapshot());
+        assertTrue(revision(id, 21).isSnapshot());
+
+        for (int version : new int[]{1, 2, 7, 20, 21, 26}) {
+            Configuration configuration = historyService.getVersion(id, version);
+            assertEquals(version, configuration.getVersion());
+            assertEquals(content(version), configuration.getContent());
+            assertEquals("history", configuration.getApplication());
+        }
+
+        assertEquals(26, historyService.getAsOf(id, afterLast).getVersion());
+        assertThrows(ResourceNotFoundException.class, () -> historyService.getVersion(id, 27));
+        assertThrows(ResourceNotFoundException.class, () -> historyService.getAsOf(id, afterLast.minusYears(1)));
+    }
+
+    @Test
+    @DisplayName("compaction drops revisions below the snapshot that starts the retained range")
+    void compactionKeepsRebuildableRange() {
+
+        UUID id = createWithRevisions(26);
+
+        new ConfigurationHistoryCompaction(versionRepository, transactionTemplate, 5, Duration.ZERO, new SimpleMeterRegistry())
+                .compact();
+
+        // Keeping 22..26 needs the snapshot at 21
+        assertThrows(ResourceNotFoundException.class, () -> historyService.getVersion(id, 20));
+        assertEquals(content(21), historyService.getVersion(id, 21).getContent());
+        assertEquals(content(24), historyService.getVersion(id, 24).getContent());
+    }
+
+    private UUID createWithRevisions(int versions) {
+
+        Configuration created = configurationService.create(ConfigurationCreateRequest.builder()
+                .name("history-" + UUID.randomUUID())
+                .application("history")
+                .environment("dev")
+                .content(content(1))
+                .build());
+
+        for (int version = 2; version <= versions; version++) {
+            configurationService.update(new ConfigurationUpdateRequest(
+                    created.getName(), "history", "dev", content(version)), created.getId());
+        }
+
+        return created.getId();
+    }
+
+    private ConfigurationVersion revision(UUID id, int version) {
+
+        return versionRepository.findById(new ConfigurationVersion.Key(id, version)).orElseThrow();
+    }
+
+    private static String content(int version) {
+
+        return "{\"pool\":{\"size\":" + version * 10 + ",\"timeout\":\"30s\"},\"mode\":\"fast\"}";
+    }
+}
@@ -0,0 +1,160 @@
+package com.company.svc.service;
+
+import com.company.svc.model.Configuration;
+import com.company.svc.repository.ConfigurationRepository;
+import com.company.svc.util.ConfigurationMapper;
+import com.company.svc.web.dto.ConfigurationCreateRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Replica routing through the service's plain read paths. The replica stand-in is the test database itself
+ * behind its own read-only pool, so the routing counters tell which pool served a read.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties", properties = {
+        "datasource.replica.enabled=true",
+        "datasource.replica.urls=" + ConfigurationServiceReplicaRoutingTest.DATABASE_URL,
+        "datasource.replica.read-your-writes-window=1m"
+})
+class ConfigurationServiceReplicaRoutingTest {
+
+    static final String DATABASE_URL = "jdbc:h2:mem:configdb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    @Autowired
+    private ConfigurationService configurationService;
+
+    @Autowired
+    private ConfigurationRepository configurationRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private RedisCacheService redisCacheService;
+
+    // The lag check queries Postgres functions; without them H2 would be taken out of rotation at startup
+    @BeforeAll
+    static void replicaLagFunctions() throws SQLException {
+
+        try (Connection connection = DriverManager.getConnection(DATABASE_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            String standIn = ReplicaStandIn.class.getName();
+            statement.execute("CREATE ALIAS IF NOT EXISTS PG_LAST_WAL_RECEIVE_LSN FOR '" + standIn + ".walLsn'");
+            statement.execute("CREATE ALIAS IF NOT EXISTS PG_LAST_WAL_REPLAY_LSN FOR '" + standIn + ".walLsn'");
+            statement.execute("CREATE ALIAS IF NOT EXISTS PG_LAST_XACT_REPLAY_TIMESTAMP FOR '" + standIn + ".replayTimestamp'");
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+
+        configurationRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("getById() on a cache miss reads from the replica")
+    void getByIdReadsFromReplica() {
+
+        Configuration stored = store("replica.read", "payments", "dev");
+
+        double replicaBefore = routed("replica-0");
+        double primaryBefore = routed("primary");
+
+        assertEquals(stored.getId(), configurationService.getById(stored.getId()).getId());
+
+        assertTrue(routed("replica-0") > replicaBefore);
+        assertEquals(primaryBefore, routed("primary"));
+    }
+
+    @Test
+    @DisplayName("findConfigurations() for a namespace reads from the replica")
+    void findConfigurationsReadsFromReplica() {
+
+        store("alpha", "billing", "prod");
+        store("beta", "billing", "prod");
+
+        double replicaBefore = routed("replica-0");
+        double primaryBefore = routed("primary");
+
+        List<Configuration> configurations = configurationService.findConfigurations(null, "billing", "prod");
+
+        assertEquals(2, configurations.size());
+        assertTrue(routed("replica-0") > replicaBefore);
+        assertEquals(primaryBefore, routed("primary"));
+    }
+
+    @Test
+    @DisplayName("a read right after a write through the service goes to the primary")
+    void readAfterWriteUsesPrimary() {
+
+        Configuration created = configurationService.create(ConfigurationCreateRequest.builder()
+                .name("just.written")
+                .application("portal")
+                .environment("test")
+                .content("content")
+                .build());
+
+        double replicaBefore = routed("replica-0");
+        double primaryBefore = routed("primary");
+
+        assertEquals(created.getId(), configurationService.getById(created.getId()).getId());
+        assertEquals(1, configurationService.findConfigurations(null, "portal", "test").size());
+
+        assertEquals(replicaBefore, routed("replica-0"));
+        assertTrue(routed("primary") > primaryBefore);
+    }
+
+    // Written through the repository, so read-your-writes does not know about it
+    private Configuration store(String name, String application, String environment) {
+
+        return configurationRepository.save(ConfigurationMapper.mapToConfiguration(ConfigurationCreateRequest.builder()
+                .name(name)
+                .application(application)
+                .environment(environment)
+                .content("content")
+                .build()));
+    }
+
+    private double routed(String target) {
+
+        return meterRegistry.get("config.datasource.connections.routed").tag("target", target).counter().count();
+    }
+
+    /**
+     * Answers the lag query as a fully caught-up replica.
+     */
+    public static final class ReplicaStandIn {
+
+        private ReplicaStandIn() {
+        }
+
+        public static String walLsn() {
+
+            return "0/0";
+        }
+
+        public static Timestamp replayTimestamp() {
+
+            return new Timestamp(System.currentTimeMillis());
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.company.svc.service;
 
+import com.company.svc.exception.PreconditionFailedException;
 import com.company.svc.repository.ConfigurationRepository;
+import com.company.svc.service.patch.ContentPatch;
 import com.company.svc.event.ConfigurationEvent;
 import com.company.svc.event.EventType;
 import com.company.svc.model.Configuration;
@@ -20,7 +22,9 @@ import org.springframework.test.context.TestPropertySource;
 
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -79,6 +83,26 @@ class ConfigurationServiceTest {
         assertEquals(created.getId(), event.getId());
     }
 
+    @Test
+    @DisplayName("create() that rolls back leaves nothing in the cache")
+    void createRolledBackDoesNotTouchCache() {
+
+        doThrow(new IllegalStateException("outbox unavailable")).when(configurationEventPublisher).publish(any());
+
+        ConfigurationCreateRequest request = ConfigurationCreateRequest.builder()
+                .name("rolled.back")
+                .application("payments")
+                .environment("dev")
+                .content("test content")
+                .build();
+
+        assertThrows(IllegalStateException.class, () -> configurationService.create(request));
+
+        assertEquals(0, configurationRepository.count());
+        verify(redisCacheService, never()).put(any());
+        verify(redisCacheService, never()).reindex(any(), any());
+    }
+
     @Test
     @DisplayName("getById() should return from cache when present")
     void getByIdReturnsFromCache_thenHappyPath() {
@@ -240,4 +264,178 @@ class ConfigurationServiceTest {
         verify(redisCacheService).evict(created.getId());
         verify(configurationEventPublisher).publish(argThat(ev -> ev.getEventType() == EventType.DELETED));
     }
+
+    @Test
+    @DisplayName("getByIds() serves cache hits and loads only the misses from DB in one batch")
+    void getByIdsCombinesCacheHitsAndDbMisses_thenHappyPath() {
+
+        Configuration first = configurationService.create(ConfigurationCreateRequest.builder()
+                .name("first")
+                .application("svc")
+                .environment("dev")
+                .content("c1")
+                .build());
+        Configuration second = configurationService.create(ConfigurationCreateRequest.builder()
+                .name("second")
+                .application("svc")
+                .environment("dev")
+                .content("c2")
+                .build());
+        UUID unknown = UUID.randomUUID();
+
+        reset(redisCacheService, configurationEventPublisher);
+        when(redisCacheService.getAll(any())).thenReturn(Map.of(first.getId(), first));
+
+        List<Configuration> found = configurationService.getByIds(List.of(second.getId(), first.getId(), unknown));
+
+        assertEquals(2, found.size());
+        assertEquals(second.getId(), found.get(0).getId());
+        assertEquals(first.getId(), found.get(1).getId());
+
+        verify(redisCacheService).putAll(argThat(loaded -> loaded.size() == 1
+                && loaded.iterator().next().getId().equals(second.getId())));
+    }
+
+    @Test
+    @DisplayName("getByApplicationAndEnvironment() is served from the index and entry caches when the index is loaded")
+    void getByApplicationAndEnvironmentServedFromIndex_thenHappyPath() {
+
+        Configuration cached = Configuration.builder()
+                .id(UUID.randomUUID())
+                .name("cached.only")
+                .application("idx-app")
+                .environment("prod")
+                .version(1)
+                .content("c")
+                .createdAt(OffsetDateTime.now())
+                .updatedAt(OffsetDateTime.now())
+                .build();
+
+        when(redisCacheService.getNamespaceIndex("idx-app", "prod")).thenReturn(Optional.of(Set.of(cached.getId())));
+        when(redisCacheService.getAll(any())).thenReturn(Map.of(cached.getId(), cached));
+
+        List<Configuration> found = configurationService.getByApplicationAndEnvironment("idx-app", "prod");
+
+        assertEquals(1, found.size());
+        assertEquals("cached.only", found.get(0).getName());
+        verify(redisCacheService, never()).indexNamespace(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("getByApplicationAndEnvironment() loads from DB and populates the index when it is not loaded")
+    void getByApplicationAndEnvironmentPopulatesIndexOnMiss() {
+
+        configurationService.create(ConfigurationCreateRequest.builder()
+                .name("n")
+                .application("idx-miss")
+                .environment("dev")
+                .content("c1")
+                .build());
+
+        reset(redisCacheService, configurationEventPublisher);
+
+        List<Configuration> found = configurationService.getByApplicationAndEnvironment("idx-miss", "dev");
+
+        assertEquals(1, found.size());
+        verify(redisCacheService).indexNamespace(eq("idx-miss"), eq("dev"), any(), argThat(loaded -> loaded.size() == 1));
+    }
+
+    @Test
+    @DisplayName("patch() moving a configuration re-indexes it from the old namespace to the new one")
+    void patchMoveReindexes() {
+
+        Configuration created = configurationService.create(ConfigurationCreateRequest.builder()
+                .name("n")
+                .application("a")
+                .environment("e")
+                .content("c1")
+                .build());
+
+        reset(configurationEventPublisher, redisCacheService);
+
+        ConfigurationPatchRequest patch = new ConfigurationPatchRequest();
+        patch.setEnvironment("prod");
+        configurationService.patch(patch, created.getId());
+
+        verify(redisCacheService).reindex(
+                argThat(before -> "e".equals(before.getEnvironment())),
+                argThat(after -> "prod".equals(after.getEnvironment())));
+    }
+
+    @Test
+    @DisplayName("update() from a stale cached copy re-reads the row and applies on the current version")
+    void updateFromStaleCacheRetriesOnCurrentVersion() {
+
+        Configuration created = configurationService.create(ConfigurationCreateRequest.builder()
+                .name("n")
+                .application("a")
+                .environment("e")
+                .content("c1")
+                .build());
+        configurationService.update(new ConfigurationUpdateRequest("n", "a", "e", "c2"), created.getId());
+
+        reset(configurationEventPublisher, redisCacheService);
+        when(redisCacheService.get(created.getId())).thenReturn(created);
+
+        Configuration updated = configurationService.update(
+                new ConfigurationUpdateRequest("n", "a", "e", "c3"), created.getId());
+
+        assertEquals(3, updated.getVersion());
+        assertEquals("c3", configurationRepository.findById(created.getId()).orElseThrow().getContent());
+        verify(redisCacheService).evict(created.getId());
+    }
+
+    @Test
+    @DisplayName("patch() with an outdated expected version fails the precondition and writes nothing")
+    void patchWithOutdatedVersionFailsPrecondition() {
+
+        Configuration created = configurationService.create(ConfigurationCreateRequest.builder()
+                .name("n")
+                .application("a")
+                .environment("e")
+                .content("c1")
+                .build());
+        ConfigurationPatchRequest first = new ConfigurationPatchRequest();
+        first.setContent("c2");
+        configurationService.patch(first, created.getId(), 1);
+
+        reset(configurationEventPublisher, redisCacheService);
+
+        ConfigurationPatchRequest second = new ConfigurationPatchRequest();
+        second.setContent("c3");
+        assertThrows(PreconditionFailedException.class,
+                () -> configurationService.patch(second, created.getId(), 1));
+
+        Configuration stored = configurationRepository.findById(created.getId()).orElseThrow();
+        assertEquals(2, stored.getVersion());
+        assertEquals("c2", stored.getContent());
+        verifyNoInteractions(configurationEventPublisher);
+    }
+
+    @Test
+    @DisplayName("patchContent() applies a merge patch to the stored content and bumps the version")
+    void patchContentAppliesMergePatch() {
+
+        Configuration created = configurationService.create(ConfigurationCreateRequest.builder()
+                .name("n")
+                .application("a")
+                .environment("e")
+                .content("{\"enabled\":false,\"limit\":10}")
+                .build());
+
+        reset(configurationEventPublisher, redisCacheService);
+
+        Configuration patched = configurationService.patchContent(
+                ContentPatch.parse(ContentPatch.MERGE_PATCH_VALUE, "{\"enabled\":true}"), created.getId(), null);
+
+        assertEquals(2, patched.getVersion());
+        assertEquals("{\"enabled\":true,\"limit\":10}",
+                configurationRepository.findById(created.getId()).orElseThrow().getContent());
+
+        // Content-delta events are off by default, consumers get the whole document
+        ArgumentCaptor<ConfigurationEvent> captor = ArgumentCaptor.forClass(ConfigurationEvent.class);
+        verify(configurationEventPublisher).publish(captor.capture());
+        assertEquals(patched.getContent(), captor.getValue().getContent());
+        assertNull(captor.getValue().getContentPatch());
+    }
 }
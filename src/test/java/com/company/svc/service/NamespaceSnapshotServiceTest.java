@@ -0,0 +1,159 @@
+package com.company.svc.service;
+
+import com.company.svc.event.ConfigurationEvent;
+import com.company.svc.event.EventType;
+import com.company.svc.model.Configuration;
+import com.company.svc.service.patch.ContentPatch;
+import com.company.svc.web.dto.ConfigurationResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class NamespaceSnapshotServiceTest {
+
+    private static final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private ConfigurationService configurationService;
+
+    private RedisCacheService cacheService;
+
+    private NamespaceSnapshotService snapshotService;
+
+    @BeforeEach
+    void setUp() {
+
+        configurationService = mock(ConfigurationService.class);
+        cacheService = mock(RedisCacheService.class);
+        snapshotService = new NamespaceSnapshotService(configurationService, cacheService, objectMapper,
+                1024 * 1024, Duration.ofMinutes(5), Duration.ofMinutes(1), new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("get() builds once from the database, then events update the snapshot without reloading it")
+    void eventsUpdateSnapshotIncrementally() throws Exception {
+
+        Configuration first = configuration("b.first", "{\"a\":1}");
+        Configuration second = configuration("a.second", "x");
+        when(configurationService.getByApplicationAndEnvironment("payments", "prod")).thenReturn(List.of(first, second));
+
+        NamespaceSnapshot initial = snapshotService.get("payments", "prod");
+        assertEquals(List.of("a.second", "b.first"), names(initial));
+        assertSame(initial, snapshotService.get("payments", "prod"));
+        verify(cacheService).putSnapshot(eq("payments"), eq("prod"), eq(initial.gzip()), any());
+
+        // Content delta on top of the cached version
+        snapshotService.apply(ConfigurationEvent.builder()
+                .id(first.getId()).name("b.first").application("payments").environment("prod")
+                .version(2).baseVersion(1)
+                .contentPatch("{\"a\":2}").contentPatchType(ContentPatch.MERGE_PATCH_VALUE)
+                .eventType(EventType.UPDATED).timestamp(OffsetDateTime.now())
+                .build());
+        // Moved to another namespace: dropped here
+        snapshotService.apply(ConfigurationEvent.builder()
+                .id(second.getId()).name("a.second").application("payments").environment("staging")
+                .content("x").version(2)
+                .eventType(EventType.UPDATED).timestamp(OffsetDateTime.now())
+                .build());
+
+        NamespaceSnapshot updated = snapshotService.get("payments", "prod");
+        assertEquals(List.of("b.first"), names(updated));
+        ConfigurationResponse patched = updated.configurations().get(first.getId());
+        assertEquals(2, patched.getVersion());
+        assertEquals("{\"a\":2}", patched.getContent());
+        assertNotEquals(initial.eTag(), updated.eTag());
+        assertArrayEquals(updated.json(), gunzip(updated.gzip()));
+        verify(configurationService, times(1)).getByApplicationAndEnvironment("payments", "prod");
+        verify(cacheService, atLeastOnce()).evictSnapshot("payments", "prod");
+
+        snapshotService.apply(ConfigurationEvent.builder()
+                .id(first.getId()).application("payments").environment("prod")
+                .version(2).eventType(EventType.DELETED).timestamp(OffsetDateTime.now())
+                .build());
+
+        assertTrue(snapshotService.get("payments", "prod").configurations().isEmpty());
+    }
+
+    @Test
+    @DisplayName("a delta whose base version the snapshot does not hold discards it for a rebuild")
+    void unmatchedDeltaTriggersRebuild() {
+
+        Configuration configuration = configuration("only", "{\"a\":1}");
+        when(configurationService.getByApplicationAndEnvironment("payments", "prod")).thenReturn(List.of(configuration));
+        snapshotService.get("payments", "prod");
+
+        snapshotService.apply(ConfigurationEvent.builder()
+                .id(configuration.getId()).name("only").application("payments").environment("prod")
+                .version(4).baseVersion(3)
+                .contentPatch("{\"a\":4}").contentPatchType(ContentPatch.MERGE_PATCH_VALUE)
+                .eventType(EventType.UPDATED).timestamp(OffsetDateTime.now())
+                .build());
+        snapshotService.get("payments", "prod");
+
+        verify(configurationService, times(2)).getByApplicationAndEnvironment("payments", "prod");
+    }
+
+    @Test
+    @DisplayName("a snapshot cached in Redis is used instead of the database")
+    void snapshotLoadedFromRedis() {
+
+        Configuration configuration = configuration("shared", "c");
+        when(configurationService.getByApplicationAndEnvironment("payments", "prod")).thenReturn(List.of(configuration));
+        NamespaceSnapshot built = snapshotService.get("payments", "prod");
+
+        NamespaceSnapshotService otherNode = new NamespaceSnapshotService(configurationService, cacheService, objectMapper,
+                1024 * 1024, Duration.ofMinutes(5), Duration.ofMinutes(1), new SimpleMeterRegistry());
+        when(cacheService.getSnapshot("payments", "prod")).thenReturn(built.gzip());
+
+        NamespaceSnapshot loaded = otherNode.get("payments", "prod");
+
+        assertEquals(built.eTag(), loaded.eTag());
+        assertArrayEquals(built.json(), loaded.json());
+        verify(configurationService, times(1)).getByApplicationAndEnvironment("payments", "prod");
+    }
+
+    private static List<String> names(NamespaceSnapshot snapshot) {
+
+        return snapshot.configurations().values().stream().map(ConfigurationResponse::getName).toList();
+    }
+
+    private static byte[] gunzip(byte[] gzip) throws Exception {
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static Configuration configuration(String name, String content) {
+
+        OffsetDateTime now = OffsetDateTime.now();
+        return Configuration.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .application("payments")
+                .environment("prod")
+                .content(content)
+                .version(1)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+}
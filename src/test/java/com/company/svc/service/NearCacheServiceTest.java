@@ -0,0 +1,86 @@
+package com.company.svc.service;
+
+import com.company.svc.model.Configuration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NearCacheServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private NearCacheService nearCacheService;
+
+    @BeforeEach
+    void setUp() {
+
+        meterRegistry = new SimpleMeterRegistry();
+        nearCacheService = new NearCacheService(true, 1024 * 1024, Duration.ofMinutes(1), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("get() returns a copy that does not share state with the cached entry")
+    void getReturnsDefensiveCopy_thenHappyPath() {
+
+        Configuration configuration = configuration(UUID.randomUUID());
+        nearCacheService.put(configuration);
+
+        Configuration first = nearCacheService.get(configuration.getId());
+        first.setContent("mutated");
+
+        Configuration second = nearCacheService.get(configuration.getId());
+
+        assertNotSame(first, second);
+        assertEquals("content", second.getContent());
+    }
+
+    @Test
+    @DisplayName("evict() removes the entry and misses are recorded in metrics")
+    void evictRemovesEntryAndRecordsMiss_thenHappyPath() {
+
+        Configuration configuration = configuration(UUID.randomUUID());
+        nearCacheService.put(configuration);
+
+        nearCacheService.evict(configuration.getId());
+
+        assertNull(nearCacheService.get(configuration.getId()));
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", "configurations.near")
+                .tag("result", "miss")
+                .functionCounter()
+                .count());
+    }
+
+    @Test
+    @DisplayName("disabled near cache never stores entries")
+    void disabledCacheNeverStores() {
+
+        NearCacheService disabled = new NearCacheService(false, 1024 * 1024, Duration.ofMinutes(1), meterRegistry);
+        Configuration configuration = configuration(UUID.randomUUID());
+
+        disabled.put(configuration);
+
+        assertNull(disabled.get(configuration.getId()));
+    }
+
+    private Configuration configuration(UUID id) {
+
+        return Configuration.builder()
+                .id(id)
+                .name("n")
+                .application("app")
+                .environment("dev")
+                .version(1)
+                .content("content")
+                .createdAt(OffsetDateTime.now())
+                .updatedAt(OffsetDateTime.now())
+                .build();
+    }
+}
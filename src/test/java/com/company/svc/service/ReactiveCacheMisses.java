@@ -0,0 +1,37 @@
+package com.company.svc.service;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Stubs a mocked {@link ReactiveConfigurationCacheService} as an empty cache that accepts every write, so reactive
+ * tests run against the database alone. A plain mock would return null instead of a publisher.
+ */
+public final class ReactiveCacheMisses {
+
+    private ReactiveCacheMisses() {
+    }
+
+    public static void stub(ReactiveConfigurationCacheService cacheService) {
+
+        when(cacheService.get(any())).thenReturn(Mono.empty());
+        when(cacheService.getAll(any())).thenReturn(Mono.just(Map.of()));
+        when(cacheService.put(any())).thenReturn(Mono.empty());
+        when(cacheService.putAll(any())).thenReturn(Mono.empty());
+        when(cacheService.evict(any())).thenReturn(Mono.empty());
+        when(cacheService.reindex(any(), any())).thenReturn(Mono.empty());
+
+        when(cacheService.getNamespaceIndex(any(), any())).thenReturn(Mono.just(Optional.empty()));
+        when(cacheService.getNameIndex(any())).thenReturn(Mono.just(Optional.empty()));
+        when(cacheService.getNamespaceAndNameIndex(any(), any(), any())).thenReturn(Mono.just(Optional.empty()));
+        when(cacheService.getNamespaceIndexGeneration(any(), any())).thenReturn(Mono.just(Optional.empty()));
+        when(cacheService.getNameIndexGeneration(any())).thenReturn(Mono.just(Optional.empty()));
+        when(cacheService.indexNamespace(any(), any(), any(), any())).thenReturn(Mono.empty());
+        when(cacheService.indexName(any(), any(), any())).thenReturn(Mono.empty());
+    }
+}
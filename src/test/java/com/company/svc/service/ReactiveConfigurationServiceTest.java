@@ -0,0 +1,259 @@
+package com.company.svc.service;
+
+import com.company.svc.exception.ConflictException;
+import com.company.svc.exception.PreconditionFailedException;
+import com.company.svc.model.Configuration;
+import com.company.svc.repository.ReactiveConfigurationRepository;
+import com.company.svc.web.dto.ConfigurationCreateRequest;
+import com.company.svc.web.dto.ConfigurationPatchRequest;
+import com.company.svc.web.dto.ConfigurationUpdateRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * The reactive service on R2DBC against the shared in-memory H2 database. The cache is an always-empty mock and the
+ * tables are checked through JDBC, so what a write committed is visible independently of the R2DBC pool.
+ */
+@SpringBootTest(properties = "spring.main.web-application-type=reactive")
+@ActiveProfiles({"test", "reactive"})
+@TestPropertySource(properties = "reactive.r2dbc.url=" + ReactiveConfigurationServiceTest.R2DBC_URL)
+class ReactiveConfigurationServiceTest {
+
+    // The database of application-test.properties, reached through r2dbc-h2
+    static final String R2DBC_URL = "r2dbc:h2:mem:///configdb?options=MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    @Autowired
+    private ReactiveConfigurationService configurationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @SpyBean
+    private ReactiveConfigurationRepository configurationRepository;
+
+    @MockBean
+    private ReactiveConfigurationCacheService cacheService;
+
+    @MockBean
+    private RedisCacheService redisCacheService;
+
+    @BeforeEach
+    void setUp() {
+
+        jdbcTemplate.update("DELETE FROM configuration_outbox");
+        jdbcTemplate.update("DELETE FROM configuration_versions");
+        jdbcTemplate.update("DELETE FROM configurations");
+        ReactiveCacheMisses.stub(cacheService);
+    }
+
+    @Test
+    @DisplayName("create() commits the row, its first revision and a CREATED outbox event, then caches it")
+    void createWritesRowRevisionAndOutboxEvent() {
+
+        StepVerifier.create(configurationService.create(request("feature.toggle", "c1")))
+                .assertNext(created -> {
+                    assertNotNull(created.getId());
+                    assertEquals(1, created.getVersion());
+                    assertEquals(1, count("configurations"));
+                    assertEquals(List.of(1), revisions(created.getId()));
+                    assertEquals(List.of("CREATED"), outboxEvents(created.getId()));
+                    verify(cacheService).put(argThat(c -> c.getId().equals(created.getId())));
+                    verify(cacheService).reindex(isNull(), argThat(c -> c.getId().equals(created.getId())));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("create() rolls back the row and its revision when the outbox insert fails")
+    void createRolledBackWithOutbox() {
+
+        doReturn(Mono.error(new IllegalStateException("outbox unavailable")))
+                .when(configurationRepository).insertOutboxEvent(any());
+
+        StepVerifier.create(configurationService.create(request("rolled.back", "c1")))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        assertEquals(0, count("configurations"));
+        assertEquals(0, count("configuration_versions"));
+        verify(cacheService, never()).put(any());
+        verify(cacheService, never()).reindex(any(), any());
+    }
+
+    @Test
+    @DisplayName("getById() loads a cache miss from the database and caches it")
+    void getByIdLoadsMissFromDatabase() {
+
+        Configuration created = create("loaded", "c1");
+        clearInvocations(cacheService);
+
+        StepVerifier.create(configurationService.getById(created.getId()))
+                .assertNext(found -> assertEquals("c1", found.getContent()))
+                .verifyComplete();
+
+        verify(cacheService).put(argThat(c -> c.getId().equals(created.getId())));
+    }
+
+    @Test
+    @DisplayName("update() writes the new version with its revision and UPDATED event in one transaction")
+    void updateWritesRevisionAndOutboxEvent() {
+
+        Configuration created = create("n", "c1");
+
+        StepVerifier.create(configurationService.update(update("n", "c2"), created.getId(), 1))
+                .assertNext(updated -> {
+                    assertEquals(2, updated.getVersion());
+                    assertEquals("c2", content(created.getId()));
+                    assertEquals(List.of(1, 2), revisions(created.getId()));
+                    assertEquals(List.of("CREATED", "UPDATED"), outboxEvents(created.getId()));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("update() rolls back the row and its revision when the outbox insert fails")
+    void updateRolledBackWithOutbox() {
+
+        Configuration created = create("n", "c1");
+        doReturn(Mono.error(new IllegalStateException("outbox unavailable")))
+                .when(configurationRepository).insertOutboxEvent(any());
+
+        StepVerifier.create(configurationService.update(update("n", "c2"), created.getId(), null))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        assertEquals("c1", content(created.getId()));
+        assertEquals(List.of(1), revisions(created.getId()));
+        assertEquals(List.of("CREATED"), outboxEvents(created.getId()));
+    }
+
+    @Test
+    @DisplayName("update() from a stale cached copy re-reads the row and applies on the current version")
+    void updateFromStaleCacheRetriesOnCurrentVersion() {
+
+        Configuration created = create("n", "c1");
+        Configuration stale = created.toBuilder().build();
+        configurationService.update(update("n", "c2"), created.getId(), null).block();
+
+        clearInvocations(cacheService);
+        when(cacheService.get(created.getId())).thenReturn(Mono.just(stale));
+
+        StepVerifier.create(configurationService.update(update("n", "c3"), created.getId(), null))
+                .assertNext(updated -> assertEquals(3, updated.getVersion()))
+                .verifyComplete();
+
+        assertEquals("c3", content(created.getId()));
+        assertEquals(List.of(1, 2, 3), revisions(created.getId()));
+        verify(cacheService).evict(created.getId());
+    }
+
+    @Test
+    @DisplayName("patch() with an outdated expected version fails the precondition and writes nothing")
+    void patchWithOutdatedVersionFailsPrecondition() {
+
+        Configuration created = create("n", "c1");
+        ConfigurationPatchRequest first = new ConfigurationPatchRequest();
+        first.setContent("c2");
+        configurationService.patch(first, created.getId(), 1).block();
+
+        ConfigurationPatchRequest second = new ConfigurationPatchRequest();
+        second.setContent("c3");
+        StepVerifier.create(configurationService.patch(second, created.getId(), 1))
+                .expectError(PreconditionFailedException.class)
+                .verify();
+
+        assertEquals("c2", content(created.getId()));
+        assertEquals(List.of("CREATED", "UPDATED"), outboxEvents(created.getId()));
+    }
+
+    @Test
+    @DisplayName("update() gives up with a conflict after the maximum number of attempts")
+    void updateGivesUpAfterMaxAttempts() {
+
+        Configuration created = create("n", "c1");
+        // Every compare-and-set misses, as if another writer always got there first
+        doReturn(Mono.just(0L)).when(configurationRepository)
+                .updateIfVersion(any(), anyInt(), any(), any(), any(), any(), any());
+
+        StepVerifier.create(configurationService.update(update("n", "c2"), created.getId(), null))
+                .expectError(ConflictException.class)
+                .verify();
+
+        verify(configurationRepository, times(ConfigurationService.MAX_WRITE_ATTEMPTS))
+                .updateIfVersion(any(), anyInt(), any(), any(), any(), any(), any());
+        assertEquals("c1", content(created.getId()));
+        assertEquals(List.of("CREATED"), outboxEvents(created.getId()));
+    }
+
+    @Test
+    @DisplayName("delete() removes the row with a DELETED outbox event and evicts the entry")
+    void deleteWritesOutboxEventAndEvicts() {
+
+        Configuration created = create("n", "c1");
+
+        StepVerifier.create(configurationService.delete(created.getId(), 1))
+                .verifyComplete();
+
+        assertEquals(0, count("configurations"));
+        assertEquals(List.of("CREATED", "DELETED"), outboxEvents(created.getId()));
+        verify(cacheService).evict(created.getId());
+    }
+
+    private Configuration create(String name, String content) {
+
+        return configurationService.create(request(name, content)).block();
+    }
+
+    private static ConfigurationCreateRequest request(String name, String content) {
+
+        return ConfigurationCreateRequest.builder()
+                .name(name)
+                .application("payments")
+                .environment("dev")
+                .content(content)
+                .build();
+    }
+
+    private static ConfigurationUpdateRequest update(String name, String content) {
+
+        return new ConfigurationUpdateRequest(name, "payments", "dev", content);
+    }
+
+    private long count(String table) {
+
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+
+    private String content(UUID id) {
+
+        return jdbcTemplate.queryForObject("SELECT content FROM configurations WHERE id = ?", String.class, id);
+    }
+
+    private List<Integer> revisions(UUID id) {
+
+        return jdbcTemplate.queryForList(
+                "SELECT version FROM configuration_versions WHERE configuration_id = ? ORDER BY version", Integer.class, id);
+    }
+
+    private List<String> outboxEvents(UUID id) {
+
+        return jdbcTemplate.queryForList(
+                "SELECT event_type FROM configuration_outbox WHERE aggregate_id = ? ORDER BY id", String.class, id);
+    }
+}
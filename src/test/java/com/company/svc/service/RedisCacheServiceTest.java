@@ -0,0 +1,208 @@
+package com.company.svc.service;
+
+import com.company.svc.config.redis.RedisConfig;
+import com.company.svc.model.Configuration;
+import com.company.svc.service.codec.BinaryConfigurationCodec;
+import com.company.svc.service.codec.CompressionAlgorithm;
+import com.company.svc.service.codec.JsonConfigurationCodec;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the cache's Lua scripts against a real Redis. Interleavings of loads and writes are replayed step by step.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class RedisCacheServiceTest {
+
+    @Container
+    private static final GenericContainer<?> redis = new GenericContainer<>("redis:7").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+
+    private RedisCacheService cacheService;
+
+    @BeforeAll
+    static void connect() {
+
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void disconnect() {
+
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+
+        RedisTemplate<String, byte[]> configurationCacheTemplate = new RedisConfig().configurationCacheTemplate(connectionFactory);
+        configurationCacheTemplate.afterPropertiesSet();
+        StringRedisTemplate stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+        stringRedisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        // Near cache off, every read goes to Redis
+        NearCacheService nearCacheService = new NearCacheService(false, 1024 * 1024, Duration.ofMinutes(1), meterRegistry);
+        BinaryConfigurationCodec codec = new BinaryConfigurationCodec(CompressionAlgorithm.LZ4, 1024,
+                new JsonConfigurationCodec(JsonMapper.builder().findAndAddModules().build()));
+
+        cacheService = new RedisCacheService(configurationCacheTemplate, stringRedisTemplate, codec, nearCacheService,
+                Duration.ofMinutes(5), Duration.ofMinutes(1), 0.2, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("a rebuild that loaded before a concurrent create is discarded instead of hiding the new id")
+    void staleRebuildDiscardedAfterCreate() {
+
+        Configuration existing = configuration("existing", "payments", "prod");
+        Configuration created = configuration("created", "payments", "prod");
+
+        // Loader: generation, then the database read, which does not see the create yet
+        String generation = cacheService.getNamespaceIndexGeneration("payments", "prod");
+        List<Configuration> loaded = List.of(existing);
+
+        // The create commits and re-indexes while the set does not exist
+        cacheService.reindex(null, created);
+
+        cacheService.indexNamespace("payments", "prod", generation, loaded);
+        assertEquals(Optional.empty(), cacheService.getNamespaceIndex("payments", "prod"));
+
+        // The next load sees both rows and is installed
+        String next = cacheService.getNamespaceIndexGeneration("payments", "prod");
+        cacheService.indexNamespace("payments", "prod", next, List.of(existing, created));
+        assertEquals(Optional.of(Set.of(existing.getId(), created.getId())),
+                cacheService.getNamespaceIndex("payments", "prod"));
+    }
+
+    @Test
+    @DisplayName("a create re-indexed after the rebuild landed is added to the installed set")
+    void createAfterRebuildJoinsSet() {
+
+        Configuration existing = configuration("existing", "billing", "prod");
+        Configuration created = configuration("created", "billing", "prod");
+
+        String generation = cacheService.getNameIndexGeneration("created");
+        cacheService.indexName("created", generation, List.of());
+        assertEquals(Optional.of(Set.of()), cacheService.getNameIndex("created"));
+
+        String namespaceGeneration = cacheService.getNamespaceIndexGeneration("billing", "prod");
+        cacheService.indexNamespace("billing", "prod", namespaceGeneration, List.of(existing));
+        cacheService.reindex(null, created);
+
+        assertEquals(Optional.of(Set.of(existing.getId(), created.getId())),
+                cacheService.getNamespaceIndex("billing", "prod"));
+        assertEquals(Optional.of(Set.of(created.getId())), cacheService.getNameIndex("created"));
+    }
+
+    @Test
+    @DisplayName("evicting indexes after a bulk write also discards rebuilds still in flight")
+    void evictIndexesDiscardsInFlightRebuild() {
+
+        Configuration existing = configuration("existing", "portal", "dev");
+
+        String generation = cacheService.getNamespaceIndexGeneration("portal", "dev");
+        cacheService.evictIndexes(List.of(existing));
+        cacheService.indexNamespace("portal", "dev", generation, List.of());
+
+        assertEquals(Optional.empty(), cacheService.getNamespaceIndex("portal", "dev"));
+    }
+
+    @Test
+    @DisplayName("warm-up adds entries that are not cached yet")
+    void warmAllAddsMissingEntries() {
+
+        Configuration first = configuration("first", "payments", "prod");
+        Configuration second = configuration("second", "payments", "prod");
+
+        cacheService.warmAll(List.of(first, second));
+
+        assertEquals(first.getId(), cacheService.get(first.getId()).getId());
+        assertEquals(second.getId(), cacheService.get(second.getId()).getId());
+    }
+
+    @Test
+    @DisplayName("warm-up keeps a newer version cached by an update after its page was read")
+    void warmAllKeepsNewerEntry() {
+
+        Configuration read = configuration("updated", "payments", "prod");
+        Configuration updated = read.toBuilder().version(2).content("newer").build();
+
+        cacheService.put(updated);
+        cacheService.warmAll(List.of(read));
+
+        Configuration cached = cacheService.get(read.getId());
+        assertEquals(Integer.valueOf(2), cached.getVersion());
+        assertEquals("newer", cached.getContent());
+    }
+
+    @Test
+    @DisplayName("warm-up does not restore an entry evicted by a delete after its page was read")
+    void warmAllSkipsEvictedEntry() {
+
+        Configuration deleted = configuration("deleted", "payments", "prod");
+        Configuration kept = configuration("kept", "payments", "prod");
+
+        cacheService.put(deleted);
+        cacheService.evict(deleted.getId());
+        cacheService.warmAll(List.of(deleted, kept));
+
+        assertNull(cacheService.get(deleted.getId()));
+        assertEquals(kept.getId(), cacheService.get(kept.getId()).getId());
+    }
+
+    @Test
+    @DisplayName("warm-up does not restore entries evicted by a bulk delete")
+    void warmAllSkipsBulkEvictedEntries() {
+
+        Configuration first = configuration("first", "billing", "dev");
+        Configuration second = configuration("second", "billing", "dev");
+
+        cacheService.evictAll(List.of(first.getId(), second.getId()));
+        cacheService.warmAll(List.of(first, second));
+
+        assertEquals(Map.of(), cacheService.getAll(List.of(first.getId(), second.getId())));
+    }
+
+    private static Configuration configuration(String name, String application, String environment) {
+
+        return Configuration.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .application(application)
+                .environment(environment)
+                .version(1)
+                .content("content")
+                .createdAt(OffsetDateTime.now())
+                .updatedAt(OffsetDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,106 @@
+package com.company.svc.service.codec;
+
+import com.company.svc.exception.CacheCodecException;
+import com.company.svc.model.Configuration;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryConfigurationCodecTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    private final JsonConfigurationCodec jsonCodec = new JsonConfigurationCodec(objectMapper);
+
+    @ParameterizedTest
+    @EnumSource(CompressionAlgorithm.class)
+    @DisplayName("encode() then decode() restores every field, with and without compression")
+    void roundTripRestoresAllFields(CompressionAlgorithm compression) {
+
+        BinaryConfigurationCodec codec = new BinaryConfigurationCodec(compression, 64, jsonCodec);
+        Configuration configuration = configuration("key: value\n".repeat(500));
+
+        Configuration decoded = codec.decode(codec.encode(configuration));
+
+        assertEquals(configuration.getId(), decoded.getId());
+        assertEquals(configuration.getName(), decoded.getName());
+        assertEquals(configuration.getApplication(), decoded.getApplication());
+        assertEquals(configuration.getEnvironment(), decoded.getEnvironment());
+        assertEquals(configuration.getVersion(), decoded.getVersion());
+        assertEquals(configuration.getContent(), decoded.getContent());
+        assertEquals(configuration.getCreatedAt(), decoded.getCreatedAt());
+        assertEquals(configuration.getUpdatedAt(), decoded.getUpdatedAt());
+    }
+
+    @Test
+    @DisplayName("large content is compressed and the entry is much smaller than JSON")
+    void compressesLargeContent() {
+
+        BinaryConfigurationCodec codec = new BinaryConfigurationCodec(CompressionAlgorithm.LZ4, 1024, jsonCodec);
+        Configuration configuration = configuration("feature.enabled: true\n".repeat(1000));
+
+        byte[] binary = codec.encode(configuration);
+        byte[] json = jsonCodec.encode(configuration);
+
+        assertTrue(binary.length * 4 < json.length, "binary=" + binary.length + ", json=" + json.length);
+    }
+
+    @Test
+    @DisplayName("null content round-trips as null")
+    void nullContentRoundTrips() {
+
+        BinaryConfigurationCodec codec = new BinaryConfigurationCodec(CompressionAlgorithm.LZ4, 0, jsonCodec);
+
+        assertNull(codec.decode(codec.encode(configuration(null))).getContent());
+    }
+
+    @Test
+    @DisplayName("entries written in the previous JSON format are still readable")
+    void decodesLegacyJson() {
+
+        BinaryConfigurationCodec codec = new BinaryConfigurationCodec(CompressionAlgorithm.LZ4, 1024, jsonCodec);
+        Configuration configuration = configuration("legacy");
+
+        Configuration decoded = codec.decode(jsonCodec.encode(configuration));
+
+        assertEquals(configuration.getId(), decoded.getId());
+        assertEquals("legacy", decoded.getContent());
+    }
+
+    @Test
+    @DisplayName("truncated or unknown entries fail with CacheCodecException")
+    void rejectsCorruptedEntries() {
+
+        BinaryConfigurationCodec codec = new BinaryConfigurationCodec(CompressionAlgorithm.NONE, 0, jsonCodec);
+        byte[] encoded = codec.encode(configuration("content"));
+
+        assertThrows(CacheCodecException.class, () -> codec.decode(Arrays.copyOf(encoded, encoded.length - 3)));
+
+        encoded[0] = 99;
+        assertThrows(CacheCodecException.class, () -> codec.decode(encoded));
+    }
+
+    private static Configuration configuration(String content) {
+
+        return Configuration.builder()
+                .id(UUID.randomUUID())
+                .name("feature.flag")
+                .application("payments")
+                .environment("prod")
+                .version(7)
+                .content(content)
+                .createdAt(OffsetDateTime.of(2025, 1, 2, 3, 4, 5, 123_456_789, ZoneOffset.ofHours(2)))
+                .updatedAt(OffsetDateTime.now(ZoneOffset.UTC))
+                .build();
+    }
+}
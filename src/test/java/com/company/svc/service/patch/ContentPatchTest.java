@@ -0,0 +1,89 @@
+package com.company.svc.service.patch;
+
+import com.company.svc.exception.BadRequestException;
+import com.company.svc.exception.UnprocessablePatchException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentPatchTest {
+
+    private static final String CONTENT = "{\"flags\":{\"checkout\":true,\"search\":false},\"hosts\":[\"a\",\"b\"],\"timeout\":30}";
+
+    @Test
+    @DisplayName("merge patch sets, overrides and removes members (RFC 7386)")
+    void mergePatch() {
+
+        ContentPatch patch = ContentPatch.parse(ContentPatch.MERGE_PATCH_VALUE,
+                "{\"flags\":{\"search\":true,\"checkout\":null},\"timeout\":60}");
+
+        assertEquals("{\"flags\":{\"search\":true},\"hosts\":[\"a\",\"b\"],\"timeout\":60}", patch.applyTo(CONTENT));
+    }
+
+    @Test
+    @DisplayName("JSON patch applies add, remove, replace, move, copy and test in order (RFC 6902)")
+    void jsonPatch() {
+
+        ContentPatch patch = ContentPatch.parse(ContentPatch.JSON_PATCH_VALUE, """
+                [
+                  {"op": "test", "path": "/timeout", "value": 30},
+                  {"op": "replace", "path": "/flags/search", "value": true},
+                  {"op": "add", "path": "/hosts/-", "value": "c"},
+                  {"op": "add", "path": "/hosts/0", "value": "z"},
+                  {"op": "remove", "path": "/hosts/1"},
+                  {"op": "copy", "from": "/timeout", "path": "/retryTimeout"},
+                  {"op": "move", "from": "/flags/checkout", "path": "/checkout"}
+                ]
+                """);
+
+        assertEquals("{\"flags\":{\"search\":true},\"hosts\":[\"z\",\"b\",\"c\"],\"timeout\":30,"
+                + "\"retryTimeout\":30,\"checkout\":true}", patch.applyTo(CONTENT));
+    }
+
+    @Test
+    @DisplayName("applying a patch leaves its document untouched, so it can be applied again")
+    void patchDocumentIsNotShared() {
+
+        ContentPatch patch = ContentPatch.parse(ContentPatch.JSON_PATCH_VALUE, """
+                [
+                  {"op": "add", "path": "/limits", "value": {"max": 1}},
+                  {"op": "add", "path": "/limits/min", "value": 0},
+                  {"op": "replace", "path": "/hosts", "value": ["x"]},
+                  {"op": "add", "path": "/hosts/-", "value": "y"}
+                ]
+                """);
+        String document = patch.documentAsString();
+
+        assertEquals(patch.applyTo(CONTENT), patch.applyTo(CONTENT));
+        assertEquals(document, patch.documentAsString());
+    }
+
+    @Test
+    @DisplayName("JSON pointers unescape ~1 and ~0")
+    void jsonPatchEscapedPointer() {
+
+        ContentPatch patch = ContentPatch.parse(ContentPatch.JSON_PATCH_VALUE,
+                "[{\"op\":\"add\",\"path\":\"/a~1b~0c\",\"value\":1}]");
+
+        assertEquals("{\"a/b~c\":1}", patch.applyTo("{}"));
+    }
+
+    @Test
+    @DisplayName("patches that do not fit the content are unprocessable, malformed ones are bad requests")
+    void invalidPatches() {
+
+        assertThrows(UnprocessablePatchException.class, () -> ContentPatch.parse(ContentPatch.JSON_PATCH_VALUE,
+                "[{\"op\":\"test\",\"path\":\"/timeout\",\"value\":31}]").applyTo(CONTENT));
+        assertThrows(UnprocessablePatchException.class, () -> ContentPatch.parse(ContentPatch.JSON_PATCH_VALUE,
+                "[{\"op\":\"remove\",\"path\":\"/missing\"}]").applyTo(CONTENT));
+        assertThrows(UnprocessablePatchException.class, () -> ContentPatch.parse(ContentPatch.MERGE_PATCH_VALUE,
+                "{\"a\":1}").applyTo("key=value"));
+
+        assertThrows(BadRequestException.class, () -> ContentPatch.parse(ContentPatch.JSON_PATCH_VALUE,
+                "{\"op\":\"remove\"}").applyTo(CONTENT));
+        assertThrows(BadRequestException.class, () -> ContentPatch.parse(ContentPatch.JSON_PATCH_VALUE,
+                "[{\"op\":\"frobnicate\",\"path\":\"/timeout\"}]").applyTo(CONTENT));
+        assertThrows(BadRequestException.class, () -> ContentPatch.parse("application/json", "{}"));
+    }
+}
@@ -1,6 +1,9 @@
 package com.company.svc.web;
 
+import com.company.svc.event.ConfigurationEvent;
+import com.company.svc.event.EventType;
 import com.company.svc.service.ConfigurationEventPublisher;
+import com.company.svc.service.ConfigurationWatchService;
 import com.company.svc.service.RedisCacheService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -11,9 +14,22 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
 
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -32,6 +48,9 @@ class ConfigurationControllerIT {
     @MockBean
     private RedisCacheService redisCacheService;
 
+    @Autowired
+    private ConfigurationWatchService configurationWatchService;
+
     private String baseUrl() {
         return "/api/v1/configurations";
     }
@@ -94,4 +113,516 @@ class ConfigurationControllerIT {
                 .andExpect(jsonPath("$.configurations", isA(List.class)))
                 .andExpect(jsonPath("$.configurations.size()", greaterThanOrEqualTo(1)));
     }
+
+    @Test
+    @DisplayName("List configurations with limit follows keyset cursors until the last page")
+    void listConfigurationsPaged() throws Exception {
+
+        for (String name : List.of("page.a", "page.b", "page.c")) {
+            mockMvc.perform(post(baseUrl())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{" +
+                                    "\"name\":\"" + name + "\"," +
+                                    "\"application\":\"paging\"," +
+                                    "\"environment\":\"dev\"," +
+                                    "\"content\":\"c\"" +
+                                    "}"))
+                    .andExpect(status().isCreated());
+        }
+
+        String firstPage = mockMvc.perform(get(baseUrl())
+                        .param("application", "paging")
+                        .param("environment", "dev")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.configurations.size()", is(2)))
+                .andExpect(jsonPath("$.configurations[0].name", is("page.a")))
+                .andExpect(jsonPath("$.configurations[1].name", is("page.b")))
+                .andExpect(jsonPath("$.nextCursor", notNullValue()))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String cursor = firstPage.replaceAll(".*\"nextCursor\":\"([^\"]+)\".*", "$1");
+
+        mockMvc.perform(get(baseUrl())
+                        .param("application", "paging")
+                        .param("environment", "dev")
+                        .param("limit", "2")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.configurations.size()", is(1)))
+                .andExpect(jsonPath("$.configurations[0].name", is("page.c")))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("List configurations rejects a malformed cursor")
+    void listConfigurationsRejectsInvalidCursor() throws Exception {
+
+        mockMvc.perform(get(baseUrl()).param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Bulk operations are applied together and report per-item status")
+    void bulkOperationsReportPerItemStatus() throws Exception {
+
+        String created = mockMvc.perform(post(baseUrl())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{" +
+                                "\"name\":\"bulk.existing\"," +
+                                "\"application\":\"bulk\"," +
+                                "\"environment\":\"dev\"," +
+                                "\"content\":\"c1\"" +
+                                "}"))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String id = created.replaceAll(".*\"id\":\"([^\"]+)\".*", "$1");
+
+        String payload = "{\"operations\":[" +
+                "{\"action\":\"CREATE\",\"name\":\"bulk.new\",\"application\":\"bulk\",\"environment\":\"dev\",\"content\":\"c\"}," +
+                "{\"action\":\"CREATE\",\"name\":\"bulk.invalid\",\"application\":\"bulk\",\"environment\":\"dev\"}," +
+                "{\"action\":\"UPDATE\",\"id\":\"" + id + "\",\"name\":\"bulk.existing\",\"application\":\"bulk\",\"environment\":\"dev\",\"content\":\"c2\"}," +
+                "{\"action\":\"DELETE\",\"id\":\"" + UUID.randomUUID() + "\"}" +
+                "]}";
+
+        mockMvc.perform(post(baseUrl() + "/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded", is(2)))
+                .andExpect(jsonPath("$.failed", is(2)))
+                .andExpect(jsonPath("$.results[0].status", is(201)))
+                .andExpect(jsonPath("$.results[0].id", notNullValue()))
+                .andExpect(jsonPath("$.results[1].status", is(400)))
+                .andExpect(jsonPath("$.results[2].status", is(200)))
+                .andExpect(jsonPath("$.results[2].configuration.version", is(2)))
+                .andExpect(jsonPath("$.results[3].status", is(404)));
+
+        mockMvc.perform(get(baseUrl() + "/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", is("c2")));
+    }
+
+    @Test
+    @DisplayName("Bulk items are checked for invalid updates, key clashes and stale versions")
+    void bulkOperationsRejectConflictingItems() throws Exception {
+
+        String created = mockMvc.perform(post(baseUrl())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{" +
+                                "\"name\":\"bulk-check.existing\"," +
+                                "\"application\":\"bulk-check\"," +
+                                "\"environment\":\"dev\"," +
+                                "\"content\":\"c1\"" +
+                                "}"))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String id = created.replaceAll(".*\"id\":\"([^\"]+)\".*", "$1");
+
+        String payload = "{\"operations\":[" +
+                "{\"action\":\"UPDATE\",\"id\":\"" + id + "\",\"name\":\"bulk-check.existing\",\"application\":\"bulk-check\",\"environment\":\"dev\"}," +
+                "{\"action\":\"CREATE\",\"name\":\"bulk-check.existing\",\"application\":\"bulk-check\",\"environment\":\"dev\",\"content\":\"c\"}," +
+                "{\"action\":\"CREATE\",\"name\":\"bulk-check.new\",\"application\":\"bulk-check\",\"environment\":\"dev\",\"content\":\"c\"}," +
+                "{\"action\":\"CREATE\",\"name\":\"bulk-check.new\",\"application\":\"bulk-check\",\"environment\":\"dev\",\"content\":\"c\"}" +
+                "]}";
+
+        mockMvc.perform(post(baseUrl() + "/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded", is(1)))
+                .andExpect(jsonPath("$.failed", is(3)))
+                .andExpect(jsonPath("$.results[0].status", is(400)))
+                .andExpect(jsonPath("$.results[1].status", is(409)))
+                .andExpect(jsonPath("$.results[2].status", is(201)))
+                .andExpect(jsonPath("$.results[3].status", is(409)));
+
+        mockMvc.perform(post(baseUrl() + "/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operations\":[{\"action\":\"DELETE\",\"id\":\"" + id + "\",\"version\":2}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].status", is(412)));
+
+        mockMvc.perform(post(baseUrl() + "/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operations\":[{\"action\":\"DELETE\",\"id\":\"" + id + "\",\"version\":1}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].status", is(204)));
+
+        mockMvc.perform(get(baseUrl() + "/" + id))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Two concurrent creates of the same key yield one 201 and one 409")
+    void concurrentCreatesOfSameKey() throws Exception {
+
+        String payload = "{" +
+                "\"name\":\"race.key\"," +
+                "\"application\":\"race\"," +
+                "\"environment\":\"dev\"," +
+                "\"content\":\"c\"" +
+                "}";
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                statuses.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(post(baseUrl())
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(payload))
+                            .andReturn()
+                            .getResponse()
+                            .getStatus();
+                }));
+            }
+            start.countDown();
+
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> status : statuses) {
+                results.add(status.get(30, TimeUnit.SECONDS));
+            }
+            assertThat(results, containsInAnyOrder(201, 409));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        mockMvc.perform(get(baseUrl()).param("application", "race").param("environment", "dev"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.configurations.size()", is(1)));
+    }
+
+    @Test
+    @DisplayName("Batch get returns found configurations and lists unknown ids")
+    void batchGetConfigurations() throws Exception {
+
+        String created = mockMvc.perform(post(baseUrl())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{" +
+                                "\"name\":\"batch.existing\"," +
+                                "\"application\":\"batch\"," +
+                                "\"environment\":\"dev\"," +
+                                "\"content\":\"c1\"" +
+                                "}"))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String id = created.replaceAll(".*\"id\":\"([^\"]+)\".*", "$1");
+        String unknown = UUID.randomUUID().toString();
+
+        mockMvc.perform(post(baseUrl() + "/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[\"" + id + "\",\"" + unknown + "\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.configurations[*].id", contains(id)))
+                .andExpect(jsonPath("$.notFound", contains(unknown)));
+    }
+
+    @Test
+    @DisplayName("Batch get rejects a null id with 400")
+    void batchGetRejectsNullId() throws Exception {
+
+        mockMvc.perform(post(baseUrl() + "/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[null]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.messages", contains("Ids must not be null.")));
+
+        mockMvc.perform(post(baseUrl() + "/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[\"" + UUID.randomUUID() + "\",null]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Writes honour If-Match and return the new ETag")
+    void conditionalWrites() throws Exception {
+
+        String created = mockMvc.perform(post(baseUrl())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{" +
+                                "\"name\":\"if-match.config\"," +
+                                "\"application\":\"if-match\"," +
+                                "\"environment\":\"dev\"," +
+                                "\"content\":\"c1\"" +
+                                "}"))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String id = created.replaceAll(".*\"id\":\"([^\"]+)\".*", "$1");
+        String v1 = "\"" + id + "-1\"";
+
+        mockMvc.perform(patch(baseUrl() + "/" + id)
+                        .header("If-Match", v1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\":\"c2\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + id + "-2.json\""))
+                .andExpect(jsonPath("$.version", is(2)));
+
+        mockMvc.perform(put(baseUrl() + "/" + id)
+                        .header("If-Match", v1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{" +
+                                "\"name\":\"if-match.config\"," +
+                                "\"application\":\"if-match\"," +
+                                "\"environment\":\"dev\"," +
+                                "\"content\":\"lost update\"" +
+                                "}"))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(delete(baseUrl() + "/" + id).header("If-Match", "\"" + UUID.randomUUID() + "-2\""))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get(baseUrl() + "/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", is("c2")));
+
+        mockMvc.perform(delete(baseUrl() + "/" + id).header("If-Match", "\"" + id + "-2\""))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @DisplayName("Namespace snapshot is served pre-compressed and answers 304 for its ETag")
+    void namespaceSnapshot() throws Exception {
+
+        mockMvc.perform(post(baseUrl())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{" +
+                                "\"name\":\"snapshot.config\"," +
+                                "\"application\":\"snapshot\"," +
+                                "\"environment\":\"prod\"," +
+                                "\"content\":\"c1\"" +
+                                "}"))
+                .andExpect(status().isCreated());
+
+        String eTag = mockMvc.perform(get(baseUrl() + "/snapshot")
+                        .param("application", "snapshot")
+                        .param("environment", "prod"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(jsonPath("$.configurations.size()", is(1)))
+                .andExpect(jsonPath("$.configurations[0].name", is("snapshot.config")))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        byte[] compressed = mockMvc.perform(get(baseUrl() + "/snapshot")
+                        .param("application", "snapshot")
+                        .param("environment", "prod")
+                        .header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("ETag", eTag.replace(".json\"", ".json+gzip\"")))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8), containsString("snapshot.config"));
+        }
+
+        mockMvc.perform(get(baseUrl() + "/snapshot")
+                        .param("application", "snapshot")
+                        .param("environment", "prod")
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get(baseUrl() + "/snapshot")
+                        .param("application", "snapshot")
+                        .param("environment", "empty"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.configurations.size()", is(0)));
+    }
+
+    @Test
+    @DisplayName("Get configuration honours If-None-Match and returns 304 until the version changes")
+    void getConfigurationConditional() throws Exception {
+
+        String created = mockMvc.perform(post(baseUrl())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{" +
+                                "\"name\":\"etag.config\"," +
+                                "\"application\":\"etag\"," +
+                                "\"environment\":\"dev\"," +
+                                "\"content\":\"c1\"" +
+                                "}"))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String id = created.replaceAll(".*\"id\":\"([^\"]+)\".*", "$1");
+
+        String eTag = mockMvc.perform(get(baseUrl() + "/" + id))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + id + "-1.json\""))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        mockMvc.perform(get(baseUrl() + "/" + id).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        String listETag = mockMvc.perform(get(baseUrl())
+                        .param("application", "etag")
+                        .param("environment", "dev"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        mockMvc.perform(get(baseUrl())
+                        .param("application", "etag")
+                        .param("environment", "dev")
+                        .header("If-None-Match", listETag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(patch(baseUrl() + "/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\":\"c2\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get(baseUrl() + "/" + id).header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + id + "-2.json\""))
+                .andExpect(jsonPath("$.content", is("c2")));
+
+        mockMvc.perform(get(baseUrl())
+                        .param("application", "etag")
+                        .param("environment", "dev")
+                        .header("If-None-Match", listETag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("ETags name the representation: media type and content coding")
+    void representationETags() throws Exception {
+
+        String created = mockMvc.perform(post(baseUrl())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{" +
+                                "\"name\":\"representation.config\"," +
+                                "\"application\":\"representation\"," +
+                                "\"environment\":\"dev\"," +
+                                "\"content\":\"c1\"" +
+                                "}"))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String id = created.replaceAll(".*\"id\":\"([^\"]+)\".*", "$1");
+        String cborGzip = "\"" + id + "-1.cbor+gzip\"";
+
+        byte[] compressed = mockMvc.perform(get(baseUrl() + "/" + id)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("ETag", cborGzip))
+                .andExpect(header().stringValues("Vary", hasItem("Accept, Accept-Encoding")))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8), containsString("representation.config"));
+        }
+
+        mockMvc.perform(get(baseUrl() + "/" + id)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header("Accept-Encoding", "gzip")
+                        .header("If-None-Match", cborGzip))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", cborGzip));
+
+        // Another representation of the same version is not what the client has
+        mockMvc.perform(get(baseUrl() + "/" + id).header("If-None-Match", cborGzip))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().string("ETag", "\"" + id + "-1.json\""));
+
+        // If-Match compares strongly, a weak tag never matches
+        mockMvc.perform(patch(baseUrl() + "/" + id)
+                        .header("If-Match", "W/" + cborGzip)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\":\"c2\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+        // Any strong representation tag pins the version for a write
+        mockMvc.perform(patch(baseUrl() + "/" + id)
+                        .header("If-Match", cborGzip)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\":\"c2\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + id + "-2.json\""));
+
+        mockMvc.perform(patch(baseUrl() + "/" + id)
+                        .header("If-Match", cborGzip)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\":\"c3\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    @DisplayName("Watch streams matching change events with resume tokens as SSE ids")
+    void watchStreamsMatchingEvents() throws Exception {
+
+        MvcResult result = mockMvc.perform(get(baseUrl() + "/watch")
+                        .param("application", "watched")
+                        .param("environment", "dev"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        configurationWatchService.dispatch(event("other", "watch.ignored"), 0, 7);
+        configurationWatchService.dispatch(event("watched", "watch.delivered"), 0, 8);
+
+        String body = awaitContent(result, "watch.delivered");
+
+        assertThat(body, containsString("id:0:8"));
+        assertThat(body, containsString("event:change"));
+        assertThat(body, not(containsString("watch.ignored")));
+    }
+
+    private ConfigurationEvent event(String application, String name) {
+
+        return ConfigurationEvent.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .application(application)
+                .environment("dev")
+                .content("c")
+                .eventType(EventType.UPDATED)
+                .timestamp(OffsetDateTime.now())
+                .build();
+    }
+
+    private String awaitContent(MvcResult result, String expected) throws Exception {
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        String body = result.getResponse().getContentAsString();
+        while (!body.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            body = result.getResponse().getContentAsString();
+        }
+
+        return body;
+    }
 }
@@ -0,0 +1,251 @@
+package com.company.svc.web;
+
+import com.company.svc.service.ReactiveCacheMisses;
+import com.company.svc.service.ReactiveConfigurationCacheService;
+import com.company.svc.service.RedisCacheService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.UUID;
+
+/**
+ * The reactive variant's endpoints, end to end over R2DBC on the in-memory H2 database, with the same expectations
+ * as {@link ConfigurationControllerIT}.
+ */
+@SpringBootTest(properties = "spring.main.web-application-type=reactive")
+@AutoConfigureWebTestClient
+@ActiveProfiles({"test", "reactive"})
+@TestPropertySource(properties =
+        "reactive.r2dbc.url=r2dbc:h2:mem:///configdb?options=MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+class ReactiveConfigurationControllerIT {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveConfigurationCacheService reactiveCacheService;
+
+    @MockBean
+    private RedisCacheService redisCacheService;
+
+    @BeforeEach
+    void setUp() {
+
+        ReactiveCacheMisses.stub(reactiveCacheService);
+    }
+
+    private String baseUrl() {
+        return "/api/v1/configurations";
+    }
+
+    @Test
+    @DisplayName("Create configuration then fetch by id")
+    void createAndGetConfiguration() {
+
+        String id = create("feature.toggle", "reactive-payments", "{\"enabled\":true}");
+
+        webTestClient.get().uri(baseUrl() + "/" + id)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"" + id + "-1.json\"")
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(id)
+                .jsonPath("$.name").isEqualTo("feature.toggle")
+                .jsonPath("$.application").isEqualTo("reactive-payments")
+                .jsonPath("$.environment").isEqualTo("dev")
+                .jsonPath("$.content").isEqualTo("{\"enabled\":true}");
+    }
+
+    @Test
+    @DisplayName("Creating an existing key is a conflict")
+    void createExistingKeyConflicts() {
+
+        create("duplicate.key", "reactive-duplicates", "c1");
+
+        webTestClient.post().uri(baseUrl())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(payload("duplicate.key", "reactive-duplicates", "c2"))
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
+
+    @Test
+    @DisplayName("Update, patch and delete, then the configuration is gone")
+    void updatePatchAndDelete() {
+
+        String id = create("crud.config", "reactive-crud", "c1");
+
+        webTestClient.put().uri(baseUrl() + "/" + id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(payload("crud.config", "reactive-crud", "c2"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.version").isEqualTo(2)
+                .jsonPath("$.content").isEqualTo("c2");
+
+        webTestClient.patch().uri(baseUrl() + "/" + id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"content\":\"c3\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.version").isEqualTo(3)
+                .jsonPath("$.name").isEqualTo("crud.config");
+
+        webTestClient.delete().uri(baseUrl() + "/" + id)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        webTestClient.get().uri(baseUrl() + "/" + id)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("Writes honour If-Match and return the new ETag")
+    void conditionalWrites() {
+
+        String id = create("if-match.config", "reactive-if-match", "c1");
+        String v1 = "\"" + id + "-1\"";
+
+        webTestClient.patch().uri(baseUrl() + "/" + id)
+                .header("If-Match", v1)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"content\":\"c2\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"" + id + "-2.json\"")
+                .expectBody().jsonPath("$.version").isEqualTo(2);
+
+        webTestClient.put().uri(baseUrl() + "/" + id)
+                .header("If-Match", v1)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(payload("if-match.config", "reactive-if-match", "lost update"))
+                .exchange()
+                .expectStatus().isEqualTo(412);
+
+        webTestClient.delete().uri(baseUrl() + "/" + id)
+                .header("If-Match", "\"" + UUID.randomUUID() + "-2\"")
+                .exchange()
+                .expectStatus().isEqualTo(412);
+
+        webTestClient.get().uri(baseUrl() + "/" + id)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.content").isEqualTo("c2");
+
+        webTestClient.delete().uri(baseUrl() + "/" + id)
+                .header("If-Match", "\"" + id + "-2\"")
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+
+    @Test
+    @DisplayName("Get configuration and collections honour If-None-Match until the version changes")
+    void conditionalGets() {
+
+        String id = create("etag.config", "reactive-etag", "c1");
+
+        String eTag = webTestClient.get().uri(baseUrl() + "/" + id)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"" + id + "-1.json\"")
+                .returnResult(String.class)
+                .getResponseHeaders()
+                .getETag();
+
+        webTestClient.get().uri(baseUrl() + "/" + id)
+                .header("If-None-Match", eTag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+
+        String listETag = webTestClient.get().uri(baseUrl() + "?application=reactive-etag&environment=dev")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists("ETag")
+                .returnResult(String.class)
+                .getResponseHeaders()
+                .getETag();
+
+        webTestClient.get().uri(baseUrl() + "?application=reactive-etag&environment=dev")
+                .header("If-None-Match", listETag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        webTestClient.patch().uri(baseUrl() + "/" + id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"content\":\"c2\"}")
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient.get().uri(baseUrl() + "/" + id)
+                .header("If-None-Match", eTag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"" + id + "-2.json\"")
+                .expectBody().jsonPath("$.content").isEqualTo("c2");
+
+        webTestClient.get().uri(baseUrl() + "?application=reactive-etag&environment=dev")
+                .header("If-None-Match", listETag)
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    @DisplayName("Batch get returns found configurations, lists unknown ids and rejects null ids")
+    void batchGetConfigurations() {
+
+        String id = create("batch.existing", "reactive-batch", "c1");
+        String unknown = UUID.randomUUID().toString();
+
+        webTestClient.post().uri(baseUrl() + "/batch-get")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"ids\":[\"" + id + "\",\"" + unknown + "\"]}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.configurations[0].id").isEqualTo(id)
+                .jsonPath("$.notFound[0]").isEqualTo(unknown);
+
+        webTestClient.post().uri(baseUrl() + "/batch-get")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"ids\":[null]}")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private String create(String name, String application, String content) {
+
+        String created = webTestClient.post().uri(baseUrl())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(payload(name, application, content))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        return created.replaceAll(".*\"id\":\"([^\"]+)\".*", "$1");
+    }
+
+    private static String payload(String name, String application, String content) {
+
+        return "{" +
+                "\"name\":\"" + name + "\"," +
+                "\"application\":\"" + application + "\"," +
+                "\"environment\":\"dev\"," +
+                "\"content\":\"" + content.replace("\"", "\\\"") + "\"" +
+                "}";
+    }
+}